@@ -28,6 +28,7 @@ import java.util.Map;
  * <li>options:
  *   <ul>
  *   <li>connect_timeout:             (optional) connection timeout in milliseconds (default: 10 sec)
+ *   <li>timeout:                     (optional) invocation timeout in milliseconds (default: 10 sec)
  *   </ul>
  * </ul>
  * <p>
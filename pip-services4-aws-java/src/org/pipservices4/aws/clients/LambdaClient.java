@@ -20,12 +20,14 @@ import org.pipservices4.components.run.IOpenable;
 import org.pipservices4.observability.count.CompositeCounters;
 import org.pipservices4.observability.log.CompositeLogger;
 import org.pipservices4.observability.trace.CompositeTracer;
+import org.pipservices4.rpc.clients.ResiliencePolicy;
 import org.pipservices4.rpc.trace.InstrumentTiming;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.lambda.model.InvokeRequest;
+import software.amazon.awssdk.services.lambda.model.InvokeResponse;
 import software.amazon.awssdk.services.lambda.model.LogType;
 
 import java.time.Duration;
@@ -54,9 +56,20 @@ import java.util.Map;
  * <li>options:
  *   <ul>
  *   <li>connect_timeout:             (optional) connection timeout in milliseconds (default: 10 sec)
+ *   <li>timeout:                     (optional) invocation timeout in milliseconds (default: 10 sec)
+ *   <li>circuit_breaker:             (optional) enables circuit breaker for the function (default: false)
+ *   <li>circuit_failure_threshold:   (optional) number of consecutive failures that opens the circuit (default: 5)
+ *   <li>circuit_reset_timeout:       (optional) time in milliseconds before an open circuit lets a trial call through (default: 30 sec)
+ *   <li>max_concurrent_calls:        (optional) maximum number of concurrent invocations or 0 for unlimited (default: 0)
+ *   <li>max_queue_time:              (optional) maximum time in milliseconds to wait for a free call slot (default: 0)
+ *   <li>adaptive_timeout:            (optional) calculates invocation timeout from observed latencies, up to the configured timeout (default: false)
+ *   <li>min_timeout:                 (optional) minimum adaptive timeout in milliseconds (default: 1 sec)
  *   </ul>
  * </ul>
  * <p>
+ * Invocations are protected by {@link ResiliencePolicy}. Calls rejected by circuit breaker or bulkhead
+ * fail with {@link ConnectionException} without calling the function.
+ * <p>
  * ### References ###
  * <ul>
  * <li>*:logger:*:*:1.0           (optional) <a href="https://pip-services4-java.github.io/pip-services4-observability-java/org/pipservices4/observability/log/ILogger.html">ILogger</a> components to pass log messages
@@ -119,6 +132,10 @@ public abstract class LambdaClient implements IOpenable, IConfigurable, IReferen
     /**
      * The invocation timeout in milliseconds.
      */
+    protected long _timeout = 10000;
+    /**
+     * The flag that indicates if the client is opened.
+     */
     protected boolean _opened = false;
 
     /**
@@ -131,6 +148,11 @@ public abstract class LambdaClient implements IOpenable, IConfigurable, IReferen
      */
     protected AwsConnectionParams _connection;
 
+    /**
+     * The circuit breaker, bulkhead and adaptive timeouts for invocations.
+     */
+    protected ResiliencePolicy _resilience = new ResiliencePolicy(_counters);
+
     /**
      * Creates a new instance of the client.
      */
@@ -149,6 +171,8 @@ public abstract class LambdaClient implements IOpenable, IConfigurable, IReferen
         _dependencyResolver.configure(config);
 
         _connectTimeout = config.getAsLongWithDefault("options.connect_timeout", _connectTimeout);
+        _timeout = config.getAsLongWithDefault("options.timeout", _timeout);
+        _resilience.configure(config);
     }
 
     /**
@@ -176,12 +200,11 @@ public abstract class LambdaClient implements IOpenable, IConfigurable, IReferen
      */
     protected InstrumentTiming instrument(IContext context, String name) {
         this._logger.trace(context, "Executing %s method", name);
-        this._counters.incrementOne(name + ".exec_count");
+        if (!this._counters.isEmpty())
+            this._counters.incrementOne(name + ".exec_count");
 
-        var counterTiming = this._counters.beginTiming(name + ".exec_time");
-        var traceTiming = this._tracer.beginTrace(context, name, null);
         return new InstrumentTiming(context, name, "exec",
-                this._logger, this._counters, counterTiming, traceTiming);
+                this._logger, this._counters, this._tracer);
     }
 
     /**
@@ -271,9 +294,8 @@ public abstract class LambdaClient implements IOpenable, IConfigurable, IReferen
             throw new RuntimeException(e);
         }
 
+        var data = invokeFunction(request, context);
         try {
-            var data = _client.invoke(request);
-
             var payload = data.payload().asUtf8String();
 
             if (payload != null) {
@@ -332,9 +354,8 @@ public abstract class LambdaClient implements IOpenable, IConfigurable, IReferen
             throw new RuntimeException(e);
         }
 
+        var data = invokeFunction(request, context);
         try {
-            var data = _client.invoke(request);
-
             var payload = data.payload().asUtf8String();
 
             if (payload != null) {
@@ -358,6 +379,26 @@ public abstract class LambdaClient implements IOpenable, IConfigurable, IReferen
         }
     }
 
+    private InvokeResponse invokeFunction(InvokeRequest request, IContext context) throws ApplicationException {
+        // Adaptive timeout is limited by the invocation timeout, not by the connection timeout
+        long timeout = _resilience.getTimeout(_connection.getArn(), _timeout);
+        var timedRequest = timeout != _connectTimeout
+                ? request.toBuilder().overrideConfiguration(c -> c.apiCallAttemptTimeout(Duration.ofMillis(timeout))).build()
+                : request;
+
+        return _resilience.execute(_connection.getArn(), () -> {
+            try {
+                return _client.invoke(timedRequest);
+            } catch (Exception ex) {
+                throw new InvocationException(
+                        ContextResolver.getTraceId(context),
+                        "CALL_FAILED",
+                        "Failed to invoke lambda function"
+                ).withCause(ex);
+            }
+        });
+    }
+
     /**
      * Calls a AWS Lambda Function action.
      *
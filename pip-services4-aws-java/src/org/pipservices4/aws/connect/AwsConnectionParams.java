@@ -216,7 +216,7 @@ public class AwsConnectionParams extends ConfigParams {
         put("arn", value);
 
         if (value != null) {
-            var tokens = value.split(":");
+            var tokens = value.split(":", -1);
             this.setPartition(tokens[1]);
             this.setService(tokens[2]);
             this.setRegion(tokens[3]);
@@ -10,6 +10,8 @@ import org.pipservices4.components.refer.IReferences;
 import org.pipservices4.components.refer.ReferenceException;
 import org.pipservices4.config.auth.CredentialParams;
 import org.pipservices4.config.auth.CredentialResolver;
+import org.pipservices4.config.connect.ConnectionParams;
+import org.pipservices4.config.connect.ConnectionResolver;
 import org.pipservices4.config.connect.IDiscovery;
 
 import java.util.ArrayList;
@@ -71,7 +73,7 @@ public class AwsConnectionResolver implements IConfigurable, IReferenceable {
     /**
      * The connection resolver.
      */
-    protected AwsConnectionResolver _connectionResolver = new AwsConnectionResolver();
+    protected ConnectionResolver _connectionResolver = new ConnectionResolver();
     /**
      * The credential resolver.
      */
@@ -116,7 +118,7 @@ public class AwsConnectionResolver implements IConfigurable, IReferenceable {
     public AwsConnectionParams resolve(IContext context) throws ApplicationException {
         var connection = new AwsConnectionParams();
 
-        AwsConnectionParams connectionParams = _connectionResolver.resolve(context);
+        ConnectionParams connectionParams = _connectionResolver.resolve(context);
         connection.append(connectionParams);
 
         CredentialParams credentialParams = _credentialResolver.lookup(context);
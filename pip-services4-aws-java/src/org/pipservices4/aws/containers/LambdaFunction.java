@@ -5,8 +5,10 @@ import org.pipservices4.commons.errors.ApplicationException;
 import org.pipservices4.commons.errors.BadRequestException;
 import org.pipservices4.commons.errors.ConfigException;
 import org.pipservices4.commons.errors.UnknownException;
+import org.pipservices4.commons.convert.BooleanConverter;
 import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.components.context.Context;
+import org.pipservices4.components.context.ContextInfo;
 import org.pipservices4.components.context.IContext;
 import org.pipservices4.components.refer.DependencyResolver;
 import org.pipservices4.components.refer.Descriptor;
@@ -16,13 +18,16 @@ import org.pipservices4.container.containers.Container;
 import org.pipservices4.data.validate.Schema;
 import org.pipservices4.data.validate.ValidationException;
 import org.pipservices4.observability.count.CompositeCounters;
+import org.pipservices4.observability.log.CompositeLogger;
 import org.pipservices4.observability.log.ConsoleLogger;
 import org.pipservices4.observability.trace.CompositeTracer;
 import org.pipservices4.rpc.trace.InstrumentTiming;
 import org.pipservices4.aws.controllers.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
 import java.util.function.Function;
@@ -37,6 +42,13 @@ import java.util.function.Function;
  * Container configuration for this Lambda function is stored in <code>"./config/config.yml"</code> file.
  * But this path can be overriden by <code>CONFIG_PATH</code> environment variable.
  * <p>
+ * To keep the first request fast, call {@link #init()} during the Lambda init phase,
+ * i.e. from a static initializer of the handler class. The configuration can also be set
+ * in advance with {@link #setConfig} to skip reading the file, and components can be opened
+ * in parallel by setting <code>PARALLEL_OPEN</code> environment variable to <code>true</code>.
+ * Time spent to read config, build, link and open components is recorded as
+ * <code>&lt;name&gt;.startup.&lt;step&gt;_time</code> counters.
+ * <p>
  * ### References ###
  * <p>
  * <ul>
@@ -64,6 +76,17 @@ import java.util.function.Function;
  * <p>
  *     lambda.run();
  *     console.log("MyLambdaFunction is started");
+ * <p>
+ *     class MyHandler {
+ *         static final MyLambdaFunction lambda = new MyLambdaFunction();
+ *         static {
+ *             try {
+ *                 lambda.init();
+ *             } catch (ApplicationException ex) {
+ *                 throw new ExceptionInInitializerError(ex);
+ *             }
+ *         }
+ *     }
  */
 public abstract class LambdaFunction extends Container {
     protected String _configPath = "./config/config.yml";
@@ -89,6 +112,12 @@ public abstract class LambdaFunction extends Container {
      * The map of registered actions.
      */
     protected Map<String, Function<Map<String, Object>, ?>> _actions = new HashMap<>();
+    /**
+     * The flag to open components in parallel.
+     */
+    protected boolean _parallelOpen = false;
+
+    private final Map<String, Double> _startupTimes = new LinkedHashMap<>();
 
     /**
      * Creates a new instance of this lambda function.
@@ -109,7 +138,18 @@ public abstract class LambdaFunction extends Container {
     }
 
     private ConfigParams getParameters() {
-        return ConfigParams.fromValue(System.getenv());
+        // Environment is a flat string map, so it doesn't need recursive conversion
+        return new ConfigParams(System.getenv());
+    }
+
+    private boolean isParallelOpen() {
+        String value = System.getenv("PARALLEL_OPEN");
+        return value != null && !value.isEmpty()
+                ? BooleanConverter.toBoolean(value) : this._parallelOpen;
+    }
+
+    private static double elapsed(long start) {
+        return (System.nanoTime() - start) / 1000000.0;
     }
 
     private void captureErrors(IContext context) {
@@ -160,16 +200,84 @@ public abstract class LambdaFunction extends Container {
         this.register();
     }
 
+    /**
+     * Gets time in milliseconds spent on each startup step:
+     * config, build, link, open and total.
+     *
+     * @return a map with startup times.
+     */
+    public Map<String, Double> getStartupTimes() {
+        return Collections.unmodifiableMap(_startupTimes);
+    }
+
     /**
      * Opens the component.
      *
      * @param context 	(optional) execution context to trace execution through call chain.
      */
+    @Override
     public void open(IContext context) throws ApplicationException {
         if (this.isOpen()) return;
 
-        super.open(context);
-        this.registerControllers();
+        long start = System.nanoTime();
+        var references = new LambdaReferences();
+        try {
+            _logger.trace(context, "Starting container.");
+
+            // Create references with configured components
+            _references = references;
+            ContextInfo existingInfo = references.getOneOptional(ContextInfo.class,
+                    new Descriptor("*", "context-info", "*", "*", "1.0"));
+            if (existingInfo == null)
+                references.put(new Descriptor("pip-services", "context-info", "default", "default", "1.0"), this._info);
+            else
+                this._info = existingInfo;
+            references.put(new Descriptor("pip-services", "factory", "container", "default", "1.0"), this._factories);
+            references.putFromConfig(_config);
+            _startupTimes.put("build", elapsed(start));
+
+            long step = System.nanoTime();
+            setReferences(references);
+            _info = (ContextInfo) references.getOneRequired(new Descriptor("*", "context-info", "*", "*", "*"));
+            references.link(context);
+            _startupTimes.put("link", elapsed(step));
+
+            step = System.nanoTime();
+            references.run(context, isParallelOpen());
+            _logger = new CompositeLogger(references);
+            this.registerControllers();
+            _startupTimes.put("open", elapsed(step));
+
+            _startupTimes.put("total", _startupTimes.getOrDefault("config", 0.0) + elapsed(start));
+            for (var entry : _startupTimes.entrySet())
+                _counters.last(_info.getName() + ".startup." + entry.getKey() + "_time", entry.getValue().floatValue());
+
+            _logger.info(context, "Container %s started in %.1f ms.", _info.getName(), _startupTimes.get("total"));
+        } catch (Exception ex) {
+            _references = null;
+            _logger.error(context, ex, "Failed to start container");
+            throw ex;
+        }
+    }
+
+    /**
+     * Initializes this lambda function: loads container configuration
+     * unless it was set before, instantiates and opens components.
+     * Unlike {@link #run()} it returns once the function is ready to handle calls,
+     * so it can be called during the Lambda init phase.
+     */
+    public synchronized void init() throws ApplicationException {
+        if (this.isOpen()) return;
+
+        IContext context = Context.fromTraceId(_info.getName());
+        if (this._config == null) {
+            long start = System.nanoTime();
+            readConfigFromFile(context, getConfigPath(), getParameters());
+            _startupTimes.put("config", elapsed(start));
+        }
+
+        captureErrors(context);
+        open(context);
     }
 
     /**
@@ -184,12 +292,11 @@ public abstract class LambdaFunction extends Container {
      */
     protected InstrumentTiming instrument(IContext context, String name) {
         this._logger.trace(context, "Executing %s method", name);
-        this._counters.incrementOne(name + ".exec_count");
+        if (!this._counters.isEmpty())
+            this._counters.incrementOne(name + ".exec_count");
 
-        var counterTiming = this._counters.beginTiming(name + ".exec_time");
-        var traceTiming = this._tracer.beginTrace(context, name, null);
         return new InstrumentTiming(context, name, "exec",
-                this._logger, this._counters, counterTiming, traceTiming);
+                this._logger, this._counters, this._tracer);
     }
 
     /**
@@ -200,12 +307,7 @@ public abstract class LambdaFunction extends Container {
      */
     public void run() throws ApplicationException {
         IContext context = Context.fromTraceId(_info.getName());
-        String path = getConfigPath();
-        ConfigParams parameters = getParameters();
-        readConfigFromFile(context, path, parameters);
-
-        captureErrors(context);
-        open(context);
+        init();
         captureExit(context);
         close(context);
     }
@@ -328,8 +430,8 @@ public abstract class LambdaFunction extends Container {
         if (this.isOpen()) {
             return this.execute(params);
         }
-        // Start before execute
-        run();
+        // Start before execute, unless it was initialized in advance
+        init();
         return this.execute(params);
     }
 
@@ -0,0 +1,101 @@
+package org.pipservices4.aws.containers;
+
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.components.context.IContext;
+import org.pipservices4.components.run.Closer;
+import org.pipservices4.components.run.IOpenable;
+import org.pipservices4.components.run.Opener;
+import org.pipservices4.container.refer.ContainerReferences;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Container references that expose link and open steps separately,
+ * so {@link LambdaFunction} can measure them and open components in parallel.
+ */
+class LambdaReferences extends ContainerReferences {
+    private boolean _parallelOpened = false;
+
+    /**
+     * Sets references to all components.
+     *
+     * @param context (optional) a context to trace execution through call chain.
+     * @throws ApplicationException when error occured.
+     */
+    public void link(IContext context) throws ApplicationException {
+        _linker.open(context);
+    }
+
+    /**
+     * Opens all components. When parallel is set, every component is opened
+     * in its own thread, and the call returns when all of them are opened.
+     *
+     * @param context  (optional) a context to trace execution through call chain.
+     * @param parallel true to open components in parallel.
+     * @throws ApplicationException when one of components failed to open.
+     */
+    public void run(IContext context, boolean parallel) throws ApplicationException {
+        if (!parallel) {
+            _runner.open(context);
+            return;
+        }
+
+        List<Object> components = new ArrayList<>();
+        for (Object component : getAll()) {
+            if (component instanceof IOpenable)
+                components.add(component);
+        }
+
+        if (components.size() < 2) {
+            Opener.open(context, components);
+            _parallelOpened = true;
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(components.size(), (runnable) -> {
+            Thread thread = new Thread(runnable, "pip-services-lambda-open");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture<?>[] tasks = new CompletableFuture<?>[components.size()];
+            for (int index = 0; index < components.size(); index++) {
+                Object component = components.get(index);
+                tasks[index] = CompletableFuture.runAsync(() -> {
+                    try {
+                        Opener.openOne(context, component);
+                    } catch (ApplicationException ex) {
+                        throw new CompletionException(ex);
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(tasks).join();
+            _parallelOpened = true;
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof ApplicationException)
+                throw (ApplicationException) ex.getCause();
+            throw ex;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return _parallelOpened ? _linker.isOpen() : super.isOpen();
+    }
+
+    @Override
+    public void close(IContext context) throws ApplicationException {
+        if (_parallelOpened) {
+            Closer.close(context, getAll());
+            _parallelOpened = false;
+        }
+        super.close(context);
+    }
+}
@@ -169,12 +169,11 @@ public abstract class LambdaController
      */
     protected InstrumentTiming instrument(IContext context, String name) {
         this._logger.trace(context, "Executing %s method", name);
-        this._counters.incrementOne(name + ".exec_count");
+        if (!this._counters.isEmpty())
+            this._counters.incrementOne(name + ".exec_count");
 
-        var counterTiming = this._counters.beginTiming(name + ".exec_time");
-        var traceTiming = this._tracer.beginTrace(context, name, null);
         return new InstrumentTiming(context, name, "exec",
-                this._logger, this._counters, counterTiming, traceTiming);
+                this._logger, this._counters, this._tracer);
     }
 
     /**
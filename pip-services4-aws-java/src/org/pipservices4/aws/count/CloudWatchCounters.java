@@ -2,6 +2,7 @@ package org.pipservices4.aws.count;
 
 import org.pipservices4.aws.connect.AwsConnectionParams;
 import org.pipservices4.aws.connect.AwsConnectionResolver;
+import org.pipservices4.commons.errors.InvocationException;
 import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.components.config.IConfigurable;
 import org.pipservices4.components.context.Context;
@@ -12,22 +13,28 @@ import org.pipservices4.components.run.IOpenable;
 import org.pipservices4.observability.count.*;
 import org.pipservices4.observability.log.CompositeLogger;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.AwsCredentials;
-import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.backoff.FullJitterBackoffStrategy;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
+import software.amazon.awssdk.services.cloudwatch.CloudWatchAsyncClient;
 import software.amazon.awssdk.services.cloudwatch.model.*;
 
+import java.net.URI;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Performance counters that periodically dumps counters to AWS Cloud Watch
  * Metrics.
  * <p>
+ * Counters are sent by the async client in batches of up to 1000 metrics.
+ * Several requests can be in flight at the same time. Failed requests
+ * are retried with exponential backoff and full jitter.
+ * <p>
  * ### Configuration parameters ###
  * <p>
  * <ul>
@@ -36,6 +43,7 @@ import java.util.List;
  * <li>discovery_key: (optional) a key to retrieve the connection from <a href=
  * "https://pip-services4-java.github.io/pip-services4-config-java/org/pipservices4/config/connect/IDiscovery.html">IDiscovery</a>
  * <li>region: (optional) AWS region
+ * <li>endpoint: (optional) custom endpoint URI, e.g. a local stub
  * </ul>
  * <li>credentials:
  * <ul>
@@ -50,6 +58,10 @@ import java.util.List;
  * (default: 5 mins)
  * <li>reset_timeout: timeout in milliseconds to reset the counters. 0 disables
  * the reset (default: 0)
+ * <li>connect_timeout: timeout in milliseconds for a single request attempt (default: 30 sec)
+ * <li>max_concurrency: maximum number of requests in flight (default: 4)
+ * <li>max_retries: maximum number of retries for a failed request (default: 3)
+ * <li>retry_timeout: base timeout in milliseconds between retries (default: 100)
  * </ul>
  * </ul>
  * <p>
@@ -98,8 +110,17 @@ public class CloudWatchCounters extends CachedCounters implements IReferenceable
     private boolean _opened = false;
     private String _source;
     private String _instance;
-    private CloudWatchClient _client;
+    private CloudWatchAsyncClient _client;
     private long _connectTimeout = 30000;
+    private int _maxConcurrency = 4;
+    private int _maxRetries = 3;
+    private long _retryTimeout = 100;
+    private Semaphore _requests;
+
+    /**
+     * The maximum number of metrics in a single PutMetricData request.
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
 
     /**
      * Configures component by passing configuration parameters.
@@ -114,6 +135,9 @@ public class CloudWatchCounters extends CachedCounters implements IReferenceable
         this._source = config.getAsStringWithDefault("source", this._source);
         this._instance = config.getAsStringWithDefault("instance", this._instance);
         this._connectTimeout = config.getAsLongWithDefault("options.connect_timeout", _connectTimeout);
+        this._maxConcurrency = Math.max(1, config.getAsIntegerWithDefault("options.max_concurrency", _maxConcurrency));
+        this._maxRetries = config.getAsIntegerWithDefault("options.max_retries", _maxRetries);
+        this._retryTimeout = config.getAsLongWithDefault("options.retry_timeout", _retryTimeout);
     }
 
     /**
@@ -160,13 +184,27 @@ public class CloudWatchCounters extends CachedCounters implements IReferenceable
         try {
             _connection = this._connectionResolver.resolve(context);
 
-            _client = CloudWatchClient.builder()
+            var builder = CloudWatchAsyncClient.builder()
                     .region(Region.of(this._connection.getRegion()))
-                    .overrideConfiguration(c -> c.apiCallAttemptTimeout(Duration.ofMillis(_connectTimeout)))
+                    .overrideConfiguration(c -> c
+                            .apiCallAttemptTimeout(Duration.ofMillis(_connectTimeout))
+                            .retryPolicy(RetryPolicy.builder()
+                                    .numRetries(_maxRetries)
+                                    .backoffStrategy(FullJitterBackoffStrategy.builder()
+                                            .baseDelay(Duration.ofMillis(_retryTimeout))
+                                            .maxBackoffTime(Duration.ofMillis(_retryTimeout * 100))
+                                            .build())
+                                    .build()))
                     .credentialsProvider(StaticCredentialsProvider
                             .create(AwsBasicCredentials
-                                    .create(this._connection.getAccessId(), this._connection.getAccessKey())))
-                    .build();
+                                    .create(this._connection.getAccessId(), this._connection.getAccessKey())));
+
+            var endpoint = this._connection.getAsNullableString("endpoint");
+            if (endpoint != null)
+                builder.endpointOverride(URI.create(endpoint));
+
+            _client = builder.build();
+            _requests = new Semaphore(_maxConcurrency);
             this._opened = true;
         } catch (Exception ex) {
             this._client = null;
@@ -181,8 +219,23 @@ public class CloudWatchCounters extends CachedCounters implements IReferenceable
      */
     @Override
     public void close(IContext context) {
-        if (_client != null)
+        try {
+            super.close(context);
+        } catch (InvocationException ex) {
+            this._logger.warn(context, "Failed to dump counters on close: " + ex);
+        }
+
+        if (_client != null) {
+            // Wait for requests in flight
+            try {
+                if (_requests.tryAcquire(_maxConcurrency, _connectTimeout, TimeUnit.MILLISECONDS))
+                    _requests.release(_maxConcurrency);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+
             _client.close();
+        }
 
         this._opened = false;
         this._client = null;
@@ -190,88 +243,141 @@ public class CloudWatchCounters extends CachedCounters implements IReferenceable
 
     /**
      * Saves the current counters measurements.
+     * The measurements are sent in background. When the maximum number of requests
+     * is in flight, the measurements are kept until the next save, so a slow CloudWatch
+     * doesn't block the shared flush thread. Batches that don't fit after the first
+     * one was sent are dropped.
      *
      * @param counters current counters measurements to be saves.
+     * @throws InvocationException when no measurements can be sent.
      */
     @Override
-    protected void save(List<Counter> counters) {
+    protected void save(List<Counter> counters) throws InvocationException {
         if (this._client == null)
             return;
 
-        var data = new ArrayList<MetricDatum>();
+        var dimension = this._instance != null
+                ? Dimension.builder().name("InstanceID").value(this._instance).build()
+                : null;
+
+        var batches = new ArrayList<List<MetricDatum>>();
+        var data = new ArrayList<MetricDatum>(Math.min(counters.size(), MAX_BATCH_SIZE));
 
         for (var counter : counters) {
-            data.add(this.getCounterData(counter));
-            if (data.size() >= 20) {
-                this.putMetricData(data);
-                data = new ArrayList<>();
+            var datum = this.getCounterData(counter, dimension);
+            if (datum == null)
+                continue;
+
+            data.add(datum);
+            if (data.size() >= MAX_BATCH_SIZE) {
+                batches.add(data);
+                data = new ArrayList<>(MAX_BATCH_SIZE);
             }
         }
-        if (!data.isEmpty()) {
-            this.putMetricData(data);
+        if (!data.isEmpty())
+            batches.add(data);
+
+        for (int index = 0; index < batches.size(); index++) {
+            if (this.putMetricData(batches.get(index)))
+                continue;
+
+            if (index == 0) {
+                throw new InvocationException(
+                        "cloudwatch_counters",
+                        "PUT_BUSY",
+                        "Maximum number of requests is in flight"
+                );
+            }
+
+            int dropped = batches.subList(index, batches.size()).stream().mapToInt(List::size).sum();
+            this._logger.warn(Context.fromTraceId("cloudwatch_counters"),
+                    "Dropped %d metrics because maximum number of requests is in flight", dropped);
+            return;
         }
     }
 
-    private void putMetricData(List<MetricDatum> data) {
+    private boolean putMetricData(List<MetricDatum> data) {
+        if (!_requests.tryAcquire())
+            return false;
+
+        PutMetricDataRequest request = PutMetricDataRequest.builder()
+                .namespace(_source)
+                .metricData(data).build();
+
         try {
-            PutMetricDataRequest request = PutMetricDataRequest.builder()
-                    .namespace(_source)
-                    .metricData(data).build();
-
-            _client.putMetricData(request);
-        } catch (CloudWatchException e) {
-            this._logger.error(Context.fromTraceId("cloudwatch_counters"), e, "putMetricData error");
-            throw e;
+            _client.putMetricData(request).whenComplete((response, err) -> {
+                _requests.release();
+                if (err != null) {
+                    var ex = err instanceof Exception ? (Exception) err : new Exception(err);
+                    this._logger.error(Context.fromTraceId("cloudwatch_counters"), ex, "putMetricData error");
+                }
+            });
+        } catch (Exception ex) {
+            _requests.release();
+            this._logger.error(Context.fromTraceId("cloudwatch_counters"), ex, "putMetricData error");
         }
+        return true;
     }
 
-    private MetricDatum getCounterData(Counter counter) {
-        Dimension dimension = Dimension.builder()
-                .name("InstanceID")
-                .value(this._instance)
-                .build();
-
-        MetricDatum value = MetricDatum.builder()
+    private MetricDatum getCounterData(Counter counter, Dimension dimension) {
+        var value = MetricDatum.builder()
                 .metricName(counter.getName())
-                .unit(CloudWatchUnit.NONE)
-                .timestamp(counter.getTime().toInstant())
-                .dimensions(dimension).build();
+                .unit(CloudWatchUnit.NONE);
+
+        if (dimension != null)
+            value.dimensions(dimension);
+
+        if (counter.getTime() != null)
+            value.timestamp(counter.getTime().toInstant());
 
         switch (counter.getType()) {
             case CounterType.Increment:
-                value.toBuilder()
-                        .value(counter.getCount().doubleValue())
-                        .unit(CloudWatchUnit.Count).build();
+                if (counter.getCount() == null)
+                    return null;
+                value.value(counter.getCount().doubleValue())
+                        .unit(CloudWatchUnit.Count);
                 break;
             case CounterType.Interval:
-                value.toBuilder()
-                        .statisticValues(StatisticSet.builder()
-                                .sampleCount(counter.getCount().doubleValue())
-                                .maximum(counter.getMax().doubleValue())
-                                .minimum(counter.getMin().doubleValue())
-                                .sum(counter.getCount().doubleValue() * counter.getAverage().doubleValue())
-                                .build())
-                        .unit(CloudWatchUnit.Milliseconds).build();
+                var intervalStatistics = getStatisticSet(counter);
+                if (intervalStatistics == null)
+                    return null;
+                value.statisticValues(intervalStatistics)
+                        .unit(CloudWatchUnit.Milliseconds);
                 break;
             case CounterType.Statistics:
-                value.toBuilder()
-                        .statisticValues(StatisticSet.builder()
-                                .sampleCount(counter.getCount().doubleValue())
-                                .maximum(counter.getMax().doubleValue())
-                                .minimum(counter.getMin().doubleValue())
-                                .sum(counter.getCount().doubleValue() * counter.getAverage().doubleValue())
-                                .build());
+                var statistics = getStatisticSet(counter);
+                if (statistics == null)
+                    return null;
+                value.statisticValues(statistics);
                 break;
             case CounterType.LastValue:
-                value.toBuilder()
-                        .value(counter.getLast().doubleValue());
+                if (counter.getLast() == null)
+                    return null;
+                value.value(counter.getLast().doubleValue());
                 break;
             case CounterType.Timestamp:
-                value.toBuilder()
-                        .value((double) counter.getTime().toInstant().toEpochMilli());
+                if (counter.getTime() == null)
+                    return null;
+                value.value((double) counter.getTime().toInstant().toEpochMilli());
                 break;
+            default:
+                return null;
         }
 
-        return value;
+        return value.build();
+    }
+
+    private StatisticSet getStatisticSet(Counter counter) {
+        // CloudWatch requires a complete set with at least one sample
+        if (counter.getCount() == null || counter.getCount() <= 0
+                || counter.getMin() == null || counter.getMax() == null || counter.getAverage() == null)
+            return null;
+
+        return StatisticSet.builder()
+                .sampleCount(counter.getCount().doubleValue())
+                .maximum(counter.getMax().doubleValue())
+                .minimum(counter.getMin().doubleValue())
+                .sum(counter.getCount().doubleValue() * counter.getAverage().doubleValue())
+                .build();
     }
 }
@@ -19,20 +19,36 @@ import org.pipservices4.observability.log.CompositeLogger;
 import org.pipservices4.observability.log.LogLevel;
 import org.pipservices4.observability.log.LogMessage;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.backoff.FullJitterBackoffStrategy;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
-import software.amazon.awssdk.services.cloudwatch.model.CloudWatchException;
-import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
 import software.amazon.awssdk.services.cloudwatchlogs.model.*;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Logger that writes log messages to AWS Cloud Watch Log.
  * <p>
+ * Cached messages are placed into a bounded buffer and delivered by a dedicated background thread,
+ * so a slow or unavailable service never blocks the threads that write log messages.
+ * Messages saved together stay together in the buffer, so the thread never sends a part of them
+ * while the rest is still being added.
+ * The thread sorts events by timestamp, packs them into PutLogEvents requests within
+ * the service limits and sends several requests at once on an async client.
+ * When the buffer is full, new messages are dropped and counted in {@link #getDroppedCount()}.
+ * <p>
  * ### Configuration parameters ###
  *
  * <ul>
@@ -42,6 +58,7 @@ import java.util.*;
  * <ul>
  *     <li>discovery_key:               (optional) a key to retrieve the connection from <a href="https://pip-services4-java.github.io/pip-services4-config-java/org/pipservices4/config/connect/IDiscovery.html">IDiscovery</a>
  *     <li>region:                      (optional) AWS region
+ *     <li>endpoint:                    (optional) custom service endpoint, i.e. for a local stand-in
  * <ul/>
  * <li>credentials:
  * <ul>
@@ -51,8 +68,13 @@ import java.util.*;
  * <ul/>    
  * <li>options:
  * <ul>
- *     <li>interval:        interval in milliseconds to save current counters measurements (default: 5 mins)
- *     <li>reset_timeout:   timeout in milliseconds to reset the counters. 0 disables the reset (default: 0)
+ *     <li>interval:        interval in milliseconds to save log messages (default: 10 seconds)
+ *     <li>max_cache_size:  maximum number of messages stored in this cache (default: 100)
+ *     <li>buffer_size:     maximum number of events waiting for delivery (default: 10000)
+ *     <li>max_concurrency: maximum number of PutLogEvents requests in flight (default: 2)
+ *     <li>max_retries:     maximum number of retries for a failed request (default: 3)
+ *     <li>retry_timeout:   base timeout in milliseconds between retries (default: 100)
+ *     <li>connect_timeout: timeout in milliseconds for a single request attempt (default: 30000)
  * <ul/>
  * </ul>
  * <p>
@@ -89,16 +111,47 @@ import java.util.*;
  */
 public class CloudWatchLogger extends CachedLogger implements IReferenceable, IOpenable {
 
+    /**
+     * The maximum number of events in a single PutLogEvents request.
+     */
+    private static final int MAX_BATCH_COUNT = 10000;
+    /**
+     * The maximum size of a PutLogEvents request in bytes.
+     */
+    private static final int MAX_BATCH_SIZE = 1048576;
+    /**
+     * The number of bytes added to the size of every event.
+     */
+    private static final int EVENT_OVERHEAD = 26;
+    /**
+     * The maximum size of a single event message in bytes.
+     */
+    private static final int MAX_EVENT_SIZE = 262144 - EVENT_OVERHEAD;
+    /**
+     * The maximum time span of events in a single request.
+     */
+    private static final long MAX_BATCH_SPAN = 24 * 60 * 60 * 1000L;
+
     private AwsConnectionResolver _connectionResolver = new AwsConnectionResolver();
-    private CloudWatchLogsClient _client = null;
-    private Timer _timer;
+    private CloudWatchLogsAsyncClient _client = null;
+    private boolean _opened = false;
     private AwsConnectionParams _connection;
     private long _connectTimeout = 30000;
+    private int _bufferSize = 10000;
+    private int _maxConcurrency = 2;
+    private int _maxRetries = 3;
+    private long _retryTimeout = 100;
     private String _group = "undefined";
     private String _stream = null;
-    private String _lastToken = null;
     private final CompositeLogger _logger = new CompositeLogger();
 
+    private BlockingQueue<List<InputLogEvent>> _buffer;
+    private final AtomicInteger _bufferedEvents = new AtomicInteger();
+    private Semaphore _requests;
+    private Thread _worker;
+    private volatile boolean _running = false;
+    private final AtomicLong _droppedEvents = new AtomicLong();
+
     /**
      * Configures component by passing configuration parameters.
      *
@@ -113,6 +166,10 @@ public class CloudWatchLogger extends CachedLogger implements IReferenceable, IO
         this._group = config.getAsStringWithDefault("group", this._group);
         this._stream = config.getAsStringWithDefault("stream", this._stream);
         this._connectTimeout = config.getAsLongWithDefault("options.connect_timeout", this._connectTimeout);
+        this._bufferSize = Math.max(1, config.getAsIntegerWithDefault("options.buffer_size", this._bufferSize));
+        this._maxConcurrency = Math.max(1, config.getAsIntegerWithDefault("options.max_concurrency", this._maxConcurrency));
+        this._maxRetries = config.getAsIntegerWithDefault("options.max_retries", this._maxRetries);
+        this._retryTimeout = config.getAsLongWithDefault("options.retry_timeout", this._retryTimeout);
     }
 
     /**
@@ -148,6 +205,17 @@ public class CloudWatchLogger extends CachedLogger implements IReferenceable, IO
         super.write(level, context, ex, message);
     }
 
+    /**
+     * Gets the number of log messages dropped because the delivery buffer was full
+     * or CloudWatch rejected them after all retries.
+     *
+     * @return the number of dropped messages.
+     */
+    @Override
+    public long getDroppedCount() {
+        return super.getDroppedCount() + _droppedEvents.get();
+    }
+
     /**
      * Checks if the component is opened.
      *
@@ -155,7 +223,7 @@ public class CloudWatchLogger extends CachedLogger implements IReferenceable, IO
      */
     @Override
     public boolean isOpen() {
-        return this._timer != null;
+        return this._opened;
     }
 
     /**
@@ -168,9 +236,8 @@ public class CloudWatchLogger extends CachedLogger implements IReferenceable, IO
         if (this.isOpen())
             return;
 
-
-        var connection = this._connectionResolver.resolve(context);
-        if (connection == null) {
+        this._connection = this._connectionResolver.resolve(context);
+        if (this._connection == null) {
             throw new ConfigException(
                     ContextResolver.getTraceId(context),
                     "NO_CONNECTION",
@@ -178,71 +245,89 @@ public class CloudWatchLogger extends CachedLogger implements IReferenceable, IO
             );
         }
 
-        _client = CloudWatchLogsClient.builder()
+        var builder = CloudWatchLogsAsyncClient.builder()
                 .region(Region.of(this._connection.getRegion()))
-                .overrideConfiguration(c -> c.apiCallAttemptTimeout(Duration.ofMillis(_connectTimeout)))
+                .overrideConfiguration(c -> c
+                        .apiCallAttemptTimeout(Duration.ofMillis(_connectTimeout))
+                        .retryPolicy(RetryPolicy.builder()
+                                .numRetries(_maxRetries)
+                                .backoffStrategy(FullJitterBackoffStrategy.builder()
+                                        .baseDelay(Duration.ofMillis(_retryTimeout))
+                                        .maxBackoffTime(Duration.ofMillis(_retryTimeout * 100))
+                                        .build())
+                                .build()))
                 .credentialsProvider(StaticCredentialsProvider
                         .create(AwsBasicCredentials
-                                .create(this._connection.getAccessId(), this._connection.getAccessKey())))
-                .build();
+                                .create(this._connection.getAccessId(), this._connection.getAccessKey())));
+
+        var endpoint = this._connection.getAsNullableString("endpoint");
+        if (endpoint != null)
+            builder.endpointOverride(URI.create(endpoint));
+
+        _client = builder.build();
+
         try {
-            _client.createLogGroup(CreateLogGroupRequest.builder().logGroupName(_group).build());
-        } catch (CloudWatchLogsException ex) {
-            if (!ex.awsErrorDetails().errorCode().equals("ResourceAlreadyExistsException")) {
-                throw ex;
-            }
+            createIfMissing(() -> _client.createLogGroup(CreateLogGroupRequest.builder()
+                    .logGroupName(_group).build()).join());
+            createIfMissing(() -> _client.createLogStream(CreateLogStreamRequest.builder()
+                    .logGroupName(_group)
+                    .logStreamName(_stream).build()).join());
+        } catch (RuntimeException ex) {
+            _client.close();
+            _client = null;
+            throw ex;
         }
 
+        _buffer = new LinkedBlockingQueue<>();
+        _bufferedEvents.set(0);
+        _requests = new Semaphore(_maxConcurrency);
+        _running = true;
+        _worker = new Thread(this::deliver, "pip-services-cloudwatch-logger");
+        _worker.setDaemon(true);
+        _worker.start();
+
+        _opened = true;
+    }
+
+    private static void createIfMissing(Runnable action) {
         try {
-            _client.createLogStream(CreateLogStreamRequest.builder()
-                    .logGroupName(_group)
-                    .logStreamName(_stream).build());
-        } catch (CloudWatchLogsException ex) {
-            if (ex.awsErrorDetails().errorCode().equals("ResourceAlreadyExistsException")) {
-                try {
-                    DescribeLogStreamsRequest logStreamRequest = DescribeLogStreamsRequest.builder()
-                            .logGroupName(_group)
-                            .logStreamNamePrefix(_stream)
-                            .build();
-                    DescribeLogStreamsResponse describeLogStreamsResponse = _client.describeLogStreams(
-                            logStreamRequest
-                    );
-                    if (!describeLogStreamsResponse.logStreams().isEmpty()) {
-                        _lastToken = describeLogStreamsResponse.logStreams().get(0).uploadSequenceToken();
-                    }
-                    if (_timer == null) {
-                        _timer = new Timer();
-                        _timer.scheduleAtFixedRate(new TimerTask() {
-                            @Override
-                            public void run() {
-                                dump();
-                            }
-                        }, 0, _interval);
-                    }
-                    return;
-                } catch(Exception err) {
-                    throw err;
-                }
+            action.run();
+        } catch (CompletionException ex) {
+            if (!(ex.getCause() instanceof ResourceAlreadyExistsException)) {
+                if (ex.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) ex.getCause();
+                throw ex;
             }
-            throw ex;
         }
-        _lastToken = null;
     }
 
     /**
      * Closes component and frees used resources.
+     * It waits until the buffered events are delivered or the connection timeout expires.
      *
      * @param context 	(optional) execution context to trace execution through call chain.
      */
     @Override
     public void close(IContext context) throws InvocationException {
-        this.save(this._cache);
+        super.close(context);
+
+        if (_worker != null) {
+            _running = false;
+            try {
+                _worker.join(_connectTimeout);
+                // Wait for requests in flight
+                if (_requests.tryAcquire(_maxConcurrency, _connectTimeout, TimeUnit.MILLISECONDS))
+                    _requests.release(_maxConcurrency);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            _worker = null;
+        }
 
-        if (this._timer != null)
-            this._timer.cancel();
+        if (_client != null)
+            _client.close();
 
-        this._cache = new ArrayList<>();
-        this._timer = null;
+        this._opened = false;
         this._client = null;
     }
 
@@ -270,6 +355,8 @@ public class CloudWatchLogger extends CachedLogger implements IReferenceable, IO
 
     /**
      * Saves log messages from the cache.
+     * The messages are placed into the delivery buffer and sent in background.
+     * Messages that do not fit into the buffer are dropped.
      *
      * @param messages a list with log messages
      */
@@ -284,38 +371,118 @@ public class CloudWatchLogger extends CachedLogger implements IReferenceable, IO
             );
         }
 
-        var events = new ArrayList<InputLogEvent>();
-        for (var message : messages) {
+        // Reserve room in the buffer. Messages that don't fit are dropped
+        int accepted;
+        int buffered;
+        do {
+            buffered = _bufferedEvents.get();
+            accepted = Math.min(messages.size(), _bufferSize - buffered);
+            if (accepted <= 0) {
+                _droppedEvents.addAndGet(messages.size());
+                return;
+            }
+        } while (!_bufferedEvents.compareAndSet(buffered, buffered + accepted));
+        _droppedEvents.addAndGet(messages.size() - accepted);
+
+        var events = new ArrayList<InputLogEvent>(accepted);
+        for (var message : messages.subList(0, accepted)) {
             events.add(InputLogEvent.builder()
                     .message(formatMessageText(message))
                     .timestamp(message.getTime().toInstant().toEpochMilli())
                     .build());
         }
+        _buffer.add(events);
+    }
 
-        try {
-            DescribeLogStreamsRequest logStreamRequest = DescribeLogStreamsRequest.builder()
-                    .logGroupName(_group)
-                    .logStreamNamePrefix(_stream)
-                    .build();
-            DescribeLogStreamsResponse describeLogStreamsResponse = _client.describeLogStreams(
-                    logStreamRequest
-            );
-            if (!describeLogStreamsResponse.logStreams().isEmpty()) {
-                _lastToken = describeLogStreamsResponse.logStreams().get(0).uploadSequenceToken();
+    private void deliver() {
+        var events = new ArrayList<InputLogEvent>(MAX_BATCH_COUNT);
+        var saved = new ArrayList<List<InputLogEvent>>();
+        while (_running || !_buffer.isEmpty()) {
+            try {
+                var first = _buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+
+                saved.add(first);
+                _buffer.drainTo(saved);
+                for (var list : saved)
+                    events.addAll(list);
+                saved.clear();
+                _bufferedEvents.addAndGet(-events.size());
+
+                send(events);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception ex) {
+                _logger.error(Context.fromTraceId("cloudwatch_logger"), ex, "putLogEvents error");
+            } finally {
+                events.clear();
             }
+        }
+    }
 
-            PutLogEventsRequest putLogEventsRequest = PutLogEventsRequest.builder()
-                    .logEvents(events)
-                    .logGroupName(_group)
-                    .logStreamName(_stream)
-                    .sequenceToken(_lastToken)
-                    .build();
+    private void send(List<InputLogEvent> events) throws InterruptedException {
+        // Events in a request must be in chronological order
+        events.sort(Comparator.comparingLong(InputLogEvent::timestamp));
+
+        var batch = new ArrayList<InputLogEvent>();
+        long batchSize = 0;
+        for (var event : events) {
+            var size = event.message().getBytes(StandardCharsets.UTF_8).length;
+            if (size > MAX_EVENT_SIZE) {
+                event = event.toBuilder().message(truncate(event.message())).build();
+                size = event.message().getBytes(StandardCharsets.UTF_8).length;
+            }
+            size += EVENT_OVERHEAD;
+
+            if (!batch.isEmpty() && (batch.size() >= MAX_BATCH_COUNT
+                    || batchSize + size > MAX_BATCH_SIZE
+                    || event.timestamp() - batch.get(0).timestamp() > MAX_BATCH_SPAN)) {
+                putLogEvents(batch);
+                batch = new ArrayList<>();
+                batchSize = 0;
+            }
+
+            batch.add(event);
+            batchSize += size;
+        }
 
-            PutLogEventsResponse putLogEventsResponse = _client.putLogEvents(putLogEventsRequest);
-            _lastToken = putLogEventsResponse.nextSequenceToken();
+        if (!batch.isEmpty())
+            putLogEvents(batch);
+    }
+
+    private static String truncate(String message) {
+        // Leave room for a replacement character when a multibyte character is cut
+        var bytes = message.getBytes(StandardCharsets.UTF_8);
+        var result = new String(bytes, 0, MAX_EVENT_SIZE - 8, StandardCharsets.UTF_8);
+        while (result.getBytes(StandardCharsets.UTF_8).length > MAX_EVENT_SIZE)
+            result = result.substring(0, result.length() - 1);
+        return result;
+    }
+
+    private void putLogEvents(List<InputLogEvent> events) throws InterruptedException {
+        _requests.acquire();
+
+        PutLogEventsRequest request = PutLogEventsRequest.builder()
+                .logEvents(events)
+                .logGroupName(_group)
+                .logStreamName(_stream)
+                .build();
+
+        try {
+            _client.putLogEvents(request).whenComplete((response, err) -> {
+                _requests.release();
+                if (err != null) {
+                    _droppedEvents.addAndGet(events.size());
+                    var ex = err instanceof Exception ? (Exception) err : new Exception(err);
+                    this._logger.error(Context.fromTraceId("cloudwatch_logger"), ex, "putLogEvents error");
+                }
+            });
         } catch (Exception ex) {
-            _logger.error(Context.fromTraceId("cloudwatch_logger"), ex, "putLogEvents error");
-            throw ex;
+            _requests.release();
+            _droppedEvents.addAndGet(events.size());
+            this._logger.error(Context.fromTraceId("cloudwatch_logger"), ex, "putLogEvents error");
         }
     }
 }
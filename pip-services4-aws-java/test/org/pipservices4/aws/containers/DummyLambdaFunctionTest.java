@@ -85,4 +85,30 @@ public class DummyLambdaFunctionTest {
 
         assertNull(dummy);
     }
+
+    @Test
+    public void testParallelInit() throws ApplicationException {
+        var config = ConfigParams.fromTuples(
+                "logger.descriptor", "pip-services:logger:console:default:1.0",
+                "service.descriptor", "pip-services-dummies:service:default:default:1.0"
+        );
+
+        var function = new DummyLambdaFunction();
+        function.configure(config);
+        function._parallelOpen = true;
+        function.init();
+
+        try {
+            assertTrue(function.isOpen());
+            assertNotNull(function.act(Map.of("cmd", "get_dummies")));
+
+            var times = function.getStartupTimes();
+            assertTrue(times.containsKey("build"));
+            assertTrue(times.containsKey("link"));
+            assertTrue(times.containsKey("open"));
+            assertTrue(times.get("total") >= times.get("open"));
+        } finally {
+            function.close(null);
+        }
+    }
 }
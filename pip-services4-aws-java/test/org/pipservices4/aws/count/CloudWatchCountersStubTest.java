@@ -0,0 +1,197 @@
+package org.pipservices4.aws.count;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.commons.errors.InvocationException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.ReferenceException;
+import org.pipservices4.components.refer.References;
+import org.pipservices4.observability.log.ConsoleLogger;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link CloudWatchCounters} against a local stub of CloudWatch endpoint.
+ */
+public class CloudWatchCountersStubTest {
+    private HttpServer _server;
+    private final List<String> _requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger _failures = new AtomicInteger();
+    private volatile CountDownLatch _release;
+    private CloudWatchCounters _counters;
+
+    @Before
+    public void setup() throws IOException, ApplicationException, ReferenceException {
+        _server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        _server.createContext("/", this::handle);
+        _server.start();
+
+        _counters = new CloudWatchCounters();
+        _counters.configure(ConfigParams.fromTuples(
+                "source", "test",
+                "instance", "instance1",
+                "interval", 100000,
+                "connection.region", "us-east-1",
+                "connection.endpoint", "http://localhost:" + _server.getAddress().getPort(),
+                "credential.access_id", "test",
+                "credential.access_key", "test",
+                "options.retry_timeout", 10
+        ));
+        _counters.setReferences(References.fromTuples(
+                new Descriptor("pip-services", "logger", "console", "default", "1.0"), new ConsoleLogger()
+        ));
+        _counters.open(null);
+    }
+
+    @After
+    public void teardown() {
+        _counters.close(null);
+        _server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        var release = _release;
+        if (release != null) {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        String body = URLDecoder.decode(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+        String response;
+        int status;
+        if (_failures.getAndUpdate(v -> Math.max(0, v - 1)) > 0) {
+            status = 500;
+            response = "<ErrorResponse><Error><Type>Receiver</Type><Code>InternalFailure</Code><Message>Failure</Message></Error><RequestId>1</RequestId></ErrorResponse>";
+        } else {
+            status = 200;
+            _requests.add(body);
+            response = "<PutMetricDataResponse xmlns=\"http://monitoring.amazonaws.com/doc/2010-08-01/\"><ResponseMetadata><RequestId>1</RequestId></ResponseMetadata></PutMetricDataResponse>";
+        }
+
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/xml");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timeout waiting for condition", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static int countMetrics(String request) {
+        return request.split("\\.MetricName=", -1).length - 1;
+    }
+
+    @Test
+    public void testBatches() throws Exception {
+        for (int index = 0; index < 1500; index++)
+            _counters.incrementOne("test.counter" + index);
+        _counters.dump();
+
+        waitFor(() -> _requests.size() == 2);
+
+        int total = _requests.stream().mapToInt(CloudWatchCountersStubTest::countMetrics).sum();
+        assertEquals(1500, total);
+        assertTrue(_requests.stream().allMatch(r -> countMetrics(r) <= 1000));
+        assertTrue(_requests.get(0).contains("Action=PutMetricData"));
+        assertTrue(_requests.get(0).contains("Namespace=test"));
+        assertTrue(_requests.get(0).contains(".Unit=Count"));
+        assertTrue(_requests.get(0).contains(".Value=1.0"));
+    }
+
+    @Test
+    public void testStatisticSets() throws Exception {
+        _counters.stats("test.stats", 10);
+        _counters.stats("test.stats", 30);
+        _counters.endTiming("test.time", 5);
+        _counters.dump();
+
+        waitFor(() -> _requests.size() == 1);
+
+        String request = _requests.get(0);
+        assertTrue(request.contains(".StatisticValues.SampleCount=2.0"));
+        assertTrue(request.contains(".StatisticValues.Sum=40.0"));
+        assertTrue(request.contains(".StatisticValues.Minimum=10.0"));
+        assertTrue(request.contains(".StatisticValues.Maximum=30.0"));
+        assertTrue(request.contains(".Unit=Milliseconds"));
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+        _failures.set(2);
+        _counters.last("test.last", 123);
+        _counters.dump();
+
+        waitFor(() -> _requests.size() == 1);
+        assertTrue(_requests.get(0).contains(".Value=123.0"));
+    }
+
+    @Test
+    public void testBusyRequests() throws Exception {
+        _counters.close(null);
+        _counters = new CloudWatchCounters();
+        _counters.configure(ConfigParams.fromTuples(
+                "source", "test",
+                "interval", 100000,
+                "connection.region", "us-east-1",
+                "connection.endpoint", "http://localhost:" + _server.getAddress().getPort(),
+                "credential.access_id", "test",
+                "credential.access_key", "test",
+                "options.max_concurrency", 1
+        ));
+        _counters.open(null);
+
+        // The slow request holds the only slot, so the second batch is dropped without waiting
+        _release = new CountDownLatch(1);
+        for (int index = 0; index < 1500; index++)
+            _counters.incrementOne("test.counter" + index);
+        _counters.dump();
+
+        // Next measurements are kept until a slot is free
+        _counters.clearAll();
+        _counters.last("test.last", 123);
+        var error = assertThrows(InvocationException.class, () -> _counters.dump());
+        assertEquals("PUT_BUSY", error.getCode());
+
+        _release.countDown();
+        waitFor(() -> _requests.size() == 1);
+        assertEquals(1000, countMetrics(_requests.get(0)));
+
+        _release = null;
+        waitFor(() -> {
+            try {
+                _counters.dump();
+                return true;
+            } catch (InvocationException ex) {
+                return false;
+            }
+        });
+        waitFor(() -> _requests.size() == 2);
+        assertTrue(_requests.get(1).contains(".Value=123.0"));
+    }
+}
@@ -0,0 +1,211 @@
+package org.pipservices4.aws.log;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.observability.log.LogLevel;
+import org.pipservices4.observability.log.LogMessage;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests delivery of {@link CloudWatchLogger} against a local HTTP stand-in for CloudWatch Logs.
+ */
+public class CloudWatchLoggerStubTest {
+    private static final Pattern TIMESTAMP = Pattern.compile("\"timestamp\":(\\d+)");
+
+    private HttpServer _server;
+    private final List<String> _requests = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch _pause = new CountDownLatch(0);
+    private CloudWatchLogger _logger;
+
+    @Before
+    public void setUp() throws IOException {
+        _server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        _server.createContext("/", this::handle);
+        _server.start();
+    }
+
+    @After
+    public void tearDown() throws ApplicationException {
+        _pause.countDown();
+        if (_logger != null)
+            _logger.close(null);
+        _server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String target = exchange.getRequestHeaders().getFirst("X-Amz-Target");
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+        String response = "{}";
+        int status = 200;
+        if (target != null && target.endsWith(".CreateLogGroup")) {
+            status = 400;
+            response = "{\"__type\":\"ResourceAlreadyExistsException\",\"message\":\"The specified log group already exists\"}";
+        } else if (target != null && target.endsWith(".PutLogEvents")) {
+            try {
+                _pause.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            _requests.add(body);
+            response = "{\"nextSequenceToken\":\"1\"}";
+        }
+
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.1");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private void openLogger(Object... options) throws ApplicationException {
+        _logger = new CloudWatchLogger();
+        ConfigParams config = ConfigParams.fromTuples(
+                "group", "TestGroup",
+                "stream", "TestStream",
+                "connection.region", "us-east-1",
+                "connection.endpoint", "http://localhost:" + _server.getAddress().getPort(),
+                "credential.access_id", "test",
+                "credential.access_key", "test",
+                "options.interval", 100000,
+                "options.retry_timeout", 10
+        );
+        config.append(ConfigParams.fromTuples(options));
+        _logger.configure(config);
+        _logger.open(null);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timeout waiting for condition", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<Long> getTimestamps(String request) {
+        var result = new ArrayList<Long>();
+        var matcher = TIMESTAMP.matcher(request);
+        while (matcher.find())
+            result.add(Long.parseLong(matcher.group(1)));
+        return result;
+    }
+
+    private static List<LogMessage> createMessages(int count, ZonedDateTime start, long stepMillis) {
+        var messages = new ArrayList<LogMessage>(count);
+        for (int index = 0; index < count; index++) {
+            var message = new LogMessage(LogLevel.Info, "test", "123", null, "Message " + index);
+            message.setTime(start.plusNanos(stepMillis * index * 1000000L));
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    @Test
+    public void testSimpleLogging() throws Exception {
+        openLogger();
+
+        _logger.info(null, "Test message");
+        _logger.dump();
+
+        waitFor(() -> _requests.size() == 1);
+        assertTrue(_requests.get(0).contains("\"logGroupName\":\"TestGroup\""));
+        assertTrue(_requests.get(0).contains("\"logStreamName\":\"TestStream\""));
+        assertTrue(_requests.get(0).contains("Test message"));
+    }
+
+    @Test
+    public void testSortAndChunkByCount() throws Exception {
+        openLogger(
+                "options.buffer_size", 20000,
+                "options.max_concurrency", 1
+        );
+
+        // Messages in reverse chronological order
+        _logger.save(createMessages(12000, ZonedDateTime.now(), -1));
+
+        waitFor(() -> _requests.size() == 2);
+
+        assertEquals(10000, getTimestamps(_requests.get(0)).size());
+        assertEquals(2000, getTimestamps(_requests.get(1)).size());
+        for (var request : _requests) {
+            var timestamps = getTimestamps(request);
+            for (int index = 1; index < timestamps.size(); index++)
+                assertTrue(timestamps.get(index - 1) <= timestamps.get(index));
+        }
+        assertEquals(0, _logger.getDroppedCount());
+    }
+
+    @Test
+    public void testChunkByTimeSpan() throws Exception {
+        openLogger("options.max_concurrency", 1);
+
+        // Two messages two days apart can't be sent in the same request
+        _logger.save(createMessages(2, ZonedDateTime.now().minusDays(2), 2 * 24 * 60 * 60 * 1000L));
+
+        waitFor(() -> _requests.size() == 2);
+        assertEquals(1, getTimestamps(_requests.get(0)).size());
+        assertEquals(1, getTimestamps(_requests.get(1)).size());
+    }
+
+    @Test
+    public void testDropOnFullBuffer() throws Exception {
+        openLogger(
+                "options.buffer_size", 10,
+                "options.max_concurrency", 1
+        );
+
+        _pause = new CountDownLatch(1);
+
+        long start = System.currentTimeMillis();
+        _logger.save(createMessages(1000, ZonedDateTime.now(), 0));
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertTrue(_logger.getDroppedCount() > 0);
+
+        _pause.countDown();
+
+        long delivered = 1000 - _logger.getDroppedCount();
+        waitFor(() -> _requests.stream().mapToInt(r -> getTimestamps(r).size()).sum() == delivered);
+    }
+
+    @Test
+    public void testCloseDeliversBufferedEvents() throws Exception {
+        openLogger("options.max_concurrency", 1);
+
+        _pause = new CountDownLatch(1);
+        _logger.save(createMessages(5, ZonedDateTime.now(), 1));
+        _logger.save(createMessages(5, ZonedDateTime.now(), 1));
+
+        new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ex) {
+                // Release the stand-in anyway
+            }
+            _pause.countDown();
+        }).start();
+
+        // Close waits until the buffered events are sent
+        _logger.close(null);
+        assertEquals(10, _requests.stream().mapToInt(r -> getTimestamps(r).size()).sum());
+        assertEquals(0, _logger.getDroppedCount());
+    }
+}
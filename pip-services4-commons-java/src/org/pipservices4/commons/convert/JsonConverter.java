@@ -19,14 +19,33 @@ import com.fasterxml.jackson.databind.*;
  * </pre>
  */
 public class JsonConverter {
-    private static final ObjectMapper _mapper = new ObjectMapper();
+    private static final ObjectMapper _mapper = createMapper(null);
     private static final TypeReference<Map<String, Object>> typeRef = new TypeReference<>() {
     };
 
-    static {
-        _mapper.findAndRegisterModules();
-        // _mapper.registerModule(new JavaTimeModule());
-        _mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    /**
+     * Gets the mapper used by the converter. It registers all available modules,
+     * so java.time values are supported, and writes dates as ISO strings.
+     * The mapper is shared and must not be reconfigured. Use {@link #createMapper(JsonFactory)}
+     * to get a mapper with different features.
+     *
+     * @return the shared mapper.
+     */
+    public static ObjectMapper getMapper() {
+        return _mapper;
+    }
+
+    /**
+     * Creates a new mapper configured the same way as the mapper used by the converter.
+     *
+     * @param factory (optional) a factory of a data format like CBOR or null for JSON.
+     * @return a created mapper.
+     */
+    public static ObjectMapper createMapper(JsonFactory factory) {
+        var mapper = new ObjectMapper(factory);
+        mapper.findAndRegisterModules();
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
     }
 
     /**
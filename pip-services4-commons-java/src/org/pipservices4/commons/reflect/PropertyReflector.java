@@ -1,7 +1,10 @@
 package org.pipservices4.commons.reflect;
 
+import java.lang.invoke.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Helper class to perform property introspection and dynamic reading and writing.
@@ -12,6 +15,9 @@ import java.util.*;
  * Because all languages have different casing and case sensitivity rules,
  * this PropertyReflector treats all property names as case insensitive.
  * <p>
+ * Properties of every class are introspected only once. Their names are resolved into
+ * accessors that are cached together with the class and invoked without reflection.
+ * <p>
  * ### Example ###
  * <pre>
  * {@code
@@ -26,6 +32,13 @@ import java.util.*;
  */
 public class PropertyReflector {
 
+    private static final ClassValue<ClassProperties> _classProperties = new ClassValue<>() {
+        @Override
+        protected ClassProperties computeValue(Class<?> type) {
+            return new ClassProperties(type);
+        }
+    };
+
     private static boolean matchField(Field field, String name) {
         int mod = field.getModifiers();
         return field.getName().equalsIgnoreCase(name) && Modifier.isPublic(mod) && !Modifier.isStatic(mod);
@@ -47,6 +60,16 @@ public class PropertyReflector {
                 /* && method.getReturnType() == null */;
     }
 
+    private static boolean hasPrefix(Method method, String prefix) {
+        String name = method.getName();
+        return name.length() > prefix.length() && name.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static String toPropertyName(String methodName) {
+        String name = methodName.substring(3);
+        return name.substring(0, 1).toLowerCase() + name.substring(1);
+    }
+
     /**
      * Checks if object has a property with specified name..
      *
@@ -60,22 +83,8 @@ public class PropertyReflector {
         if (name == null)
             throw new NullPointerException("Property name cannot be null");
 
-        Class<?> objClass = obj.getClass();
-
-        // Search in fields
-        for (Field field : objClass.getFields()) {
-            if (matchField(field, name))
-                return true;
-        }
-
-        // Search in properties
-        name = "get" + name;
-        for (Method method : objClass.getMethods()) {
-            if (matchPropertyGetter(method, name))
-                return true;
-        }
-
-        return false;
+        Property property = _classProperties.get(obj.getClass()).find(name);
+        return property != null && property.readable;
     }
 
     /**
@@ -92,24 +101,13 @@ public class PropertyReflector {
         if (name == null)
             throw new NullPointerException("Property name cannot be null");
 
-        Class<?> objClass = obj.getClass();
+        Property property = _classProperties.get(obj.getClass()).find(name);
+        if (property == null)
+            return null;
 
-        // Search in fields
-        for (Field field : objClass.getFields()) {
+        for (Function<Object, Object> getter : property.getters) {
             try {
-                if (matchField(field, name))
-                    return field.get(obj);
-            } catch (Throwable t) {
-                // Ignore exceptions
-            }
-        }
-
-        // Search in properties
-        name = "get" + name;
-        for (Method method : objClass.getMethods()) {
-            try {
-                if (matchPropertyGetter(method, name))
-                    return method.invoke(obj);
+                return getter.apply(obj);
             } catch (Throwable t) {
                 // Ignore exceptions
             }
@@ -125,26 +123,7 @@ public class PropertyReflector {
      * @return a list with property names.
      */
     public static List<String> getPropertyNames(Object obj) {
-        List<String> properties = new ArrayList<>();
-
-        Class<?> objClass = obj.getClass();
-
-        // Get all properties
-        for (Field field : objClass.getFields()) {
-            if (matchField(field, field.getName()))
-                properties.add(field.getName());
-        }
-
-        // Get all properties
-        for (Method method : objClass.getMethods()) {
-            if (method.getName().startsWith("get") && matchPropertyGetter(method, method.getName())) {
-                String name = method.getName().substring(3);
-                name = name.substring(0, 1).toLowerCase() + name.substring(1);
-                properties.add(name);
-            }
-        }
-
-        return properties;
+        return new ArrayList<>(_classProperties.get(obj.getClass()).names);
     }
 
     /**
@@ -157,30 +136,11 @@ public class PropertyReflector {
     public static Map<String, Object> getProperties(Object obj) {
         Map<String, Object> map = new HashMap<>();
 
-        Class<?> objClass = obj.getClass();
-
-        // Get all fields
-        for (Field field : objClass.getFields()) {
-            try {
-                if (matchField(field, field.getName())) {
-                    String name = field.getName();
-                    Object value = field.get(obj);
-                    map.put(name, value);
-                }
-            } catch (Throwable t) {
-                // Ignore exception
-            }
-        }
-
-        // Get all properties
-        for (Method method : objClass.getMethods()) {
+        ClassProperties properties = _classProperties.get(obj.getClass());
+        for (int index = 0; index < properties.readerNames.length; index++) {
             try {
-                if (method.getName().startsWith("get") && matchPropertyGetter(method, method.getName())) {
-                    String name = method.getName().substring(3);
-                    name = name.substring(0, 1).toLowerCase() + name.substring(1);
-                    Object value = method.invoke(obj);
-                    map.put(name, value);
-                }
+                Object value = properties.readers[index].apply(obj);
+                map.put(properties.readerNames[index], value);
             } catch (Throwable t) {
                 // Ignore exception
             }
@@ -205,27 +165,15 @@ public class PropertyReflector {
         if (name == null)
             throw new NullPointerException("Property name cannot be null");
 
-        Class<?> objClass = obj.getClass();
-
-        for (Field field : objClass.getFields()) {
-            try {
-                if (matchField(field, name)) {
-                    field.set(obj, value);
-                    return;
-                }
-            } catch (Exception ex) {
-                // Ignore exception
-            }
-        }
+        Property property = _classProperties.get(obj.getClass()).find(name);
+        if (property == null)
+            return;
 
-        name = "set" + name;
-        for (Method method : objClass.getMethods()) {
+        for (BiConsumer<Object, Object> setter : property.setters) {
             try {
-                if (matchPropertySetter(method, name)) {
-                    method.invoke(obj, value);
-                    return;
-                }
-            } catch (Exception ex) {
+                setter.accept(obj, value);
+                return;
+            } catch (Throwable t) {
                 // Ignore exception
             }
         }
@@ -249,4 +197,198 @@ public class PropertyReflector {
             setProperty(obj, entry.getKey(), entry.getValue());
         }
     }
+
+    /**
+     * Accessors of a property. Public fields go first, then getter and setter methods.
+     * Inaccessible members have no accessors, but still make the property readable.
+     */
+    private static class Property {
+        private final List<Function<Object, Object>> getters = new ArrayList<>();
+        private final List<BiConsumer<Object, Object>> setters = new ArrayList<>();
+        private boolean readable = false;
+    }
+
+    /**
+     * Properties of a class resolved by their names.
+     */
+    private static class ClassProperties {
+        private final Map<String, Property> exactProperties = new HashMap<>();
+        private final Map<String, Property> properties = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private final List<String> names = new ArrayList<>();
+        private final String[] readerNames;
+        private final Function<Object, Object>[] readers;
+
+        @SuppressWarnings("unchecked")
+        private ClassProperties(Class<?> type) {
+            List<String> readerNames = new ArrayList<>();
+            List<Function<Object, Object>> readers = new ArrayList<>();
+
+            for (Field field : type.getFields()) {
+                if (!matchField(field, field.getName()))
+                    continue;
+
+                Property property = add(field.getName());
+                property.readable = true;
+                names.add(field.getName());
+
+                Function<Object, Object> getter = Accessors.createGetter(field);
+                if (getter != null) {
+                    property.getters.add(getter);
+                    readerNames.add(field.getName());
+                    readers.add(getter);
+                }
+
+                BiConsumer<Object, Object> setter = Accessors.createSetter(field);
+                if (setter != null)
+                    property.setters.add(setter);
+            }
+
+            for (Method method : type.getMethods()) {
+                if (hasPrefix(method, "get") && matchPropertyGetter(method, method.getName())) {
+                    Property property = add(method.getName().substring(3));
+                    property.readable = true;
+
+                    Function<Object, Object> getter = Accessors.createGetter(type, method);
+                    if (getter != null)
+                        property.getters.add(getter);
+
+                    if (method.getName().startsWith("get")) {
+                        String name = toPropertyName(method.getName());
+                        names.add(name);
+                        exactProperties.put(name, property);
+                        if (getter != null) {
+                            readerNames.add(name);
+                            readers.add(getter);
+                        }
+                    }
+                } else if (hasPrefix(method, "set") && matchPropertySetter(method, method.getName())) {
+                    Property property = add(method.getName().substring(3));
+                    exactProperties.put(toPropertyName(method.getName()), property);
+
+                    BiConsumer<Object, Object> setter = Accessors.createSetter(type, method);
+                    if (setter != null)
+                        property.setters.add(setter);
+                }
+            }
+
+            this.readerNames = readerNames.toArray(new String[0]);
+            this.readers = readers.toArray(new Function[0]);
+        }
+
+        private Property add(String name) {
+            Property property = properties.computeIfAbsent(name, (key) -> new Property());
+            exactProperties.put(name, property);
+            return property;
+        }
+
+        private Property find(String name) {
+            Property property = exactProperties.get(name);
+            return property != null ? property : properties.get(name);
+        }
+    }
+
+    /**
+     * Factory of property accessors.
+     * Methods are called through functions generated by LambdaMetafactory,
+     * and fields or methods that cannot be bound that way are called through method handles.
+     * Like Method.invoke, accessors are created only for public members of public classes.
+     */
+    private static class Accessors {
+        private static final MethodHandles.Lookup _lookup = MethodHandles.lookup();
+        private static final MethodType _getterType = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType _setterType = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private static Function<Object, Object> createGetter(Field field) {
+            try {
+                return toGetter(_lookup.unreflectGetter(field));
+            } catch (IllegalAccessException ex) {
+                return null;
+            }
+        }
+
+        private static BiConsumer<Object, Object> createSetter(Field field) {
+            try {
+                // Final fields fail here as well
+                return toSetter(_lookup.unreflectSetter(field));
+            } catch (IllegalAccessException ex) {
+                return null;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Function<Object, Object> createGetter(Class<?> type, Method method) {
+            MethodHandle handle;
+            try {
+                handle = _lookup.unreflect(method);
+            } catch (IllegalAccessException ex) {
+                return null;
+            }
+
+            if (method.getReturnType() != void.class) {
+                try {
+                    CallSite site = LambdaMetafactory.metafactory(
+                            MethodHandles.privateLookupIn(type, _lookup), "apply",
+                            MethodType.methodType(Function.class), _getterType, handle,
+                            MethodType.methodType(method.getReturnType(), method.getDeclaringClass()).wrap());
+                    return (Function<Object, Object>) site.getTarget().invoke();
+                } catch (Throwable ex) {
+                    // Use the method handle below
+                }
+            }
+
+            return toGetter(handle);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static BiConsumer<Object, Object> createSetter(Class<?> type, Method method) {
+            MethodHandle handle;
+            try {
+                handle = _lookup.unreflect(method);
+            } catch (IllegalAccessException ex) {
+                return null;
+            }
+
+            // Primitive values are converted by the method handle with widening, like in Method.invoke
+            Class<?> valueType = method.getParameterTypes()[0];
+            if (!valueType.isPrimitive()) {
+                try {
+                    CallSite site = LambdaMetafactory.metafactory(
+                            MethodHandles.privateLookupIn(type, _lookup), "accept",
+                            MethodType.methodType(BiConsumer.class), _setterType, handle,
+                            MethodType.methodType(void.class, method.getDeclaringClass(), valueType));
+                    return (BiConsumer<Object, Object>) site.getTarget().invoke();
+                } catch (Throwable ex) {
+                    // Use the method handle below
+                }
+            }
+
+            return toSetter(handle);
+        }
+
+        private static Function<Object, Object> toGetter(MethodHandle handle) {
+            MethodHandle getter = handle.asType(_getterType);
+            return (obj) -> {
+                try {
+                    return (Object) getter.invokeExact(obj);
+                } catch (RuntimeException | Error ex) {
+                    throw ex;
+                } catch (Throwable ex) {
+                    throw new UndeclaredThrowableException(ex);
+                }
+            };
+        }
+
+        private static BiConsumer<Object, Object> toSetter(MethodHandle handle) {
+            MethodHandle setter = handle.asType(_setterType);
+            return (obj, value) -> {
+                try {
+                    setter.invokeExact(obj, value);
+                } catch (RuntimeException | Error ex) {
+                    throw ex;
+                } catch (Throwable ex) {
+                    throw new UndeclaredThrowableException(ex);
+                }
+            };
+        }
+    }
 }
@@ -84,4 +84,15 @@ public class JsonConverterTest {
         assertEquals(222, resultElement0.get("value2"));
 	}
 
+
+	@Test
+	public void testMappers() throws Exception {
+		ZonedDateTime date = DateTimeConverter.toDateTime("1975-04-08T00:00:00.000Z");
+		assertEquals("\"1975-04-08T00:00:00Z\"", JsonConverter.getMapper().writeValueAsString(date));
+
+		// Created mappers are configured the same way, but can be changed separately
+		var mapper = JsonConverter.createMapper(null);
+		assertNotSame(JsonConverter.getMapper(), mapper);
+		assertEquals("\"1975-04-08T00:00:00Z\"", mapper.writeValueAsString(date));
+	}
 }
@@ -0,0 +1,149 @@
+package org.pipservices4.commons.reflect;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput of reading and writing object properties by their names.
+ * <p>
+ * "scan" benchmarks search fields and methods of the class and invoke them by reflection on every call,
+ * as {@link PropertyReflector} did before accessors were cached.
+ * "cached" benchmarks call {@link PropertyReflector} with accessors resolved once per class.
+ * <p>
+ * Run it with:
+ * <pre>
+ * {@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.pipservices4.commons.reflect.PropertyReflectorBenchmark
+ * }
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyReflectorBenchmark {
+
+    public static class TestObject {
+        public String id = "1";
+        private String _key = "Key 1";
+        private String _content = "Content 1";
+        private long _count = 10;
+        private boolean _active = true;
+        private String _owner = "Owner 1";
+
+        public String getKey() { return _key; }
+        public void setKey(String value) { _key = value; }
+
+        public String getContent() { return _content; }
+        public void setContent(String value) { _content = value; }
+
+        public long getCount() { return _count; }
+        public void setCount(long value) { _count = value; }
+
+        public boolean getActive() { return _active; }
+        public void setActive(boolean value) { _active = value; }
+
+        public String getOwner() { return _owner; }
+        public void setOwner(String value) { _owner = value; }
+    }
+
+    private final TestObject _obj = new TestObject();
+
+    @Benchmark
+    public Object readScan() {
+        return scanGetProperty(_obj, "content");
+    }
+
+    @Benchmark
+    public Object readCached() {
+        return PropertyReflector.getProperty(_obj, "content");
+    }
+
+    @Benchmark
+    public void writeScan() {
+        scanSetProperty(_obj, "content", "Content 2");
+    }
+
+    @Benchmark
+    public void writeCached() {
+        PropertyReflector.setProperty(_obj, "content", "Content 2");
+    }
+
+    @Benchmark
+    public Map<String, Object> readAllCached() {
+        return PropertyReflector.getProperties(_obj);
+    }
+
+    private static Object scanGetProperty(Object obj, String name) {
+        for (Field field : obj.getClass().getFields()) {
+            int mod = field.getModifiers();
+            try {
+                if (field.getName().equalsIgnoreCase(name) && Modifier.isPublic(mod) && !Modifier.isStatic(mod))
+                    return field.get(obj);
+            } catch (Throwable t) {
+                // Ignore exceptions
+            }
+        }
+
+        name = "get" + name;
+        for (Method method : obj.getClass().getMethods()) {
+            int mod = method.getModifiers();
+            try {
+                if (!method.getName().equals("getClass") && method.getName().equalsIgnoreCase(name)
+                        && Modifier.isPublic(mod) && !Modifier.isStatic(mod) && method.getParameterCount() == 0)
+                    return method.invoke(obj);
+            } catch (Throwable t) {
+                // Ignore exceptions
+            }
+        }
+
+        return null;
+    }
+
+    private static void scanSetProperty(Object obj, String name, Object value) {
+        for (Field field : obj.getClass().getFields()) {
+            int mod = field.getModifiers();
+            try {
+                if (field.getName().equalsIgnoreCase(name) && Modifier.isPublic(mod) && !Modifier.isStatic(mod)) {
+                    field.set(obj, value);
+                    return;
+                }
+            } catch (Exception ex) {
+                // Ignore exception
+            }
+        }
+
+        name = "set" + name;
+        for (Method method : obj.getClass().getMethods()) {
+            int mod = method.getModifiers();
+            try {
+                if (method.getName().equalsIgnoreCase(name) && Modifier.isPublic(mod) && !Modifier.isStatic(mod)
+                        && method.getParameterCount() == 1) {
+                    method.invoke(obj, value);
+                    return;
+                }
+            } catch (Exception ex) {
+                // Ignore exception
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PropertyReflectorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -5,6 +5,7 @@ import org.pipservices4.commons.reflect.TestClass.TestNestedClass;
 
 import static org.junit.Assert.*;
 
+import java.time.ZonedDateTime;
 import java.util.*;
 
 public class PropertyReflectorTest {
@@ -59,4 +60,56 @@ public class PropertyReflectorTest {
         assertTrue(PropertyReflector.hasProperty(obj, "PublicProp"));
         assertTrue(PropertyReflector.hasProperty(obj, "NestedProperty"));
     }
+
+	@Test
+	public void testSetProperty()
+	{
+		TestClass obj = new TestClass();
+
+		PropertyReflector.setProperty(obj, "PUBLICFIELD", "XYZ");
+		assertEquals("XYZ", obj.publicField);
+
+		ZonedDateTime time = ZonedDateTime.now().minusDays(1);
+		PropertyReflector.setProperty(obj, "publicProp", time);
+		assertEquals(time, PropertyReflector.getProperty(obj, "PUBLICPROP"));
+
+		// Values of wrong type and unknown properties are skipped
+		PropertyReflector.setProperty(obj, "publicProp", "ABC");
+		PropertyReflector.setProperty(obj, "privateProp", 123);
+		PropertyReflector.setProperty(obj, "unknownProp", 123);
+		assertEquals(time, obj.getPublicProp());
+	}
+
+	@Test
+	public void testSetPropertyConversion()
+	{
+		TestSetterClass obj = new TestSetterClass();
+
+		// Primitive values are widened like in reflection
+		PropertyReflector.setProperty(obj, "longProp", 123);
+		assertEquals(123L, obj.getLongProp());
+
+		// Overloaded setter that accepts the value is selected
+		PropertyReflector.setProperty(obj, "value", 10);
+		assertEquals("10", obj.value);
+		PropertyReflector.setProperty(obj, "value", "ABC");
+		assertEquals("ABC", obj.value);
+
+		// Final fields are not changed
+		PropertyReflector.setProperty(obj, "finalField", "XYZ");
+		assertEquals("ABC", obj.finalField);
+	}
+
+	public static class TestSetterClass
+	{
+		public final String finalField = "ABC";
+		private long _longProp;
+		private String value;
+
+		public long getLongProp() { return _longProp; }
+		public void setLongProp(long value) { _longProp = value; }
+
+		public void setValue(int value) { this.value = Integer.toString(value); }
+		public void setValue(String value) { this.value = value; }
+	}
 }
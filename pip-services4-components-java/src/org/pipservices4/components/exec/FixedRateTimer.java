@@ -45,6 +45,7 @@ public class FixedRateTimer implements IClosable {
 	private long _delay;
 	private long _interval;
 	private final Timer _timer = new Timer("pip-commons-timer", true);
+	private TimerTask _timerTask;
 	private boolean _started = false;
 	private final Object _lock = new Object();
 
@@ -147,6 +148,8 @@ public class FixedRateTimer implements IClosable {
 	public void start() {
 		synchronized (_lock) {
 			// Stop previously set timer
+			if (_timerTask != null)
+				_timerTask.cancel();
 			_timer.purge();
 
 			// Set a new timer
@@ -162,6 +165,7 @@ public class FixedRateTimer implements IClosable {
 				}
 			};
 			_timer.scheduleAtFixedRate(task, _delay, _interval);
+			_timerTask = task;
 
 			// Set started flag
 			_started = true;
@@ -176,6 +180,10 @@ public class FixedRateTimer implements IClosable {
 	public void stop() {
 		synchronized (_lock) {
 			// Stop the timer
+			if (_timerTask != null) {
+				_timerTask.cancel();
+				_timerTask = null;
+			}
 			_timer.purge();
 
 			// Unset started flag
@@ -0,0 +1,107 @@
+package org.pipservices4.components.exec;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helper class that creates executors for blocking request and message handlers.
+ * <p>
+ * Components select the executor by "options.executor" configuration parameter:
+ * <ul>
+ * <li>"pool" (default) - a fixed pool of platform threads managed by the component
+ * <li>"virtual" - a new virtual thread for every task
+ * </ul>
+ * In "virtual" mode handlers that block on I/O don't limit concurrency by the pool size.
+ * Virtual threads are available since Java 21. On older JVMs the "virtual" mode falls back
+ * to an unbounded pool of platform threads that creates a new thread when all existing ones are busy.
+ */
+public class TaskExecutors {
+    /**
+     * Executor mode with a fixed pool of platform threads.
+     */
+    public static final String POOL = "pool";
+    /**
+     * Executor mode with a virtual thread per task.
+     */
+    public static final String VIRTUAL = "virtual";
+
+    private static final Method _ofVirtual;
+    private static final Method _name;
+    private static final Method _factory;
+    private static final Method _newThreadPerTaskExecutor;
+
+    static {
+        Method ofVirtual = null, name = null, factory = null, newThreadPerTaskExecutor = null;
+        try {
+            var builderType = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builderType.getMethod("name", String.class, long.class);
+            factory = builderType.getMethod("factory");
+            newThreadPerTaskExecutor = java.util.concurrent.Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (ReflectiveOperationException ex) {
+            // Virtual threads are not supported by this JVM
+            ofVirtual = null;
+        }
+        _ofVirtual = ofVirtual;
+        _name = name;
+        _factory = factory;
+        _newThreadPerTaskExecutor = newThreadPerTaskExecutor;
+    }
+
+    /**
+     * Checks if the JVM supports virtual threads.
+     *
+     * @return <code>true</code> if virtual threads are supported and <code>false</code> otherwise.
+     */
+    public static boolean isVirtualSupported() {
+        return _ofVirtual != null;
+    }
+
+    /**
+     * Checks if the executor mode is valid.
+     *
+     * @param mode the executor mode: "pool" or "virtual".
+     * @return <code>true</code> if the mode is supported and <code>false</code> otherwise.
+     */
+    public static boolean isValidMode(String mode) {
+        return POOL.equals(mode) || VIRTUAL.equals(mode);
+    }
+
+    /**
+     * Creates an executor that runs every task on a new virtual thread.
+     * On JVMs without virtual threads it creates an unbounded pool of daemon platform threads.
+     * Either way tasks never wait in a queue for a free thread.
+     *
+     * @param name the prefix for names of created threads.
+     * @return a created executor.
+     */
+    public static ExecutorService newVirtualExecutor(String name) {
+        if (_ofVirtual != null) {
+            try {
+                var builder = _name.invoke(_ofVirtual.invoke(null), name + "-", 1L);
+                var factory = (ThreadFactory) _factory.invoke(builder);
+                return (ExecutorService) _newThreadPerTaskExecutor.invoke(null, factory);
+            } catch (ReflectiveOperationException ex) {
+                // Fall back to platform threads below
+            }
+        }
+
+        var threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                0, Integer.MAX_VALUE,
+                60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                (runnable) -> {
+                    Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+}
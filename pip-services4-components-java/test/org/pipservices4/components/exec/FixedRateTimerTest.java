@@ -5,6 +5,7 @@ import org.pipservices4.components.context.IContext;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class FixedRateTimerTest {
@@ -23,4 +24,23 @@ public class FixedRateTimerTest {
 
         assertTrue(counter.get() > 3);
     }
+
+    @Test
+    public void testStop() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+
+        FixedRateTimer timer = new FixedRateTimer(
+                (IContext context, Parameters args) -> counter.getAndIncrement(),
+                100, 0
+        );
+
+        timer.start();
+        Thread.sleep(250);
+        timer.stop();
+
+        int count = counter.get();
+        Thread.sleep(300);
+
+        assertEquals(count, counter.get());
+    }
 }
@@ -0,0 +1,55 @@
+package org.pipservices4.components.exec;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TaskExecutorsTest {
+    @Test
+    public void testValidModes() {
+        assertTrue(TaskExecutors.isValidMode("pool"));
+        assertTrue(TaskExecutors.isValidMode("virtual"));
+        assertFalse(TaskExecutors.isValidMode("fixed"));
+        assertFalse(TaskExecutors.isValidMode(null));
+    }
+
+    @Test
+    public void testBlockingTasksDontWait() throws InterruptedException {
+        var executor = TaskExecutors.newVirtualExecutor("test-executor");
+        try {
+            // All tasks block until the last one starts, so they must run at the same time
+            int tasks = 200;
+            var started = new CountDownLatch(tasks);
+            var completed = new CountDownLatch(tasks);
+            for (int index = 0; index < tasks; index++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    try {
+                        if (started.await(5, TimeUnit.SECONDS))
+                            completed.countDown();
+                    } catch (InterruptedException ex) {
+                        // The executor is shut down
+                    }
+                });
+            }
+
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testThreadNames() throws Exception {
+        var executor = TaskExecutors.newVirtualExecutor("test-executor");
+        try {
+            var name = executor.submit(() -> Thread.currentThread().getName()).get();
+            assertTrue(name.startsWith("test-executor-"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package org.pipservices4.elasticsearch.log;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import org.apache.http.HttpHost;
 
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
 import org.elasticsearch.action.admin.indices.get.GetIndexRequest;
-import org.elasticsearch.action.bulk.BulkRequest;
-import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.client.*;
 import org.elasticsearch.client.indices.CreateIndexRequest;
 
@@ -28,9 +32,17 @@ import org.pipservices4.components.context.IContext;
 
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * Logger that dumps execution logs to ElasticSearch service.
@@ -41,6 +53,13 @@ import java.util.*;
  * <p>
  * Authentication is not supported in this version.
  * <p>
+ * Cached messages are serialized directly into a bulk NDJSON request body
+ * and sent asynchronously, with a limited number of bulk requests in flight.
+ * Failed requests are retried with exponential backoff. Items rejected inside a successful
+ * bulk response with 429 or 5xx status are retried the same way, other rejected items are dropped.
+ * When ElasticSearch stays unavailable, request bodies are spilled into a local directory
+ * and sent again after the next successful request. Retries pending on close are spilled as well.
+ * <p>
  * ### Configuration parameters ###
  *
  * <pre>
@@ -61,6 +80,10 @@ import java.util.*;
  *     - reconnect:         reconnect timeout in milliseconds (default: 60 sec)
  *     - timeout:           invocation timeout in milliseconds (default: 30 sec)
  *     - max_retries:       maximum number of retries (default: 3)
+ *     - retry_timeout:     initial timeout in milliseconds between retries, doubled on every retry (default: 1 sec)
+ *     - max_concurrency:   maximum number of bulk requests in flight (default: 2)
+ *     - spill_path:        (optional) directory to store messages while ElasticSearch is unavailable
+ *     - max_spill_size:    maximum size of the spill directory in bytes (default: 100 MB)
  *     - index_message:     true to enable indexing for message object (default: false)
  *     - include_type_name: Will create using a "typed" index compatible with ElasticSearch 6.x (default: false)
  * </pre>
@@ -92,7 +115,6 @@ public class ElasticSearchLogger extends CachedLogger implements IReferenceable,
 
     private final HttpConnectionResolver _connectionResolver = new HttpConnectionResolver();
 
-    private Timer _timer;
     private String _index = "log";
     private String _dateFormat = "YYYYMMDD";
     private boolean _dailyIndex = false;
@@ -102,8 +124,37 @@ public class ElasticSearchLogger extends CachedLogger implements IReferenceable,
     private int _maxRetries = 3;
     private boolean _indexMessage = false;
     private boolean _include_type_name = false;
+    private long _retryTimeout = 1000;
+    private int _maxConcurrency = 2;
+    private String _spillPath = null;
+    private long _maxSpillSize = 100 * 1024 * 1024;
     private RestHighLevelClient _client = null;
 
+    private DateTimeFormatter _dateFormatter;
+    private long _nextIndexTime = 0;
+    private Semaphore _requests;
+    private ScheduledExecutorService _retryExecutor;
+    private final AtomicLong _spillSize = new AtomicLong();
+    private final AtomicLong _spillCounter = new AtomicLong();
+    private final AtomicBoolean _replaying = new AtomicBoolean();
+    private final Set<PendingBulk> _pending = ConcurrentHashMap.newKeySet();
+    private volatile boolean _closing = false;
+
+    private static final JsonFactory _jsonFactory = new JsonFactory();
+
+    /**
+     * Bulk request body scheduled for retry.
+     */
+    private static class PendingBulk {
+        final byte[] body;
+        final Path spillFile;
+
+        PendingBulk(byte[] body, Path spillFile) {
+            this.body = body;
+            this.spillFile = spillFile;
+        }
+    }
+
     /**
      * Configures component by passing configuration parameters.
      *
@@ -123,9 +174,16 @@ public class ElasticSearchLogger extends CachedLogger implements IReferenceable,
         this._maxRetries = config.getAsIntegerWithDefault("options.max_retries", this._maxRetries);
         this._indexMessage = config.getAsBooleanWithDefault("options.index_message", this._indexMessage);
         this._include_type_name = config.getAsBooleanWithDefault("options.include_type_name", this._include_type_name);
+        this._retryTimeout = config.getAsLongWithDefault("options.retry_timeout", this._retryTimeout);
+        this._maxConcurrency = Math.max(1, config.getAsIntegerWithDefault("options.max_concurrency", this._maxConcurrency));
+        this._spillPath = config.getAsStringWithDefault("options.spill_path", this._spillPath);
+        this._maxSpillSize = config.getAsLongWithDefault("options.max_spill_size", this._maxSpillSize);
 
         if (_dateFormat.contains("DD"))
             _dateFormat = _dateFormat.replace("DD", "dd");
+
+        this._dateFormatter = DateTimeFormatter.ofPattern(_dateFormat);
+        this._nextIndexTime = 0;
     }
 
     /**
@@ -146,7 +204,7 @@ public class ElasticSearchLogger extends CachedLogger implements IReferenceable,
      */
     @Override
     public boolean isOpen() {
-        return this._timer != null;
+        return this._client != null;
     }
 
     /**
@@ -184,14 +242,28 @@ public class ElasticSearchLogger extends CachedLogger implements IReferenceable,
 
         this.createIndexIfNeeded(context, true);
 
-        _timer = new Timer();
+        _closing = false;
+        _requests = new Semaphore(_maxConcurrency);
+        _retryExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pip-services-elasticsearch-logger");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-        _timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                dump();
+        if (_spillPath != null) {
+            try {
+                Files.createDirectories(Paths.get(_spillPath));
+                _spillSize.set(getSpillFiles().stream().mapToLong(this::getFileSize).sum());
+            } catch (IOException ex) {
+                throw new ConfigException(
+                        ContextResolver.getTraceId(context),
+                        "CANNOT_CREATE_SPILL_PATH",
+                        "Cannot create spill directory " + _spillPath
+                ).withCause(ex);
             }
-        }, 0, _interval);
+
+            this.replaySpilled();
+        }
     }
 
     /**
@@ -201,22 +273,50 @@ public class ElasticSearchLogger extends CachedLogger implements IReferenceable,
      */
     @Override
     public void close(IContext context) throws InvocationException {
-        this.save(this._cache);
+        super.close(context);
 
-        if (this._timer != null)
-            this._timer.cancel();
+        if (this._client == null)
+            return;
+
+        // Failed requests are spilled instead of retried from now on
+        _closing = true;
+        spillPending();
+
+        // Wait for bulk requests in flight
+        try {
+            if (_requests != null && _requests.tryAcquire(_maxConcurrency, _timeout, TimeUnit.MILLISECONDS))
+                _requests.release(_maxConcurrency);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (_retryExecutor != null) {
+            _retryExecutor.shutdownNow();
+            _retryExecutor = null;
+        }
+        spillPending();
+
+        try {
+            this._client.close();
+        } catch (IOException ex) {
+            // Ignore errors on close
+        }
 
-        this._cache = new ArrayList<>();
-        this._timer = null;
         this._client = null;
     }
 
     private String getCurrentIndex() {
         if (!this._dailyIndex) return this._index;
 
-        var datePattern = ZonedDateTime.now().format(DateTimeFormatter.ofPattern(_dateFormat));
+        // The index name is recalculated only when the day changes
+        long now = System.currentTimeMillis();
+        if (now >= this._nextIndexTime || this._currentIndex == null) {
+            var time = ZonedDateTime.now();
+            this._nextIndexTime = time.toLocalDate().plusDays(1).atStartOfDay(time.getZone()).toInstant().toEpochMilli();
+            return this._index + "-" + time.format(_dateFormatter);
+        }
 
-        return this._index + "-" + datePattern;
+        return this._currentIndex;
     }
 
     private void createIndexIfNeeded(IContext context, boolean force) {
@@ -295,8 +395,11 @@ public class ElasticSearchLogger extends CachedLogger implements IReferenceable,
 
     /**
      * Saves log messages from the cache.
+     * Messages are sent in background. When the maximum number of bulk requests
+     * is in flight the messages are kept in the cache until the next save.
      *
      * @param messages a list with log messages
+     * @throws InvocationException when messages cannot be sent.
      */
     @Override
     protected void save(List<LogMessage> messages) throws InvocationException {
@@ -305,29 +408,286 @@ public class ElasticSearchLogger extends CachedLogger implements IReferenceable,
 
         this.createIndexIfNeeded(Context.fromTraceId("elasticsearch_logger"), false);
 
-        var bulkRequest = new BulkRequest();
-        for (var message : messages) {
-            var req = getLogItem();
+        byte[] body = composeBulkBody(messages);
+
+        if (!_requests.tryAcquire()) {
+            throw new InvocationException(
+                    "elasticsearch_logger",
+                    "BULK_BUSY",
+                    "Maximum number of bulk requests is in flight"
+            );
+        }
+
+        sendBulk(body, 0, null);
+    }
+
+    /**
+     * Composes a bulk request body in NDJSON format with index actions for all messages.
+     *
+     * @param messages a list with log messages
+     * @return the request body.
+     * @throws InvocationException when messages cannot be serialized.
+     */
+    protected byte[] composeBulkBody(List<LogMessage> messages) throws InvocationException {
+        String action = "{\"index\":{\"_index\":\"" + _currentIndex + "\""
+                + (this._include_type_name ? ",\"_type\":\"log_message\"" : "") // ElasticSearch 6.x
+                + ",\"_id\":\"";
+
+        StringBuilder builder = new StringBuilder(messages.size() * 256);
+        try {
+            for (var message : messages) {
+                builder.append(action).append(IdGenerator.nextLong()).append("\"}}\n");
+                builder.append(JsonConverter.toJson(message)).append('\n');
+            }
+        } catch (JsonProcessingException ex) {
+            var error = new InvocationException(
+                    "elasticsearch_logger",
+                    "SERIALIZATION_FAILED",
+                    "Failed to serialize log messages"
+            );
+            error.withCause(ex);
+            throw error;
+        }
+
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void sendBulk(byte[] body, int attempt, Path spillFile) {
+        var client = this._client;
+        if (client == null) {
+            completeBulk(body, false, spillFile);
+            return;
+        }
+
+        var request = new Request("POST", "/_bulk");
+        request.setEntity(new ByteArrayEntity(body, ContentType.create("application/x-ndjson", StandardCharsets.UTF_8)));
+
+        client.getLowLevelClient().performRequestAsync(request, new ResponseListener() {
+            @Override
+            public void onSuccess(Response response) {
+                byte[] failedBody;
+                try {
+                    failedBody = selectRetryableItems(body, EntityUtils.toByteArray(response.getEntity()));
+                } catch (IOException ex) {
+                    // The response is unreadable, but the request was accepted
+                    failedBody = null;
+                }
+
+                if (failedBody == null)
+                    completeBulk(body, true, spillFile);
+                else if (attempt >= _maxRetries || !retryBulk(failedBody, attempt + 1, spillFile))
+                    completeBulk(failedBody, false, spillFile);
+            }
+
+            @Override
+            public void onFailure(Exception ex) {
+                if (!isRetryable(ex) || attempt >= _maxRetries || !retryBulk(body, attempt + 1, spillFile))
+                    completeBulk(body, false, spillFile);
+            }
+        });
+    }
+
+    private boolean isRetryable(Exception ex) {
+        if (ex instanceof ResponseException responseException) {
+            int status = responseException.getResponse().getStatusLine().getStatusCode();
+            return status == 429 || status >= 500;
+        }
+        return true;
+    }
 
+    /**
+     * Selects items of a bulk request that were rejected with 429 or 5xx status.
+     * Other rejected items are dropped because they fail the same way on retry.
+     *
+     * @param body     the bulk request body.
+     * @param response the bulk response body.
+     * @return the bulk request body with retryable items or null when there is nothing to retry.
+     * @throws IOException when the response cannot be parsed.
+     */
+    protected static byte[] selectRetryableItems(byte[] body, byte[] response) throws IOException {
+        if (response == null || response.length == 0)
+            return null;
+
+        List<Integer> statuses = null;
+        try (JsonParser parser = _jsonFactory.createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                return null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("errors".equals(field)) {
+                    // Responses without errors are not parsed any further
+                    if (value != JsonToken.VALUE_TRUE)
+                        return null;
+                } else if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+                    statuses = readItemStatuses(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        if (statuses == null)
+            return null;
+
+        // Every item takes two lines in the request body: the action and the document
+        StringBuilder builder = new StringBuilder();
+        String[] lines = new String(body, StandardCharsets.UTF_8).split("\n");
+        for (int index = 0; index < statuses.size() && index * 2 + 1 < lines.length; index++) {
+            int status = statuses.get(index);
+            if (status == 429 || status >= 500)
+                builder.append(lines[index * 2]).append('\n').append(lines[index * 2 + 1]).append('\n');
+        }
+
+        return builder.length() > 0 ? builder.toString().getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static List<Integer> readItemStatuses(JsonParser parser) throws IOException {
+        List<Integer> statuses = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            int status = 0;
+            // Each item is an object with a single action field, e.g. {"index":{"status":201,...}}
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("status".equals(field))
+                        status = parser.getIntValue();
+                    else
+                        parser.skipChildren();
+                }
+            }
+            statuses.add(status);
+        }
+        return statuses;
+    }
+
+    private boolean retryBulk(byte[] body, int attempt, Path spillFile) {
+        var executor = this._retryExecutor;
+        if (executor == null || _closing)
+            return false;
+
+        var pending = new PendingBulk(body, spillFile);
+        _pending.add(pending);
+
+        long delay = _retryTimeout << Math.min(attempt - 1, 10);
+        try {
+            executor.schedule(() -> {
+                // The retry may already be spilled by close()
+                if (_pending.remove(pending))
+                    sendBulk(body, attempt, spillFile);
+            }, delay, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            // When the bulk is already removed, close() has spilled it
+            return !_pending.remove(pending);
+        }
+    }
+
+    /**
+     * Gets the number of failed bulk requests that wait for a retry.
+     *
+     * @return the number of pending retries.
+     */
+    protected int getPendingRetries() {
+        return _pending.size();
+    }
+
+    private void spillPending() {
+        for (var pending : List.copyOf(_pending)) {
+            if (_pending.remove(pending))
+                completeBulk(pending.body, false, pending.spillFile);
+        }
+    }
+
+    private void completeBulk(byte[] body, boolean success, Path spillFile) {
+        if (spillFile != null) {
+            _replaying.set(false);
+            if (success) {
+                _spillSize.addAndGet(-getFileSize(spillFile));
+                try {
+                    Files.deleteIfExists(spillFile);
+                } catch (IOException ex) {
+                    // Skip the file. It will be sent again next time
+                }
+            }
+        } else if (!success) {
+            spill(body);
+        }
+
+        _requests.release();
+
+        if (success)
+            replaySpilled();
+    }
+
+    private void spill(byte[] body) {
+        if (_spillPath == null || _spillSize.get() + body.length > _maxSpillSize)
+            return;
+
+        String name = String.format("bulk-%013d-%06d.ndjson",
+                System.currentTimeMillis(), _spillCounter.incrementAndGet() % 1000000);
+        try {
+            Files.write(Paths.get(_spillPath, name), body);
+            _spillSize.addAndGet(body.length);
+        } catch (IOException ex) {
+            // Messages are lost when the spill directory is not writable
+        }
+    }
+
+    private void replaySpilled() {
+        if (_spillPath == null || _closing || _spillSize.get() <= 0 || !_replaying.compareAndSet(false, true))
+            return;
+
+        // Spill files are read on the retry thread to keep blocking I/O off the HTTP client threads
+        var executor = this._retryExecutor;
+        if (executor != null) {
             try {
-                req.source(JsonConverter.toMap(JsonConverter.toJson(message)));
-                bulkRequest.add(req);
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
+                executor.execute(this::sendSpilled);
+                return;
+            } catch (RejectedExecutionException ex) {
+                // The logger is closed
             }
         }
+        _replaying.set(false);
+    }
+
+    private void sendSpilled() {
+        Path file = getSpillFiles().stream().findFirst().orElse(null);
+        if (file == null || !_requests.tryAcquire()) {
+            _replaying.set(false);
+            return;
+        }
 
         try {
-            _client.bulk(bulkRequest, RequestOptions.DEFAULT);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            sendBulk(Files.readAllBytes(file), 0, file);
+        } catch (IOException ex) {
+            _replaying.set(false);
+            _requests.release();
+        }
+    }
+
+    private List<Path> getSpillFiles() {
+        try (Stream<Path> files = Files.list(Paths.get(_spillPath))) {
+            return files
+                    .filter(f -> f.getFileName().toString().endsWith(".ndjson"))
+                    .sorted()
+                    .toList();
+        } catch (IOException ex) {
+            return List.of();
         }
     }
 
-    protected IndexRequest getLogItem() {
-        if (this._include_type_name)
-            return new IndexRequest(_currentIndex, "log_message", IdGenerator.nextLong()); // ElasticSearch 6.x
-        else
-            return new IndexRequest(_currentIndex).id(IdGenerator.nextLong()); // ElasticSearch 7.x
+    private long getFileSize(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException ex) {
+            return 0;
+        }
     }
 }
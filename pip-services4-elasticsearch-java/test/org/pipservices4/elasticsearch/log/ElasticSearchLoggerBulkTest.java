@@ -0,0 +1,241 @@
+package org.pipservices4.elasticsearch.log;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.components.config.ConfigParams;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests bulk delivery of {@link ElasticSearchLogger} against a local HTTP stand-in for ElasticSearch.
+ */
+public class ElasticSearchLoggerBulkTest {
+    private HttpServer _server;
+    private final List<String> _bulks = new CopyOnWriteArrayList<>();
+    private final AtomicInteger _failures = new AtomicInteger();
+    private final AtomicInteger _attempts = new AtomicInteger();
+    private volatile int[] _itemStatuses;
+    private ElasticSearchLogger _logger;
+    private Path _spillPath;
+
+    @Before
+    public void setUp() throws IOException {
+        _server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        _server.createContext("/", this::handle);
+        _server.start();
+
+        _spillPath = Files.createTempDirectory("elasticsearch-logger");
+    }
+
+    @After
+    public void tearDown() throws IOException, ApplicationException {
+        if (_logger != null)
+            _logger.close(null);
+        _server.stop(0);
+
+        try (Stream<Path> files = Files.list(_spillPath)) {
+            for (Path file : files.toList())
+                Files.delete(file);
+        }
+        Files.delete(_spillPath);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        byte[] body = exchange.getRequestBody().readAllBytes();
+
+        exchange.getResponseHeaders().add("X-Elastic-Product", "Elasticsearch");
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+
+        if ("HEAD".equals(method)) {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+
+        String response;
+        int status = 200;
+        if ("/".equals(path)) {
+            response = "{\"name\":\"stand-in\",\"cluster_name\":\"test\",\"cluster_uuid\":\"test\","
+                    + "\"version\":{\"number\":\"7.17.3\",\"build_flavor\":\"default\",\"build_type\":\"docker\","
+                    + "\"build_hash\":\"test\",\"build_date\":\"2022-04-19T08:13:25.444693396Z\",\"build_snapshot\":false,"
+                    + "\"lucene_version\":\"8.11.1\",\"minimum_wire_compatibility_version\":\"6.8.0\","
+                    + "\"minimum_index_compatibility_version\":\"6.0.0-beta1\"},\"tagline\":\"You Know, for Search\"}";
+        } else if ("/_bulk".equals(path)) {
+            _attempts.incrementAndGet();
+            int[] itemStatuses = _itemStatuses;
+            _itemStatuses = null;
+            if (_failures.getAndUpdate(v -> Math.max(0, v - 1)) > 0) {
+                status = 503;
+                response = "{\"error\":\"unavailable\",\"status\":503}";
+            } else if (itemStatuses != null) {
+                _bulks.add(new String(body, StandardCharsets.UTF_8));
+                StringBuilder items = new StringBuilder();
+                for (int itemStatus : itemStatuses) {
+                    if (items.length() > 0) items.append(',');
+                    items.append("{\"index\":{\"_index\":\"log\",\"status\":").append(itemStatus).append("}}");
+                }
+                response = "{\"took\":1,\"errors\":true,\"items\":[" + items + "]}";
+            } else {
+                _bulks.add(new String(body, StandardCharsets.UTF_8));
+                response = "{\"took\":1,\"errors\":false,\"items\":[]}";
+            }
+        } else {
+            response = "{\"acknowledged\":true}";
+        }
+
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private void openLogger(Object... options) throws ApplicationException {
+        _logger = new ElasticSearchLogger();
+        ConfigParams config = ConfigParams.fromTuples(
+                "source", "test",
+                "index", "log",
+                "connection.host", "localhost",
+                "connection.port", _server.getAddress().getPort(),
+                "options.interval", 100000,
+                "options.retry_timeout", 10
+        );
+        config.append(ConfigParams.fromTuples(options));
+        _logger.configure(config);
+        _logger.open(null);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timeout waiting for condition", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private long countSpillFiles() {
+        try (Stream<Path> files = Files.list(_spillPath)) {
+            return files.count();
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    @Test
+    public void testBulkBody() throws Exception {
+        openLogger();
+
+        for (int index = 0; index < 10; index++)
+            _logger.info(null, "Message %d", index);
+        _logger.dump();
+
+        waitFor(() -> _bulks.size() == 1);
+
+        String[] lines = _bulks.get(0).split("\n");
+        assertEquals(20, lines.length);
+        assertTrue(lines[0].startsWith("{\"index\":{\"_index\":\"log\",\"_id\":\""));
+        assertTrue(lines[1].contains("\"message\":\"Message 0\""));
+        assertTrue(lines[19].contains("\"message\":\"Message 9\""));
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+        openLogger("options.max_retries", 3);
+
+        _failures.set(2);
+        _logger.info(null, "Retried message");
+        _logger.dump();
+
+        waitFor(() -> _bulks.size() == 1);
+        assertTrue(_bulks.get(0).contains("Retried message"));
+    }
+
+    @Test
+    public void testSpill() throws Exception {
+        openLogger(
+                "options.max_retries", 1,
+                "options.spill_path", _spillPath.toString()
+        );
+
+        _failures.set(Integer.MAX_VALUE);
+        _logger.info(null, "Spilled message");
+        _logger.dump();
+
+        waitFor(() -> countSpillFiles() == 1);
+        assertEquals(0, _bulks.size());
+
+        _failures.set(0);
+        _logger.info(null, "Next message");
+        _logger.dump();
+
+        waitFor(() -> _bulks.size() == 2 && countSpillFiles() == 0);
+        assertTrue(_bulks.get(0).contains("Next message"));
+        assertTrue(_bulks.get(1).contains("Spilled message"));
+    }
+
+    @Test
+    public void testRetryItemErrors() throws Exception {
+        openLogger("options.max_retries", 3);
+
+        // Only the item rejected with 429 is sent again, the invalid one is dropped
+        _itemStatuses = new int[]{201, 429, 400};
+        for (int index = 0; index < 3; index++)
+            _logger.info(null, "Message %d", index);
+        _logger.dump();
+
+        waitFor(() -> _bulks.size() == 2);
+        String[] lines = _bulks.get(1).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"message\":\"Message 1\""));
+    }
+
+    @Test
+    public void testSelectRetryableItems() throws Exception {
+        byte[] body = "a0\nd0\na1\nd1\n".getBytes(StandardCharsets.UTF_8);
+
+        assertNull(ElasticSearchLogger.selectRetryableItems(body,
+                "{\"took\":1,\"errors\":false,\"items\":[]}".getBytes(StandardCharsets.UTF_8)));
+
+        byte[] retried = ElasticSearchLogger.selectRetryableItems(body,
+                ("{\"took\":1,\"errors\":true,\"items\":[{\"index\":{\"status\":503,\"error\":{\"type\":\"x\"}}},"
+                        + "{\"create\":{\"status\":201}}]}").getBytes(StandardCharsets.UTF_8));
+        assertEquals("a0\nd0\n", new String(retried, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCloseSpillsPendingRetries() throws Exception {
+        openLogger(
+                "options.max_retries", 3,
+                "options.retry_timeout", 60000,
+                "options.spill_path", _spillPath.toString()
+        );
+
+        _failures.set(Integer.MAX_VALUE);
+        _logger.info(null, "Pending message");
+        _logger.dump();
+        waitFor(() -> _logger.getPendingRetries() == 1);
+
+        // The retry waits for a minute, but close doesn't wait for it and keeps the messages
+        long start = System.currentTimeMillis();
+        _logger.close(null);
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertEquals(1, countSpillFiles());
+        assertEquals(1, _attempts.get());
+    }
+}
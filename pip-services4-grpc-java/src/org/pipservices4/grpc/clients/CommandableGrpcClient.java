@@ -1,13 +1,18 @@
 package org.pipservices4.grpc.clients;
 
+import com.google.protobuf.UnsafeByteOperations;
 import org.pipservices4.commons.convert.JsonConverter;
+import org.pipservices4.commons.errors.ApplicationException;
 import org.pipservices4.commons.errors.ApplicationExceptionFactory;
+import org.pipservices4.commons.errors.ConfigException;
 import org.pipservices4.commons.errors.ErrorDescription;
+import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.components.context.ContextResolver;
 import org.pipservices4.components.context.IContext;
 import org.pipservices4.grpc.commandable.CommandableGrpc;
 import org.pipservices4.grpc.commandable.InvokeReply;
 import org.pipservices4.grpc.commandable.InvokeRequest;
+import org.pipservices4.grpc.convert.CborConverter;
 
 import java.util.Map;
 
@@ -30,6 +35,9 @@ import java.util.Map;
  *   - retries:               number of retries (default: 3)
  *   - connect_timeout:       connection timeout in milliseconds (default: 10 sec)
  *   - timeout:               invocation timeout in milliseconds (default: 10 sec)
+ *   - payload_format:        format of parameters and results: json or cbor (default: json).
+ *                            In cbor format the first calls after open are sent in json,
+ *                            and the client switches to cbor once a reply shows the service supports it.
  *   </pre>
  * <p>
  * ### References ###
@@ -75,6 +83,14 @@ public class CommandableGrpcClient extends GrpcClient {
      * The service name
      */
     protected String _name;
+    /**
+     * The flag to send parameters and receive results in binary CBOR format.
+     */
+    protected boolean _binary = false;
+    /**
+     * The flag that the service confirmed support of CBOR format.
+     */
+    private volatile boolean _binaryAccepted = false;
 
     /**
      * Create new instance of the commandable client
@@ -86,6 +102,40 @@ public class CommandableGrpcClient extends GrpcClient {
         _name = name;
     }
 
+    /**
+     * Configures component by passing configuration parameters.
+     *
+     * @param config configuration parameters to be set.
+     */
+    @Override
+    public void configure(ConfigParams config) throws ConfigException {
+        super.configure(config);
+
+        var format = config.getAsStringWithDefault("options.payload_format", _binary ? "cbor" : "json");
+        this._binary = "cbor".equalsIgnoreCase(format);
+    }
+
+    /**
+     * Checks if the service confirmed that it accepts CBOR payloads.
+     *
+     * @return true if calls are sent in CBOR format and false otherwise.
+     */
+    public boolean isBinaryAccepted() {
+        return _binary && _binaryAccepted;
+    }
+
+    /**
+     * Opens the component.
+     * Binary payloads are negotiated again with the service on every open.
+     *
+     * @param context (optional) execution context to trace execution through call chain.
+     */
+    @Override
+    public void open(IContext context) throws ApplicationException {
+        this._binaryAccepted = false;
+        super.open(context);
+    }
+
     /**
      * Calls a remote method via GRPC commadable protocol.
      * The call is made via Invoke method and all parameters are sent in args object.
@@ -109,16 +159,29 @@ public class CommandableGrpcClient extends GrpcClient {
             if (context != null)
                 request.setTraceId(ContextResolver.getTraceId(context));
 
-            if (params != null)
+            if (_binary && _binaryAccepted) {
+                request.setFormat("cbor");
+                if (params != null)
+                    request.setArgsBytes(UnsafeByteOperations.unsafeWrap(CborConverter.toCbor(params)));
+            } else if (params != null) {
                 request.setArgsJson(JsonConverter.toJson(params));
+            }
 
             InvokeReply response = this.call("invoke", context, request.build());
 
+            // Switch to binary payloads when the service supports them
+            if (_binary && !_binaryAccepted && response.getFormats().contains("cbor"))
+                _binaryAccepted = true;
+
             // Handle error response
             if (!response.getError().getMessage().equals(""))
                 throw ApplicationExceptionFactory.create(convertErrorDescription(response.getError()));
 
 
+            // Handle binary response
+            if (!response.getResultEmpty() && !response.getResultBytes().isEmpty())
+                return CborConverter.fromCbor(returnType, response.getResultBytes().newInput());
+
             // Handle empty response
             if (response.getResultEmpty() || response.getResultJson().equals("") || response.getResultJson().equals("{}")) {
                 return null;
@@ -4,6 +4,10 @@ import io.grpc.*;
 import io.grpc.netty.GrpcSslContexts;
 import io.grpc.netty.NettyChannelBuilder;
 import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.ssl.SslContext;
 import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.components.config.IConfigurable;
@@ -19,14 +23,21 @@ import org.pipservices4.observability.count.CompositeCounters;
 import org.pipservices4.observability.log.CompositeLogger;
 import org.pipservices4.observability.trace.CompositeTracer;
 import org.pipservices4.config.connect.HttpConnectionResolver;
+import org.pipservices4.rpc.clients.ResiliencePolicy;
 import org.pipservices4.rpc.trace.InstrumentTiming;
 import org.pipservices4.components.context.IContext;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Abstract client that calls remove endpoints using GRPC protocol.
@@ -42,9 +53,29 @@ import java.util.Objects;
  * - options:
  *   - retries:               number of retries (default: 3)
  *   - connect_timeout:       connection timeout in milliseconds (default: 10 sec)
- *   - timeout:               invocation timeout in milliseconds (default: 10 sec)
+ *   - timeout:               invocation timeout of unary calls in milliseconds (default: 10 sec)
+ *   - stream_timeout:        invocation timeout of streaming calls in milliseconds, 0 for no deadline (default: 0)
+ *   - request_max_size:      maximum size of a received message in bytes (default: 1 MB)
+ *   - keepalive_time:        time in milliseconds between keepalive pings, 0 disables them (default: 0)
+ *   - keepalive_timeout:     time in milliseconds to wait for a keepalive ping ack (default: 20 sec)
+ *   - executor_threads:      number of threads to run call callbacks, 0 uses the shared gRPC executor (default: 0)
+ *   - event_loop_threads:    number of Netty event loop threads, 0 uses the shared event loop (default: 0)
+ *   - circuit_breaker:       enables circuit breaker for the remote service (default: false)
+ *   - circuit_failure_threshold: number of consecutive failures that opens the circuit (default: 5)
+ *   - circuit_reset_timeout: time in milliseconds before an open circuit lets a trial call through (default: 30 sec)
+ *   - max_concurrent_calls:  maximum number of concurrent unary calls or 0 for unlimited (default: 0)
+ *   - max_queue_time:        maximum time in milliseconds to wait for a free call slot (default: 0)
+ *   - adaptive_timeout:      calculates deadlines of unary calls from observed latencies (default: false)
+ *   - min_timeout:           minimum adaptive timeout in milliseconds (default: 1 sec)
  * </pre>
  * <p>
+ * Method descriptors are resolved once when the client is opened.
+ * Unary calls are protected by {@link ResiliencePolicy}. Calls rejected by circuit breaker or bulkhead
+ * fail with {@link Status#UNAVAILABLE}, and only UNAVAILABLE, DEADLINE_EXCEEDED, RESOURCE_EXHAUSTED,
+ * INTERNAL and UNKNOWN statuses are counted as failures. Streaming calls are not protected.
+ * Use {@link #callAsync} to have many calls in flight without blocking a thread per call,
+ * and {@link #callStream} or {@link #callBidiStream} for streaming methods.
+ * <p>
  * ### References ###
  * <p>
  * - *:logger:*:*:1.0         (optional) {@link org.pipservices4.observability.log.ILogger} components to pass log messages
@@ -105,11 +136,19 @@ public class GrpcClient implements IOpenable, IConfigurable, IReferenceable {
             "options.request_max_size", 1024 * 1024,
             "options.connect_timeout", 10000,
             "options.timeout", 10000,
+            "options.stream_timeout", 0,
             "options.retries", 3,
+            "options.keepalive_time", 0,
+            "options.keepalive_timeout", 20000,
+            "options.executor_threads", 0,
+            "options.event_loop_threads", 0,
             "options.debug", true
     );
 
     private final io.grpc.ServiceDescriptor _serviceDescriptor;
+    private Map<String, MethodDescriptor<?, ?>> _methods;
+    private ExecutorService _executor;
+    private EventLoopGroup _eventLoopGroup;
 
     protected Channel _channel;
     /**
@@ -141,13 +180,56 @@ public class GrpcClient implements IOpenable, IConfigurable, IReferenceable {
      * The invocation timeout in milliseconds.
      */
     protected long _timeout = 10000;
+    /**
+     * The invocation timeout of streaming calls in milliseconds.
+     */
+    protected long _streamTimeout = 0;
     /**
      * The remote service uri which is calculated on open.
      */
     protected String _uri;
+    /**
+     * The maximum size of a received message in bytes.
+     */
+    protected int _maxMessageSize = 1024 * 1024;
+    /**
+     * The time in milliseconds between keepalive pings.
+     */
+    protected long _keepAliveTime = 0;
+    /**
+     * The time in milliseconds to wait for a keepalive ping ack.
+     */
+    protected long _keepAliveTimeout = 20000;
+    /**
+     * The number of threads to run call callbacks.
+     */
+    protected int _executorThreads = 0;
+    /**
+     * The number of Netty event loop threads.
+     */
+    protected int _eventLoopThreads = 0;
+    /**
+     * The circuit breaker, bulkhead and adaptive timeouts for unary calls.
+     */
+    protected ResiliencePolicy _resilience = new ResiliencePolicy(_counters);
+    /**
+     * The resilience target (host and port) which is calculated on open.
+     */
+    private String _target;
+
+    private static final Set<Status.Code> FAILURE_CODES = Set.of(
+            Status.Code.UNAVAILABLE, Status.Code.DEADLINE_EXCEEDED, Status.Code.RESOURCE_EXHAUSTED,
+            Status.Code.INTERNAL, Status.Code.UNKNOWN
+    );
 
     public GrpcClient(io.grpc.ServiceDescriptor serviceDescriptor) {
         _serviceDescriptor = serviceDescriptor;
+        _resilience.setFailureFilter(GrpcClient::isFailure);
+    }
+
+    private static boolean isFailure(Throwable error) {
+        return !(error instanceof StatusRuntimeException statusError)
+                || FAILURE_CODES.contains(statusError.getStatus().getCode());
     }
 
     /**
@@ -163,6 +245,13 @@ public class GrpcClient implements IOpenable, IConfigurable, IReferenceable {
 
         this._connectTimeout = config.getAsLongWithDefault("options.connect_timeout", this._connectTimeout);
         this._timeout = config.getAsLongWithDefault("options.timeout", this._timeout);
+        this._streamTimeout = config.getAsLongWithDefault("options.stream_timeout", this._streamTimeout);
+        this._maxMessageSize = config.getAsIntegerWithDefault("options.request_max_size", this._maxMessageSize);
+        this._keepAliveTime = config.getAsLongWithDefault("options.keepalive_time", this._keepAliveTime);
+        this._keepAliveTimeout = config.getAsLongWithDefault("options.keepalive_timeout", this._keepAliveTimeout);
+        this._executorThreads = config.getAsIntegerWithDefault("options.executor_threads", this._executorThreads);
+        this._eventLoopThreads = config.getAsIntegerWithDefault("options.event_loop_threads", this._eventLoopThreads);
+        this._resilience.configure(config);
     }
 
     /**
@@ -188,12 +277,11 @@ public class GrpcClient implements IOpenable, IConfigurable, IReferenceable {
      */
     protected InstrumentTiming instrument(IContext context, String name) {
         this._logger.trace(context, "Executing %s method", name);
-        this._counters.incrementOne(name + ".call_time");
+        if (!this._counters.isEmpty())
+            this._counters.incrementOne(name + ".call_count");
 
-        var counterTiming = this._counters.beginTiming(name + ".call_time");
-        var traceTiming = this._tracer.beginTrace(context, name, null);
-        return new InstrumentTiming(context, name, "exec",
-                this._logger, this._counters, counterTiming, traceTiming);
+        return new InstrumentTiming(context, name, "call",
+                this._logger, this._counters, this._tracer);
     }
 
     /**
@@ -221,44 +309,56 @@ public class GrpcClient implements IOpenable, IConfigurable, IReferenceable {
 
         var host = connection.getHost();
         var port = connection.getPort();
+        _target = host + ":" + port;
 
         try {
+            NettyChannelBuilder builder = NettyChannelBuilder.forAddress(host, port)
+                    .maxInboundMessageSize(_maxMessageSize);
 
             if (Objects.equals(connection.getAsStringWithDefault("protocol", "http"), "https")) {
                 var sslKeyPath = connection.getAsNullableString("ssl_key_file");
                 var sslCrtPath = connection.getAsNullableString("ssl_crt_file");
                 var sslCaPath = connection.getAsNullableString("ssl_ca_file");
 
-//                var ca = new ArrayList<>();
-//
-//                if (sslCaPath != null) {
-//                    try(var caFile = new FileInputStream(sslCaPath)) {
-//                        var caText = new String(caFile.readAllBytes(), StandardCharsets.UTF_8);
-//                        var crtIndex = caText.lastIndexOf("-----BEGIN CERTIFICATE-----");
-//                        if (crtIndex > -1) {
-//                            ca.add(caText.substring(crtIndex));
-//                            caText = caText.substring(0, crtIndex);
-//                        }
-//                    }
-//                }
                 SslContext sslContext = GrpcSslContexts.forClient()
                         // if server's cert doesn't chain to a standard root
                         .trustManager(new File(sslCaPath))
                         .keyManager(new File(sslCrtPath), new File(sslKeyPath)) // client cert
                         .build();
 
-                _channel = NettyChannelBuilder.forAddress(host, port)
-                        .sslContext(sslContext)
-                        .build();
+                builder.sslContext(sslContext);
             } else {
-                _channel = ManagedChannelBuilder.forAddress(host, port)
-                        // Channels are secure by default (via SSL/TLS). For the example we disable TLS to avoid
-                        // needing certificates.
-                        .usePlaintext()
-                        .build();
+                // Channels are secure by default (via SSL/TLS). For the example we disable TLS to avoid
+                // needing certificates.
+                builder.usePlaintext();
+            }
+
+            if (_keepAliveTime > 0) {
+                builder.keepAliveTime(_keepAliveTime, TimeUnit.MILLISECONDS)
+                        .keepAliveTimeout(_keepAliveTimeout, TimeUnit.MILLISECONDS);
             }
+
+            if (_executorThreads > 0) {
+                _executor = Executors.newFixedThreadPool(_executorThreads);
+                builder.executor(_executor);
+            }
+
+            if (_eventLoopThreads > 0) {
+                _eventLoopGroup = new NioEventLoopGroup(_eventLoopThreads);
+                builder.eventLoopGroup(_eventLoopGroup)
+                        .channelType(NioSocketChannel.class);
+            }
+
+            // Resolve method descriptors once
+            var methods = new HashMap<String, MethodDescriptor<?, ?>>();
+            for (var method : _serviceDescriptor.getMethods())
+                methods.put(method.getBareMethodName(), method);
+            _methods = methods;
+
+            _channel = builder.build();
         } catch (Exception ex) {
             this._channel = null;
+            shutdownResources();
             throw new ConnectionException(
                     ContextResolver.getTraceId(context),
                     "CANNOT_CONNECT",
@@ -278,16 +378,64 @@ public class GrpcClient implements IOpenable, IConfigurable, IReferenceable {
         if (this._channel != null) {
             // Eat exceptions
             try {
+                if (this._channel instanceof ManagedChannel channel) {
+                    channel.shutdown();
+                    if (!channel.awaitTermination(_connectTimeout, TimeUnit.MILLISECONDS))
+                        channel.shutdownNow();
+                }
                 this._logger.debug(context, "Closed GRPC service at %s", this._uri);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
             } catch (Exception ex) {
                 this._logger.warn(context, "Failed while closing GRPC service: %s", ex);
             }
 
+            shutdownResources();
             this._channel = null;
             this._uri = null;
         }
     }
 
+    private void shutdownResources() {
+        if (_executor != null) {
+            _executor.shutdown();
+            _executor = null;
+        }
+        if (_eventLoopGroup != null) {
+            _eventLoopGroup.shutdownGracefully(0, _connectTimeout, TimeUnit.MILLISECONDS);
+            _eventLoopGroup = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <TRequest, TResponse> MethodDescriptor<TRequest, TResponse> getMethod(String methodName) {
+        var methods = _methods;
+        var method = methods != null ? methods.get(methodName) : null;
+        if (method == null)
+            throw new IllegalArgumentException("Method " + methodName + " is not defined in "
+                    + _serviceDescriptor.getName());
+        return (MethodDescriptor<TRequest, TResponse>) method;
+    }
+
+    private CallOptions getStreamCallOptions() {
+        // Streams may stay open much longer than a unary call, so they have a separate deadline
+        return getCallOptions(_streamTimeout);
+    }
+
+    private CallOptions getCallOptions(long timeout) {
+        return timeout > 0
+                ? CallOptions.DEFAULT.withDeadlineAfter(timeout, TimeUnit.MILLISECONDS)
+                : CallOptions.DEFAULT;
+    }
+
+    private CallOptions getUnaryCallOptions() {
+        return _timeout > 0 ? getCallOptions(_resilience.getTimeout(_target, _timeout)) : CallOptions.DEFAULT;
+    }
+
+    private static StatusRuntimeException toStatusException(ApplicationException error) {
+        return Status.UNAVAILABLE.withDescription(error.getMessage()).withCause(error).asRuntimeException();
+    }
+
     /**
      * Calls a remote method via GRPC protocol.
      *
@@ -297,15 +445,106 @@ public class GrpcClient implements IOpenable, IConfigurable, IReferenceable {
      * @return the received result.
      */
     protected <TRequest, TResponse> TResponse call(String methodName, IContext context, TRequest request) {
-        var method = _serviceDescriptor.getMethods().stream().filter((m) -> {
-            var splitName = m.getFullMethodName().split("/");
-            return splitName.length > 1 && Objects.equals(splitName[1], methodName);
-        }).findFirst();
-
-        return ClientCalls.blockingUnaryCall(
-                _channel,
-                (MethodDescriptor<TRequest, TResponse>) method.get(),
-                CallOptions.DEFAULT, request
-        );
+        MethodDescriptor<TRequest, TResponse> method = getMethod(methodName);
+        try {
+            return _resilience.execute(_target,
+                    () -> ClientCalls.blockingUnaryCall(_channel, method, getUnaryCallOptions(), request));
+        } catch (ApplicationException ex) {
+            // Calls themselves don't throw application errors, so the call was rejected
+            throw toStatusException(ex);
+        }
+    }
+
+    /**
+     * Calls a remote method via GRPC protocol without blocking the calling thread.
+     *
+     * @param methodName    a method name to called
+     * @param context     (optional) a context to trace execution through call chain.
+     * @param request       (optional) request object.
+     * @return a future that completes with the received result or call error.
+     */
+    protected <TRequest, TResponse> CompletableFuture<TResponse> callAsync(String methodName, IContext context, TRequest request) {
+        CompletableFuture<TResponse> result = _resilience.executeAsync(_target,
+                () -> sendAsync(methodName, request));
+        return result.exceptionallyCompose((err) -> {
+            var cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+            return CompletableFuture.failedFuture(cause instanceof ApplicationException appErr
+                    ? toStatusException(appErr) : cause);
+        });
+    }
+
+    private <TRequest, TResponse> CompletableFuture<TResponse> sendAsync(String methodName, TRequest request) {
+        var result = new CompletableFuture<TResponse>();
+        try {
+            MethodDescriptor<TRequest, TResponse> method = getMethod(methodName);
+            ClientCalls.asyncUnaryCall(_channel.newCall(method, getUnaryCallOptions()), request,
+                    new StreamObserver<>() {
+                        @Override
+                        public void onNext(TResponse value) {
+                            result.complete(value);
+                        }
+
+                        @Override
+                        public void onError(Throwable err) {
+                            result.completeExceptionally(err);
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            // The value is set in onNext
+                        }
+                    });
+        } catch (Exception ex) {
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+
+    /**
+     * Calls a server-streaming remote method via GRPC protocol.
+     * Items are received as the returned iterator is consumed,
+     * so only a few of them are buffered in memory at any time.
+     * The stream timeout applies to the whole stream.
+     *
+     * @param methodName    a method name to called
+     * @param context     (optional) a context to trace execution through call chain.
+     * @param request       (optional) request object.
+     * @return an iterator over received items.
+     */
+    protected <TRequest, TResponse> Iterator<TResponse> callStream(String methodName, IContext context, TRequest request) {
+        MethodDescriptor<TRequest, TResponse> method = getMethod(methodName);
+        return ClientCalls.blockingServerStreamingCall(_channel, method, getStreamCallOptions(), request);
+    }
+
+    /**
+     * Calls a server-streaming remote method via GRPC protocol without blocking the calling thread.
+     * To control flow pass an {@link io.grpc.stub.ClientResponseObserver}
+     * and request items manually.
+     *
+     * @param methodName       a method name to called
+     * @param context        (optional) a context to trace execution through call chain.
+     * @param request          (optional) request object.
+     * @param responseObserver an observer that receives items.
+     */
+    protected <TRequest, TResponse> void callStreamAsync(String methodName, IContext context, TRequest request,
+                                                         StreamObserver<TResponse> responseObserver) {
+        MethodDescriptor<TRequest, TResponse> method = getMethod(methodName);
+        ClientCalls.asyncServerStreamingCall(_channel.newCall(method, getStreamCallOptions()), request, responseObserver);
+    }
+
+    /**
+     * Calls a bidirectional-streaming remote method via GRPC protocol.
+     * To control flow pass an {@link io.grpc.stub.ClientResponseObserver}
+     * and check readiness of the request stream before sending.
+     *
+     * @param methodName       a method name to called
+     * @param context        (optional) a context to trace execution through call chain.
+     * @param responseObserver an observer that receives responses.
+     * @return an observer to send requests.
+     */
+    protected <TRequest, TResponse> StreamObserver<TRequest> callBidiStream(String methodName, IContext context,
+                                                                             StreamObserver<TResponse> responseObserver) {
+        MethodDescriptor<TRequest, TResponse> method = getMethod(methodName);
+        return ClientCalls.asyncBidiStreamingCall(_channel.newCall(method, getStreamCallOptions()), responseObserver);
     }
 }
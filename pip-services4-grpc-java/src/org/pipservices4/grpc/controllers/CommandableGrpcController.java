@@ -5,15 +5,21 @@ import org.pipservices4.rpc.commands.CommandSet;
 import org.pipservices4.rpc.commands.ICommand;
 import org.pipservices4.rpc.commands.ICommandable;
 import org.pipservices4.commons.convert.JsonConverter;
+import org.pipservices4.commons.errors.BadRequestException;
 import org.pipservices4.commons.errors.ErrorDescriptionFactory;
 import org.pipservices4.commons.errors.InvocationException;
 import org.pipservices4.components.refer.ReferenceException;
 import org.pipservices4.components.exec.Parameters;
 import org.pipservices4.components.context.IContext;
+import com.google.protobuf.UnsafeByteOperations;
 import org.pipservices4.grpc.commandable.CommandableGrpc;
 import org.pipservices4.grpc.commandable.ErrorDescription;
 import org.pipservices4.grpc.commandable.InvokeReply;
 import org.pipservices4.grpc.commandable.InvokeRequest;
+import org.pipservices4.grpc.convert.CborConverter;
+
+import java.io.IOException;
+import java.util.Map;
 
 
 @FunctionalInterface
@@ -25,6 +31,10 @@ interface CommandFunction {
  * Abstract service that receives commands via GRPC protocol
  * to operations automatically generated for commands defined in {@link ICommandable}.
  * Each command is exposed as invoke method that receives command name and parameters.
+ * Parameters and results are sent as JSON, or as binary CBOR when the client sets "cbor" format
+ * in the request. Replies to JSON requests list "cbor" in supported formats, so clients switch
+ * to CBOR only after they know the service accepts it. Requests with arguments that can't be decoded
+ * or with an unknown format are rejected with BAD_REQUEST error and the command is not executed.
  * <p>
  * Commandable services require only 3 lines of code to implement a robust external
  * GRPC-based remote interface.
@@ -81,6 +91,9 @@ interface CommandFunction {
  * }
  */
 public abstract class CommandableGrpcController extends GrpcController {
+    private static final String JSON_FORMAT = "json";
+    private static final String CBOR_FORMAT = "cbor";
+
     private final String _name;
 
     /**
@@ -121,13 +134,43 @@ public abstract class CommandableGrpcController extends GrpcController {
             return;
         }
 
+        var format = request.getFormat();
+        var binary = CBOR_FORMAT.equals(format);
+        if (!binary && !format.isEmpty() && !JSON_FORMAT.equals(format)) {
+            var err = new BadRequestException(traceId, "UNSUPPORTED_FORMAT", "Payload format " + format + " is not supported")
+                    .withDetails("method", method).withDetails("format", format);
+
+            responseObserver.onNext(InvokeReply.newBuilder().setError(createErrorResponse(err)).build());
+            responseObserver.onCompleted();
+            return;
+        }
+
         try {
             // Convert arguments
             var argsEmpty = request.getArgsEmpty();
-            var argsJson = request.getArgsJson();
-            var args = !argsEmpty && !argsJson.isEmpty()
-                    ? Parameters.fromJson(argsJson)
-                    : new Parameters();
+            Parameters args;
+            if (binary) {
+                Map<String, Object> argsMap;
+                try {
+                    argsMap = !argsEmpty && !request.getArgsBytes().isEmpty()
+                            ? CborConverter.toMap(request.getArgsBytes().newInput())
+                            : null;
+                } catch (IOException ex) {
+                    // Don't execute the command with lost arguments
+                    var err = new BadRequestException(traceId, "INVALID_PAYLOAD", "Failed to decode arguments of method " + method)
+                            .withDetails("method", method).withCause(ex);
+
+                    responseObserver.onNext(InvokeReply.newBuilder().setError(createErrorResponse(err)).build());
+                    responseObserver.onCompleted();
+                    return;
+                }
+                args = argsMap != null ? new Parameters(argsMap) : new Parameters();
+            } else {
+                var argsJson = request.getArgsJson();
+                args = !argsEmpty && !argsJson.isEmpty()
+                        ? Parameters.fromJson(argsJson)
+                        : new Parameters();
+            }
 
             // Todo: Validate schema
             //var schema = this._commandableSchemas[method];
@@ -142,7 +185,13 @@ public abstract class CommandableGrpcController extends GrpcController {
             // Process result and generate response
             var response = InvokeReply.newBuilder().setResultEmpty(result == null);
 
-            if (result != null)
+            // Let JSON clients know they can switch to binary payloads
+            if (!binary)
+                response.setFormats(CBOR_FORMAT);
+
+            if (result != null && binary)
+                response.setResultBytes(UnsafeByteOperations.unsafeWrap(CborConverter.toCbor(result)));
+            else if (result != null)
                 response.setResultJson(JsonConverter.toJson(result));
 
             if (result instanceof Exception)
@@ -0,0 +1,14 @@
+package org.pipservices4.grpc.controllers;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Bidirectional-streaming action. It receives an observer to send responses
+ * and returns an observer that receives requests.
+ * The response observer can be used to control flow via isReady() and setOnReadyHandler().
+ */
+@FunctionalInterface
+public interface GrpcBidiStreamFunc<T, R> {
+    StreamObserver<T> apply(ServerCallStreamObserver<R> responseObserver);
+}
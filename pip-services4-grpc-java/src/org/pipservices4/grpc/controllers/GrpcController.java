@@ -1,7 +1,11 @@
 package org.pipservices4.grpc.controllers;
 
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors;
 import com.google.protobuf.GeneratedMessageV3;
+import com.google.protobuf.Message;
 import io.grpc.*;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.ServerCalls;
 import io.grpc.stub.StreamObserver;
 import org.pipservices4.components.config.ConfigParams;
@@ -22,6 +26,8 @@ import org.pipservices4.components.context.IContext;
 import java.util.*;
 
 import static io.grpc.MethodDescriptor.generateFullMethodName;
+import static io.grpc.stub.ServerCalls.asyncBidiStreamingCall;
+import static io.grpc.stub.ServerCalls.asyncServerStreamingCall;
 import static io.grpc.stub.ServerCalls.asyncUnaryCall;
 
 /**
@@ -229,12 +235,11 @@ public abstract class GrpcController implements IOpenable, IConfigurable, IRefer
      */
     protected InstrumentTiming instrument(IContext context, String name) {
         this._logger.trace(context, "Executing %s method", name);
-        this._counters.incrementOne(name + ".exec_count");
+        if (!this._counters.isEmpty())
+            this._counters.incrementOne(name + ".exec_count");
 
-        var counterTiming = this._counters.beginTiming(name + ".exec_time");
-        var traceTiming = this._tracer.beginTrace(context, name, null);
         return new InstrumentTiming(context, name, "exec",
-                this._logger, this._counters, counterTiming, traceTiming);
+                this._logger, this._counters, this._tracer);
     }
 
     /**
@@ -322,32 +327,182 @@ public abstract class GrpcController implements IOpenable, IConfigurable, IRefer
         ServerCalls.UnaryMethod<TRequest, TResponse> handler = new ServerCalls.UnaryMethod<TRequest, TResponse>() {
             @Override
             public void invoke(TRequest request, StreamObserver<TResponse> responseObserver) {
-                // TODO Validation schema
+                var err = validateRequest(schema, request);
+                if (err != null) {
+                    responseObserver.onError(err);
+                    return;
+                }
 
                 action.apply(request, responseObserver);
             }
         };
 
-        try {
-            var method = _serviceDescriptor.getMethods().stream().filter((m) -> {
-                var splitName = m.getFullMethodName().split("/");
-                return splitName.length > 1 && Objects.equals(splitName[1], name);
-            }).findFirst();
-
-            MethodDescriptor<TRequest, TResponse> METHOD_INVOKE = MethodDescriptor.<TRequest, TResponse>newBuilder()
-                    .setType(io.grpc.MethodDescriptor.MethodType.UNARY)
-                    .setFullMethodName(generateFullMethodName(
-                            _serviceName, name))
-                    .setRequestMarshaller((MethodDescriptor.Marshaller<TRequest>) method.get().getRequestMarshaller())
-                    .setResponseMarshaller((MethodDescriptor.Marshaller<TResponse>) method.get().getResponseMarshaller())
-                    .build();
-
-            _builder.addMethod(METHOD_INVOKE, asyncUnaryCall(handler));
-
-        } catch (Exception ex) {
-            System.err.println("Error register method");
-            throw new RuntimeException(ex);
+        _builder.addMethod(getMethodDescriptor(name, MethodDescriptor.MethodType.UNARY), asyncUnaryCall(handler));
+    }
+
+    /**
+     * Registers a server-streaming method in GRPC service.
+     * Response items are pulled from the iterator returned by the action
+     * only when the client is ready to receive them, so large result sets
+     * can be streamed as they are read.
+     *
+     * @param name   a method name
+     * @param schema a validation schema to validate received parameters.
+     * @param action an action function that returns response items for a request.
+     */
+    protected <TRequest extends GeneratedMessageV3, TResponse extends GeneratedMessageV3> void registerServerStreamingMethod(String name, Schema schema, GrpcStreamFunc<TRequest, TResponse> action) {
+
+        ServerCalls.ServerStreamingMethod<TRequest, TResponse> handler = (request, responseObserver) -> {
+            var err = validateRequest(schema, request);
+            if (err != null) {
+                responseObserver.onError(err);
+                return;
+            }
+
+            try {
+                var items = action.apply(request);
+                IteratorStreamWriter.write(items != null ? items : Collections.emptyIterator(),
+                        (ServerCallStreamObserver<TResponse>) responseObserver);
+            } catch (Exception ex) {
+                responseObserver.onError(Status.INTERNAL.withDescription(ex.getMessage()).withCause(ex).asRuntimeException());
+            }
+        };
+
+        _builder.addMethod(getMethodDescriptor(name, MethodDescriptor.MethodType.SERVER_STREAMING), asyncServerStreamingCall(handler));
+    }
+
+    /**
+     * Registers a bidirectional-streaming method in GRPC service.
+     * Every received message is validated by the schema. The first invalid message
+     * fails the request observer and the call with INVALID_ARGUMENT status,
+     * and the following messages are ignored.
+     *
+     * @param name   a method name
+     * @param schema a validation schema to validate received parameters.
+     * @param action an action function that receives a response observer and returns a request observer.
+     */
+    protected <TRequest extends GeneratedMessageV3, TResponse extends GeneratedMessageV3> void registerBidiStreamingMethod(String name, Schema schema, GrpcBidiStreamFunc<TRequest, TResponse> action) {
+
+        ServerCalls.BidiStreamingMethod<TRequest, TResponse> handler = (responseObserver) -> {
+            var requestObserver = action.apply((ServerCallStreamObserver<TResponse>) responseObserver);
+            if (schema == null)
+                return requestObserver;
+
+            return new StreamObserver<>() {
+                private boolean _failed = false;
+
+                @Override
+                public void onNext(TRequest request) {
+                    if (_failed)
+                        return;
+
+                    var err = validateRequest(schema, request);
+                    if (err == null) {
+                        requestObserver.onNext(request);
+                        return;
+                    }
+
+                    _failed = true;
+                    requestObserver.onError(err);
+                    try {
+                        responseObserver.onError(err);
+                    } catch (IllegalStateException ex) {
+                        // The action has already closed the call
+                    }
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    if (!_failed)
+                        requestObserver.onError(t);
+                }
+
+                @Override
+                public void onCompleted() {
+                    if (!_failed)
+                        requestObserver.onCompleted();
+                }
+            };
+        };
+
+        _builder.addMethod(getMethodDescriptor(name, MethodDescriptor.MethodType.BIDI_STREAMING), asyncBidiStreamingCall(handler));
+    }
+
+    /**
+     * Validates a received message by a schema.
+     * Message fields are validated by their names in the proto definition.
+     * Proto3 scalars without presence always have a value, so fields set to 0, "" or false
+     * are not missing. Only unset message fields and unset fields with explicit presence
+     * (optional or oneof) are treated as missing.
+     *
+     * @param schema  a validation schema or null to skip validation.
+     * @param request a received message.
+     * @return INVALID_ARGUMENT status error or null when the message is valid.
+     */
+    protected StatusRuntimeException validateRequest(Schema schema, Message request) {
+        if (schema == null || request == null)
+            return null;
+
+        var err = schema.validateAndReturnException(null, messageToMap(request), false);
+        if (err == null)
+            return null;
+
+        return Status.INVALID_ARGUMENT.withDescription(err.getMessage()).withCause(err).asRuntimeException();
+    }
+
+    private static Map<String, Object> messageToMap(Message message) {
+        var result = new LinkedHashMap<String, Object>();
+        for (var field : message.getDescriptorForType().getFields()) {
+            // getAllFields() skips scalars with default values, so fields are read one by one
+            if (field.hasPresence() && !message.hasField(field))
+                continue;
+
+            var data = message.getField(field);
+            if (field.isMapField()) {
+                // Map fields are repeated entries with "key" and "value" fields
+                var values = new LinkedHashMap<Object, Object>();
+                for (var value : (List<?>) data) {
+                    var item = messageToMap((Message) value);
+                    values.put(item.get("key"), item.get("value"));
+                }
+                result.put(field.getName(), values);
+            } else if (field.isRepeated()) {
+                var values = new ArrayList<>();
+                for (var value : (List<?>) data)
+                    values.add(fieldValue(value));
+                result.put(field.getName(), values);
+            } else {
+                result.put(field.getName(), fieldValue(data));
+            }
         }
+        return result;
+    }
+
+    private static Object fieldValue(Object value) {
+        if (value instanceof Message message)
+            return messageToMap(message);
+        if (value instanceof Descriptors.EnumValueDescriptor enumValue)
+            return enumValue.getName();
+        if (value instanceof ByteString bytes)
+            return bytes.toByteArray();
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <TRequest, TResponse> MethodDescriptor<TRequest, TResponse> getMethodDescriptor(String name, MethodDescriptor.MethodType type) {
+        var method = _serviceDescriptor.getMethods().stream()
+                .filter((m) -> Objects.equals(m.getBareMethodName(), name))
+                .findFirst();
+
+        if (method.isEmpty())
+            throw new IllegalArgumentException("Method " + name + " is not defined in " + _serviceName);
+
+        return MethodDescriptor.<TRequest, TResponse>newBuilder()
+                .setType(type)
+                .setFullMethodName(generateFullMethodName(_serviceName, name))
+                .setRequestMarshaller((MethodDescriptor.Marshaller<TRequest>) method.get().getRequestMarshaller())
+                .setResponseMarshaller((MethodDescriptor.Marshaller<TResponse>) method.get().getResponseMarshaller())
+                .build();
     }
 
     /**
@@ -11,6 +11,7 @@ import org.pipservices4.components.config.IConfigurable;
 import org.pipservices4.commons.errors.*;
 import org.pipservices4.components.context.ContextResolver;
 import org.pipservices4.components.context.IContext;
+import org.pipservices4.components.exec.TaskExecutors;
 import org.pipservices4.components.refer.IReferenceable;
 import org.pipservices4.components.refer.IReferences;
 import org.pipservices4.components.refer.ReferenceException;
@@ -25,6 +26,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -44,6 +46,9 @@ import java.util.concurrent.TimeUnit;
  *     - "credential.ssl_key_file" - the SSL private key in PEM
  *     - "credential.ssl_crt_file" - the SSL certificate in PEM
  *     - "credential.ssl_ca_file" - the certificate authorities (root cerfiticates) in PEM
+ * - options:
+ *     - "options.executor" - the call executor: "pool" for the default GRPC thread pool
+ *       or "virtual" for a virtual thread per call (default: "pool")
  * </pre>
  * <p>
  * ### References ###
@@ -84,17 +89,20 @@ public class GrpcEndpoint implements IOpenable, IConfigurable, IReferenceable {
             "options.request_max_size", 1024 * 1024,
             "options.file_max_size", 200 * 1024 * 1024,
             "options.connect_timeout", 60000,
-            "options.debug", true
+            "options.debug", true,
+            "options.executor", TaskExecutors.POOL
     );
 
     protected final List<Interceptor> _interceptors = new ArrayList<>();
     private ServerBuilder<? extends ServerBuilder<?>> _builder;
     private Server _server;
+    private ExecutorService _executor;
     private final HttpConnectionResolver _connectionResolver = new HttpConnectionResolver();
     private final CompositeLogger _logger = new CompositeLogger();
     private final CompositeCounters _counters = new CompositeCounters();
     private boolean _maintenanceEnabled = false;
     private long _fileMaxSize = 200 * 1024 * 1024;
+    private String _executorMode = TaskExecutors.POOL;
     private String _uri;
     private List<IRegisterable> _registrations = new ArrayList<>();
 
@@ -112,6 +120,7 @@ public class GrpcEndpoint implements IOpenable, IConfigurable, IReferenceable {
      *     - "credential.ssl_key_file" - SSL private key in PEM
      *     - "credential.ssl_crt_file" - SSL certificate in PEM
      *     - "credential.ssl_ca_file" - Certificate authority (root certificate) in PEM
+     *     - "options.executor" - the call executor: "pool" or "virtual"
      * </pre>
      *
      * @param config configuration parameters, containing a "connection(s)" section.
@@ -124,6 +133,10 @@ public class GrpcEndpoint implements IOpenable, IConfigurable, IReferenceable {
 
         this._maintenanceEnabled = config.getAsBooleanWithDefault("options.maintenance_enabled", this._maintenanceEnabled);
         this._fileMaxSize = config.getAsLongWithDefault("options.file_max_size", this._fileMaxSize);
+
+        this._executorMode = config.getAsString("options.executor");
+        if (!TaskExecutors.isValidMode(this._executorMode))
+            throw new ConfigException(null, "UNSUPPORTED_EXECUTOR", "GRPC executor " + this._executorMode + " is not supported");
     }
 
     /**
@@ -206,6 +219,13 @@ public class GrpcEndpoint implements IOpenable, IConfigurable, IReferenceable {
                         .addService(new CommandableImpl());
             }
 
+            if (TaskExecutors.VIRTUAL.equals(_executorMode)) {
+                if (!TaskExecutors.isVirtualSupported())
+                    _logger.warn(context, "Virtual threads are not supported by this JVM, GRPC endpoint uses platform threads");
+                _executor = TaskExecutors.newVirtualExecutor("pip-services-grpc");
+                _builder.executor(_executor);
+            }
+
             // Start operations
             performRegistrations();
 
@@ -222,6 +242,10 @@ public class GrpcEndpoint implements IOpenable, IConfigurable, IReferenceable {
             });
         } catch (Exception ex) {
             this._server = null;
+            if (_executor != null) {
+                _executor.shutdown();
+                _executor = null;
+            }
 
             throw new ConnectionException(
                     ContextResolver.getTraceId(context),
@@ -248,6 +272,11 @@ public class GrpcEndpoint implements IOpenable, IConfigurable, IReferenceable {
             } catch (InterruptedException ex) {
                 this._logger.warn(context, "Failed while closing GRPC service: %s", ex);
                 throw new RuntimeException(ex);
+            } finally {
+                if (_executor != null) {
+                    _executor.shutdown();
+                    _executor = null;
+                }
             }
         }
     }
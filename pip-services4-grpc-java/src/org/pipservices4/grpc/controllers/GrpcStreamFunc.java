@@ -0,0 +1,13 @@
+package org.pipservices4.grpc.controllers;
+
+import java.util.Iterator;
+
+/**
+ * Server-streaming action that returns response items for a request.
+ * Items are pulled from the iterator only when the client is ready to receive them.
+ * If the iterator implements {@link AutoCloseable}, it is closed when the call ends.
+ */
+@FunctionalInterface
+public interface GrpcStreamFunc<T, R> {
+    Iterator<R> apply(T request) throws Exception;
+}
@@ -0,0 +1,71 @@
+package org.pipservices4.grpc.controllers;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+
+import java.util.Iterator;
+
+/**
+ * Writes items from an iterator into a server stream while the client is ready to receive them.
+ * When the transport buffer is full, writing stops until the stream becomes ready again,
+ * so no more than one buffer of items is held in memory.
+ */
+class IteratorStreamWriter<T> implements Runnable {
+    private final Iterator<? extends T> _source;
+    private final ServerCallStreamObserver<T> _target;
+    private boolean _done = false;
+
+    private IteratorStreamWriter(Iterator<? extends T> source, ServerCallStreamObserver<T> target) {
+        _source = source;
+        _target = target;
+    }
+
+    /**
+     * Starts writing items into the stream. It must be called from the method handler.
+     *
+     * @param source an iterator with items to write.
+     * @param target a stream to write items into.
+     */
+    public static <T> void write(Iterator<? extends T> source, ServerCallStreamObserver<T> target) {
+        var writer = new IteratorStreamWriter<T>(source, target);
+        target.setOnCancelHandler(writer::cancel);
+        target.setOnReadyHandler(writer);
+    }
+
+    @Override
+    public synchronized void run() {
+        if (_done)
+            return;
+
+        try {
+            while (_target.isReady() && _source.hasNext())
+                _target.onNext(_source.next());
+
+            if (!_source.hasNext()) {
+                finish();
+                _target.onCompleted();
+            }
+        } catch (Exception ex) {
+            finish();
+            _target.onError(Status.INTERNAL.withDescription(ex.getMessage()).withCause(ex).asRuntimeException());
+        }
+    }
+
+    private synchronized void cancel() {
+        finish();
+    }
+
+    private void finish() {
+        if (_done)
+            return;
+
+        _done = true;
+        if (_source instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ex) {
+                // Ignore...
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.pipservices4.grpc.convert;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.pipservices4.commons.convert.JsonConverter;
+import org.pipservices4.commons.convert.RecursiveMapConverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Converts objects to and from binary CBOR format.
+ * <p>
+ * It is a binary counterpart of {@link org.pipservices4.commons.convert.JsonConverter}
+ * and maps objects in the same way, so the same types can be sent in either format.
+ * <p>
+ * ### Example ###
+ * <pre>
+ * {@code
+ * byte[] value = CborConverter.toCbor(Map.of("key", 123));
+ * Map<?, ?> result = CborConverter.fromCbor(Map.class, value);  // Result: { "key": 123 }
+ * }
+ * </pre>
+ */
+public class CborConverter {
+    private static final ObjectMapper _mapper = JsonConverter.createMapper(new CBORFactory());
+    private static final TypeReference<Map<String, Object>> typeRef = new TypeReference<>() {
+    };
+
+    /**
+     * Converts CBOR data into a value.
+     *
+     * @param type  the class type for the data type into which 'value' is to be converted.
+     * @param value the CBOR data to convert.
+     * @return converted object value or null when value is null.
+     * @throws IOException when conversion fails for any reason.
+     */
+    public static <T> T fromCbor(Class<T> type, byte[] value) throws IOException {
+        if (value == null)
+            return null;
+        return _mapper.readValue(value, type);
+    }
+
+    /**
+     * Reads CBOR data from a stream and converts it into a value.
+     *
+     * @param type  the class type for the data type into which 'value' is to be converted.
+     * @param value the stream with CBOR data.
+     * @return converted object value or null when value is null.
+     * @throws IOException when conversion fails for any reason.
+     */
+    public static <T> T fromCbor(Class<T> type, InputStream value) throws IOException {
+        if (value == null)
+            return null;
+        return _mapper.readValue(value, type);
+    }
+
+    /**
+     * Converts value into CBOR data.
+     *
+     * @param value the value to convert.
+     * @return CBOR data or null when value is null.
+     * @throws IOException when conversion fails for any reason.
+     */
+    public static byte[] toCbor(Object value) throws IOException {
+        if (value == null)
+            return null;
+        return _mapper.writeValueAsBytes(value);
+    }
+
+    /**
+     * Reads CBOR data from a stream and converts it into a map object.
+     *
+     * @param value the stream with CBOR data.
+     * @return Map object value or null when value is null.
+     * @throws IOException when the data is not a valid CBOR map.
+     */
+    public static Map<String, Object> toMap(InputStream value) throws IOException {
+        if (value == null)
+            return null;
+
+        Map<String, Object> map = _mapper.readValue(value, typeRef);
+        return RecursiveMapConverter.toNullableMap(map);
+    }
+
+    /**
+     * Reads CBOR data from a stream and converts it into a map object.
+     *
+     * @param value the stream with CBOR data.
+     * @return Map object value or null when conversion is not supported.
+     */
+    public static Map<String, Object> toNullableMap(InputStream value) {
+        try {
+            return toMap(value);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.pipservices4.grpc.clients;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.References;
+import org.pipservices4.grpc.controllers.DummyCommandableGrpcController;
+import org.pipservices4.grpc.sample.Dummy;
+import org.pipservices4.grpc.sample.DummyService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JSON and binary CBOR payloads of commandable GRPC calls
+ * on 1 KB and 100 KB dummies.
+ * <p>
+ * Run it with:
+ * <pre>
+ * {@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.pipservices4.grpc.clients.CommandablePayloadBenchmark
+ * }
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommandablePayloadBenchmark {
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"1024", "102400"})
+    public int size;
+
+    private DummyCommandableGrpcController _controller;
+    private DummyCommandableGrpcClient _client;
+    private Dummy _dummy;
+
+    @Setup
+    public void setUp() throws ApplicationException {
+        var config = ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", 3005
+        );
+
+        _controller = new DummyCommandableGrpcController();
+        _controller.configure(config);
+        _controller.setReferences(References.fromTuples(
+                new Descriptor("pip-services-dummies", "service", "default", "default", "1.0"), new DummyService(),
+                new Descriptor("pip-services-dummies", "controller", "grpc", "default", "1.0"), _controller
+        ));
+        _controller.open(null);
+
+        _client = new DummyCommandableGrpcClient();
+        _client.configure(config.override(ConfigParams.fromTuples(
+                "options.payload_format", format,
+                "options.request_max_size", 1024 * 1024
+        )));
+        _client.setReferences(new References());
+        _client.open(null);
+
+        _dummy = _client.createDummy(null, new Dummy(null, "Key", "x".repeat(size)));
+    }
+
+    @TearDown
+    public void tearDown() throws ApplicationException {
+        _client.close(null);
+        _controller.close(null);
+    }
+
+    @Benchmark
+    public Dummy updateDummy() {
+        return _client.updateDummy(null, _dummy);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CommandablePayloadBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
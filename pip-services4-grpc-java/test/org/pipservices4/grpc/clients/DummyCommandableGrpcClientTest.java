@@ -7,12 +7,16 @@ import org.junit.Test;
 import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.commons.errors.ApplicationException;
 import org.pipservices4.commons.errors.InvalidStateException;
+import org.pipservices4.data.query.FilterParams;
+import org.pipservices4.data.query.PagingParams;
 import org.pipservices4.components.refer.Descriptor;
 import org.pipservices4.components.refer.References;
 import org.pipservices4.grpc.sample.DummyService;
 import org.pipservices4.grpc.controllers.DummyCommandableGrpcController;
 import org.pipservices4.grpc.controllers.DummyGrpcController;
 
+import static org.junit.Assert.*;
+
 public class DummyCommandableGrpcClientTest {
     private static final ConfigParams grpcConfig = ConfigParams.fromTuples(
             "connection.protocol", "http",
@@ -59,4 +63,35 @@ public class DummyCommandableGrpcClientTest {
     public void testCrudOperations() {
         fixture.testCrudOperations();
     }
+
+    @Test
+    public void testCrudOperationsWithCbor() throws ApplicationException {
+        var binaryClient = new DummyCommandableGrpcClient();
+        binaryClient.configure(grpcConfig.override(ConfigParams.fromTuples("options.payload_format", "cbor")));
+        binaryClient.setReferences(new References());
+        binaryClient.open(null);
+
+        try {
+            new DummyClientFixture(binaryClient).testCrudOperations();
+        } finally {
+            binaryClient.close(null);
+        }
+    }
+
+    @Test
+    public void testCborNegotiation() throws ApplicationException {
+        // The client sends JSON until the service confirms it accepts CBOR
+        var binaryClient = new DummyCommandableGrpcClient();
+        binaryClient.configure(grpcConfig.override(ConfigParams.fromTuples("options.payload_format", "cbor")));
+        binaryClient.setReferences(new References());
+        binaryClient.open(null);
+
+        try {
+            assertFalse(binaryClient.isBinaryAccepted());
+            binaryClient.getDummies(null, new FilterParams(), new PagingParams());
+            assertTrue(binaryClient.isBinaryAccepted());
+        } finally {
+            binaryClient.close(null);
+        }
+    }
 }
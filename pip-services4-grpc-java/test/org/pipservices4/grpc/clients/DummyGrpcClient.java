@@ -6,6 +6,7 @@ import org.pipservices4.grpc.sample.Dummy;
 import org.pipservices4.grpc.dummies.DummiesGrpc;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.Objects;
 
 public class DummyGrpcClient extends GrpcClient implements IDummyClient {
@@ -130,4 +131,38 @@ public class DummyGrpcClient extends GrpcClient implements IDummyClient {
 
         return new Dummy(result.getId(), result.getKey(), result.getContent());
     }
+
+    public Iterator<Dummy> getDummiesStream(IContext context, FilterParams filter, PagingParams paging) {
+        paging = paging != null ? paging : new PagingParams();
+        var pagingParams = org.pipservices4.grpc.dummies.PagingParams.newBuilder();
+        pagingParams.setSkip(paging.getSkip());
+        pagingParams.setTake(paging.getTake().intValue());
+        pagingParams.setTotal(paging.hasTotal());
+
+        var request = org.pipservices4.grpc.dummies.DummiesPageRequest.newBuilder();
+        request.setPaging(pagingParams);
+
+        filter = filter != null ? filter : new FilterParams();
+        request.putAllFilter(filter);
+
+        this.instrument(context, "dummy.get_stream_by_filter");
+
+        Iterator<org.pipservices4.grpc.dummies.Dummy> result = this.callStream("get_dummies_stream",
+                context,
+                request.build()
+        );
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return result.hasNext();
+            }
+
+            @Override
+            public Dummy next() {
+                var item = result.next();
+                return new Dummy(item.getId(), item.getKey(), item.getContent());
+            }
+        };
+    }
 }
@@ -1,5 +1,6 @@
 package org.pipservices4.grpc.clients;
 
+import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -10,9 +11,30 @@ import org.pipservices4.commons.errors.InvalidStateException;
 import org.pipservices4.components.refer.Descriptor;
 import org.pipservices4.components.refer.ReferenceException;
 import org.pipservices4.components.refer.References;
+import org.pipservices4.data.query.FilterParams;
+import org.pipservices4.data.query.PagingParams;
 import org.pipservices4.grpc.sample.DummyService;
 import org.pipservices4.grpc.controllers.DummyCommandableGrpcController;
 import org.pipservices4.grpc.controllers.DummyGrpcController;
+import org.pipservices4.grpc.dummies.DummiesPageRequest;
+import org.pipservices4.grpc.dummies.DummyIdRequest;
+import org.pipservices4.grpc.dummies.DummyObjectRequest;
+import org.pipservices4.grpc.sample.Dummy;
+import org.pipservices4.observability.count.CounterType;
+import org.pipservices4.observability.count.LogCounters;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
 
 public class DummyGrpcClientTest {
     private static final ConfigParams grpcConfig = ConfigParams.fromTuples(
@@ -56,8 +78,242 @@ public class DummyGrpcClientTest {
         client.open(null);
     }
 
+    @After
+    public void teardown() throws ApplicationException {
+        client.close(null);
+    }
+
     @Test
     public void testCrudOperations() {
         fixture.testCrudOperations();
     }
+
+    @Test
+    public void testAsyncCalls() throws Exception {
+        var dummy = client.createDummy(null, new Dummy(null, "Key 1", "Content 1"));
+
+        var request = DummyIdRequest.newBuilder().setDummyId(dummy.getId()).build();
+        var futures = new ArrayList<CompletableFuture<org.pipservices4.grpc.dummies.Dummy>>();
+        for (int index = 0; index < 1000; index++)
+            futures.add(client.callAsync("get_dummy_by_id", null, request));
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        for (var future : futures)
+            assertEquals(dummy.getId(), future.get().getId());
+
+        client.deleteDummy(null, dummy.getId());
+    }
+
+    @Test
+    public void testInstrumentCounters() throws ApplicationException {
+        var counters = new LogCounters();
+        client.setReferences(References.fromTuples(
+                new Descriptor("pip-services", "counters", "log", "default", "1.0"), counters
+        ));
+
+        // Calls are counted and timed by separate counters, so the timing histogram is kept
+        for (int index = 0; index < 2; index++)
+            client.instrument(null, "dummy.test").endTiming();
+
+        assertEquals(2, (int) counters.get("dummy.test.call_count", CounterType.Increment).getCount());
+        assertEquals(2, (int) counters.get("dummy.test.call_time", CounterType.Interval).getCount());
+    }
+
+    @Test
+    public void testUnknownMethod() {
+        var future = client.callAsync("unknown_method", null, DummyIdRequest.newBuilder().build());
+        assertThrows(ExecutionException.class, future::get);
+    }
+
+    @Test
+    public void testServerStreaming() {
+        var created = new ArrayList<String>();
+        for (int index = 0; index < 10; index++)
+            created.add(client.createDummy(null, new Dummy(null, "Stream " + index, "Content " + index)).getId());
+
+        var received = new ArrayList<String>();
+        var dummies = client.getDummiesStream(
+                null,
+                FilterParams.fromTuples("key", "Stream 5"),
+                new PagingParams(0, 100, false)
+        );
+        dummies.forEachRemaining(dummy -> received.add(dummy.getKey()));
+        assertEquals(List.of("Stream 5"), received);
+
+        var count = 0;
+        dummies = client.getDummiesStream(null, null, new PagingParams(0, 100, false));
+        while (dummies.hasNext()) {
+            dummies.next();
+            count++;
+        }
+        assertTrue(count >= 10);
+
+        for (var id : created)
+            client.deleteDummy(null, id);
+    }
+
+    @Test
+    public void testBidiStreaming() throws Exception {
+        var completed = new CountDownLatch(1);
+        var received = new CopyOnWriteArrayList<org.pipservices4.grpc.dummies.Dummy>();
+
+        StreamObserver<DummyObjectRequest> requests = client.callBidiStream("create_dummies_stream", null,
+                new StreamObserver<org.pipservices4.grpc.dummies.Dummy>() {
+                    @Override
+                    public void onNext(org.pipservices4.grpc.dummies.Dummy value) {
+                        received.add(value);
+                    }
+
+                    @Override
+                    public void onError(Throwable err) {
+                        completed.countDown();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        completed.countDown();
+                    }
+                });
+
+        for (int index = 0; index < 100; index++) {
+            var dummy = org.pipservices4.grpc.dummies.Dummy.newBuilder()
+                    .setKey("Bidi " + index)
+                    .setContent("Content " + index);
+            requests.onNext(DummyObjectRequest.newBuilder().setDummy(dummy).build());
+        }
+        requests.onCompleted();
+
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+        assertEquals(100, received.size());
+        for (int index = 0; index < received.size(); index++) {
+            assertEquals("Bidi " + index, received.get(index).getKey());
+            assertNotNull(received.get(index).getId());
+            client.deleteDummy(null, received.get(index).getId());
+        }
+    }
+
+    @Test
+    public void testInvalidRequests() throws Exception {
+        // Unary request without a required dummy
+        var error = assertThrows(RuntimeException.class,
+                () -> client.call("create_dummy", null, DummyObjectRequest.newBuilder().build()));
+        assertEquals(Status.Code.INVALID_ARGUMENT, findStatus(error));
+
+        // Server-streaming request without required paging
+        var dummies = client.<DummiesPageRequest, org.pipservices4.grpc.dummies.Dummy>callStream(
+                "get_dummies_stream", null, DummiesPageRequest.newBuilder().build());
+        error = assertThrows(RuntimeException.class, dummies::hasNext);
+        assertEquals(Status.Code.INVALID_ARGUMENT, findStatus(error));
+
+        // Bidi-streaming request where the second message has no dummy
+        var completed = new CountDownLatch(1);
+        var errors = new CopyOnWriteArrayList<Throwable>();
+        var received = new CopyOnWriteArrayList<org.pipservices4.grpc.dummies.Dummy>();
+        StreamObserver<DummyObjectRequest> requests = client.callBidiStream("create_dummies_stream", null,
+                new StreamObserver<org.pipservices4.grpc.dummies.Dummy>() {
+                    @Override
+                    public void onNext(org.pipservices4.grpc.dummies.Dummy value) {
+                        received.add(value);
+                    }
+
+                    @Override
+                    public void onError(Throwable err) {
+                        errors.add(err);
+                        completed.countDown();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        completed.countDown();
+                    }
+                });
+
+        requests.onNext(DummyObjectRequest.newBuilder().setDummy(
+                org.pipservices4.grpc.dummies.Dummy.newBuilder().setKey("Valid").setContent("Content")).build());
+        requests.onNext(DummyObjectRequest.newBuilder().build());
+        requests.onCompleted();
+
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+        assertEquals(1, errors.size());
+        assertEquals(Status.Code.INVALID_ARGUMENT, Status.fromThrowable(errors.get(0)).getCode());
+        for (var dummy : received)
+            client.deleteDummy(null, dummy.getId());
+    }
+
+    @Test
+    public void testDefaultValuedFields() throws Exception {
+        // Proto3 scalars set to default values are not missing
+        var dummy = client.createDummy(null, new Dummy(null, "", "Content"));
+        assertEquals("", dummy.getKey());
+        client.deleteDummy(null, dummy.getId());
+
+        // Paging with default skip, take and total is present
+        var dummies = client.<DummiesPageRequest, org.pipservices4.grpc.dummies.Dummy>callStream(
+                "get_dummies_stream", null, DummiesPageRequest.newBuilder()
+                        .setPaging(org.pipservices4.grpc.dummies.PagingParams.newBuilder()).build());
+        while (dummies.hasNext())
+            dummies.next();
+    }
+
+    @Test
+    public void testStreamTimeout() throws Exception {
+        // Streams outlive the unary timeout, and stream_timeout sets their own deadline
+        assertNull(openSlowStream(ConfigParams.fromTuples("options.timeout", 50)));
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, openSlowStream(ConfigParams.fromTuples(
+                "options.timeout", 10000,
+                "options.stream_timeout", 50
+        )));
+    }
+
+    private Status.Code openSlowStream(ConfigParams options) throws Exception {
+        var streamClient = new DummyGrpcClient();
+        streamClient.configure(grpcConfig.override(options));
+        streamClient.setReferences(new References());
+        streamClient.open(null);
+
+        try {
+            var completed = new CountDownLatch(1);
+            var errors = new CopyOnWriteArrayList<Throwable>();
+            var received = new CopyOnWriteArrayList<org.pipservices4.grpc.dummies.Dummy>();
+            StreamObserver<DummyObjectRequest> requests = streamClient.callBidiStream("create_dummies_stream", null,
+                    new StreamObserver<org.pipservices4.grpc.dummies.Dummy>() {
+                        @Override
+                        public void onNext(org.pipservices4.grpc.dummies.Dummy value) {
+                            received.add(value);
+                        }
+
+                        @Override
+                        public void onError(Throwable err) {
+                            errors.add(err);
+                            completed.countDown();
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            completed.countDown();
+                        }
+                    });
+
+            // The stream stays open longer than 50 ms
+            Thread.sleep(300);
+            requests.onNext(DummyObjectRequest.newBuilder().setDummy(
+                    org.pipservices4.grpc.dummies.Dummy.newBuilder().setKey("Slow").setContent("Content")).build());
+            requests.onCompleted();
+
+            assertTrue(completed.await(10, TimeUnit.SECONDS));
+            for (var dummy : received)
+                client.deleteDummy(null, dummy.getId());
+            return errors.isEmpty() ? null : Status.fromThrowable(errors.get(0)).getCode();
+        } finally {
+            streamClient.close(null);
+        }
+    }
+
+    private static Status.Code findStatus(Throwable error) {
+        for (var cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StatusRuntimeException statusError)
+                return statusError.getStatus().getCode();
+        }
+        return null;
+    }
 }
@@ -3,6 +3,7 @@ package org.pipservices4.grpc.controllers;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import com.google.protobuf.ByteString;
 import org.junit.*;
 import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.commons.convert.JsonConverter;
@@ -180,4 +181,41 @@ public class DummyCommandableGrpcControllerTest {
         assertEquals("", response.getError().getMessage());
         assertTrue(response.getResultEmpty());
     }
+
+    @Test
+    public void testPayloadFormats() throws IOException {
+        // JSON replies advertise binary format
+        var request = InvokeRequest.newBuilder()
+                .setArgsJson("{}")
+                .setMethod("dummy.get_dummies")
+                .setArgsEmpty(false)
+                .build();
+
+        var response = client.invoke(request);
+        assertEquals("cbor", response.getFormats());
+
+        // Arguments that can't be decoded are rejected
+        request = InvokeRequest.newBuilder()
+                .setFormat("cbor")
+                .setArgsBytes(ByteString.copyFrom(new byte[]{(byte) 0xff, 0x01, 0x02}))
+                .setMethod("dummy.create_dummy")
+                .setArgsEmpty(false)
+                .build();
+
+        response = client.invoke(request);
+        assertEquals(400, response.getError().getStatus());
+        assertEquals("INVALID_PAYLOAD", response.getError().getCode());
+        assertTrue(response.getResultEmpty() || response.getResultBytes().isEmpty());
+
+        // Unknown formats are rejected
+        request = InvokeRequest.newBuilder()
+                .setFormat("smile")
+                .setMethod("dummy.get_dummies")
+                .setArgsEmpty(true)
+                .build();
+
+        response = client.invoke(request);
+        assertEquals(400, response.getError().getStatus());
+        assertEquals("UNSUPPORTED_FORMAT", response.getError().getCode());
+    }
 }
@@ -3,7 +3,9 @@ package org.pipservices4.grpc.controllers;
 import io.grpc.Metadata;
 import io.grpc.ServerCall;
 import io.grpc.ServerCallHandler;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import org.pipservices4.commons.convert.TypeCode;
 import org.pipservices4.components.context.Context;
 import org.pipservices4.data.query.*;
 import org.pipservices4.commons.errors.ApplicationException;
@@ -13,10 +15,16 @@ import org.pipservices4.components.refer.Descriptor;
 import org.pipservices4.components.refer.IReferences;
 import org.pipservices4.components.refer.ReferenceException;
 import org.pipservices4.data.query.PagingParams;
+import org.pipservices4.data.validate.FilterParamsSchema;
+import org.pipservices4.data.validate.ObjectSchema;
+import org.pipservices4.data.validate.PagingParamsSchema;
 import org.pipservices4.grpc.dummies.*;
 import org.pipservices4.grpc.sample.Dummy;
+import org.pipservices4.grpc.sample.DummySchema;
 import org.pipservices4.grpc.sample.IDummyService;
 
+import java.util.Iterator;
+
 public class DummyGrpcController extends GrpcController {
     private IDummyService _service;
     private int _numberOfCalls = 0;
@@ -106,6 +114,37 @@ public class DummyGrpcController extends GrpcController {
         responseObserver.onCompleted();
     }
 
+    private Iterator<org.pipservices4.grpc.dummies.Dummy> getStreamByFilter(DummiesPageRequest request) throws ApplicationException {
+        var filter = FilterParams.fromValue(request.getFilterMap());
+        var paging = PagingParams.fromValue(request.getPaging());
+
+        var page = _service.getPageByFilter(Context.fromTraceId(request.getTraceId()), filter, paging);
+        return page.getData().stream().map(this::dummyToObject).iterator();
+    }
+
+    private StreamObserver<DummyObjectRequest> createStream(ServerCallStreamObserver<org.pipservices4.grpc.dummies.Dummy> responseObserver) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(DummyObjectRequest request) {
+                var result = _service.create(
+                        Context.fromTraceId(request.getTraceId()),
+                        dummyToObject(request.getDummy())
+                );
+                responseObserver.onNext(dummyToObject(result));
+            }
+
+            @Override
+            public void onError(Throwable err) {
+                responseObserver.onError(err);
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
     private org.pipservices4.grpc.dummies.Dummy dummyToObject(Dummy dummy) {
         if (dummy == null)
             return org.pipservices4.grpc.dummies.Dummy.getDefaultInstance();
@@ -126,43 +165,53 @@ public class DummyGrpcController extends GrpcController {
 
         this.registerMethod(
                 "get_dummies",
-                null,
-                // new ObjectSchema(true)
-                //     .withOptionalProperty("paging", new PagingParamsSchema())
-                //     .withOptionalProperty("filter", new FilterParamsSchema()),
+                new ObjectSchema().allowUndefined(true)
+                        .withOptionalProperty("paging", new PagingParamsSchema())
+                        .withOptionalProperty("filter", new FilterParamsSchema()),
                 this::getPageByFilter
         );
 
         this.registerMethod(
                 "get_dummy_by_id",
-                null,
-                // new ObjectSchema(true)
-                //     .withRequiredProperty("dummy_id", TypeCode.String),
+                new ObjectSchema().allowUndefined(true)
+                        .withRequiredProperty("dummy_id", TypeCode.String),
                 this::getOneById
         );
 
         this.registerMethod(
                 "create_dummy",
-                null,
-                // new ObjectSchema(true)
-                //     .withRequiredProperty("dummy", new DummySchema()),
+                new ObjectSchema().allowUndefined(true)
+                        .withRequiredProperty("dummy", new DummySchema()),
                 this::create
         );
 
         this.registerMethod(
                 "update_dummy",
-                null,
-                // new ObjectSchema(true)
-                //     .withRequiredProperty("dummy", new DummySchema()),
+                new ObjectSchema().allowUndefined(true)
+                        .withRequiredProperty("dummy", new DummySchema()),
                 this::update
         );
 
         this.registerMethod(
                 "delete_dummy_by_id",
-                null,
-                // new ObjectSchema(true)
-                //     .withRequiredProperty("dummy_id", TypeCode.String),
+                new ObjectSchema().allowUndefined(true)
+                        .withRequiredProperty("dummy_id", TypeCode.String),
                 this::deleteById
         );
+
+        this.registerServerStreamingMethod(
+                "get_dummies_stream",
+                new ObjectSchema().allowUndefined(true)
+                        .withRequiredProperty("paging", new PagingParamsSchema())
+                        .withOptionalProperty("filter", new FilterParamsSchema()),
+                this::getStreamByFilter
+        );
+
+        this.registerBidiStreamingMethod(
+                "create_dummies_stream",
+                new ObjectSchema().allowUndefined(true)
+                        .withRequiredProperty("dummy", new DummySchema()),
+                this::createStream
+        );
     }
 }
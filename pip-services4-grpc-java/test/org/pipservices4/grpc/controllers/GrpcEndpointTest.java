@@ -1,12 +1,21 @@
 package org.pipservices4.grpc.controllers;
 
+import io.grpc.ManagedChannelBuilder;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.pipservices4.commons.errors.ConfigException;
 import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.References;
+import org.pipservices4.grpc.dummies.DummiesGrpc;
+import org.pipservices4.grpc.dummies.DummyObjectRequest;
+import org.pipservices4.grpc.sample.DummyService;
 
-import static org.junit.Assert.assertTrue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
 
 public class GrpcEndpointTest {
     static ConfigParams grpcConfig = ConfigParams.fromTuples(
@@ -34,4 +43,40 @@ public class GrpcEndpointTest {
     public void testIsOpen() {
         assertTrue(endpoint.isOpen());
     }
+
+    @Test
+    public void testVirtualExecutor() throws Exception {
+        var controller = new DummyGrpcController();
+        controller.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", 3019,
+                "options.executor", "virtual"
+        ));
+        controller.setReferences(References.fromTuples(
+                new Descriptor("pip-services-dummies", "service", "default", "default", "1.0"), new DummyService()
+        ));
+        controller.open(null);
+
+        var channel = ManagedChannelBuilder.forTarget("localhost:3019").usePlaintext().build();
+        try {
+            var dummy = org.pipservices4.grpc.dummies.Dummy.newBuilder()
+                    .setKey("Key 1")
+                    .setContent("Content 1")
+                    .build();
+            dummy = DummiesGrpc.newBlockingStub(channel)
+                    .createDummy(DummyObjectRequest.newBuilder().setDummy(dummy).build());
+            assertEquals("Key 1", dummy.getKey());
+        } finally {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            controller.close(null);
+        }
+    }
+
+    @Test
+    public void testUnknownExecutor() {
+        assertThrows(ConfigException.class, () -> new GrpcEndpoint().configure(ConfigParams.fromTuples(
+                "options.executor", "unknown"
+        )));
+    }
 }
@@ -0,0 +1,35 @@
+package org.pipservices4.http.clients;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache5.connector.Apache5ClientProperties;
+import org.glassfish.jersey.apache5.connector.Apache5ConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+
+/**
+ * Configures Jersey clients to send requests through a pool of Apache HttpClient 5 connections.
+ * <p>
+ * It is kept apart from {@link RestClient}, so the optional
+ * <code>jersey-apache5-connector</code> dependency is loaded only when this connector is used.
+ */
+final class ApacheClientConnector {
+
+    private ApacheClientConnector() {
+    }
+
+    /**
+     * Sets Apache connector with a pooling connection manager into the client configuration.
+     * The pool is closed together with the Jersey client.
+     *
+     * @param config                  the client configuration.
+     * @param maxConnections          the maximum number of open connections.
+     * @param maxConnectionsPerRoute  the maximum number of open connections to one host.
+     */
+    static void configure(ClientConfig config, int maxConnections, int maxConnectionsPerRoute) {
+        var manager = new PoolingHttpClientConnectionManager();
+        manager.setMaxTotal(maxConnections);
+        manager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+        config.property(Apache5ClientProperties.CONNECTION_MANAGER, manager);
+        config.connectorProvider(new Apache5ConnectorProvider());
+    }
+}
@@ -0,0 +1,51 @@
+package org.pipservices4.http.clients;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A command call sent in a batch by {@link CommandableHttpClient#callBatch}.
+ *
+ * @see BatchCommandResult
+ */
+public class BatchCommand {
+    /**
+     * The name of the command to call.
+     */
+    private String _command;
+    /**
+     * The command parameters.
+     */
+    private Object _args;
+
+    public BatchCommand() {
+    }
+
+    /**
+     * Creates a new command call.
+     *
+     * @param command the name of the command to call.
+     * @param args    (optional) the command parameters.
+     */
+    public BatchCommand(String command, Object args) {
+        _command = command;
+        _args = args;
+    }
+
+    @JsonProperty("command")
+    public String getCommand() {
+        return _command;
+    }
+
+    public void setCommand(String value) {
+        _command = value;
+    }
+
+    @JsonProperty("args")
+    public Object getArgs() {
+        return _args;
+    }
+
+    public void setArgs(Object value) {
+        _args = value;
+    }
+}
@@ -0,0 +1,85 @@
+package org.pipservices4.http.clients;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.GenericType;
+import org.pipservices4.commons.convert.JsonConverter;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.commons.errors.ApplicationExceptionFactory;
+import org.pipservices4.commons.errors.ErrorDescription;
+import org.pipservices4.commons.errors.InvocationException;
+
+/**
+ * A result of a command call received in a batch by {@link CommandableHttpClient#callBatch}.
+ * It contains either the command result or the error raised by the command.
+ *
+ * @see BatchCommand
+ */
+public class BatchCommandResult {
+    private static final ObjectMapper _mapper = JsonConverter.getMapper();
+
+    /**
+     * The command result as parsed JSON.
+     */
+    private Object _result;
+    /**
+     * The error raised by the command.
+     */
+    private ErrorDescription _error;
+
+    public BatchCommandResult() {
+    }
+
+    @JsonProperty("result")
+    public Object getResult() {
+        return _result;
+    }
+
+    public void setResult(Object value) {
+        _result = value;
+    }
+
+    @JsonProperty("error")
+    public ErrorDescription getError() {
+        return _error;
+    }
+
+    public void setError(ErrorDescription value) {
+        _error = value;
+    }
+
+    /**
+     * Gets the command result converted into the specified type.
+     *
+     * @param type the class type of the result.
+     * @return the converted result.
+     * @throws ApplicationException the error raised by the command.
+     */
+    public <T> T getResultAs(Class<T> type) throws ApplicationException {
+        return convertResult(_mapper.constructType(type));
+    }
+
+    /**
+     * Gets the command result converted into the specified type.
+     *
+     * @param type the generic class type of the result.
+     * @return the converted result.
+     * @throws ApplicationException the error raised by the command.
+     */
+    public <T> T getResultAs(GenericType<T> type) throws ApplicationException {
+        return convertResult(_mapper.constructType(type.getType()));
+    }
+
+    private <T> T convertResult(JavaType type) throws ApplicationException {
+        if (_error != null)
+            throw ApplicationExceptionFactory.create(_error);
+
+        try {
+            return _result != null ? _mapper.convertValue(_result, type) : null;
+        } catch (IllegalArgumentException ex) {
+            throw new InvocationException(null, "DESERIALIZATION_FAILED", "Failed to deserialize result")
+                    .withCause(ex);
+        }
+    }
+}
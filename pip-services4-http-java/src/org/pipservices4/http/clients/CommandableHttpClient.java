@@ -1,9 +1,34 @@
 package org.pipservices4.http.clients;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import jakarta.ws.rs.HttpMethod;
 import jakarta.ws.rs.core.GenericType;
+import org.pipservices4.commons.convert.JsonConverter;
 import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.commons.errors.InvocationException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.context.ContextResolver;
 import org.pipservices4.components.context.IContext;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.IReferences;
+import org.pipservices4.components.refer.ReferenceException;
+import org.pipservices4.logic.cache.ICache;
+import org.pipservices4.logic.cache.MemoryCache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Abstract client that calls commandable HTTP service.
@@ -28,8 +53,21 @@ import org.pipservices4.components.context.IContext;
  *   <li>retries:               number of retries (default: 3)
  *   <li>connect_timeout:       connection timeout in milliseconds (default: 10 sec)
  *   <li>timeout:               invocation timeout in milliseconds (default: 10 sec)
+ *   <li>circuit_breaker:       enables circuit breaker for the remote service (default: false)
+ *   <li>max_concurrent_calls:  maximum number of concurrent calls or 0 for unlimited (default: 0)
+ *   <li>adaptive_timeout:      calculates invocation timeout from observed latencies (default: false)
+ *   <li>coalesced_commands:    comma-separated list of commands which concurrent identical calls share one request (default: none)
+ *   <li>cached_commands:       comma-separated list of commands which results are cached (default: none)
+ *   <li>cache_timeout:         time in milliseconds to keep cached results (default: 1 min)
  *   </ul>
  * </ul>  
+ * Other resilience options are described in {@link RestClient}. Commands are sent with POST, so they are never hedged.
+ * <p>
+ * Identical requests have the same command name and the same parameters regardless of their order.
+ * Coalesced and cached results are kept as JSON, so every caller receives its own copy of the result.
+ * Failed calls are never cached. Use coalescing and caching only for commands that read data.
+ * Counters &lt;base_route&gt;.&lt;command&gt;.cache_hits, .cache_misses and .coalesced_calls
+ * report efficiency of both layers.
  * <p>
  * ### References ###
  * <ul>
@@ -37,6 +75,7 @@ import org.pipservices4.components.context.IContext;
  * <li>*:counters:*:*:1.0         (optional) <a href="https://pip-services4-java.github.io/pip-services4-observability-java/org/pipservices4/observability/count/ICounters.html">ICounters</a> components to pass collected measurements
  * <li>*:tracer:*:*:1.0        (optional) <a href="https://pip-services4-java.github.io/pip-services4-observability-java/org/pipservices4/observability/trace/ITracer.html">ITracer</a> components to record traces
  * <li>*:discovery:*:*:1.0        (optional) <a href="https://pip-services4-java.github.io/pip-services4-config-java/org/pipservices4/config/connect/IDiscovery.html">IDiscovery</a> services to resolve connection
+ * <li>*:cache:*:*:1.0            (optional) {@link ICache} to store results of cached commands, a private {@link MemoryCache} is used by default
  * </ul>
  * <p>
  * ### Example ###
@@ -69,6 +108,30 @@ import org.pipservices4.components.context.IContext;
  * </pre>
  */
 public class CommandableHttpClient extends RestClient {
+	private static final ObjectMapper _mapper = JsonConverter.getMapper();
+	// Serializes parameters with sorted keys to calculate the same keys for identical requests
+	private static final ObjectMapper _canonicalMapper = JsonMapper.builder()
+			.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+			.build();
+
+	/**
+	 * The cache to store results of cached commands.
+	 */
+	protected ICache _cache = new MemoryCache();
+	/**
+	 * The names of commands which results are cached.
+	 */
+	protected Set<String> _cachedCommands = new HashSet<>();
+	/**
+	 * The time in milliseconds to keep cached results.
+	 */
+	protected long _cacheTimeout = 60000;
+	/**
+	 * The names of commands which concurrent identical calls share one request.
+	 */
+	protected Set<String> _coalescedCommands = new HashSet<>();
+
+	private final Map<String, CompletableFuture<String>> _inFlight = new ConcurrentHashMap<>();
 
 	/**
 	 * Creates a new instance of the client.
@@ -79,6 +142,48 @@ public class CommandableHttpClient extends RestClient {
 		this._baseRoute = baseRoute;
 	}
 
+	/**
+	 * Configures component by passing configuration parameters.
+	 *
+	 * @param config configuration parameters to be set.
+	 */
+	@Override
+	public void configure(ConfigParams config) {
+		super.configure(config);
+
+		_cacheTimeout = config.getAsLongWithDefault("options.cache_timeout", _cacheTimeout);
+		_cachedCommands = parseCommands(config.getAsNullableString("options.cached_commands"), _cachedCommands);
+		_coalescedCommands = parseCommands(config.getAsNullableString("options.coalesced_commands"),
+				_coalescedCommands);
+	}
+
+	private static Set<String> parseCommands(String value, Set<String> defaultCommands) {
+		if (value == null)
+			return defaultCommands;
+
+		var commands = new HashSet<String>();
+		for (var command : value.split(",")) {
+			if (!command.isBlank())
+				commands.add(command.trim());
+		}
+		return commands;
+	}
+
+	/**
+	 * Sets references to dependent components.
+	 *
+	 * @param references references to locate the component dependencies.
+	 * @throws ReferenceException when no found references.
+	 */
+	@Override
+	public void setReferences(IReferences references) throws ReferenceException {
+		super.setReferences(references);
+
+		var cache = references.getOneOptional(ICache.class, new Descriptor("*", "cache", "*", "*", "1.0"));
+		if (cache != null)
+			_cache = cache;
+	}
+
 	/**
 	 * Calls a remote method via HTTP commadable protocol. The call is made via POST
 	 * operation and all parameters are sent in body object. The complete route to
@@ -93,7 +198,10 @@ public class CommandableHttpClient extends RestClient {
 	 */
 	public <T> T callCommand(Class<T> type, String route, IContext context, Object entity)
 			throws ApplicationException {
-		return call(type, context, HttpMethod.POST, route, entity);
+		if (!isShared(route))
+			return call(type, context, HttpMethod.POST, route, entity);
+
+		return fromJson(_mapper.constructType(type), context, callShared(route, context, entity));
 	}
 
 	/**
@@ -110,7 +218,123 @@ public class CommandableHttpClient extends RestClient {
 	 */
 	public <T> T callCommand(GenericType<T> type, String route, IContext context, Object entity)
 			throws ApplicationException {
-		return call(type, context, HttpMethod.POST, route, entity);
+		if (!isShared(route))
+			return call(type, context, HttpMethod.POST, route, entity);
+
+		return fromJson(_mapper.constructType(type.getType()), context, callShared(route, context, entity));
+	}
+
+	/**
+	 * Calls multiple commands in a single request to "_batch" route of
+	 * a commandable HTTP controller with enabled batches.
+	 * Commands are not coalesced or cached.
+	 *
+	 * @param context     (optional) a context to trace execution through call chain.
+	 * @param commands    the commands to call.
+	 * @return results of the commands in the same order as commands.
+	 * @throws ApplicationException when the batch request failed.
+	 */
+	public List<BatchCommandResult> callBatch(IContext context, List<BatchCommand> commands)
+			throws ApplicationException {
+		return call(new GenericType<List<BatchCommandResult>>() {}, context, HttpMethod.POST, "_batch", commands);
+	}
+
+	private boolean isShared(String route) {
+		return _coalescedCommands.contains(route) || _cachedCommands.contains(route);
+	}
+
+	/**
+	 * Calls a command that is coalesced with identical concurrent calls or served from the cache.
+	 *
+	 * @return the response body.
+	 */
+	private String callShared(String route, IContext context, Object entity) throws ApplicationException {
+		String key = getRequestKey(route, context, entity);
+		String name = getCounterName(route);
+		boolean cached = _cachedCommands.contains(route);
+
+		if (cached) {
+			if (_cache.retrieve(context, key) instanceof String result) {
+				increment(name + ".cache_hits");
+				return result;
+			}
+			increment(name + ".cache_misses");
+		}
+
+		if (!_coalescedCommands.contains(route))
+			return callAndStore(route, context, entity, cached ? key : null);
+
+		var call = new CompletableFuture<String>();
+		var inFlight = _inFlight.putIfAbsent(key, call);
+		if (inFlight != null) {
+			increment(name + ".coalesced_calls");
+			return await(inFlight);
+		}
+
+		try {
+			String result = callAndStore(route, context, entity, cached ? key : null);
+			call.complete(result);
+			return result;
+		} catch (Throwable ex) {
+			call.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			_inFlight.remove(key, call);
+		}
+	}
+
+	private String callAndStore(String route, IContext context, Object entity, String cacheKey)
+			throws ApplicationException {
+		String result = call(String.class, context, HttpMethod.POST, route, entity);
+		if (cacheKey != null)
+			_cache.store(context, cacheKey, result, _cacheTimeout);
+		return result;
+	}
+
+	private static String await(CompletableFuture<String> call) throws ApplicationException {
+		try {
+			return call.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof ApplicationException appEx)
+				throw appEx;
+			if (ex.getCause() instanceof RuntimeException runtimeEx)
+				throw runtimeEx;
+			throw ex;
+		}
+	}
+
+	private String getRequestKey(String route, IContext context, Object entity) throws ApplicationException {
+		try {
+			var digest = MessageDigest.getInstance("SHA-256");
+			// Parameters maps don't support null key lookups, so they are converted to plain maps before sorting
+			digest.update(_canonicalMapper.writeValueAsBytes(_mapper.convertValue(entity, Object.class)));
+			return _baseRoute + "/" + route + ":" + HexFormat.of().formatHex(digest.digest());
+		} catch (JsonProcessingException | IllegalArgumentException | NoSuchAlgorithmException ex) {
+			throw new InvocationException(ContextResolver.getTraceId(context), "SERIALIZATION_FAILED",
+					"Failed to serialize parameters of " + route).withCause(ex);
+		}
+	}
+
+	private String getCounterName(String route) {
+		String prefix = _baseRoute != null ? _baseRoute.replaceAll("^/+|/+$", "").replace('/', '.') : "";
+		return prefix.isEmpty() ? route : prefix + "." + route;
+	}
+
+	private void increment(String name) {
+		if (!_counters.isEmpty())
+			_counters.incrementOne(name);
+	}
+
+	private <T> T fromJson(JavaType type, IContext context, String json) throws ApplicationException {
+		if (json == null || json.isEmpty())
+			return null;
+
+		try {
+			return _mapper.readValue(json, type);
+		} catch (JsonProcessingException ex) {
+			throw new InvocationException(ContextResolver.getTraceId(context), "DESERIALIZATION_FAILED",
+					"Failed to deserialize result").withCause(ex);
+		}
 	}
 
 }
@@ -0,0 +1,172 @@
+package org.pipservices4.http.clients;
+
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.core.Configuration;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+import org.glassfish.jersey.message.internal.Statuses;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+
+/**
+ * Jersey connector that sends requests through JDK {@link HttpClient}.
+ * <p>
+ * Unlike the default HttpURLConnection connector, it keeps its own pool of persistent
+ * connections, can negotiate HTTP/2 (ALPN for https and h2c upgrade for http)
+ * and sends asynchronous requests without blocking a thread per call.
+ * Request bodies are buffered before sending.
+ */
+class JdkClientConnector implements Connector {
+    // Headers that are set by HttpClient itself and cannot be set by the caller
+    private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        RESTRICTED_HEADERS.addAll(Set.of("connection", "content-length", "expect", "host", "upgrade"));
+    }
+
+    private final HttpClient _client;
+
+    /**
+     * Provider that creates {@link JdkClientConnector} for Jersey clients.
+     */
+    static class Provider implements ConnectorProvider {
+        private final boolean _http2;
+
+        /**
+         * Creates a new instance of the provider.
+         *
+         * @param http2 <code>true</code> to negotiate HTTP/2 with servers that support it.
+         */
+        Provider(boolean http2) {
+            _http2 = http2;
+        }
+
+        @Override
+        public Connector getConnector(Client client, Configuration config) {
+            return new JdkClientConnector(client, config, _http2);
+        }
+    }
+
+    /**
+     * Creates a new instance of the connector.
+     *
+     * @param client the Jersey client.
+     * @param config the client configuration.
+     * @param http2  <code>true</code> to negotiate HTTP/2.
+     */
+    JdkClientConnector(Client client, Configuration config, boolean http2) {
+        var builder = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+
+        var connectTimeout = config.getProperty(ClientProperties.CONNECT_TIMEOUT);
+        if (connectTimeout instanceof Number timeout && timeout.longValue() > 0)
+            builder.connectTimeout(Duration.ofMillis(timeout.longValue()));
+        if (client.getSslContext() != null)
+            builder.sslContext(client.getSslContext());
+
+        _client = builder.build();
+    }
+
+    private HttpRequest createRequest(ClientRequest request) throws IOException {
+        byte[] body = null;
+        if (request.hasEntity()) {
+            var output = new ByteArrayOutputStream();
+            request.setStreamProvider((contentLength) -> output);
+            request.writeEntity();
+            body = output.toByteArray();
+        }
+
+        var builder = HttpRequest.newBuilder(request.getUri())
+                .method(request.getMethod(), body != null
+                        ? HttpRequest.BodyPublishers.ofByteArray(body)
+                        : HttpRequest.BodyPublishers.noBody());
+
+        var readTimeout = request.resolveProperty(ClientProperties.READ_TIMEOUT, 0L);
+        if (readTimeout > 0)
+            builder.timeout(Duration.ofMillis(readTimeout));
+
+        for (var header : request.getStringHeaders().entrySet()) {
+            if (RESTRICTED_HEADERS.contains(header.getKey()))
+                continue;
+            for (var value : header.getValue())
+                builder.header(header.getKey(), value);
+        }
+
+        return builder.build();
+    }
+
+    private static ClientResponse createResponse(ClientRequest request, HttpResponse<InputStream> response) {
+        var result = new ClientResponse(Statuses.from(response.statusCode()), request, response.uri());
+        response.headers().map().forEach((name, values) -> {
+            // Skip HTTP/2 pseudo headers
+            if (!name.startsWith(":"))
+                result.getHeaders().addAll(name, values);
+        });
+        // Jersey checks for empty entities with mark and reset, which HttpClient streams don't support
+        result.setEntityStream(new BufferedInputStream(response.body()));
+        return result;
+    }
+
+    @Override
+    public ClientResponse apply(ClientRequest request) {
+        try {
+            var response = _client.send(createRequest(request), HttpResponse.BodyHandlers.ofInputStream());
+            return createResponse(request, response);
+        } catch (IOException ex) {
+            throw new ProcessingException(ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public Future<?> apply(ClientRequest request, AsyncConnectorCallback callback) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = createRequest(request);
+        } catch (IOException ex) {
+            var error = new ProcessingException(ex.getMessage(), ex);
+            callback.failure(error);
+            return CompletableFuture.failedFuture(error);
+        }
+
+        return _client.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofInputStream())
+                .whenComplete((response, err) -> {
+                    if (err != null) {
+                        var cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+                        callback.failure(new ProcessingException(cause.getMessage(), cause));
+                    } else {
+                        callback.response(createResponse(request, response));
+                    }
+                });
+    }
+
+    @Override
+    public String getName() {
+        return "JDK HttpClient";
+    }
+
+    @Override
+    public void close() {
+        // HttpClient releases its connections when it is garbage collected
+    }
+}
@@ -1,10 +1,13 @@
 package org.pipservices4.http.clients;
 
+import jakarta.ws.rs.HttpMethod;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.Invocation;
 import jakarta.ws.rs.core.*;
 import net.jodah.failsafe.Failsafe;
+import net.jodah.failsafe.FailsafeException;
 import net.jodah.failsafe.RetryPolicy;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
@@ -24,12 +27,19 @@ import org.pipservices4.observability.count.CompositeCounters;
 import org.pipservices4.observability.log.CompositeLogger;
 import org.pipservices4.observability.trace.CompositeTracer;
 import org.pipservices4.config.connect.HttpConnectionResolver;
+import org.pipservices4.rpc.clients.ResiliencePolicy;
 import org.pipservices4.rpc.trace.InstrumentTiming;
 
+import java.io.IOException;
+import java.net.ConnectException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 /**
  * Abstract client that calls remove endpoints using HTTP/REST protocol.
@@ -48,11 +58,32 @@ import java.time.temporal.ChronoUnit;
  * <li>options:
  *   <ul>
  *   <li>retries:               number of retries (default: 3)
+ *   <li>retry_delay:           initial delay between retries in milliseconds, doubled after every retry (default: 100)
+ *   <li>max_retry_delay:       maximum delay between retries in milliseconds (default: 5 sec)
  *   <li>connect_timeout:       connection timeout in milliseconds (default: 10 sec)
  *   <li>timeout:               invocation timeout in milliseconds (default: 10 sec)
+ *   <li>connector:             HTTP connector: "default" (HttpURLConnection), "apache" (pooled Apache HttpClient 5)
+ *                              or "jdk" (JDK HttpClient) (default: "default")
+ *   <li>max_connections:       maximum number of open connections for "apache" connector (default: 100)
+ *   <li>max_connections_per_route: maximum number of open connections to one host for "apache" connector (default: 20)
+ *   <li>http2:                 negotiate HTTP/2 in "jdk" connector (default: false)
+ *   <li>circuit_breaker:       enables circuit breaker for the remote service (default: false)
+ *   <li>circuit_failure_threshold: number of consecutive failures that opens the circuit (default: 5)
+ *   <li>circuit_reset_timeout: time in milliseconds before an open circuit lets a trial call through (default: 30 sec)
+ *   <li>max_concurrent_calls:  maximum number of concurrent calls or 0 for unlimited (default: 0)
+ *   <li>max_queue_time:        maximum time in milliseconds to wait for a free call slot (default: 0)
+ *   <li>adaptive_timeout:      calculates invocation timeout from observed latencies (default: false)
+ *   <li>min_timeout:           minimum adaptive timeout in milliseconds (default: 1 sec)
+ *   <li>hedge_delay:           delay in milliseconds before a hedged GET or HEAD request, 0 to disable (default: 0)
  *   </ul>
  * </ul>
  * <p>
+ * Failed calls are retried with jittered exponential backoff. Idempotent methods (GET, HEAD, PUT, DELETE, OPTIONS)
+ * are retried after any connection or I/O error, other methods only when the connection could not be established.
+ * Calls are protected by {@link ResiliencePolicy}: circuit breaker and bulkhead reject calls with
+ * {@link ConnectionException} instead of waiting for a failing or overloaded service.
+ * "apache" connector requires <code>org.glassfish.jersey.connectors:jersey-apache5-connector</code> in classpath.
+ * <p>
  * ### References ###
  * <ul>
  * <li>*:logger:*:*:1.0           (optional) <a href="https://pip-services4-java.github.io/pip-services4-observability-java/org/pipservices4/observability/log/ILogger.html">ILogger</a> components to pass log messages
@@ -99,6 +130,12 @@ public class RestClient implements IOpenable, IConfigurable, IReferenceable {
             "options.connect_timeout", 10000,
             "options.timeout", 10000,
             "options.retries", 3,
+            "options.retry_delay", 100,
+            "options.max_retry_delay", 5000,
+            "options.connector", "default",
+            "options.max_connections", 100,
+            "options.max_connections_per_route", 20,
+            "options.http2", false,
             "options.debug", true
     );
 
@@ -131,6 +168,14 @@ public class RestClient implements IOpenable, IConfigurable, IReferenceable {
      * The number of retries.
      */
     protected int _retries = 1;
+    /**
+     * The initial delay between retries in milliseconds.
+     */
+    protected long _retryDelay = 100;
+    /**
+     * The maximum delay between retries in milliseconds.
+     */
+    protected long _maxRetryDelay = 5000;
     /**
      * The connection timeout in milliseconds.
      */
@@ -149,6 +194,14 @@ public class RestClient implements IOpenable, IConfigurable, IReferenceable {
      * The remote service uri which is calculated on open.
      */
     protected String _url;
+    /**
+     * The circuit breaker, bulkhead, adaptive timeouts and hedging for remote calls.
+     */
+    protected ResiliencePolicy _resilience = new ResiliencePolicy(_counters);
+    /**
+     * The resilience target (host and port) which is calculated on open.
+     */
+    private String _target;
     /**
      * The HTTP client.
      */
@@ -170,10 +223,19 @@ public class RestClient implements IOpenable, IConfigurable, IReferenceable {
         _baseRoute = baseRoute;
     }
 
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of(
+            HttpMethod.GET, HttpMethod.HEAD, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.OPTIONS
+    );
+    private static final Set<String> HEDGED_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD);
+
     /**
-     * Client retry strategy
+     * Client retry strategy for idempotent methods
      */
     private RetryPolicy<Object> _retryPolicy;
+    /**
+     * Client retry strategy for other methods that retries only failed connections
+     */
+    private RetryPolicy<Object> _connectRetryPolicy;
 
     /**
      * Configures component by passing configuration parameters.
@@ -187,8 +249,11 @@ public class RestClient implements IOpenable, IConfigurable, IReferenceable {
         this._options = this._options.override(config.getSection("options"));
 
         this._retries = config.getAsIntegerWithDefault("options.retries", this._retries);
+        this._retryDelay = config.getAsLongWithDefault("options.retry_delay", this._retryDelay);
+        this._maxRetryDelay = config.getAsLongWithDefault("options.max_retry_delay", this._maxRetryDelay);
         this._connectTimeout = config.getAsLongWithDefault("options.connect_timeout", this._connectTimeout);
         this._timeout = config.getAsLongWithDefault("options.timeout", this._timeout);
+        this._resilience.configure(config);
 
         this._baseRoute = config.getAsStringWithDefault("base_route", this._baseRoute);
         this._contextLocation = config.getAsStringWithDefault("options.trace_id_place", this._contextLocation);
@@ -219,12 +284,11 @@ public class RestClient implements IOpenable, IConfigurable, IReferenceable {
      */
     protected InstrumentTiming instrument(IContext context, String name) {
         this._logger.trace(context, "Calling %s method", name);
-        this._counters.incrementOne(name + ".call_count");
+        if (!this._counters.isEmpty())
+            this._counters.incrementOne(name + ".call_count");
 
-        var counterTiming = this._counters.beginTiming(name + ".call_time");
-        var traceTiming = this._tracer.beginTrace(context, name, null);
         return new InstrumentTiming(context, name, "call",
-                this._logger, this._counters, counterTiming, traceTiming);
+                this._logger, this._counters, this._tracer);
     }
 
     /**
@@ -255,14 +319,15 @@ public class RestClient implements IOpenable, IConfigurable, IReferenceable {
         String host = connection.getHost();
         int port = connection.getPort();
         _url = protocol + "://" + host + ":" + port;
+        _target = host + ":" + port;
 
         ClientConfig clientConfig = new ClientConfig();
         clientConfig.property(ClientProperties.CONNECT_TIMEOUT, _connectTimeout);
         clientConfig.property(ClientProperties.READ_TIMEOUT, _timeout);
+        configureConnector(clientConfig, _options.getAsStringWithDefault("connector", "default"));
 
-        _retryPolicy = new RetryPolicy<>()
-                .withDelay(_timeout, _timeout * 10, ChronoUnit.MILLIS)
-                .withMaxRetries(_retries);
+        _retryPolicy = createRetryPolicy(true);
+        _connectRetryPolicy = createRetryPolicy(false);
 
         clientConfig.register(new JacksonFeature());
 
@@ -271,6 +336,66 @@ public class RestClient implements IOpenable, IConfigurable, IReferenceable {
         _logger.debug(context, "Connected via REST to %s", _url);
     }
 
+    /**
+     * Sets HTTP connector into the client configuration.
+     * Override this method to use a custom Jersey connector.
+     *
+     * @param clientConfig the client configuration.
+     * @param name         the connector name from "options.connector".
+     * @throws ConfigException when the connector is not supported.
+     */
+    protected void configureConnector(ClientConfig clientConfig, String name) throws ConfigException {
+        switch (name) {
+            case "default":
+                break;
+            case "apache":
+                ApacheClientConnector.configure(clientConfig,
+                        _options.getAsIntegerWithDefault("max_connections", 100),
+                        _options.getAsIntegerWithDefault("max_connections_per_route", 20));
+                break;
+            case "jdk":
+                clientConfig.connectorProvider(new JdkClientConnector.Provider(
+                        _options.getAsBooleanWithDefault("http2", false)));
+                break;
+            default:
+                throw new ConfigException(null, "UNSUPPORTED_CONNECTOR",
+                        "HTTP connector " + name + " is not supported");
+        }
+    }
+
+    private RetryPolicy<Object> createRetryPolicy(boolean idempotent) {
+        return new RetryPolicy<>()
+                .handleIf((failure) -> isRetryable(failure, idempotent))
+                .withBackoff(Math.max(_retryDelay, 1), Math.max(_maxRetryDelay, _retryDelay + 1), ChronoUnit.MILLIS)
+                .withJitter(0.25)
+                .withMaxRetries(_retries);
+    }
+
+    /**
+     * Checks if a failed call can be retried.
+     * Connection failures are always retried as the request never reached the server,
+     * and other I/O errors are retried only for idempotent methods.
+     *
+     * @param failure    the call error.
+     * @param idempotent <code>true</code> if the called method is idempotent.
+     * @return <code>true</code> if the call can be retried.
+     */
+    static boolean isRetryable(Throwable failure, boolean idempotent) {
+        for (var cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException)
+                return true;
+            if (idempotent && cause instanceof IOException)
+                return true;
+            if (cause.getCause() == cause)
+                break;
+        }
+        return false;
+    }
+
+    private RetryPolicy<Object> getRetryPolicy(String method) {
+        return IDEMPOTENT_METHODS.contains(method.toUpperCase()) ? _retryPolicy : _connectRetryPolicy;
+    }
+
     /**
      * Closes component and frees used resources.
      *
@@ -369,10 +494,87 @@ public class RestClient implements IOpenable, IConfigurable, IReferenceable {
             throw new InvalidStateException(ContextResolver.getTraceId(context), "NOT_OPENED", "Client is not opened");
         }
 
-        Response response;
-        response = Failsafe.with(_retryPolicy).get(
-                () -> _client.target(uri).request(mediaType).headers(_headers).method(method, body));
+        // Hedged requests are sent asynchronously, so the slower attempt doesn't block the caller
+        if (_resilience.isHedging() && HEDGED_METHODS.contains(method.toUpperCase()))
+            return awaitResponse(executeRequestAsync(context, method, uri, mediaType, body));
+
+        // Every attempt goes through the resilience policy, so retry delays
+        // don't hold a call slot and are not taken as call latency
+        try {
+            return Failsafe.with(getRetryPolicy(method)).get(() -> _resilience.execute(_target,
+                    () -> checkResponse(context, method, uri, createRequest(uri, mediaType).method(method, body))));
+        } catch (FailsafeException ex) {
+            // Application errors are checked exceptions, so they come wrapped
+            if (ex.getCause() instanceof ApplicationException appEx)
+                throw appEx;
+            throw ex;
+        }
+    }
+
+    /**
+     * Executes a request without blocking the calling thread.
+     * Failed attempts are retried in the background with the same policy as in {@link #executeRequest}.
+     *
+     * @param context   (optional) a context to trace execution through call chain.
+     * @param method    HTTP method: "get", "head", "post", "put", "delete"
+     * @param uri       the request URI.
+     * @param mediaType the accepted response media type.
+     * @param body      the request body.
+     * @return a future that completes with the received response or call error.
+     */
+    protected CompletableFuture<Response> executeRequestAsync(IContext context, String method, URI uri, String mediaType,
+                                                              Entity<?> body) {
+        if (_client == null) {
+            return CompletableFuture.failedFuture(
+                    new InvalidStateException(ContextResolver.getTraceId(context), "NOT_OPENED", "Client is not opened"));
+        }
+
+        Supplier<CompletableFuture<Response>> attempt = () -> createRequest(uri, mediaType).rx().method(method, body)
+                .toCompletableFuture()
+                .thenApply((result) -> {
+                    try {
+                        return checkResponse(context, method, uri, result);
+                    } catch (ApplicationException ex) {
+                        throw new CompletionException(ex);
+                    }
+                });
+
+        Supplier<CompletableFuture<Response>> request = () -> Failsafe.with(getRetryPolicy(method))
+                .getStageAsync(() -> _resilience.executeAsync(_target, attempt));
+
+        return HEDGED_METHODS.contains(method.toUpperCase())
+                ? _resilience.hedgeAsync(_target, request, Response::close)
+                : request.get();
+    }
+
+    private Invocation.Builder createRequest(URI uri, String mediaType) {
+        Invocation.Builder request = _client.target(uri).request(mediaType).headers(_headers);
+
+        long timeout = _resilience.getTimeout(_target, _timeout);
+        if (timeout != _timeout)
+            request.property(ClientProperties.READ_TIMEOUT, timeout);
+
+        return request;
+    }
+
+    private static Response awaitResponse(CompletableFuture<Response> response) throws ApplicationException {
+        try {
+            return response.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex;
+            while (cause instanceof CompletionException && cause.getCause() != null)
+                cause = cause.getCause();
+
+            if (cause instanceof ApplicationException appEx)
+                throw appEx;
+            if (cause instanceof RuntimeException runtimeEx)
+                throw runtimeEx;
+            throw ex;
+        }
+    }
 
+    private Response checkResponse(IContext context, String method, URI uri, Response response)
+            throws ApplicationException {
         if (response == null) {
             throw new UnknownException(ContextResolver.getTraceId(context), "NO_RESPONSE",
                     "Unable to get a result from " + method + " " + uri);
@@ -407,6 +609,15 @@ public class RestClient implements IOpenable, IConfigurable, IReferenceable {
         return executeRequest(context, method, uri, MediaType.APPLICATION_JSON, body);
     }
 
+    private CompletableFuture<Response> executeJsonRequestAsync(IContext context, String method, String route,
+                                                                Object requestEntity) {
+        route = addTraceId(route, context);
+        URI uri = createRequestUri(route);
+
+        Entity<?> body = Entity.entity(requestEntity, MediaType.APPLICATION_JSON);
+        return executeRequestAsync(context, method, uri, MediaType.APPLICATION_JSON, body);
+    }
+
     /**
      * Executes a remote method via HTTP/REST protocol.
      *
@@ -453,4 +664,41 @@ public class RestClient implements IOpenable, IConfigurable, IReferenceable {
 //        }
     }
 
+    /**
+     * Executes a remote method via HTTP/REST protocol without blocking the calling thread.
+     *
+     * @param type          the class type of data.
+     * @param context     (optional) a context to trace execution through call chain.
+     * @param method        HTTP method: "get", "head", "post", "put", "delete"
+     * @param route         a command route. Base route will be added to this route
+     * @param requestEntity request body object.
+     * @return a future that completes with the result object or call error.
+     */
+    protected <T> CompletableFuture<T> callAsync(Class<T> type, IContext context, String method, String route,
+                                                 Object requestEntity) {
+        return executeJsonRequestAsync(context, method, route, requestEntity).thenApply((response) -> {
+            try (response) {
+                return response.readEntity(type);
+            }
+        });
+    }
+
+    /**
+     * Executes a remote method via HTTP/REST protocol without blocking the calling thread.
+     *
+     * @param type          the generic class type of data.
+     * @param context     (optional) a context to trace execution through call chain.
+     * @param method        HTTP method: "get", "head", "post", "put", "delete"
+     * @param route         a command route. Base route will be added to this route
+     * @param requestEntity request body object.
+     * @return a future that completes with the result object or call error.
+     */
+    protected <T> CompletableFuture<T> callAsync(GenericType<T> type, IContext context, String method, String route,
+                                                 Object requestEntity) {
+        return executeJsonRequestAsync(context, method, route, requestEntity).thenApply((response) -> {
+            try (response) {
+                return response.readEntity(type);
+            }
+        });
+    }
 }
@@ -4,7 +4,13 @@ import jakarta.ws.rs.HttpMethod;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.core.Response;
 import org.glassfish.jersey.process.Inflector;
+import org.pipservices4.commons.convert.StringConverter;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.commons.errors.BadRequestException;
+import org.pipservices4.commons.errors.ErrorDescriptionFactory;
 import org.pipservices4.components.context.Context;
+import org.pipservices4.components.context.ContextResolver;
+import org.pipservices4.components.context.IContext;
 import org.pipservices4.components.refer.ReferenceException;
 import org.pipservices4.rpc.commands.CommandSet;
 import org.pipservices4.rpc.commands.ICommand;
@@ -14,6 +20,11 @@ import org.pipservices4.commons.errors.ConfigException;
 import org.pipservices4.components.exec.Parameters;
 import org.pipservices4.rpc.trace.InstrumentTiming;
 
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Abstract service that receives remove calls via HTTP/REST protocol
  * to operations automatically generated for commands defined in <a href="https://pip-services4-java.github.io/pip-services4-rpc-java/org/pipservices4/rpc/commands/ICommandable.html">ICommandable</a> components.
@@ -38,8 +49,20 @@ import org.pipservices4.rpc.trace.InstrumentTiming;
  *   <li>port:                  port number
  *   <li>uri:                   resource URI or connection string with all parameters in it
  *   </ul>
+ * <li>batch:
+ *   <ul>
+ *   <li>enable:                enables "_batch" route to execute multiple commands in one request (default: false)
+ *   <li>max_size:              maximum number of commands in one batch (default: 100)
+ *   <li>threads:               number of threads to execute commands of a batch in parallel, 0 to execute them one by one (default: 0)
+ *   </ul>
  * </ul>
  * <p>
+ * "_batch" route receives an array of <code>{"command": name, "args": {...}}</code> objects and responds
+ * with an array of the same size, where each element is <code>{"result": value}</code>
+ * or <code>{"error": ErrorDescription}</code>. Every command is instrumented as if it were called through its own route.
+ * Interceptors registered on individual command routes (e.g. authorization) are not applied to batched commands,
+ * so when the batch is enabled the "_batch" route must be protected separately, for instance with an interceptor on its own route.
+ * <p>
  * ### References ###
  * <ul>
  * <li>*:logger:*:*:1.0           (optional) <a href="https://pip-services4-java.github.io/pip-services4-observability-java/org/pipservices4/observability/log/ILogger.html">ILogger</a> components to pass log messages
@@ -81,6 +104,20 @@ import org.pipservices4.rpc.trace.InstrumentTiming;
 public class CommandableHttpController extends RestController {
     protected CommandSet _commandSet;
     protected boolean _swaggerAuto = true;
+    /**
+     * The flag to register "_batch" route.
+     */
+    protected boolean _batchEnable = false;
+    /**
+     * The maximum number of commands in one batch.
+     */
+    protected int _batchMaxSize = 100;
+    /**
+     * The number of threads to execute batch commands in parallel.
+     */
+    protected int _batchThreads = 0;
+
+    private ExecutorService _batchExecutor;
 
     /**
      * Creates a new instance of the service.
@@ -101,6 +138,27 @@ public class CommandableHttpController extends RestController {
         super.configure(config);
 
         this._swaggerAuto = config.getAsBooleanWithDefault("swagger.auto", this._swaggerAuto);
+        this._batchEnable = config.getAsBooleanWithDefault("batch.enable", this._batchEnable);
+        this._batchMaxSize = config.getAsIntegerWithDefault("batch.max_size", this._batchMaxSize);
+        this._batchThreads = config.getAsIntegerWithDefault("batch.threads", this._batchThreads);
+    }
+
+    /**
+     * Closes component and frees used resources.
+     *
+     * @param context (optional) a context to trace execution through call chain.
+     * @throws ApplicationException when error occured.
+     */
+    @Override
+    public void close(IContext context) throws ApplicationException {
+        super.close(context);
+
+        synchronized (this) {
+            if (_batchExecutor != null) {
+                _batchExecutor.shutdown();
+                _batchExecutor = null;
+            }
+        }
     }
 
     /**
@@ -122,6 +180,15 @@ public class CommandableHttpController extends RestController {
             });
         }
 
+        if (this._batchEnable) {
+            registerRoute(HttpMethod.POST, "_batch", new Inflector<ContainerRequestContext, Response>() {
+                @Override
+                public Response apply(ContainerRequestContext request) {
+                    return executeBatch(request);
+                }
+            });
+        }
+
         if (this._swaggerAuto) {
             var swaggerConfig = this._config.getSection("swagger");
             var doc = new CommandableSwaggerDocument(this._baseRoute, swaggerConfig, commands);
@@ -135,9 +202,8 @@ public class CommandableHttpController extends RestController {
         InstrumentTiming timing = instrument(context, _baseRoute + '.' + command.getName());
 
         try {
-            String json = getBodyAsString(request);
-
-            Parameters parameters = json == null ? new Parameters() : Parameters.fromJson(json);
+            var body = getBodyAsMap(request);
+            Parameters parameters = body == null ? new Parameters() : new Parameters(body);
 
             Object result = command.execute(context, parameters);
             timing.endTiming();
@@ -148,4 +214,80 @@ public class CommandableHttpController extends RestController {
         }
     }
 
+    private Response executeBatch(ContainerRequestContext request) {
+        var traceId = this.getTraceId(request);
+        var context = traceId != null ? Context.fromTraceId(traceId) : null;
+
+        List<?> entries;
+        try {
+            entries = getBodyAsJson(List.class, request);
+            if (entries == null) {
+                throw new BadRequestException(traceId, "NO_COMMANDS", "Batch request must contain an array of commands");
+            }
+            if (entries.size() > _batchMaxSize) {
+                throw new BadRequestException(traceId, "BATCH_TOO_LARGE",
+                        "Batch request contains more than " + _batchMaxSize + " commands")
+                        .withDetails("max_size", _batchMaxSize);
+            }
+        } catch (Exception ex) {
+            return sendError(ex);
+        }
+
+        var results = new ArrayList<Map<String, Object>>(entries.size());
+        var executor = entries.size() > 1 ? getBatchExecutor() : null;
+        if (executor == null) {
+            for (var entry : entries)
+                results.add(executeBatchEntry(context, entry));
+        } else {
+            var futures = new ArrayList<CompletableFuture<Map<String, Object>>>(entries.size());
+            for (var entry : entries)
+                futures.add(CompletableFuture.supplyAsync(() -> executeBatchEntry(context, entry), executor));
+            for (var future : futures)
+                results.add(future.join());
+        }
+
+        return sendResult(results);
+    }
+
+    private synchronized ExecutorService getBatchExecutor() {
+        if (_batchThreads <= 0)
+            return null;
+
+        if (_batchExecutor == null) {
+            _batchExecutor = Executors.newFixedThreadPool(_batchThreads, (runnable) -> {
+                var thread = new Thread(runnable, "batch-" + _baseRoute);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return _batchExecutor;
+    }
+
+    private Map<String, Object> executeBatchEntry(IContext context, Object entry) {
+        var result = new LinkedHashMap<String, Object>();
+
+        var map = entry instanceof Map<?, ?> entryMap ? entryMap : Map.of();
+        var name = StringConverter.toNullableString(map.get("command"));
+        var command = name != null ? _commandSet.findCommand(name) : null;
+        if (command == null) {
+            var error = new BadRequestException(ContextResolver.getTraceId(context), "CMD_NOT_FOUND",
+                    "Requested command does not exist").withDetails("command", name);
+            result.put("error", ErrorDescriptionFactory.create(error));
+            return result;
+        }
+
+        InstrumentTiming timing = instrument(context, _baseRoute + '.' + command.getName());
+        try {
+            var args = map.get("args");
+            Parameters parameters = args instanceof Map<?, ?> argsMap ? new Parameters(argsMap) : new Parameters();
+
+            result.put("result", command.execute(context, parameters));
+            timing.endTiming();
+        } catch (Exception ex) {
+            timing.endFailure(ex);
+            result.put("error", ErrorDescriptionFactory.create(ex));
+        }
+        return result;
+    }
+
 }
@@ -0,0 +1,118 @@
+package org.pipservices4.http.controllers;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.grizzly.http.server.NetworkListener;
+import org.glassfish.grizzly.ssl.SSLEngineConfigurator;
+import org.glassfish.grizzly.threadpool.ThreadPoolConfig;
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.config.IConfigurable;
+import org.pipservices4.components.exec.TaskExecutors;
+
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * HTTP server transport based on Grizzly NIO server.
+ * <p>
+ * It requires <code>org.glassfish.jersey.containers:jersey-container-grizzly2-http</code>
+ * in the application classpath.
+ * <p>
+ * ### Configuration parameters ###
+ * <ul>
+ * <li>options:
+ *     <ul>
+ *     <li>executor:                 request executor: "pool" or "virtual" (default: "pool")
+ *     <li>max_threads:              maximum number of request processing threads in "pool" mode (default: 100)
+ *     <li>request_queue_size:       maximum number of requests waiting for a free thread in "pool" mode (default: 1000)
+ *     <li>connection_backlog:       maximum number of connections waiting to be accepted (default: 4096)
+ *     <li>keep_alive_timeout:       timeout in milliseconds to keep idle connections open (default: 30000)
+ *     <li>keep_alive_max_requests:  maximum number of requests per connection, -1 for unlimited (default: 256)
+ *     </ul>
+ * </ul>
+ */
+public class GrizzlyHttpServerTransport implements IHttpServerTransport, IConfigurable {
+    private String _executorMode = TaskExecutors.POOL;
+    private int _maxThreads = 100;
+    private int _requestQueueSize = 1000;
+    private int _connectionBacklog = 4096;
+    private long _keepAliveTimeout = 30000;
+    private int _keepAliveMaxRequests = 256;
+
+    private HttpServer _server;
+    private ExecutorService _executor;
+
+    /**
+     * Configures component by passing configuration parameters.
+     *
+     * @param config configuration parameters to be set.
+     */
+    @Override
+    public void configure(ConfigParams config) {
+        _executorMode = config.getAsStringWithDefault("options.executor", _executorMode);
+        _maxThreads = config.getAsIntegerWithDefault("options.max_threads", _maxThreads);
+        _requestQueueSize = config.getAsIntegerWithDefault("options.request_queue_size", _requestQueueSize);
+        _connectionBacklog = config.getAsIntegerWithDefault("options.connection_backlog", _connectionBacklog);
+        _keepAliveTimeout = config.getAsLongWithDefault("options.keep_alive_timeout", _keepAliveTimeout);
+        _keepAliveMaxRequests = config.getAsIntegerWithDefault("options.keep_alive_max_requests", _keepAliveMaxRequests);
+    }
+
+    /**
+     * Gets the underlying Grizzly server.
+     *
+     * @return the Grizzly server or <code>null</code> if transport is closed.
+     */
+    public HttpServer getServer() {
+        return _server;
+    }
+
+    @Override
+    public void open(URI uri, ResourceConfig resources, SSLContext sslContext) throws Exception {
+        SSLEngineConfigurator sslConfigurator = sslContext != null
+                ? new SSLEngineConfigurator(sslContext, false, false, false)
+                : null;
+
+        _server = GrizzlyHttpServerFactory.createHttpServer(uri, resources, sslContext != null, sslConfigurator, false);
+
+        for (NetworkListener listener : _server.getListeners()) {
+            var transport = listener.getTransport();
+            if (TaskExecutors.VIRTUAL.equals(_executorMode)) {
+                if (_executor == null)
+                    _executor = TaskExecutors.newVirtualExecutor("pip-services-http");
+                transport.setWorkerThreadPool(_executor);
+            } else {
+                transport.setWorkerThreadPoolConfig(ThreadPoolConfig.defaultConfig()
+                        .setPoolName("pip-services-http")
+                        .setCorePoolSize(_maxThreads)
+                        .setMaxPoolSize(_maxThreads)
+                        .setQueueLimit(_requestQueueSize)
+                        .setDaemon(true));
+            }
+            transport.setServerConnectionBackLog(_connectionBacklog);
+
+            listener.getKeepAlive().setIdleTimeoutInSeconds((int) Math.max(1, _keepAliveTimeout / 1000));
+            listener.getKeepAlive().setMaxRequestsCount(_keepAliveMaxRequests);
+        }
+
+        try {
+            _server.start();
+        } catch (Exception ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (_server != null) {
+            _server.shutdownNow();
+            _server = null;
+        }
+        if (_executor != null) {
+            _executor.shutdown();
+            _executor = null;
+        }
+    }
+}
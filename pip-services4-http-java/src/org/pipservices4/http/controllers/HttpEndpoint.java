@@ -6,17 +6,17 @@ import jakarta.ws.rs.container.ContainerRequestFilter;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriBuilder;
 import jakarta.ws.rs.ext.Provider;
-import org.glassfish.jersey.jdkhttp.JdkHttpServerFactory;
 import org.glassfish.jersey.process.Inflector;
+import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.model.Resource;
 import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.components.config.IConfigurable;
-import org.pipservices4.commons.convert.JsonConverter;
 import org.pipservices4.commons.errors.ApplicationException;
 import org.pipservices4.commons.errors.ConfigException;
 import org.pipservices4.commons.errors.ConnectionException;
 import org.pipservices4.components.context.ContextResolver;
+import org.pipservices4.components.exec.TaskExecutors;
 import org.pipservices4.components.refer.DependencyResolver;
 import org.pipservices4.components.refer.IReferenceable;
 import org.pipservices4.components.refer.IReferences;
@@ -33,7 +33,6 @@ import org.pipservices4.components.context.IContext;
 
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
-import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.net.URI;
@@ -46,8 +45,8 @@ import java.security.KeyStore;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateFactory;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -73,8 +72,20 @@ import java.util.stream.Collectors;
  *     <li>"credential.ssl_crt_file" - the SSL certificate in PEM
  *     <li>"credential.ssl_ca_file" - the certificate authorities (root cerfiticates) in PEM
  *     </ul>
+ * <li>options:
+ *     <ul>
+ *     <li>"options.transport" - the HTTP server: "jdk", "grizzly" or "netty" (default: "jdk")
+ *     <li>"options.executor" - the request executor: "pool" for a bounded thread pool or "virtual" for a virtual thread per request (default: "pool")
+ *     <li>"options.max_threads" - maximum number of request processing threads (default: 100)
+ *     <li>"options.request_queue_size" - maximum number of requests waiting for a free thread (default: 1000)
+ *     <li>"options.max_connections" - maximum number of open connections, -1 for unlimited (default: -1)
+ *     <li>"options.keep_alive_timeout" - timeout in milliseconds to keep idle connections open (default: 30000)
+ *     </ul>
  * </ul>
  * <p>
+ * Not every transport supports every option, see {@link JdkHttpServerTransport},
+ * {@link GrizzlyHttpServerTransport} and {@link NettyHttpServerTransport} for details.
+ * <p>
  * ### References ###
  * <p>
  * A logger, counters, and a connection resolver can be referenced by passing the
@@ -117,7 +128,9 @@ public class HttpEndpoint implements IOpenable, IConfigurable, IReferenceable {
             "options.request_max_size", 1024 * 1024,
             "options.connect_timeout", 60000,
             "options.connect_timeout", 60000,
-            "options.debug", true);
+            "options.debug", true,
+            "options.transport", "jdk",
+            "options.executor", TaskExecutors.POOL);
 
     protected HttpConnectionResolver _connectionResolver = new HttpConnectionResolver();
     protected CompositeLogger _logger = new CompositeLogger();
@@ -125,9 +138,11 @@ public class HttpEndpoint implements IOpenable, IConfigurable, IReferenceable {
     protected DependencyResolver _dependencyResolver = new DependencyResolver(_defaultConfig);
 
     private String _url;
-    private HttpServer _server;
+    private ConfigParams _config = new ConfigParams();
+    private IHttpServerTransport _transport;
     private ResourceConfig _resources;
     private final List<IRegisterable> _registrations = new ArrayList<>();
+    private final List<HttpInterceptor> _interceptors = new CopyOnWriteArrayList<>();
 
     private boolean _protocolUpgradeEnabled = false;
     private boolean _maintenanceEnabled = false;
@@ -165,6 +180,11 @@ public class HttpEndpoint implements IOpenable, IConfigurable, IReferenceable {
     public void configure(ConfigParams config) throws ConfigException {
         config = config.setDefaults(_defaultConfig);
         _connectionResolver.configure(config);
+        _config = config;
+
+        var executor = config.getAsString("options.executor");
+        if (!TaskExecutors.isValidMode(executor))
+            throw new ConfigException(null, "UNSUPPORTED_EXECUTOR", "HTTP executor " + executor + " is not supported");
 
         this._maintenanceEnabled = config.getAsBooleanWithDefault("options.maintenance_enabled", this._maintenanceEnabled);
         this._fileMaxSize = config.getAsLongWithDefault("options.file_max_size", this._fileMaxSize);
@@ -230,10 +250,20 @@ public class HttpEndpoint implements IOpenable, IConfigurable, IReferenceable {
     /**
      * Gets an HTTP server instance.
      *
-     * @return an HTTP server instance of <code>null</code> if endpoint is closed.
+     * @return an HTTP server instance of <code>null</code> if endpoint is closed
+     * or it doesn't use JDK transport.
      */
     public HttpServer getServer() {
-        return this._server;
+        return _transport instanceof JdkHttpServerTransport jdkTransport ? jdkTransport.getServer() : null;
+    }
+
+    /**
+     * Gets the HTTP server transport.
+     *
+     * @return the transport or <code>null</code> if endpoint is closed.
+     */
+    public IHttpServerTransport getTransport() {
+        return _transport;
     }
 
     /**
@@ -244,7 +274,7 @@ public class HttpEndpoint implements IOpenable, IConfigurable, IReferenceable {
      */
     @Override
     public boolean isOpen() {
-        return _server != null;
+        return _transport != null;
     }
 
     /**
@@ -270,6 +300,8 @@ public class HttpEndpoint implements IOpenable, IConfigurable, IReferenceable {
 
         try {
             _resources = new ResourceConfig();
+            _interceptors.clear();
+            _resources.register(new InterceptorDispatcher());
 
             if (Objects.equals(connection.getAsStringWithDefault("protocol", "http"), "https")) {
                 // TODO check using of certificates
@@ -312,20 +344,40 @@ public class HttpEndpoint implements IOpenable, IConfigurable, IReferenceable {
 
             performRegistrations();
 
-            if (sslContext != null)
-                _server = JdkHttpServerFactory.createHttpServer(uri, _resources, sslContext);
-            else
-                _server = JdkHttpServerFactory.createHttpServer(uri, _resources);
-//			_server.start();
+            if (TaskExecutors.VIRTUAL.equals(_config.getAsString("options.executor")) && !TaskExecutors.isVirtualSupported())
+                _logger.warn(context, "Virtual threads are not supported by this JVM, HTTP endpoint uses platform threads");
+
+            var transport = createTransport(_config.getAsString("options.transport"));
+            if (transport instanceof IConfigurable configurable)
+                configurable.configure(_config);
+            transport.open(uri, _resources, sslContext);
+            _transport = transport;
 
             _logger.info(context, "Opened REST service at %s", _url);
         } catch (Exception ex) {
-            _server = null;
+            _transport = null;
             throw new ConnectionException(ContextResolver.getTraceId(context), "CANNOT_CONNECT", "Opening HTTP endpoint failed").wrap(ex)
                     .withDetails("url", _url);
         }
     }
 
+    /**
+     * Creates an HTTP server transport by its name.
+     * Override this method to support custom transports.
+     *
+     * @param name the transport name: "jdk", "grizzly" or "netty".
+     * @return a created transport.
+     * @throws ConfigException when transport name is not supported.
+     */
+    protected IHttpServerTransport createTransport(String name) throws ConfigException {
+        return switch (name != null ? name.toLowerCase() : "jdk") {
+            case "jdk" -> new JdkHttpServerTransport();
+            case "grizzly" -> new GrizzlyHttpServerTransport();
+            case "netty" -> new NettyHttpServerTransport();
+            default -> throw new ConfigException(null, "UNSUPPORTED_TRANSPORT", "HTTP transport " + name + " is not supported");
+        };
+    }
+
     private String readCertFile(String path) throws IOException {
         if (path == null) return null;
 
@@ -341,15 +393,15 @@ public class HttpEndpoint implements IOpenable, IConfigurable, IReferenceable {
      */
     @Override
     public void close(IContext context) {
-        if (_server != null) {
+        if (_transport != null) {
             // Eat exceptions
             try {
-                _server.stop(0);
+                _transport.close();
                 _logger.info(context, "Closed HTTP endpoint at %s", _url);
             } catch (Exception ex) {
                 _logger.warn(context, "Failed while closing HTTP endpoint: %s", ex);
             }
-            _server = null;
+            _transport = null;
             _resources = null;
             _url = null;
         }
@@ -469,6 +521,28 @@ public class HttpEndpoint implements IOpenable, IConfigurable, IReferenceable {
         this.registerRoute(method, route, actionCurl);
     }
 
+    /**
+     * Registers an action in this objects REST server (service) by the given method
+     * and route, and encodes its responses with the given options.
+     *
+     * @param method  the HTTP method of the route.
+     * @param route   the route to register in this object's REST server (service).
+     * @param schema  the schema to use for parameter validation.
+     * @param options the response compression and ETag options.
+     * @param action  the action to perform at the given route.
+     * @see HttpResponseOptions
+     */
+    public void registerRoute(String method, String route, Schema schema, HttpResponseOptions options,
+                              Inflector<ContainerRequestContext, Response> action) {
+        if (options == null) {
+            this.registerRoute(method, route, schema, action);
+            return;
+        }
+
+        this.registerRoute(method, route, schema,
+                (req) -> HttpResponseEncoder.encode(req, action.apply(req), options));
+    }
+
     /**
      * Registers an action with authorization in this objects REST server (service)
      * by the given method and route.
@@ -490,27 +564,29 @@ public class HttpEndpoint implements IOpenable, IConfigurable, IReferenceable {
     }
 
     @Provider
-    private static class InterceptorRegister implements ContainerRequestFilter {
-        private final Function<ContainerRequestContext, ?> _interceptor;
-        private final String _route;
-
-        public InterceptorRegister(Function<ContainerRequestContext, ?> interceptor, String route) {
-            _interceptor = interceptor;
-            _route = route;
-        }
-
+    private class InterceptorDispatcher implements ContainerRequestFilter {
         @Override
         public void filter(ContainerRequestContext ctx) throws IOException {
-            Pattern stringPattern = Pattern.compile(_route);
-            var matcher = stringPattern.matcher(fixRoute(ctx.getUriInfo().getPath(true)));
-            var resMatch = new ArrayList<String>();
+            if (_interceptors.isEmpty())
+                return;
 
-            while (matcher.find())
-                resMatch.add(matcher.group());
+            var path = fixRoute(ctx.getUriInfo().getPath(true));
+            for (HttpInterceptor interceptor : _interceptors) {
+                if (!interceptor.matches(path))
+                    continue;
 
-            if (!resMatch.isEmpty() && _route != null && !_route.isEmpty())
-                _interceptor.apply(ctx);
+                CounterTiming timing = !_counters.isEmpty() ? _counters.beginTiming(interceptor.getCounterName()) : null;
+                try {
+                    interceptor.apply(ctx);
+                } finally {
+                    if (timing != null)
+                        timing.endTiming();
+                }
 
+                // Like Jersey filter chain, the rest of interceptors is skipped for an aborted request
+                if (ctx instanceof ContainerRequest request && request.getAbortResponse() != null)
+                    break;
+            }
         }
     }
 
@@ -522,10 +598,33 @@ public class HttpEndpoint implements IOpenable, IConfigurable, IReferenceable {
     }
 
 
+    /**
+     * Registers a middleware action for the given route.
+     * The route is a regular expression that is searched in the request path.
+     * Interceptors are called in the order of registration until one of them aborts the request,
+     * and the time of every call is measured by "&lt;route&gt;.interceptor_time" counter.
+     * Different routes with the same counter name get numbered names like "&lt;route&gt;_2.interceptor_time".
+     *
+     * @param route  a route regular expression.
+     * @param action an action function that is called when middleware is invoked.
+     */
     public void registerInterceptor(String route, Function<ContainerRequestContext, ?> action) {
         route = fixRoute(route);
 
-        _resources.register(new InterceptorRegister(action, route));
+        int number = 1;
+        var counterName = HttpInterceptor.getCounterName(route, number);
+        while (isCounterNameTaken(counterName, route))
+            counterName = HttpInterceptor.getCounterName(route, ++number);
+
+        _interceptors.add(new HttpInterceptor(route, counterName, action));
+    }
+
+    private boolean isCounterNameTaken(String counterName, String route) {
+        for (var interceptor : _interceptors) {
+            if (interceptor.getCounterName().equals(counterName) && !Objects.equals(interceptor.getRoute(), route))
+                return true;
+        }
+        return false;
     }
 
     private Map<?, ?> getAllParams(ContainerRequestContext req) {
@@ -533,23 +632,17 @@ public class HttpEndpoint implements IOpenable, IConfigurable, IReferenceable {
         var pathParams = req.getUriInfo().getPathParameters();
         var queryParams = req.getUriInfo().getQueryParameters();
 
-        byte[] bodyBytes;
         Map<String, Object> body;
 
         try {
-            bodyBytes = req.getEntityStream().readAllBytes();
-            var json = new String(bodyBytes, StandardCharsets.UTF_8);
-
-            body = JsonConverter.toMap(json);
-
-            // return req to the initial state
-            req.setEntityStream(new ByteArrayInputStream(bodyBytes));
+            // The parsed body is cached in the request and reused by the route action
+            body = HttpRequestBody.getNullableMap(req);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
 
         var params = new HashMap<>();
-        params.put("body", body);
+        params.put("body", body != null ? body : new HashMap<>());
 
 
         pathParams.forEach((k, v) -> {
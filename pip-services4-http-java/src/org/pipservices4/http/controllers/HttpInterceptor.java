@@ -0,0 +1,148 @@
+package org.pipservices4.http.controllers;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Interceptor registered in {@link HttpEndpoint} with its route compiled once.
+ * <p>
+ * A route is a regular expression searched in the request path.
+ * The literal text at its beginning is checked with a plain string search first,
+ * so the expression is evaluated only for paths that can match.
+ */
+class HttpInterceptor {
+    private static final String SPECIAL_CHARS = "\\^$.|?*+()[]{}";
+
+    private final String _route;
+    private final Pattern _pattern;
+    private final String _literal;
+    private final boolean _exact;
+    private final boolean _suffix;
+    private final String _counterName;
+    private final Function<ContainerRequestContext, ?> _action;
+
+    /**
+     * Creates a new instance of the interceptor.
+     *
+     * @param route  a regular expression to search in the request path.
+     * @param action an action function that is called when the route matches.
+     */
+    public HttpInterceptor(String route, Function<ContainerRequestContext, ?> action) {
+        this(route, getCounterName(route, 1), action);
+    }
+
+    /**
+     * Creates a new instance of the interceptor.
+     *
+     * @param route       a regular expression to search in the request path.
+     * @param counterName a name of the counter that measures interceptor execution time.
+     * @param action      an action function that is called when the route matches.
+     */
+    public HttpInterceptor(String route, String counterName, Function<ContainerRequestContext, ?> action) {
+        _route = route;
+        _action = action;
+        _pattern = route != null && !route.isEmpty() ? Pattern.compile(route) : null;
+        _counterName = counterName;
+
+        if (_pattern == null || route.indexOf('|') >= 0) {
+            // Alternatives have no required literal
+            _literal = "";
+            _exact = false;
+            _suffix = false;
+            return;
+        }
+
+        int index = 0;
+        while (index < route.length() && SPECIAL_CHARS.indexOf(route.charAt(index)) < 0)
+            index++;
+
+        var literal = route.substring(0, index);
+        var rest = route.substring(index);
+        // Optional quantifiers make the previous character optional
+        if (!rest.isEmpty() && "?*{".indexOf(rest.charAt(0)) >= 0 && !literal.isEmpty())
+            literal = literal.substring(0, literal.length() - 1);
+
+        _literal = literal;
+        _exact = rest.isEmpty();
+        _suffix = rest.equals("$");
+    }
+
+    /**
+     * Gets the interceptor route.
+     *
+     * @return the route regular expression.
+     */
+    public String getRoute() {
+        return _route;
+    }
+
+    /**
+     * Gets the name of the counter that measures interceptor execution time.
+     *
+     * @return the counter name.
+     */
+    public String getCounterName() {
+        return _counterName;
+    }
+
+    /**
+     * Checks if the interceptor applies to the given request path.
+     *
+     * @param path the request path that starts with '/'.
+     * @return <code>true</code> if the route matches the path.
+     */
+    public boolean matches(String path) {
+        if (_pattern == null || path == null)
+            return false;
+
+        if (_exact)
+            return path.contains(_literal);
+        if (_suffix)
+            return path.endsWith(_literal);
+        if (!_literal.isEmpty() && !path.contains(_literal))
+            return false;
+
+        return _pattern.matcher(path).find();
+    }
+
+    /**
+     * Calls the interceptor action.
+     *
+     * @param request the HTTP request.
+     */
+    public void apply(ContainerRequestContext request) {
+        _action.apply(request);
+    }
+
+    /**
+     * Gets the name of the counter that measures interceptor execution time.
+     * Only letters, digits and path separators of the route are kept, so different routes
+     * may get the same name. They are told apart by the number added to the name.
+     *
+     * @param route  a regular expression of the interceptor route.
+     * @param number a number of the interceptor with the same name, starting from 1.
+     * @return the counter name.
+     */
+    static String getCounterName(String route, int number) {
+        var name = new StringBuilder();
+        if (route != null) {
+            for (char chr : route.toCharArray()) {
+                if (chr == '/') {
+                    if (!name.isEmpty() && name.charAt(name.length() - 1) != '.')
+                        name.append('.');
+                } else if (Character.isLetterOrDigit(chr) || chr == '_' || chr == '-') {
+                    name.append(chr);
+                }
+            }
+        }
+        if (!name.isEmpty() && name.charAt(name.length() - 1) == '.')
+            name.setLength(name.length() - 1);
+        if (number > 1)
+            name.append('_').append(number);
+        if (!name.isEmpty())
+            name.append('.');
+        return name + "interceptor_time";
+    }
+}
@@ -0,0 +1,132 @@
+package org.pipservices4.http.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import org.pipservices4.commons.convert.JsonConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Helper class that reads and parses HTTP request body once per request.
+ * <p>
+ * The body is read into a reusable per-thread buffer and kept as a request property
+ * together with its parsed map. Schema validation in {@link HttpEndpoint}
+ * and controller methods like {@link RestController#getBodyAsJson} share the same
+ * parsed map, and the entity stream is reset so it can still be read directly.
+ */
+public class HttpRequestBody {
+    private static final String BYTES_PROPERTY = "pip-services.body.bytes";
+    private static final String MAP_PROPERTY = "pip-services.body.map";
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+    private static final ThreadLocal<byte[]> _buffers = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    private static final ObjectMapper _mapper = JsonConverter.getMapper();
+    private static final TypeReference<Map<String, Object>> typeRef = new TypeReference<>() {
+    };
+
+    /**
+     * Gets request body as bytes. The body is read only on the first call.
+     *
+     * @param request HTTP request
+     * @return request body bytes.
+     * @throws IOException when reading of the body failed.
+     */
+    public static byte[] getBytes(ContainerRequestContext request) throws IOException {
+        var bytes = (byte[]) request.getProperty(BYTES_PROPERTY);
+        if (bytes == null) {
+            bytes = readAll(request.getEntityStream());
+            request.setProperty(BYTES_PROPERTY, bytes);
+        }
+
+        // Return the request to the initial state for code that reads the stream directly
+        request.setEntityStream(new ByteArrayInputStream(bytes));
+        return bytes;
+    }
+
+    /**
+     * Gets request body as a string.
+     *
+     * @param request HTTP request
+     * @return request body string.
+     * @throws IOException when reading of the body failed.
+     */
+    public static String getString(ContainerRequestContext request) throws IOException {
+        return new String(getBytes(request), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets request body as a map. The body is parsed only on the first call.
+     *
+     * @param request HTTP request
+     * @return map object or <code>null</code> if the body is not a JSON object.
+     * @throws IOException when reading of the body failed.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> getNullableMap(ContainerRequestContext request) throws IOException {
+        var map = (Map<String, Object>) request.getProperty(MAP_PROPERTY);
+        if (map == null) {
+            var bytes = getBytes(request);
+            if (bytes.length == 0)
+                return null;
+
+            try {
+                map = _mapper.readValue(bytes, typeRef);
+            } catch (JsonProcessingException ex) {
+                return null;
+            }
+
+            if (map != null)
+                request.setProperty(MAP_PROPERTY, map);
+        }
+        return map;
+    }
+
+    /**
+     * Gets request body converted into a value of the given type.
+     * When the body was already parsed, the value is bound from the parsed map.
+     *
+     * @param type    the class type of result object.
+     * @param request HTTP request
+     * @return converted object value.
+     * @throws IOException when reading or conversion of the body failed.
+     */
+    public static <T> T getAs(Class<T> type, ContainerRequestContext request) throws IOException {
+        var map = request.getProperty(MAP_PROPERTY);
+        if (map != null) {
+            try {
+                return _mapper.convertValue(map, type);
+            } catch (IllegalArgumentException ex) {
+                throw new IOException(ex.getMessage(), ex);
+            }
+        }
+
+        return _mapper.readValue(getBytes(request), type);
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        if (stream == null)
+            return new byte[0];
+
+        var buffer = _buffers.get();
+        int length = 0;
+        int read;
+        while ((read = stream.read(buffer, length, buffer.length - length)) >= 0) {
+            length += read;
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                if (buffer.length <= MAX_POOLED_BUFFER_SIZE)
+                    _buffers.set(buffer);
+            }
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+}
@@ -0,0 +1,239 @@
+package org.pipservices4.http.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.pipservices4.commons.convert.JsonConverter;
+import org.pipservices4.data.data.ITrackable;
+import org.pipservices4.data.data.IVersioned;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Applies {@link HttpResponseOptions} to responses of a route: adds ETags,
+ * answers conditional GET requests and compresses response bodies.
+ * <p>
+ * Entities are serialized here with the same settings as JsonConverter,
+ * so the ETag hash and compression work on the bytes that are actually sent.
+ * Streamed entities are compressed on the fly and get no ETag.
+ */
+class HttpResponseEncoder {
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    private static final int NOT_MODIFIED = 304;
+    private static final int OK = 200;
+
+    private static final ObjectMapper _mapper = JsonConverter.getMapper();
+
+    /**
+     * Encodes a response according to the route options.
+     *
+     * @param request  the HTTP request.
+     * @param response the response returned by the route action.
+     * @param options  the route response options.
+     * @return the encoded response.
+     */
+    public static Response encode(ContainerRequestContext request, Response response, HttpResponseOptions options) {
+        if (response == null || options == null || (!options.isCompression() && !options.isETag()))
+            return response;
+
+        var entity = response.getEntity();
+        if (entity == null || response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING))
+            return response;
+
+        if (entity instanceof StreamingOutput output) {
+            var encoding = options.isCompression() ? negotiateEncoding(request.getHeaderString(HttpHeaders.ACCEPT_ENCODING)) : null;
+            if (encoding == null)
+                return response;
+
+            return Response.fromResponse(response)
+                    .entity(compress(output, encoding, options.getCompressionLevel()))
+                    .header(HttpHeaders.CONTENT_ENCODING, encoding)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        byte[] body;
+        try {
+            body = serialize(entity);
+        } catch (JsonProcessingException ex) {
+            return HttpResponseSender.sendError(ex);
+        }
+        if (body == null)
+            return response;
+
+        var builder = Response.fromResponse(response).entity(body);
+        if (options.isCompression())
+            builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (options.isETag() && response.getStatus() == OK
+                && (HttpMethod.GET.equals(request.getMethod()) || HttpMethod.HEAD.equals(request.getMethod()))) {
+            var etag = getETag(entity, body);
+            builder.header(HttpHeaders.ETAG, etag);
+
+            if (matchesETag(request.getHeaderString(HttpHeaders.IF_NONE_MATCH), etag))
+                return builder.status(NOT_MODIFIED).entity(null).build();
+        }
+
+        if (options.isCompression() && body.length >= options.getCompressionThreshold()) {
+            var encoding = negotiateEncoding(request.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+            if (encoding != null) {
+                builder.entity(compress(body, encoding, options.getCompressionLevel()));
+                builder.header(HttpHeaders.CONTENT_ENCODING, encoding);
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Chooses the preferred supported encoding from <code>Accept-Encoding</code> header.
+     *
+     * @param header the header value.
+     * @return "gzip", "deflate" or <code>null</code> if the response shall not be compressed.
+     */
+    static String negotiateEncoding(String header) {
+        if (header == null || header.isEmpty())
+            return null;
+
+        String result = null;
+        double resultQuality = 0;
+        for (var item : header.split(",")) {
+            var parts = item.split(";");
+            var coding = parts[0].trim().toLowerCase();
+            double quality = 1;
+            for (int index = 1; index < parts.length; index++) {
+                var param = parts[index].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException ex) {
+                        quality = 0;
+                    }
+                }
+            }
+
+            String encoding = switch (coding) {
+                case GZIP, "x-gzip", "*" -> GZIP;
+                case DEFLATE -> DEFLATE;
+                default -> null;
+            };
+
+            // Gzip is preferred on equal quality as it is listed first by most clients
+            if (encoding != null && (quality > resultQuality || (quality == resultQuality && GZIP.equals(encoding)))
+                    && quality > 0) {
+                result = encoding;
+                resultQuality = quality;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks <code>If-None-Match</code> header against an ETag using weak comparison.
+     *
+     * @param header the header value.
+     * @param etag   the ETag of the current response.
+     * @return <code>true</code> if the client already has the response.
+     */
+    static boolean matchesETag(String header, String etag) {
+        if (header == null || header.isEmpty())
+            return false;
+
+        var opaqueTag = getOpaqueTag(etag);
+        for (var item : header.split(",")) {
+            var tag = item.trim();
+            if (tag.equals("*") || getOpaqueTag(tag).equals(opaqueTag))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Generates a weak ETag for a response entity.
+     *
+     * @param entity the response entity.
+     * @param body   the serialized entity.
+     * @return the ETag header value.
+     */
+    static String getETag(Object entity, byte[] body) {
+        if (entity instanceof IVersioned versioned && versioned.getVersion() != null)
+            return "W/\"" + versioned.getVersion().replace("\"", "") + "\"";
+
+        if (entity instanceof ITrackable trackable && trackable.getLastChangeTime() != null)
+            return "W/\"" + Long.toHexString(trackable.getLastChangeTime().toInstant().toEpochMilli()) + "\"";
+
+        var crc = new CRC32C();
+        crc.update(body);
+        return "W/\"" + Integer.toHexString(body.length) + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    private static String getOpaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static byte[] serialize(Object entity) throws JsonProcessingException {
+        if (entity instanceof byte[] bytes)
+            return bytes;
+        if (entity instanceof String value)
+            return value.getBytes(StandardCharsets.UTF_8);
+        // Files, streams and other special entities are written by their own providers
+        if (entity instanceof File || entity instanceof InputStream)
+            return null;
+
+        return _mapper.writeValueAsBytes(entity);
+    }
+
+    private static byte[] compress(byte[] body, String encoding, int level) {
+        var output = new ByteArrayOutputStream(Math.max(body.length / 4, 64));
+        try (var stream = createStream(output, encoding, level)) {
+            stream.write(body);
+        } catch (IOException ex) {
+            // Writing to memory doesn't fail
+            throw new IllegalStateException(ex);
+        }
+        return output.toByteArray();
+    }
+
+    private static StreamingOutput compress(StreamingOutput output, String encoding, int level) {
+        return (stream) -> {
+            try (var compressed = createStream(stream, encoding, level)) {
+                output.write(compressed);
+            }
+        };
+    }
+
+    private static DeflaterOutputStream createStream(OutputStream output, String encoding, int level) throws IOException {
+        if (GZIP.equals(encoding)) {
+            return new GZIPOutputStream(output, 8192) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+        return new DeflaterOutputStream(output, new Deflater(level), 8192) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    def.end();
+                }
+            }
+        };
+    }
+}
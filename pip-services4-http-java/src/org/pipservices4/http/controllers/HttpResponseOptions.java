@@ -0,0 +1,120 @@
+package org.pipservices4.http.controllers;
+
+import org.pipservices4.components.config.ConfigParams;
+
+import java.util.zip.Deflater;
+
+/**
+ * Response encoding options of a route registered in {@link HttpEndpoint}.
+ * <p>
+ * Compression encodes responses with gzip or deflate as negotiated from the
+ * <code>Accept-Encoding</code> request header. Responses smaller than the threshold are sent as is.
+ * <p>
+ * ETags are weak validators taken from the version of {@link org.pipservices4.data.data.IVersioned}
+ * entities, the last change time of {@link org.pipservices4.data.data.ITrackable} entities
+ * or a hash of the serialized body. GET requests with a matching <code>If-None-Match</code>
+ * header receive 304 status code without a body.
+ * <p>
+ * ### Configuration parameters ###
+ * <ul>
+ * <li>compression: enables gzip and deflate compression (default: false)
+ * <li>compression_threshold: minimum body size in bytes to compress (default: 1024)
+ * <li>compression_level: deflater compression level from 1 to 9 (default: 6)
+ * <li>etag: enables ETag generation and conditional GET (default: false)
+ * </ul>
+ * <p>
+ * ### Example ###
+ * <pre>
+ * {@code
+ * registerRoute(HttpMethod.GET, "/dummies", schema,
+ *     new HttpResponseOptions().withCompression(true).withETag(true),
+ *     this::getPageByFilter);
+ * }
+ * </pre>
+ */
+public class HttpResponseOptions {
+    private boolean _compression = false;
+    private int _compressionThreshold = 1024;
+    private int _compressionLevel = 6;
+    private boolean _etag = false;
+
+    /**
+     * Creates new options with compression and ETags disabled.
+     */
+    public HttpResponseOptions() {
+    }
+
+    /**
+     * Creates options from configuration parameters.
+     *
+     * @param config configuration parameters.
+     * @return created options.
+     */
+    public static HttpResponseOptions fromConfig(ConfigParams config) {
+        return new HttpResponseOptions()
+                .withCompression(config.getAsBooleanWithDefault("compression", false))
+                .withCompressionThreshold(config.getAsIntegerWithDefault("compression_threshold", 1024))
+                .withCompressionLevel(config.getAsIntegerWithDefault("compression_level", 6))
+                .withETag(config.getAsBooleanWithDefault("etag", false));
+    }
+
+    public boolean isCompression() {
+        return _compression;
+    }
+
+    public int getCompressionThreshold() {
+        return _compressionThreshold;
+    }
+
+    public int getCompressionLevel() {
+        return _compressionLevel;
+    }
+
+    public boolean isETag() {
+        return _etag;
+    }
+
+    /**
+     * Enables or disables response compression.
+     *
+     * @param value <code>true</code> to compress responses.
+     * @return this options object.
+     */
+    public HttpResponseOptions withCompression(boolean value) {
+        _compression = value;
+        return this;
+    }
+
+    /**
+     * Sets minimum body size to compress.
+     *
+     * @param value body size in bytes.
+     * @return this options object.
+     */
+    public HttpResponseOptions withCompressionThreshold(int value) {
+        _compressionThreshold = Math.max(value, 0);
+        return this;
+    }
+
+    /**
+     * Sets deflater compression level.
+     *
+     * @param value compression level from 1 (fastest) to 9 (smallest).
+     * @return this options object.
+     */
+    public HttpResponseOptions withCompressionLevel(int value) {
+        _compressionLevel = Math.min(Math.max(value, Deflater.BEST_SPEED), Deflater.BEST_COMPRESSION);
+        return this;
+    }
+
+    /**
+     * Enables or disables ETag generation and conditional GET.
+     *
+     * @param value <code>true</code> to send ETags.
+     * @return this options object.
+     */
+    public HttpResponseOptions withETag(boolean value) {
+        _etag = value;
+        return this;
+    }
+}
@@ -1,13 +1,28 @@
 package org.pipservices4.http.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.pipservices4.commons.convert.JsonConverter;
 import org.pipservices4.commons.errors.ApplicationException;
 import org.pipservices4.commons.errors.ErrorDescription;
 import org.pipservices4.commons.errors.ErrorDescriptionFactory;
+import org.pipservices4.data.query.DataPage;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 /**
  * Helper class that handles HTTP-based responses.
+ * <p>
+ * Large results can be sent with {@link #sendStreamResult} or {@link #sendNdjsonResult}.
+ * They write items one by one as they are taken from an iterator or a stream,
+ * so the whole result is never kept in memory. Since the status is sent before
+ * the first item, an error while writing items aborts the response.
  */
 public class HttpResponseSender {
 	private final static int INTERNAL_SERVER_ERROR = 500;
@@ -15,6 +30,20 @@ public class HttpResponseSender {
 	private final static int CREATED = 201;
 	private final static int OK = 200;
 
+	/**
+	 * Media type of newline delimited JSON.
+	 */
+	public final static String APPLICATION_NDJSON = "application/x-ndjson";
+
+	private static final ObjectMapper _mapper = JsonConverter.createMapper(null);
+
+	static {
+		_mapper.disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		_mapper.getFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		// A failed stream must not be completed with closing brackets and look like a valid document
+		_mapper.getFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+	}
+
 	/**
 	 * Sends error serialized as ErrorDescription object and appropriate HTTP status
 	 * code. If status code is not defined, it uses 500 status code.
@@ -125,4 +154,117 @@ public class HttpResponseSender {
 			return Response.status(INTERNAL_SERVER_ERROR).build();
 		}
 	}
+
+	/**
+	 * Sends data page as JSON object with 200 status code, writing its items one by one.
+	 * The response has the same layout as {@link DataPage}: <code>{ "total": ..., "data": [...] }</code>.
+	 *
+	 * @param page a data page to send.
+	 * @return execution result.
+	 */
+	public static Response sendStreamResult(DataPage<?> page) {
+		if (page == null)
+			return Response.status(NO_CONTENT).build();
+
+		var data = page.getData() != null ? page.getData().iterator() : null;
+		return sendStreamResult(data, page.getTotal());
+	}
+
+	/**
+	 * Sends items from a stream as JSON data page with 200 status code.
+	 * The stream is closed when all items are written.
+	 *
+	 * @param data  a stream of page items.
+	 * @param total (optional) a total number of items.
+	 * @return execution result.
+	 */
+	public static Response sendStreamResult(Stream<?> data, Long total) {
+		return sendStreamResult(data != null ? data.iterator() : null, total, data);
+	}
+
+	/**
+	 * Sends items from an iterator as JSON data page with 200 status code.
+	 * Iterators that implement {@link AutoCloseable} are closed when all items are written.
+	 *
+	 * @param data  an iterator of page items.
+	 * @param total (optional) a total number of items.
+	 * @return execution result.
+	 */
+	public static Response sendStreamResult(Iterator<?> data, Long total) {
+		return sendStreamResult(data, total, data instanceof AutoCloseable closeable ? closeable : null);
+	}
+
+	private static Response sendStreamResult(Iterator<?> data, Long total, AutoCloseable source) {
+		StreamingOutput output = (stream) -> {
+			try (JsonGenerator generator = _mapper.getFactory().createGenerator(stream)) {
+				generator.writeStartObject();
+				if (total != null)
+					generator.writeNumberField("total", total);
+				generator.writeFieldName("data");
+				generator.writeStartArray();
+				if (data != null) {
+					while (data.hasNext())
+						_mapper.writeValue(generator, data.next());
+				}
+				generator.writeEndArray();
+				generator.writeEndObject();
+			} finally {
+				close(source);
+			}
+		};
+		return Response.status(OK).type(MediaType.APPLICATION_JSON).entity(output).build();
+	}
+
+	/**
+	 * Sends items from a stream as newline delimited JSON with 200 status code.
+	 * The stream is closed when all items are written.
+	 *
+	 * @param data a stream of items.
+	 * @return execution result.
+	 */
+	public static Response sendNdjsonResult(Stream<?> data) {
+		return sendNdjsonResult(data != null ? data.iterator() : null, data);
+	}
+
+	/**
+	 * Sends items from an iterator as newline delimited JSON with 200 status code.
+	 * Iterators that implement {@link AutoCloseable} are closed when all items are written.
+	 *
+	 * @param data an iterator of items.
+	 * @return execution result.
+	 */
+	public static Response sendNdjsonResult(Iterator<?> data) {
+		return sendNdjsonResult(data, data instanceof AutoCloseable closeable ? closeable : null);
+	}
+
+	private static Response sendNdjsonResult(Iterator<?> data, AutoCloseable source) {
+		StreamingOutput output = (stream) -> {
+			try (JsonGenerator generator = _mapper.getFactory().createGenerator(stream)) {
+				// Values are separated by new lines only
+				generator.setRootValueSeparator(null);
+				if (data != null) {
+					while (data.hasNext()) {
+						_mapper.writeValue(generator, data.next());
+						generator.writeRaw('\n');
+					}
+				}
+			} finally {
+				close(source);
+			}
+		};
+		return Response.status(OK).type(APPLICATION_NDJSON).entity(output).build();
+	}
+
+	private static void close(AutoCloseable source) throws IOException {
+		if (source == null)
+			return;
+
+		try {
+			source.close();
+		} catch (IOException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new IOException(ex);
+		}
+	}
 }
@@ -0,0 +1,34 @@
+package org.pipservices4.http.controllers;
+
+import org.glassfish.jersey.server.ResourceConfig;
+
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+
+/**
+ * Interface for HTTP servers that host Jersey resources of {@link HttpEndpoint}.
+ * <p>
+ * Transports are selected by "options.transport" parameter and receive
+ * the endpoint configuration via <code>configure()</code> when they implement
+ * {@link org.pipservices4.components.config.IConfigurable}.
+ *
+ * @see JdkHttpServerTransport
+ * @see GrizzlyHttpServerTransport
+ * @see NettyHttpServerTransport
+ */
+public interface IHttpServerTransport {
+    /**
+     * Starts the server and begins listening at the given URI.
+     *
+     * @param uri        the URI to listen at.
+     * @param resources  the Jersey resources to serve.
+     * @param sslContext (optional) SSL context for HTTPS connections.
+     * @throws Exception when the server cannot be started.
+     */
+    void open(URI uri, ResourceConfig resources, SSLContext sslContext) throws Exception;
+
+    /**
+     * Stops the server and releases its threads.
+     */
+    void close();
+}
@@ -0,0 +1,129 @@
+package org.pipservices4.http.controllers;
+
+import com.sun.net.httpserver.HttpServer;
+import org.glassfish.jersey.jdkhttp.JdkHttpServerFactory;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.config.IConfigurable;
+import org.pipservices4.components.exec.TaskExecutors;
+
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP server transport based on HTTP server built into JDK.
+ * <p>
+ * Unlike the default JDK setup, where all requests are handled by a single dispatcher thread,
+ * requests are processed by a bounded thread pool. When the pool and its queue are full
+ * the dispatcher handles the request itself, so no new connections are accepted until it completes.
+ * In "virtual" executor mode every request is processed by its own virtual thread,
+ * so handlers blocked on I/O don't limit the number of concurrent requests.
+ * <p>
+ * ### Configuration parameters ###
+ * <ul>
+ * <li>options:
+ *     <ul>
+ *     <li>executor:              request executor: "pool" or "virtual" (default: "pool")
+ *     <li>max_threads:           maximum number of request processing threads in "pool" mode (default: 100)
+ *     <li>request_queue_size:    maximum number of requests waiting for a free thread in "pool" mode (default: 1000)
+ *     <li>max_connections:       maximum number of open connections, -1 for unlimited (default: -1)
+ *     <li>keep_alive_timeout:    timeout in milliseconds to keep idle connections open (default: 30000)
+ *     </ul>
+ * </ul>
+ * <p>
+ * Connection limits and keep-alive are process-wide settings of JDK HTTP server.
+ * They are applied only when not set by system properties,
+ * and take effect only if no JDK HTTP server has been started in the process before.
+ */
+public class JdkHttpServerTransport implements IHttpServerTransport, IConfigurable {
+    private String _executorMode = TaskExecutors.POOL;
+    private int _maxThreads = 100;
+    private int _requestQueueSize = 1000;
+    private int _maxConnections = -1;
+    private long _keepAliveTimeout = 30000;
+
+    private HttpServer _server;
+    private ExecutorService _executor;
+
+    /**
+     * Configures component by passing configuration parameters.
+     *
+     * @param config configuration parameters to be set.
+     */
+    @Override
+    public void configure(ConfigParams config) {
+        _executorMode = config.getAsStringWithDefault("options.executor", _executorMode);
+        _maxThreads = config.getAsIntegerWithDefault("options.max_threads", _maxThreads);
+        _requestQueueSize = config.getAsIntegerWithDefault("options.request_queue_size", _requestQueueSize);
+        _maxConnections = config.getAsIntegerWithDefault("options.max_connections", _maxConnections);
+        _keepAliveTimeout = config.getAsLongWithDefault("options.keep_alive_timeout", _keepAliveTimeout);
+    }
+
+    /**
+     * Gets the underlying HTTP server.
+     *
+     * @return the HTTP server or <code>null</code> if transport is closed.
+     */
+    public HttpServer getServer() {
+        return _server;
+    }
+
+    @Override
+    public void open(URI uri, ResourceConfig resources, SSLContext sslContext) throws Exception {
+        setDefaultProperty("sun.net.httpserver.maxConnections", _maxConnections);
+        setDefaultProperty("sun.net.httpserver.idleInterval", Math.max(1, _keepAliveTimeout / 1000));
+
+        _executor = createExecutor();
+        try {
+            if (sslContext != null)
+                _server = JdkHttpServerFactory.createHttpServer(uri, resources, sslContext, false);
+            else
+                _server = JdkHttpServerFactory.createHttpServer(uri, resources, false);
+
+            _server.setExecutor(_executor);
+            _server.start();
+        } catch (Exception ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (_server != null) {
+            _server.stop(0);
+            _server = null;
+        }
+        if (_executor != null) {
+            _executor.shutdown();
+            _executor = null;
+        }
+    }
+
+    private ExecutorService createExecutor() {
+        if (TaskExecutors.VIRTUAL.equals(_executorMode))
+            return TaskExecutors.newVirtualExecutor("pip-services-http");
+
+        var threadCount = new AtomicInteger();
+        var executor = new ThreadPoolExecutor(
+                _maxThreads, _maxThreads,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, _requestQueueSize)),
+                (runnable) -> {
+                    Thread thread = new Thread(runnable, "pip-services-http-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static void setDefaultProperty(String name, long value) {
+        if (System.getProperty(name) == null)
+            System.setProperty(name, Long.toString(value));
+    }
+}
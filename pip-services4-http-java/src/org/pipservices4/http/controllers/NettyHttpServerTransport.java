@@ -0,0 +1,65 @@
+package org.pipservices4.http.controllers;
+
+import io.netty.channel.Channel;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.SslContext;
+import org.glassfish.jersey.netty.httpserver.NettyHttpContainerProvider;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.config.IConfigurable;
+
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+
+/**
+ * HTTP server transport based on Netty.
+ * <p>
+ * It requires <code>org.glassfish.jersey.containers:jersey-container-netty-http</code>
+ * in the application classpath. Connections are served by Netty event loops,
+ * and requests are processed by Jersey managed executor, so "options.executor" is not supported.
+ * <p>
+ * ### Configuration parameters ###
+ * <ul>
+ * <li>options:
+ *     <ul>
+ *     <li>http2:   true to enable HTTP/2 (h2 over HTTPS or h2c over HTTP) (default: false)
+ *     </ul>
+ * </ul>
+ */
+public class NettyHttpServerTransport implements IHttpServerTransport, IConfigurable {
+    private boolean _http2 = false;
+
+    private Channel _channel;
+
+    /**
+     * Configures component by passing configuration parameters.
+     *
+     * @param config configuration parameters to be set.
+     */
+    @Override
+    public void configure(ConfigParams config) {
+        _http2 = config.getAsBooleanWithDefault("options.http2", _http2);
+    }
+
+    @Override
+    public void open(URI uri, ResourceConfig resources, SSLContext sslContext) throws Exception {
+        SslContext nettySslContext = sslContext != null
+                ? new JdkSslContext(sslContext, false, ClientAuth.NONE)
+                : null;
+
+        // The last argument of createServer() blocks the calling thread until the server stops
+        _channel = _http2
+                ? NettyHttpContainerProvider.createHttp2Server(uri, resources, nettySslContext)
+                : NettyHttpContainerProvider.createServer(uri, resources, nettySslContext, false);
+    }
+
+    @Override
+    public void close() {
+        if (_channel != null) {
+            // Closing the channel also shuts down its event loops
+            _channel.close().syncUninterruptibly();
+            _channel = null;
+        }
+    }
+}
@@ -7,7 +7,6 @@ import jakarta.ws.rs.core.Response;
 import org.glassfish.jersey.process.Inflector;
 import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.components.config.IConfigurable;
-import org.pipservices4.commons.convert.JsonConverter;
 import org.pipservices4.commons.errors.ApplicationException;
 import org.pipservices4.commons.errors.ConfigException;
 import org.pipservices4.commons.errors.InvalidStateException;
@@ -15,6 +14,7 @@ import org.pipservices4.commons.errors.InvocationException;
 import org.pipservices4.components.context.ContextResolver;
 import org.pipservices4.components.refer.*;
 import org.pipservices4.components.run.IOpenable;
+import org.pipservices4.data.query.DataPage;
 import org.pipservices4.data.validate.Schema;
 import org.pipservices4.observability.count.CompositeCounters;
 import org.pipservices4.observability.log.CompositeLogger;
@@ -24,11 +24,13 @@ import org.pipservices4.components.context.IContext;
 
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Abstract service that receives remove calls via HTTP/REST protocol.
@@ -258,12 +260,11 @@ public abstract class RestController
      */
     protected InstrumentTiming instrument(IContext context, String name) {
         this._logger.trace(context, "Executing %s method", name);
-        this._counters.incrementOne(name + ".exec_count");
+        if (!this._counters.isEmpty())
+            this._counters.incrementOne(name + ".exec_count");
 
-        var counterTiming = this._counters.beginTiming(name + ".exec_time");
-        var traceTiming = this._tracer.beginTrace(context, name, null);
         return new InstrumentTiming(context, name, "exec",
-                this._logger, this._counters, counterTiming, traceTiming);
+                this._logger, this._counters, this._tracer);
     }
 
     /**
@@ -390,6 +391,64 @@ public abstract class RestController
         return HttpResponseSender.sendDeletedResult(result);
     }
 
+    /**
+     * Sends data page as JSON object, writing its items one by one
+     * instead of serializing the whole page in memory.
+     *
+     * @param page a data page to send.
+     * @return execution result.
+     * @see HttpResponseSender#sendStreamResult(DataPage)
+     */
+    protected Response sendStreamResult(DataPage<?> page) {
+        return HttpResponseSender.sendStreamResult(page);
+    }
+
+    /**
+     * Sends items from a lazy stream as JSON data page. The stream is closed when all items are written.
+     *
+     * @param data  a stream of page items.
+     * @param total (optional) a total number of items.
+     * @return execution result.
+     * @see HttpResponseSender#sendStreamResult(Stream, Long)
+     */
+    protected Response sendStreamResult(Stream<?> data, Long total) {
+        return HttpResponseSender.sendStreamResult(data, total);
+    }
+
+    /**
+     * Sends items from a lazy iterator as JSON data page.
+     *
+     * @param data  an iterator of page items.
+     * @param total (optional) a total number of items.
+     * @return execution result.
+     * @see HttpResponseSender#sendStreamResult(Iterator, Long)
+     */
+    protected Response sendStreamResult(Iterator<?> data, Long total) {
+        return HttpResponseSender.sendStreamResult(data, total);
+    }
+
+    /**
+     * Sends items from a lazy stream as newline delimited JSON. The stream is closed when all items are written.
+     *
+     * @param data a stream of items.
+     * @return execution result.
+     * @see HttpResponseSender#sendNdjsonResult(Stream)
+     */
+    protected Response sendNdjsonResult(Stream<?> data) {
+        return HttpResponseSender.sendNdjsonResult(data);
+    }
+
+    /**
+     * Sends items from a lazy iterator as newline delimited JSON.
+     *
+     * @param data an iterator of items.
+     * @return execution result.
+     * @see HttpResponseSender#sendNdjsonResult(Iterator)
+     */
+    protected Response sendNdjsonResult(Iterator<?> data) {
+        return HttpResponseSender.sendNdjsonResult(data);
+    }
+
     protected String getQueryParameter(ContainerRequestContext request, String name) {
         String value = null;
         name = URLEncoder.encode(name, StandardCharsets.UTF_8);
@@ -410,10 +469,23 @@ public abstract class RestController
      */
     protected String getBodyAsString(ContainerRequestContext request) throws ApplicationException {
         try {
-            InputStream streamReader = request.getEntityStream();
-            byte[] data = new byte[streamReader.available()];
-            streamReader.read(data, 0, data.length);
-            return new String(data, StandardCharsets.UTF_8);
+            return HttpRequestBody.getString(request);
+        } catch (IOException ex) {
+            throw new InvocationException(null, "READ_ERROR", "Cannot read input stream").wrap(ex);
+        }
+    }
+
+    /**
+     * Gets request body as a map.
+     * When the route was validated by a schema, the map parsed during validation is reused.
+     *
+     * @param request HTTP request
+     * @return map object or <code>null</code> if the body is not a JSON object.
+     * @throws ApplicationException when error occured.
+     */
+    protected Map<String, Object> getBodyAsMap(ContainerRequestContext request) throws ApplicationException {
+        try {
+            return HttpRequestBody.getNullableMap(request);
         } catch (IOException ex) {
             throw new InvocationException(null, "READ_ERROR", "Cannot read input stream").wrap(ex);
         }
@@ -432,10 +504,8 @@ public abstract class RestController
             throw new InvocationException(null, "EXPECTED_JSON", "Expected application/json media type");
         }
 
-        String json = getBodyAsString(request);
-
         try {
-            return JsonConverter.fromJson(type, json);
+            return HttpRequestBody.getAs(type, request);
         } catch (IOException ex) {
             throw new InvocationException(null, "READ_ERROR", "Failed to deserialize request from JSON").wrap(ex);
         }
@@ -492,6 +562,25 @@ public abstract class RestController
         _endpoint.registerRoute(method.toUpperCase(), route, schema, action);
     }
 
+    /**
+     * Registers a route in HTTP endpoint with response compression and ETags.
+     *
+     * @param method  HTTP method: "get", "head", "post", "put", "delete"
+     * @param route   a command route. Base route will be added to this route
+     * @param schema  a validation schema to validate received parameters.
+     * @param options response compression and ETag options.
+     * @param action  an action function that is called when operation is invoked.
+     */
+    protected void registerRoute(String method, String route, Schema schema, HttpResponseOptions options,
+            Inflector<ContainerRequestContext, Response> action) {
+        if (_endpoint == null)
+            return;
+
+        route = appendBaseRoute(route);
+
+        _endpoint.registerRoute(method.toUpperCase(), route, schema, options, action);
+    }
+
     /**
      * Registers a route with authorization in HTTP endpoint.
      *
@@ -0,0 +1,27 @@
+package org.pipservices4.http.clients;
+
+import org.junit.Test;
+import org.pipservices4.commons.errors.ApplicationException;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BatchCommandResultTest {
+    @Test
+    public void testDateResults() throws ApplicationException {
+        var result = new BatchCommandResult();
+        result.setResult("2024-01-01T00:00:00Z");
+        assertEquals(ZonedDateTime.parse("2024-01-01T00:00:00Z").toInstant(),
+                result.getResultAs(ZonedDateTime.class).toInstant());
+
+        result.setResult(Map.of("time", "2024-01-01T00:00:00Z"));
+        assertEquals(ZonedDateTime.parse("2024-01-01T00:00:00Z").toInstant(),
+                result.getResultAs(TimeResult.class).time.toInstant());
+    }
+
+    public static class TimeResult {
+        public ZonedDateTime time;
+    }
+}
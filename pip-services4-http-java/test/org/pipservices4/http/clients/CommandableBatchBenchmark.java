@@ -0,0 +1,113 @@
+package org.pipservices4.http.clients;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.exec.Parameters;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.References;
+import org.pipservices4.http.controllers.DummyCommandableHttpController;
+import org.pipservices4.http.sample.Dummy;
+import org.pipservices4.http.sample.DummyService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares 15 lookups sent as separate commands with the same lookups sent in one batch.
+ * <p>
+ * "separate" calls every command through its own route, "batch" sends all of them to "_batch" route
+ * and "parallel_batch" does the same with commands executed by 4 threads on the server.
+ * <p>
+ * Run it with:
+ * <pre>
+ * {@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.pipservices4.http.clients.CommandableBatchBenchmark
+ * }
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommandableBatchBenchmark {
+    private static final int PORT = 3016;
+    private static final int LOOKUPS = 15;
+
+    @Param({"separate", "batch", "parallel_batch"})
+    public String mode;
+
+    private DummyCommandableHttpController _controller;
+    private DummyCommandableHttpClient _client;
+    private List<String> _ids;
+    private List<BatchCommand> _commands;
+
+    @Setup
+    public void setUp() throws ApplicationException {
+        var service = new DummyService();
+        _ids = new ArrayList<>();
+        _commands = new ArrayList<>();
+        for (int index = 0; index < LOOKUPS; index++) {
+            var id = service.create(null, new Dummy(null, "Key " + index, "Content " + index, new ArrayList<>())).getId();
+            _ids.add(id);
+            _commands.add(new BatchCommand("get_dummy_by_id", Parameters.fromTuples("dummy_id", id)));
+        }
+
+        _controller = new DummyCommandableHttpController();
+        _controller.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", PORT,
+                "batch.enable", true,
+                "batch.threads", mode.equals("parallel_batch") ? 4 : 0
+        ));
+        _controller.setReferences(References.fromTuples(
+                new Descriptor("pip-services-dummies", "service", "default", "default", "1.0"), service
+        ));
+        _controller.open(null);
+
+        _client = new DummyCommandableHttpClient();
+        _client.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", PORT
+        ));
+        _client.setReferences(new References());
+        _client.open(null);
+    }
+
+    @TearDown
+    public void tearDown() throws ApplicationException {
+        _client.close(null);
+        _controller.close(null);
+    }
+
+    @Benchmark
+    public int lookups() throws ApplicationException {
+        if (mode.equals("separate")) {
+            for (var id : _ids)
+                _client.getDummyById(null, id);
+            return _ids.size();
+        }
+
+        var results = _client.callBatch(null, _commands);
+        for (var result : results)
+            result.getResultAs(Dummy.class);
+        return results.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CommandableBatchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
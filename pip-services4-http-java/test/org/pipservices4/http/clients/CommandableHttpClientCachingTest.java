@@ -0,0 +1,241 @@
+package org.pipservices4.http.clients;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.*;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.commons.errors.InternalException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.exec.Parameters;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.References;
+import org.pipservices4.http.sample.Dummy;
+import org.pipservices4.logic.cache.MemoryCache;
+import org.pipservices4.observability.count.CounterType;
+import org.pipservices4.observability.count.LogCounters;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests request coalescing and result caching in {@link CommandableHttpClient}
+ * against a local stub server that counts received requests.
+ */
+public class CommandableHttpClientCachingTest {
+    static int port = 3015;
+
+    private HttpServer _server;
+    private ExecutorService _executor;
+    private final AtomicInteger _requests = new AtomicInteger();
+    private volatile long _delay = 0;
+    private volatile int _status = 200;
+    private LogCounters _counters;
+    private MemoryCache _cache;
+    private DummyCommandableHttpClient _client;
+
+    @Before
+    public void setup() throws IOException {
+        _executor = Executors.newCachedThreadPool();
+        _server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        _server.setExecutor(_executor);
+        _server.createContext("/dummy", this::handle);
+        _server.start();
+    }
+
+    @After
+    public void teardown() {
+        if (_client != null)
+            _client.close(null);
+        _server.stop(0);
+        _executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        _requests.incrementAndGet();
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            if (_delay > 0)
+                Thread.sleep(_delay);
+
+            var status = _status;
+            var body = status == 200
+                    ? "{\"id\":\"1\",\"key\":\"Key 1\",\"content\":\"Content 1\"}"
+                    : "{\"category\":\"Internal\",\"code\":\"FAILED\",\"status\":500,\"message\":\"Failed\"}";
+            var bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (InterruptedException ex) {
+            // The server is stopped
+        }
+    }
+
+    private void createClient(Object... options) throws ApplicationException {
+        _counters = new LogCounters();
+        _cache = new MemoryCache();
+        _client = new DummyCommandableHttpClient();
+        var config = ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", port,
+                "options.retries", 0
+        );
+        config.append(ConfigParams.fromTuples(options));
+        _client.configure(config);
+        _client.setReferences(References.fromTuples(
+                new Descriptor("pip-services", "counters", "log", "default", "1.0"), _counters,
+                new Descriptor("pip-services", "cache", "memory", "default", "1.0"), _cache
+        ));
+        _client.open(null);
+    }
+
+    private int getCount(String name) {
+        var count = _counters.get(name, CounterType.Increment).getCount();
+        return count != null ? count : 0;
+    }
+
+    @Test
+    public void testCoalescing() throws Exception {
+        createClient("options.coalesced_commands", "get_dummy_by_id");
+        _delay = 300;
+
+        int callers = 8;
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<Dummy>>();
+        var executor = Executors.newFixedThreadPool(callers);
+        try {
+            for (int index = 0; index < callers; index++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return _client.getDummyById(null, "1");
+                }));
+            }
+            start.countDown();
+
+            var results = new ArrayList<Dummy>();
+            for (var future : futures)
+                results.add(future.get(5, TimeUnit.SECONDS));
+
+            // Callers receive separate copies of the result
+            assertEquals("Key 1", results.get(0).getKey());
+            assertNotSame(results.get(0), results.get(1));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, _requests.get());
+        assertEquals(callers - 1, getCount("dummy.get_dummy_by_id.coalesced_calls"));
+
+        // Calls that are not concurrent are sent again
+        _delay = 0;
+        _client.getDummyById(null, "1");
+        assertEquals(2, _requests.get());
+    }
+
+    @Test
+    public void testOtherCommandsAreNotCoalesced() throws Exception {
+        createClient("options.coalesced_commands", "get_dummy_by_id");
+        _delay = 300;
+
+        // Identical concurrent writes are all sent
+        var first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return _client.callCommand(Dummy.class, "create_dummy", null, Parameters.fromTuples("a", 1));
+            } catch (ApplicationException ex) {
+                throw new CompletionException(ex);
+            }
+        });
+        Thread.sleep(100);
+        _client.callCommand(Dummy.class, "create_dummy", null, Parameters.fromTuples("a", 1));
+        first.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, _requests.get());
+        assertEquals(0, getCount("dummy.create_dummy.coalesced_calls"));
+    }
+
+    @Test
+    public void testCoalescedFailure() throws Exception {
+        createClient("options.coalesced_commands", "get_dummy_by_id");
+        _delay = 300;
+        _status = 500;
+
+        var first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return _client.getDummyById(null, "1");
+            } catch (ApplicationException ex) {
+                throw new CompletionException(ex);
+            }
+        });
+        Thread.sleep(100);
+        assertThrows(InternalException.class, () -> _client.getDummyById(null, "1"));
+        var error = assertThrows(CompletionException.class, first::join);
+        assertTrue(error.getCause() instanceof InternalException);
+        assertEquals(1, _requests.get());
+    }
+
+    @Test
+    public void testCaching() throws Exception {
+        createClient(
+                "options.cached_commands", "get_dummy_by_id, get_dummies",
+                "options.cache_timeout", 200
+        );
+
+        assertEquals("Key 1", _client.getDummyById(null, "1").getKey());
+        assertEquals("Key 1", _client.getDummyById(null, "1").getKey());
+        assertEquals(1, _requests.get());
+        assertEquals(1, getCount("dummy.get_dummy_by_id.cache_hits"));
+        assertEquals(1, getCount("dummy.get_dummy_by_id.cache_misses"));
+
+        // Different parameters are cached separately
+        _client.getDummyById(null, "2");
+        assertEquals(2, _requests.get());
+
+        // Parameter order doesn't change the key
+        _client.callCommand(Dummy.class, "get_dummies", null, Parameters.fromTuples("a", 1, "b", 2));
+        _client.callCommand(Dummy.class, "get_dummies", null, Parameters.fromTuples("b", 2, "a", 1));
+        assertEquals(3, _requests.get());
+
+        // Other commands are not cached
+        _client.callCommand(Dummy.class, "update_dummy", null, Parameters.fromTuples("a", 1));
+        _client.callCommand(Dummy.class, "update_dummy", null, Parameters.fromTuples("a", 1));
+        assertEquals(5, _requests.get());
+
+        // Results expire after the timeout
+        Thread.sleep(300);
+        _client.getDummyById(null, "1");
+        assertEquals(6, _requests.get());
+    }
+
+    @Test
+    public void testDateParameters() throws ApplicationException {
+        createClient("options.cached_commands", "get_dummies");
+
+        var time = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        _client.callCommand(Dummy.class, "get_dummies", null, Parameters.fromTuples("time", time));
+        _client.callCommand(Dummy.class, "get_dummies", null, Parameters.fromTuples("time", time));
+        assertEquals(1, _requests.get());
+
+        _client.callCommand(Dummy.class, "get_dummies", null, Parameters.fromTuples("time", time.plusSeconds(1)));
+        assertEquals(2, _requests.get());
+    }
+
+    @Test
+    public void testFailuresAreNotCached() throws ApplicationException {
+        createClient("options.cached_commands", "get_dummy_by_id");
+
+        _status = 500;
+        assertThrows(InternalException.class, () -> _client.getDummyById(null, "1"));
+
+        _status = 200;
+        assertEquals("Key 1", _client.getDummyById(null, "1").getKey());
+        assertEquals("Key 1", _client.getDummyById(null, "1").getKey());
+        assertEquals(2, _requests.get());
+    }
+}
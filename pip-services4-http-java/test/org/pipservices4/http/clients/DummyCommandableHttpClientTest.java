@@ -8,24 +8,36 @@ import org.pipservices4.components.config.*;
 import org.pipservices4.commons.errors.*;
 import org.pipservices4.components.context.Context;
 import org.pipservices4.components.refer.*;
+import org.pipservices4.components.exec.Parameters;
 import org.pipservices4.http.controllers.DummyCommandableHttpController;
+import org.pipservices4.http.sample.Dummy;
 import org.pipservices4.http.sample.DummyService;
+import org.pipservices4.observability.count.CounterType;
+import org.pipservices4.observability.count.LogCounters;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class DummyCommandableHttpClientTest {
 
     private static final ConfigParams RestConfig = ConfigParams.fromTuples(
             "connection.protocol", "http",
             "connection.host", "localhost",
-            "connection.port", 3000
+            "connection.port", 3000,
+            "batch.enable", true,
+            "batch.threads", 4
     );
 
     private DummyCommandableHttpClient _client;
     private DummyClientFixture _fixture;
     private DummyCommandableHttpController _controller;
+    private DummyService _service;
+    private LogCounters _counters;
 
     @Before
     public void setUp() throws Exception {
-        var service = new DummyService();
+        _service = new DummyService();
+        _counters = new LogCounters();
 
         _controller = new DummyCommandableHttpController();
         _client = new DummyCommandableHttpClient();
@@ -34,8 +46,9 @@ public class DummyCommandableHttpClientTest {
         _client.configure(RestConfig);
 
         References references = References.fromTuples(
-                new Descriptor("pip-services-dummies", "service", "default", "default", "1.0"), service,
-                new Descriptor("pip-services-dummies", "controller", "rest", "default", "1.0"), _controller
+                new Descriptor("pip-services-dummies", "service", "default", "default", "1.0"), _service,
+                new Descriptor("pip-services-dummies", "controller", "rest", "default", "1.0"), _controller,
+                new Descriptor("pip-services", "counters", "log", "default", "1.0"), _counters
         );
 
         _client.setReferences(references);
@@ -72,4 +85,39 @@ public class DummyCommandableHttpClientTest {
         assertEquals(err.getCode(), "TEST_ERROR");
     }
 
+    @Test
+    public void testBatch() throws ApplicationException {
+        var dummy = _service.create(null, new Dummy(null, "Key 1", "Content 1", new ArrayList<>()));
+
+        var results = _client.callBatch(null, List.of(
+                new BatchCommand("get_dummy_by_id", Parameters.fromTuples("dummy_id", dummy.getId())),
+                new BatchCommand("get_dummy_by_id", Parameters.fromTuples("dummy_id", "unknown")),
+                new BatchCommand("unknown_command", null),
+                new BatchCommand("raise_exception", null),
+                new BatchCommand("get_dummy_by_id", Parameters.fromTuples("dummy_id", dummy.getId()))
+        ));
+
+        assertEquals(5, results.size());
+        assertEquals("Key 1", results.get(0).getResultAs(Dummy.class).getKey());
+        assertNull(results.get(1).getResultAs(Dummy.class));
+
+        var error = assertThrows(BadRequestException.class, () -> results.get(2).getResultAs(Dummy.class));
+        assertEquals("CMD_NOT_FOUND", error.getCode());
+        assertEquals("TEST_ERROR", results.get(3).getError().getCode());
+        assertEquals(dummy.getId(), results.get(4).getResultAs(Dummy.class).getId());
+
+        // Every command is instrumented separately
+        assertEquals(3, (int) _counters.get("dummy.get_dummy_by_id.exec_count", CounterType.Increment).getCount());
+        assertEquals(1, (int) _counters.get("dummy.raise_exception.exec_count", CounterType.Increment).getCount());
+    }
+
+    @Test
+    public void testBatchSizeLimit() {
+        var commands = new ArrayList<BatchCommand>();
+        for (int index = 0; index < 101; index++)
+            commands.add(new BatchCommand("get_dummy_by_id", Parameters.fromTuples("dummy_id", "1")));
+
+        var error = assertThrows(BadRequestException.class, () -> _client.callBatch(null, commands));
+        assertEquals("BATCH_TOO_LARGE", error.getCode());
+    }
 }
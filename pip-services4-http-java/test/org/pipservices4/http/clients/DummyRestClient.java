@@ -7,6 +7,7 @@ import org.pipservices4.commons.errors.ApplicationException;
 import org.pipservices4.http.sample.Dummy;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 
 public class DummyRestClient extends RestClient implements IDummyClient{
     @Override
@@ -105,4 +106,18 @@ public class DummyRestClient extends RestClient implements IDummyClient{
             timing.endTiming();
         }
     }
+
+    public CompletableFuture<Dummy> getDummyByIdAsync(IContext context, String id) {
+        var timing = this.instrument(context, "dummy.get_one_by_id");
+        return this.callAsync(Dummy.class, context, HttpMethod.GET, "/dummies/" + id, null)
+                .whenComplete((result, err) -> {
+                    if (err != null)
+                        timing.endFailure(err instanceof Exception ex ? ex : new Exception(err));
+                    timing.endTiming();
+                });
+    }
+
+    public CompletableFuture<ApplicationException> raiseExceptionAsync(IContext context) {
+        return this.callAsync(ApplicationException.class, context, HttpMethod.POST, "/dummies/raise_exception", null);
+    }
 }
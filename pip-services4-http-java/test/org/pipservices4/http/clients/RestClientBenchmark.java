@@ -0,0 +1,109 @@
+package org.pipservices4.http.clients;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.References;
+import org.pipservices4.http.controllers.DummyRestController;
+import org.pipservices4.http.sample.Dummy;
+import org.pipservices4.http.sample.DummyService;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link RestClient} connectors against a local REST controller.
+ * <p>
+ * "sync" measures blocking calls from 16 threads, and "async" sends a batch of 32
+ * concurrent calls from a single thread and waits for all of them.
+ * <p>
+ * Run it with:
+ * <pre>
+ * {@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.pipservices4.http.clients.RestClientBenchmark
+ * }
+ * </pre>
+ * The benchmark is executed for "default", "apache" and "jdk" connectors.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RestClientBenchmark {
+    private static final int PORT = 3013;
+    private static final int BATCH_SIZE = 32;
+
+    @Param({"default", "apache", "jdk"})
+    public String connector;
+
+    private DummyRestController _controller;
+    private DummyRestClient _client;
+    private String _dummyId;
+
+    @Setup
+    public void setUp() throws ApplicationException {
+        var service = new DummyService();
+        _dummyId = service.create(null, new Dummy(null, "Key 1", "Content 1", new ArrayList<>())).getId();
+
+        _controller = new DummyRestController();
+        _controller.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", PORT
+        ));
+        _controller.setReferences(References.fromTuples(
+                new Descriptor("pip-services-dummies", "service", "default", "default", "1.0"), service,
+                new Descriptor("pip-services-dummies", "controller", "rest", "default", "1.0"), _controller
+        ));
+        _controller.open(null);
+
+        _client = new DummyRestClient();
+        _client.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", PORT,
+                "options.connector", connector,
+                "options.max_connections_per_route", 64
+        ));
+        _client.setReferences(new References());
+        _client.open(null);
+    }
+
+    @TearDown
+    public void tearDown() throws ApplicationException {
+        _client.close(null);
+        _controller.close(null);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Dummy sync() throws ApplicationException {
+        return _client.getDummyById(null, _dummyId);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int async() {
+        var futures = new CompletableFuture<?>[BATCH_SIZE];
+        for (int index = 0; index < BATCH_SIZE; index++)
+            futures[index] = _client.getDummyByIdAsync(null, _dummyId);
+        CompletableFuture.allOf(futures).join();
+        return futures.length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RestClientBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
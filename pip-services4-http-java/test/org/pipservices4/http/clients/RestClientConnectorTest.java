@@ -0,0 +1,145 @@
+package org.pipservices4.http.clients;
+
+import jakarta.ws.rs.ProcessingException;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.commons.errors.ConfigException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.References;
+import org.pipservices4.http.controllers.DummyRestController;
+import org.pipservices4.http.sample.Dummy;
+import org.pipservices4.http.sample.DummyService;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class RestClientConnectorTest {
+    static int port = 3012;
+
+    private final String _connector;
+    private DummyService _service;
+    private DummyRestController _controller;
+    private DummyRestClient _client;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> connectors() {
+        return List.of(new Object[]{"default"}, new Object[]{"apache"}, new Object[]{"jdk"});
+    }
+
+    public RestClientConnectorTest(String connector) {
+        _connector = connector;
+    }
+
+    private DummyRestClient createClient(int port, Object... options) throws ApplicationException {
+        var client = new DummyRestClient();
+        var config = ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", port,
+                "options.connector", _connector,
+                "options.http2", true
+        );
+        config.append(ConfigParams.fromTuples(options));
+        client.configure(config);
+        client.setReferences(new References());
+        client.open(null);
+        return client;
+    }
+
+    @Before
+    public void setup() throws ApplicationException {
+        _service = new DummyService();
+        _controller = new DummyRestController();
+        _controller.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", port
+        ));
+        _controller.setReferences(References.fromTuples(
+                new Descriptor("pip-services-dummies", "service", "default", "default", "1.0"), _service,
+                new Descriptor("pip-services-dummies", "controller", "rest", "default", "1.0"), _controller
+        ));
+        _controller.open(null);
+
+        _client = createClient(port);
+    }
+
+    @After
+    public void teardown() throws ApplicationException {
+        _client.close(null);
+        _controller.close(null);
+    }
+
+    @Test
+    public void testCrudOperations() throws ApplicationException {
+        new DummyClientFixture(_client).testCrudOperations();
+    }
+
+    @Test
+    public void testAsyncCalls() throws ApplicationException {
+        var dummy = _service.create(null, new Dummy(null, "Key 1", "Content 1", new ArrayList<>()));
+
+        var futures = new ArrayList<CompletableFuture<Dummy>>();
+        for (int index = 0; index < 20; index++)
+            futures.add(_client.getDummyByIdAsync(null, dummy.getId()));
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        for (var future : futures)
+            assertEquals("Key 1", future.join().getKey());
+
+        var error = assertThrows(CompletionException.class, () -> _client.raiseExceptionAsync(null).join());
+        assertTrue(error.getCause() instanceof ApplicationException);
+        assertEquals("TEST_ERROR", ((ApplicationException) error.getCause()).getCode());
+    }
+
+    @Test
+    public void testRetryBackoff() throws ApplicationException {
+        // Nobody listens on this port, so all attempts fail to connect
+        var client = createClient(port + 100,
+                "options.retries", 3,
+                "options.retry_delay", 10,
+                "options.max_retry_delay", 50
+        );
+
+        try {
+            var start = System.currentTimeMillis();
+            assertThrows(ProcessingException.class, () -> client.getDummyById(null, "1"));
+            assertThrows(CompletionException.class, () -> client.getDummyByIdAsync(null, "1").join());
+            assertTrue(System.currentTimeMillis() - start < 5000);
+        } finally {
+            client.close(null);
+        }
+    }
+
+    @Test
+    public void testRetryableFailures() {
+        var connectFailure = new ProcessingException(new ConnectException("Connection refused"));
+        assertTrue(RestClient.isRetryable(connectFailure, false));
+        assertTrue(RestClient.isRetryable(connectFailure, true));
+
+        var readFailure = new ProcessingException(new SocketTimeoutException("Read timed out"));
+        assertFalse(RestClient.isRetryable(readFailure, false));
+        assertTrue(RestClient.isRetryable(readFailure, true));
+
+        assertFalse(RestClient.isRetryable(new IllegalStateException("Bad state"), true));
+        assertTrue(RestClient.isRetryable(new CompletionException(new IOException("Reset")), true));
+    }
+
+    @Test
+    public void testUnknownConnector() {
+        var client = new DummyRestClient();
+        client.configure(ConfigParams.fromTuples("options.connector", "unknown"));
+        assertThrows(ConfigException.class, () -> client.open(null));
+    }
+}
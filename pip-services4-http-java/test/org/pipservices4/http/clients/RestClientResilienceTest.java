@@ -0,0 +1,195 @@
+package org.pipservices4.http.clients;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.ws.rs.ProcessingException;
+import org.junit.*;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.commons.errors.ConnectionException;
+import org.pipservices4.commons.errors.InternalException;
+import org.pipservices4.commons.errors.NotFoundException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.refer.References;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link RestClient} resilience options against a local flaky stub server.
+ */
+public class RestClientResilienceTest {
+    static int port = 3014;
+
+    private HttpServer _server;
+    private ExecutorService _executor;
+    private final AtomicInteger _requests = new AtomicInteger();
+    private final Queue<Long> _delays = new ConcurrentLinkedQueue<>();
+    private volatile int _status = 200;
+    private DummyRestClient _client;
+
+    @Before
+    public void setup() throws IOException {
+        _executor = Executors.newCachedThreadPool();
+        _server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        _server.setExecutor(_executor);
+        _server.createContext("/dummies", this::handle);
+        _server.start();
+    }
+
+    @After
+    public void teardown() {
+        if (_client != null)
+            _client.close(null);
+        _server.stop(0);
+        _executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        _requests.incrementAndGet();
+        try (exchange) {
+            var delay = _delays.poll();
+            if (delay != null)
+                Thread.sleep(delay);
+
+            var status = _status;
+            var body = switch (status) {
+                case 200 -> "{\"id\":\"1\",\"key\":\"Key 1\",\"content\":\"Content 1\"}";
+                case 404 -> "{\"category\":\"NotFound\",\"code\":\"NOT_FOUND\",\"status\":404,\"message\":\"Not found\"}";
+                default -> "{\"category\":\"Internal\",\"code\":\"FAILED\",\"status\":500,\"message\":\"Failed\"}";
+            };
+            var bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (InterruptedException | IOException ex) {
+            // The client has abandoned the request
+        }
+    }
+
+    private DummyRestClient createClient(Object... options) throws ApplicationException {
+        var client = new DummyRestClient();
+        var config = ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", port,
+                "options.retries", 0
+        );
+        config.append(ConfigParams.fromTuples(options));
+        client.configure(config);
+        client.setReferences(new References());
+        client.open(null);
+        return client;
+    }
+
+    @Test
+    public void testCircuitBreaker() throws Exception {
+        _client = createClient(
+                "options.circuit_breaker", true,
+                "options.circuit_failure_threshold", 3,
+                "options.circuit_reset_timeout", 200
+        );
+
+        // Client errors don't open the circuit
+        _status = 404;
+        for (int index = 0; index < 5; index++)
+            assertThrows(NotFoundException.class, () -> _client.getDummyById(null, "1"));
+
+        _status = 500;
+        for (int index = 0; index < 3; index++)
+            assertThrows(InternalException.class, () -> _client.getDummyById(null, "1"));
+        assertEquals(8, _requests.get());
+
+        // Open circuit rejects calls without sending them
+        var error = assertThrows(ConnectionException.class, () -> _client.getDummyById(null, "1"));
+        assertEquals("CIRCUIT_OPEN", error.getCode());
+        assertEquals(8, _requests.get());
+
+        // The service has recovered
+        _status = 200;
+        Thread.sleep(300);
+        assertEquals("Key 1", _client.getDummyById(null, "1").getKey());
+        assertEquals("Key 1", _client.getDummyByIdAsync(null, "1").join().getKey());
+    }
+
+    @Test
+    public void testBulkhead() throws Exception {
+        _client = createClient("options.max_concurrent_calls", 2);
+
+        _delays.add(500L);
+        _delays.add(500L);
+        var first = _client.getDummyByIdAsync(null, "1");
+        var second = _client.getDummyByIdAsync(null, "1");
+
+        // Async attempts take their slots when they are started in the background
+        while (_requests.get() < 2)
+            Thread.sleep(10);
+
+        var error = assertThrows(ConnectionException.class, () -> _client.getDummyById(null, "1"));
+        assertEquals("BULKHEAD_FULL", error.getCode());
+
+        assertEquals("Key 1", first.join().getKey());
+        assertEquals("Key 1", second.join().getKey());
+        assertEquals("Key 1", _client.getDummyById(null, "1").getKey());
+    }
+
+    @Test
+    public void testAdaptiveTimeout() throws ApplicationException {
+        _client = createClient(
+                "options.adaptive_timeout", true,
+                "options.min_timeout", 300
+        );
+
+        for (int index = 0; index < 10; index++)
+            _client.getDummyById(null, "1");
+
+        // Slow call fails after adaptive timeout instead of default 10 sec
+        _delays.add(3000L);
+        var start = System.currentTimeMillis();
+        assertThrows(ProcessingException.class, () -> _client.getDummyById(null, "1"));
+        assertTrue(System.currentTimeMillis() - start < 2000);
+    }
+
+    @Test
+    public void testAdaptiveTimeoutWithRetries() throws ApplicationException {
+        _client = createClient(
+                "options.adaptive_timeout", true,
+                "options.min_timeout", 300,
+                "options.retries", 1,
+                "options.retry_delay", 1000
+        );
+
+        for (int index = 0; index < 10; index++)
+            _client.getDummyById(null, "1");
+        var timeout = _client._resilience.getTimeout("localhost:" + port, 10000);
+
+        // The first attempt times out and the retry succeeds after the backoff
+        _delays.add(3000L);
+        var start = System.currentTimeMillis();
+        assertEquals("Key 1", _client.getDummyById(null, "1").getKey());
+        assertTrue(System.currentTimeMillis() - start >= 1000);
+        assertEquals(12, _requests.get());
+
+        // Only latency of the successful attempt is taken, without the retry delay
+        assertEquals(timeout, _client._resilience.getTimeout("localhost:" + port, 10000));
+    }
+
+    @Test
+    public void testHedging() throws ApplicationException {
+        _client = createClient("options.hedge_delay", 100);
+
+        // The first request hangs and the hedged one responds at once
+        _delays.add(3000L);
+        var start = System.currentTimeMillis();
+        assertEquals("Key 1", _client.getDummyById(null, "1").getKey());
+        assertTrue(System.currentTimeMillis() - start < 2000);
+        assertEquals(2, _requests.get());
+    }
+}
@@ -4,7 +4,6 @@ import jakarta.ws.rs.HttpMethod;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.core.Response;
 import org.pipservices4.components.config.ConfigParams;
-import org.pipservices4.commons.convert.JsonConverter;
 import org.pipservices4.commons.convert.TypeCode;
 import org.pipservices4.components.context.Context;
 import org.pipservices4.data.query.*;
@@ -17,8 +16,6 @@ import org.pipservices4.data.validate.FilterParamsSchema;
 import org.pipservices4.data.validate.ObjectSchema;
 import org.pipservices4.http.sample.*;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 public class DummyRestController extends RestController {
@@ -79,13 +76,10 @@ public class DummyRestController extends RestController {
         try {
             var res = this._service.create(
                     Context.fromTraceId(this.getTraceId(req)),
-                    JsonConverter.fromJson(
-                            Dummy.class,
-                            new String(req.getEntityStream().readAllBytes(), StandardCharsets.UTF_8)
-                    )
+                    getBodyAsJson(Dummy.class, req)
             );
             return this.sendCreatedResult(res);
-        } catch (IOException err) {
+        } catch (ApplicationException err) {
             return sendError(err);
         }
     }
@@ -94,13 +88,10 @@ public class DummyRestController extends RestController {
         try {
             var res = this._service.update(
                     Context.fromTraceId(this.getTraceId(req)),
-                    JsonConverter.fromJson(
-                            Dummy.class,
-                            new String(req.getEntityStream().readAllBytes(), StandardCharsets.UTF_8)
-                    )
+                    getBodyAsJson(Dummy.class, req)
             );
             return this.sendResult(res);
-        } catch (IOException err) {
+        } catch (ApplicationException err) {
             return sendError(err);
         }
     }
@@ -0,0 +1,112 @@
+package org.pipservices4.http.controllers;
+
+import jakarta.ws.rs.HttpMethod;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.components.config.ConfigParams;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares "pool" and "virtual" executors of {@link HttpEndpoint} under many concurrent slow requests.
+ * Every request blocks its handler for 100 ms, like a handler waiting for a database.
+ * A benchmark operation sends a burst of concurrent requests and waits for all responses,
+ * so requests per second are the number of requests divided by the operation time.
+ * <p>
+ * Run it with:
+ * <pre>
+ * {@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.pipservices4.http.controllers.HttpExecutorBenchmark
+ * }
+ * </pre>
+ * The "pool" executor runs 100 threads, so it processes at most 1000 requests per second.
+ * The 10000 requests burst needs a file descriptor limit above 20000 for client and server sockets.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpExecutorBenchmark {
+    private static final int PORT = 3018;
+    private static final long DELAY = 100;
+
+    @Param({"pool", "virtual"})
+    public String executor;
+
+    @Param({"1000", "10000"})
+    public int requests;
+
+    private RestController _controller;
+    private HttpClient _client;
+    private HttpRequest _request;
+
+    @Setup
+    public void setUp() throws ApplicationException {
+        _controller = new RestController() {
+            @Override
+            public void register() {
+                registerRoute(HttpMethod.GET, "/slow", null, (req) -> {
+                    try {
+                        Thread.sleep(DELAY);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return sendResult("OK");
+                });
+            }
+        };
+        _controller.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", PORT,
+                "options.executor", executor,
+                "options.max_threads", 100,
+                "options.request_queue_size", requests
+        ));
+        _controller.open(null);
+
+        _client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        _request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/slow"))
+                .timeout(java.time.Duration.ofMinutes(2))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws ApplicationException {
+        _controller.close(null);
+    }
+
+    @Benchmark
+    public int burst() throws IOException {
+        var futures = new ArrayList<CompletableFuture<HttpResponse<Void>>>(requests);
+        for (int index = 0; index < requests; index++)
+            futures.add(_client.sendAsync(_request, HttpResponse.BodyHandlers.discarding()));
+
+        for (var future : futures) {
+            if (future.join().statusCode() != 200)
+                throw new IOException("Unexpected status " + future.join().statusCode());
+        }
+        return futures.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(HttpExecutorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,104 @@
+package org.pipservices4.http.controllers;
+
+import jakarta.ws.rs.HttpMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.commons.errors.ConfigException;
+import org.pipservices4.components.config.ConfigParams;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests "virtual" executor mode of {@link HttpEndpoint} with handlers that block
+ * until more requests arrive than there are threads in the pool.
+ */
+@RunWith(Parameterized.class)
+public class HttpExecutorTest {
+    static int port = 3017;
+    static int requests = 20;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object> transports() {
+        return List.of("jdk", "grizzly");
+    }
+
+    private final String _transport;
+    private CountDownLatch _started;
+    private RestController _controller;
+
+    public HttpExecutorTest(String transport) {
+        _transport = transport;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        _started = new CountDownLatch(requests);
+        _controller = new RestController() {
+            @Override
+            public void register() {
+                registerRoute(HttpMethod.GET, "/wait", null, (req) -> {
+                    _started.countDown();
+                    try {
+                        var completed = _started.await(5, TimeUnit.SECONDS);
+                        return sendResult(completed);
+                    } catch (InterruptedException ex) {
+                        return sendResult(false);
+                    }
+                });
+            }
+        };
+    }
+
+    @After
+    public void tearDown() throws ApplicationException {
+        _controller.close(null);
+    }
+
+    @Test
+    public void testBlockedHandlers() throws Exception {
+        _controller.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", port,
+                "options.transport", _transport,
+                "options.executor", "virtual",
+                "options.max_threads", 4
+        ));
+        _controller.open(null);
+
+        // All requests are processed at once even though there are only 4 threads in the pool
+        var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/wait")).build();
+        var futures = new ArrayList<CompletableFuture<HttpResponse<String>>>();
+        for (int index = 0; index < requests; index++)
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+
+        for (var future : futures) {
+            var response = future.get(10, TimeUnit.SECONDS);
+            assertEquals(200, response.statusCode());
+            assertEquals("true", response.body());
+        }
+    }
+
+    @Test
+    public void testUnknownExecutor() {
+        assertThrows(ConfigException.class, () -> new HttpEndpoint().configure(ConfigParams.fromTuples(
+                "options.transport", _transport,
+                "options.executor", "unknown"
+        )));
+    }
+}
@@ -0,0 +1,130 @@
+package org.pipservices4.http.controllers;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+import org.junit.Test;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.References;
+import org.pipservices4.observability.count.CounterType;
+import org.pipservices4.observability.count.LogCounters;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+public class HttpInterceptorTest {
+    static int port = 3020;
+
+    private static HttpInterceptor create(String route) {
+        return new HttpInterceptor(route, (req) -> null);
+    }
+
+    @Test
+    public void testLiteralRoutes() {
+        var interceptor = create("/dummies");
+        assertTrue(interceptor.matches("/dummies"));
+        assertTrue(interceptor.matches("/api/v1/dummies/123"));
+        assertFalse(interceptor.matches("/dummy"));
+
+        interceptor = create("/dummies$");
+        assertTrue(interceptor.matches("/dummies"));
+        assertTrue(interceptor.matches("/api/v1/dummies"));
+        assertFalse(interceptor.matches("/dummies/123"));
+    }
+
+    @Test
+    public void testRegularExpressions() {
+        var interceptor = create("/dummies/[0-9]+$");
+        assertTrue(interceptor.matches("/dummies/123"));
+        assertFalse(interceptor.matches("/dummies/abc"));
+        assertFalse(interceptor.matches("/users/123"));
+
+        // Optional character is not a part of required literal
+        interceptor = create("/dummies?/");
+        assertTrue(interceptor.matches("/dummie/1"));
+        assertTrue(interceptor.matches("/dummies/1"));
+
+        interceptor = create("/dummies|/users");
+        assertTrue(interceptor.matches("/users"));
+        assertTrue(interceptor.matches("/dummies"));
+        assertFalse(interceptor.matches("/roles"));
+
+        interceptor = create("");
+        assertFalse(interceptor.matches("/dummies"));
+    }
+
+    @Test
+    public void testCounterName() {
+        assertEquals("api.v1.dummies.interceptor_time", create("/api/v1/dummies$").getCounterName());
+        assertEquals("interceptor_time", create("").getCounterName());
+        assertEquals("dummies_2.interceptor_time", HttpInterceptor.getCounterName("/dummies$", 2));
+    }
+
+    @Test
+    public void testDispatch() throws Exception {
+        var calls = new CopyOnWriteArrayList<String>();
+        var counters = new LogCounters();
+        var endpoint = new HttpEndpoint();
+        endpoint.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", port
+        ));
+        endpoint.setReferences(References.fromTuples(
+                new Descriptor("pip-services", "counters", "log", "default", "1.0"), counters
+        ));
+        endpoint.register(() -> {
+            endpoint.registerRoute(HttpMethod.GET, "/dummies", null, (req) -> {
+                calls.add("route");
+                return Response.ok("OK").build();
+            });
+
+            endpoint.registerInterceptor("/dummies", (req) -> calls.add("first"));
+            endpoint.registerInterceptor("/dummies$", (req) -> {
+                calls.add("second");
+                if (req.getHeaderString("X-Deny") != null)
+                    req.abortWith(Response.status(403).build());
+                return null;
+            });
+            endpoint.registerInterceptor("/dum", (req) -> {
+                calls.add("third");
+                // Doesn't overwrite the response of an aborted request
+                if (req.getHeaderString("X-Deny") != null)
+                    req.abortWith(Response.status(500).build());
+                return null;
+            });
+            endpoint.registerInterceptor("/users", (req) -> calls.add("users"));
+        });
+
+        endpoint.open(null);
+        try {
+            var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            var uri = URI.create("http://localhost:" + port + "/dummies");
+
+            // Matching interceptors are called in the order of registration
+            var response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertEquals(List.of("first", "second", "third", "route"), calls);
+
+            // The aborted request skips the rest of interceptors and the route
+            calls.clear();
+            response = client.send(HttpRequest.newBuilder(uri).header("X-Deny", "true").build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(403, response.statusCode());
+            assertEquals(List.of("first", "second"), calls);
+
+            // Every interceptor is timed by its own counter
+            assertEquals(2, (int) counters.get("dummies.interceptor_time", CounterType.Interval).getCount());
+            assertEquals(2, (int) counters.get("dummies_2.interceptor_time", CounterType.Interval).getCount());
+            assertEquals(1, (int) counters.get("dum.interceptor_time", CounterType.Interval).getCount());
+        } finally {
+            endpoint.close(null);
+        }
+    }
+}
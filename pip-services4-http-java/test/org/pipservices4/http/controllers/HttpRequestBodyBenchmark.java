@@ -0,0 +1,105 @@
+package org.pipservices4.http.controllers;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pipservices4.commons.convert.JsonConverter;
+import org.pipservices4.data.validate.ObjectSchema;
+import org.pipservices4.data.validate.Schema;
+import org.pipservices4.http.sample.Dummy;
+import org.pipservices4.http.sample.DummySchema;
+import org.pipservices4.http.sample.SubDummy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the body handling of a schema-validated POST route:
+ * reading, validation and binding of the request body to the target type.
+ * <p>
+ * "legacy" reads and parses the body twice, as the endpoint did before it cached the parsed body.
+ * <p>
+ * Run it with:
+ * <pre>
+ * {@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.pipservices4.http.controllers.HttpRequestBodyBenchmark
+ * }
+ * </pre>
+ * The benchmark is executed for bodies with 1, 100 and 1000 nested items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpRequestBodyBenchmark {
+    private static final URI BASE_URI = URI.create("http://localhost/");
+    private static final URI REQUEST_URI = URI.create("http://localhost/dummies");
+
+    @Param({"1", "100", "1000"})
+    public int items;
+
+    private byte[] _body;
+    private final Schema _schema = new ObjectSchema().withRequiredProperty("body", new DummySchema());
+
+    @Setup
+    public void setUp() throws IOException {
+        var array = new ArrayList<SubDummy>();
+        for (int index = 0; index < items; index++)
+            array.add(new SubDummy("SubKey " + index, "SubContent " + index));
+        _body = JsonConverter.toJson(new Dummy("1", "Key 1", "Content 1", array)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private ContainerRequest createRequest() {
+        var request = new ContainerRequest(BASE_URI, REQUEST_URI, "POST", null, new MapPropertiesDelegate(), null);
+        request.setEntityStream(new ByteArrayInputStream(_body));
+        return request;
+    }
+
+    @Benchmark
+    public Dummy legacy() throws Exception {
+        var request = createRequest();
+
+        // Validation
+        var bodyBytes = request.getEntityStream().readAllBytes();
+        var params = new HashMap<String, Object>();
+        params.put("body", JsonConverter.toMap(new String(bodyBytes, StandardCharsets.UTF_8)));
+        _schema.validateAndThrowException(null, params, false);
+        request.setEntityStream(new ByteArrayInputStream(bodyBytes));
+
+        // Action
+        var json = new String(request.getEntityStream().readAllBytes(), StandardCharsets.UTF_8);
+        return JsonConverter.fromJson(Dummy.class, json);
+    }
+
+    @Benchmark
+    public Dummy cached() throws Exception {
+        var request = createRequest();
+
+        // Validation
+        var params = new HashMap<String, Object>();
+        params.put("body", HttpRequestBody.getNullableMap(request));
+        _schema.validateAndThrowException(null, params, false);
+
+        // Action
+        return HttpRequestBody.getAs(Dummy.class, request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(HttpRequestBodyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,87 @@
+package org.pipservices4.http.controllers;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.junit.Test;
+import org.pipservices4.http.sample.Dummy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HttpRequestBodyTest {
+
+    private static ContainerRequest createRequest(String body, AtomicInteger reads) {
+        var request = new ContainerRequest(
+                URI.create("http://localhost/"), URI.create("http://localhost/dummies"),
+                "POST", null, new MapPropertiesDelegate(), null
+        );
+        request.setEntityStream(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                reads.incrementAndGet();
+                return super.read(b, off, len);
+            }
+        });
+        return request;
+    }
+
+    @Test
+    public void testSingleRead() throws IOException {
+        var reads = new AtomicInteger();
+        var request = createRequest("{\"id\":\"1\",\"key\":\"Key 1\",\"content\":\"Content 1\"}", reads);
+
+        var map = HttpRequestBody.getNullableMap(request);
+        assertEquals("Key 1", map.get("key"));
+        int readCount = reads.get();
+
+        // The same parsed map is returned again
+        assertSame(map, HttpRequestBody.getNullableMap(request));
+
+        var dummy = HttpRequestBody.getAs(Dummy.class, request);
+        assertEquals("1", dummy.getId());
+        assertEquals("Content 1", dummy.getContent());
+
+        assertEquals(readCount, reads.get());
+
+        // Entity stream is still readable
+        var json = new String(request.getEntityStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("Key 1"));
+    }
+
+    @Test
+    public void testEmptyAndInvalidBody() throws IOException {
+        var request = createRequest("", new AtomicInteger());
+        assertNull(HttpRequestBody.getNullableMap(request));
+        assertEquals("", HttpRequestBody.getString(request));
+
+        request = createRequest("[1, 2]", new AtomicInteger());
+        assertNull(HttpRequestBody.getNullableMap(request));
+        assertEquals("[1, 2]", HttpRequestBody.getString(request));
+
+        request = createRequest("{ invalid", new AtomicInteger());
+        assertNull(HttpRequestBody.getNullableMap(request));
+        var invalidRequest = request;
+        assertThrows(IOException.class, () -> HttpRequestBody.getAs(Dummy.class, invalidRequest));
+    }
+
+    @Test
+    public void testConversionError() throws IOException {
+        var request = createRequest("{\"array\":\"not an array\"}", new AtomicInteger());
+        assertNotNull(HttpRequestBody.getNullableMap(request));
+        assertThrows(IOException.class, () -> HttpRequestBody.getAs(Dummy.class, request));
+    }
+
+    @Test
+    public void testLargeBody() throws IOException {
+        var content = "x".repeat(100000);
+        var request = createRequest("{\"content\":\"" + content + "\"}", new AtomicInteger());
+
+        var dummy = HttpRequestBody.getAs(Dummy.class, request);
+        assertEquals(content, dummy.getContent());
+    }
+}
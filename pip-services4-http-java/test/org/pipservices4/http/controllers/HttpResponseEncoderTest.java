@@ -0,0 +1,193 @@
+package org.pipservices4.http.controllers;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.junit.Test;
+import org.pipservices4.commons.convert.JsonConverter;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.http.sample.Dummy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.*;
+
+public class HttpResponseEncoderTest {
+    static int port = 3010;
+
+    private static final HttpResponseOptions options = new HttpResponseOptions()
+            .withCompression(true)
+            .withCompressionThreshold(100)
+            .withETag(true);
+
+    private static List<Dummy> createDummies(int count) {
+        var dummies = new ArrayList<Dummy>();
+        for (int index = 0; index < count; index++)
+            dummies.add(new Dummy(Integer.toString(index), "Key " + index, "Content " + index, null));
+        return dummies;
+    }
+
+    private static ContainerRequest createRequest(String method, String acceptEncoding, String ifNoneMatch) {
+        var request = new ContainerRequest(
+                URI.create("http://localhost/"), URI.create("http://localhost/dummies"),
+                method, null, new MapPropertiesDelegate(), null
+        );
+        if (acceptEncoding != null)
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        if (ifNoneMatch != null)
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return request;
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (var stream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testNegotiateEncoding() {
+        assertEquals("gzip", HttpResponseEncoder.negotiateEncoding("gzip, deflate, br"));
+        assertEquals("gzip", HttpResponseEncoder.negotiateEncoding("deflate, gzip"));
+        assertEquals("deflate", HttpResponseEncoder.negotiateEncoding("gzip;q=0.5, deflate"));
+        assertEquals("gzip", HttpResponseEncoder.negotiateEncoding("*"));
+        assertNull(HttpResponseEncoder.negotiateEncoding("br"));
+        assertNull(HttpResponseEncoder.negotiateEncoding("gzip;q=0"));
+        assertNull(HttpResponseEncoder.negotiateEncoding("identity"));
+        assertNull(HttpResponseEncoder.negotiateEncoding(null));
+    }
+
+    @Test
+    public void testCompression() throws IOException {
+        var dummies = createDummies(100);
+
+        var response = HttpResponseEncoder.encode(createRequest(HttpMethod.GET, "gzip", null),
+                HttpResponseSender.sendResult(dummies), options);
+        assertEquals("gzip", response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaderString(HttpHeaders.VARY));
+        assertEquals(JsonConverter.toJson(dummies), gunzip((byte[]) response.getEntity()));
+
+        response = HttpResponseEncoder.encode(createRequest(HttpMethod.GET, "deflate", null),
+                HttpResponseSender.sendResult(dummies), options);
+        assertEquals("deflate", response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        try (var stream = new InflaterInputStream(new ByteArrayInputStream((byte[]) response.getEntity()))) {
+            assertEquals(JsonConverter.toJson(dummies), new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        // Small bodies and clients without compression get plain responses
+        response = HttpResponseEncoder.encode(createRequest(HttpMethod.GET, "gzip", null),
+                HttpResponseSender.sendResult(createDummies(1)), options);
+        assertNull(response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+
+        response = HttpResponseEncoder.encode(createRequest(HttpMethod.GET, null, null),
+                HttpResponseSender.sendResult(dummies), options);
+        assertNull(response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(JsonConverter.toJson(dummies), new String((byte[]) response.getEntity(), StandardCharsets.UTF_8));
+
+        // Streams are compressed on the fly
+        response = HttpResponseEncoder.encode(createRequest(HttpMethod.GET, "gzip", null),
+                HttpResponseSender.sendNdjsonResult(IntStream.range(0, 3).boxed()), options);
+        assertEquals("gzip", response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        var output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        assertEquals("0\n1\n2\n", gunzip(output.toByteArray()));
+    }
+
+    @Test
+    public void testConditionalGet() {
+        var dummies = createDummies(2);
+
+        var response = HttpResponseEncoder.encode(createRequest(HttpMethod.GET, null, null),
+                HttpResponseSender.sendResult(dummies), options);
+        assertEquals(200, response.getStatus());
+        var etag = response.getHeaderString(HttpHeaders.ETAG);
+        assertTrue(etag.startsWith("W/\""));
+
+        // The same content gets the same ETag
+        response = HttpResponseEncoder.encode(createRequest(HttpMethod.GET, null, etag),
+                HttpResponseSender.sendResult(createDummies(2)), options);
+        assertEquals(304, response.getStatus());
+        assertNull(response.getEntity());
+        assertEquals(etag, response.getHeaderString(HttpHeaders.ETAG));
+
+        // Changed content
+        response = HttpResponseEncoder.encode(createRequest(HttpMethod.GET, null, etag),
+                HttpResponseSender.sendResult(createDummies(3)), options);
+        assertEquals(200, response.getStatus());
+        assertNotEquals(etag, response.getHeaderString(HttpHeaders.ETAG));
+
+        // Only safe methods are validated
+        response = HttpResponseEncoder.encode(createRequest(HttpMethod.POST, null, etag),
+                HttpResponseSender.sendResult(dummies), options);
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeaderString(HttpHeaders.ETAG));
+
+        assertTrue(HttpResponseEncoder.matchesETag("\"abc\", W/\"def\"", "W/\"abc\""));
+        assertTrue(HttpResponseEncoder.matchesETag("*", "W/\"abc\""));
+        assertFalse(HttpResponseEncoder.matchesETag("W/\"abcd\"", "W/\"abc\""));
+    }
+
+    @Test
+    public void testOptionsFromConfig() {
+        var config = HttpResponseOptions.fromConfig(ConfigParams.fromTuples(
+                "compression", true,
+                "compression_threshold", 2048,
+                "compression_level", 20
+        ));
+        assertTrue(config.isCompression());
+        assertEquals(2048, config.getCompressionThreshold());
+        assertEquals(9, config.getCompressionLevel());
+        assertFalse(config.isETag());
+    }
+
+    @Test
+    public void testEncodedRoute() throws Exception {
+        var controller = new RestController() {
+            @Override
+            public void register() {
+                registerRoute(HttpMethod.GET, "/dummies", null, options,
+                        (req) -> sendResult(createDummies(100)));
+            }
+        };
+        controller.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", port
+        ));
+        controller.open(null);
+
+        try {
+            var client = HttpClient.newHttpClient();
+            var uri = URI.create("http://localhost:" + port + "/dummies");
+
+            var response = client.send(HttpRequest.newBuilder(uri).header(HttpHeaders.ACCEPT_ENCODING, "gzip").build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, response.statusCode());
+            assertEquals("gzip", response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+            assertEquals(JsonConverter.toJson(createDummies(100)), gunzip(response.body()));
+
+            var etag = response.headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+            response = client.send(HttpRequest.newBuilder(uri).header(HttpHeaders.IF_NONE_MATCH, etag).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(304, response.statusCode());
+            assertEquals(0, response.body().length);
+        } finally {
+            controller.close(null);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.pipservices4.http.controllers;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.HttpHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.http.sample.Dummy;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures latency and bytes on wire of a list route with different response options.
+ * <p>
+ * "plain" sends the page as is, "gzip" compresses it and "etag" repeats the request
+ * with <code>If-None-Match</code> and receives 304 status code. Body sizes are reported
+ * at the end of each run.
+ * <p>
+ * Run it with:
+ * <pre>
+ * {@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.pipservices4.http.controllers.HttpResponseEncodingBenchmark
+ * }
+ * </pre>
+ * The benchmark is executed for pages with 10, 100 and 1000 items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpResponseEncodingBenchmark {
+    private static final int PORT = 3011;
+
+    @Param({"plain", "gzip", "etag"})
+    public String mode;
+
+    @Param({"10", "100", "1000"})
+    public int items;
+
+    private RestController _controller;
+    private HttpClient _client;
+    private HttpRequest _request;
+    private int _bodySize;
+
+    @Setup
+    public void setUp() throws ApplicationException, IOException, InterruptedException {
+        var dummies = new ArrayList<Dummy>();
+        for (int index = 0; index < items; index++)
+            dummies.add(new Dummy(Integer.toString(index), "Key " + index, "Content " + index, null));
+
+        var options = new HttpResponseOptions()
+                .withCompression(!mode.equals("plain"))
+                .withETag(mode.equals("etag"));
+
+        _controller = new RestController() {
+            @Override
+            public void register() {
+                registerRoute(HttpMethod.GET, "/dummies", null, options, (req) -> sendResult(dummies));
+            }
+        };
+        _controller.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", PORT
+        ));
+        _controller.open(null);
+
+        _client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        var uri = URI.create("http://localhost:" + PORT + "/dummies");
+        var builder = HttpRequest.newBuilder(uri).header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        if (mode.equals("etag")) {
+            var response = _client.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+            builder.header(HttpHeaders.IF_NONE_MATCH, response.headers().firstValue(HttpHeaders.ETAG).orElseThrow());
+        }
+        _request = builder.build();
+    }
+
+    @TearDown
+    public void tearDown() throws ApplicationException {
+        System.out.println();
+        System.out.println("Bytes on wire per response: " + _bodySize);
+        _controller.close(null);
+    }
+
+    @Benchmark
+    public int getDummies() throws IOException, InterruptedException {
+        var response = _client.send(_request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200 && response.statusCode() != 304)
+            throw new IOException("Unexpected status " + response.statusCode());
+        _bodySize = response.body().length;
+        return response.statusCode();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(HttpResponseEncodingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,170 @@
+package org.pipservices4.http.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pipservices4.data.query.DataPage;
+import org.pipservices4.http.sample.Dummy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares buffered and streamed serialization of a data page.
+ * <p>
+ * "buffered" loads all items into a {@link DataPage} and serializes it into memory
+ * before sending, as {@link HttpResponseSender#sendResult} does. "streamed" and "ndjson"
+ * take items from a lazy source and write them as they go. The "firstByte" benchmarks
+ * stop at the first write to the response and measure the time to first byte.
+ * <p>
+ * Run it with:
+ * <pre>
+ * {@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.pipservices4.http.controllers.HttpResponseSenderBenchmark
+ * }
+ * </pre>
+ * Add <code>-prof gc</code> to JMH arguments to compare allocation rates.
+ * The benchmark is executed for pages with 1k, 100k and 1M items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class HttpResponseSenderBenchmark {
+    private static final ObjectMapper _mapper = new ObjectMapper();
+
+    static {
+        _mapper.findAndRegisterModules();
+        _mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Param({"1000", "100000", "1000000"})
+    public int items;
+
+    /**
+     * Output stream that counts written bytes and discards them.
+     */
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    /**
+     * Output stream that fails at the first byte, as a closed connection does,
+     * and discards everything written after that.
+     */
+    private static class FirstByteOutputStream extends OutputStream {
+        private boolean _failed = false;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!_failed) {
+                _failed = true;
+                throw new IOException("First byte");
+            }
+        }
+    }
+
+    private Iterator<Dummy> createSource() {
+        return new Iterator<>() {
+            private int _index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return _index < items;
+            }
+
+            @Override
+            public Dummy next() {
+                var index = _index++;
+                return new Dummy(Integer.toString(index), "Key " + index, "Content " + index, null);
+            }
+        };
+    }
+
+    private byte[] buffered() throws IOException {
+        var data = new ArrayList<Dummy>();
+        var source = createSource();
+        while (source.hasNext())
+            data.add(source.next());
+
+        return _mapper.writeValueAsBytes(new DataPage<>(data, (long) items));
+    }
+
+    @Benchmark
+    public long bufferedPage() throws IOException {
+        var output = new CountingOutputStream();
+        output.write(buffered());
+        return output.count;
+    }
+
+    @Benchmark
+    public long streamedPage() throws IOException {
+        var output = new CountingOutputStream();
+        var entity = (StreamingOutput) HttpResponseSender.sendStreamResult(createSource(), (long) items).getEntity();
+        entity.write(output);
+        return output.count;
+    }
+
+    @Benchmark
+    public long ndjson() throws IOException {
+        var output = new CountingOutputStream();
+        var entity = (StreamingOutput) HttpResponseSender.sendNdjsonResult(createSource()).getEntity();
+        entity.write(output);
+        return output.count;
+    }
+
+    @Benchmark
+    public void bufferedFirstByte(Blackhole blackhole) throws IOException {
+        var output = new FirstByteOutputStream();
+        try {
+            output.write(buffered());
+        } catch (IOException ex) {
+            blackhole.consume(ex);
+        }
+    }
+
+    @Benchmark
+    public void streamedFirstByte(Blackhole blackhole) {
+        var output = new FirstByteOutputStream();
+        var entity = (StreamingOutput) HttpResponseSender.sendStreamResult(createSource(), (long) items).getEntity();
+        try {
+            entity.write(output);
+        } catch (IOException ex) {
+            blackhole.consume(ex);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(HttpResponseSenderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
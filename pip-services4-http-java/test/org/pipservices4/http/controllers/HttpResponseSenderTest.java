@@ -0,0 +1,141 @@
+package org.pipservices4.http.controllers;
+
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.junit.Test;
+import org.pipservices4.commons.convert.JsonConverter;
+import org.pipservices4.data.query.DataPage;
+import org.pipservices4.http.sample.Dummy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class HttpResponseSenderTest {
+
+    private static String write(Response response) throws IOException {
+        var output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testStreamDataPage() throws IOException {
+        var page = new DataPage<>(List.of(
+                new Dummy("1", "Key 1", "Content 1", null),
+                new Dummy("2", "Key 2", "Content 2", null)
+        ), 10L);
+
+        var response = HttpResponseSender.sendStreamResult(page);
+        assertEquals(200, response.getStatus());
+
+        var json = write(response);
+        var expected = JsonConverter.toJson(page);
+        assertEquals(JsonConverter.toMap(expected), JsonConverter.toMap(json));
+
+        // Page without total
+        json = write(HttpResponseSender.sendStreamResult(List.of(1, 2, 3).iterator(), null));
+        assertEquals("{\"data\":[1,2,3]}", json);
+
+        assertEquals(204, HttpResponseSender.sendStreamResult(null).getStatus());
+    }
+
+    @Test
+    public void testNdjson() throws IOException {
+        var stream = IntStream.range(0, 3).mapToObj((index) -> Map.of("id", index));
+
+        var response = HttpResponseSender.sendNdjsonResult(stream);
+        assertEquals(HttpResponseSender.APPLICATION_NDJSON, response.getMediaType().toString());
+        assertEquals("{\"id\":0}\n{\"id\":1}\n{\"id\":2}\n", write(response));
+    }
+
+    @Test
+    public void testIncrementalWrite() {
+        var closed = new AtomicBoolean();
+        var taken = new AtomicInteger();
+        var stream = IntStream.range(0, 1000000).boxed()
+                .peek((index) -> taken.incrementAndGet())
+                .onClose(() -> closed.set(true));
+
+        // Stops at the first write and records how many items were taken by then
+        var takenAtFirstWrite = new AtomicInteger(-1);
+        var output = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (takenAtFirstWrite.compareAndSet(-1, taken.get()))
+                    throw new IOException("Connection closed");
+            }
+        };
+
+        var entity = (StreamingOutput) HttpResponseSender.sendStreamResult(stream, 1000000L).getEntity();
+        assertThrows(IOException.class, () -> entity.write(output));
+        assertTrue(takenAtFirstWrite.get() > 0);
+        assertTrue(takenAtFirstWrite.get() < 10000);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testCloseIterator() throws IOException {
+        var closed = new AtomicBoolean();
+        class ClosableIterator implements Iterator<Integer>, AutoCloseable {
+            private int _index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return _index < 2;
+            }
+
+            @Override
+            public Integer next() {
+                return _index++;
+            }
+
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        }
+
+        var json = write(HttpResponseSender.sendStreamResult(new ClosableIterator(), 2L));
+        assertEquals("{\"total\":2,\"data\":[0,1]}", json);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testFailedStreamIsNotCompleted() {
+        var stream = IntStream.range(0, 3).boxed().map((index) -> {
+            if (index == 2)
+                throw new IllegalStateException("Source failed");
+            return index;
+        });
+
+        var output = new ByteArrayOutputStream();
+        var entity = (StreamingOutput) HttpResponseSender.sendStreamResult(stream, 3L).getEntity();
+        assertThrows(IllegalStateException.class, () -> entity.write(output));
+        assertEquals("{\"total\":3,\"data\":[0,1", output.toString(StandardCharsets.UTF_8));
+
+        var ndjsonOutput = new ByteArrayOutputStream();
+        var ndjsonEntity = (StreamingOutput) HttpResponseSender.sendNdjsonResult(
+                IntStream.range(0, 3).mapToObj((index) -> {
+                    if (index == 2)
+                        throw new IllegalStateException("Source failed");
+                    return Map.of("id", index);
+                })).getEntity();
+        assertThrows(IllegalStateException.class, () -> ndjsonEntity.write(ndjsonOutput));
+        assertEquals("{\"id\":0}\n{\"id\":1}\n", ndjsonOutput.toString(StandardCharsets.UTF_8));
+    }
+}
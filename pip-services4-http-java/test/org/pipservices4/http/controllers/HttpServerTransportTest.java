@@ -0,0 +1,181 @@
+package org.pipservices4.http.controllers;
+
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.jackson.JacksonFeature;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.pipservices4.commons.convert.JsonConverter;
+import org.pipservices4.commons.errors.ConfigException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.exec.Parameters;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.References;
+import org.pipservices4.http.sample.Dummy;
+import org.pipservices4.http.sample.DummyService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class HttpServerTransportTest {
+    static int port = 3007;
+
+    @Parameterized.Parameters(name = "{0} http2={1}")
+    public static List<Object[]> transports() {
+        return List.of(
+                new Object[]{"jdk", false},
+                new Object[]{"grizzly", false},
+                new Object[]{"netty", false},
+                new Object[]{"netty", true}
+        );
+    }
+
+    private final String _transport;
+    private final boolean _http2;
+    private DummyCommandableHttpController _controller;
+    private HttpEndpoint _endpoint;
+    private Client _client;
+
+    public HttpServerTransportTest(String transport, boolean http2) {
+        _transport = transport;
+        _http2 = http2;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        _controller = new DummyCommandableHttpController();
+        _endpoint = new HttpEndpoint();
+
+        var references = References.fromTuples(
+                new Descriptor("pip-services-dummies", "service", "default", "default", "1.0"), new DummyService(),
+                new Descriptor("pip-services-dummies", "controller", "rest", "default", "1.0"), _controller,
+                new Descriptor("pip-services4", "endpoint", "http", "default", "1.0"), _endpoint
+        );
+
+        _controller.configure(ConfigParams.fromTuples("base_route", "/v1/dummy"));
+        _endpoint.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", port,
+                "options.transport", _transport,
+                "options.http2", _http2,
+                "options.max_threads", 4,
+                "options.request_queue_size", 100
+        ));
+        _controller.setReferences(references);
+
+        _endpoint.open(null);
+        _controller.open(null);
+
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.register(new JacksonFeature());
+        _client = ClientBuilder.newClient(clientConfig);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        _client.close();
+        _controller.close(null);
+        _endpoint.close(null);
+    }
+
+    private Dummy invoke(String route, Object entity) throws Exception {
+        String content = JsonConverter.toJson(entity);
+        try (Response response = _client.target("http://localhost:" + port + route)
+                .request(MediaType.APPLICATION_JSON)
+                .post(Entity.entity(content, MediaType.APPLICATION_JSON))) {
+            return response.readEntity(Dummy.class);
+        }
+    }
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        assertTrue(_endpoint.isOpen());
+        assertNotNull(_endpoint.getTransport());
+        assertEquals(_transport.equals("jdk"), _endpoint.getServer() != null);
+
+        // More concurrent requests than threads
+        var executor = Executors.newFixedThreadPool(20);
+        try {
+            var futures = new ArrayList<Future<Dummy>>();
+            for (int index = 0; index < 100; index++) {
+                var dummy = new Dummy(null, "Key " + index, "Content " + index, new ArrayList<>());
+                futures.add(executor.submit(() -> invoke("/v1/dummy/create_dummy", Parameters.fromTuples("dummy", dummy))));
+            }
+
+            for (int index = 0; index < futures.size(); index++) {
+                var result = futures.get(index).get();
+                assertNotNull(result.getId());
+                assertEquals("Key " + index, result.getKey());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testProtocolVersion() throws Exception {
+        var version = _http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1;
+        var client = HttpClient.newBuilder().version(version).build();
+
+        // Cleartext HTTP/2 is negotiated by an upgrade of the first request that must have no body
+        var upgrade = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/dummy/get_dummies"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        var response = client.send(upgrade, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(version, response.version());
+
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/dummy/create_dummy"))
+                .POST(HttpRequest.BodyPublishers.ofString(JsonConverter.toJson(
+                        Parameters.fromTuples("dummy", new Dummy(null, "Key", "Content", new ArrayList<>())))))
+                .header("Content-Type", MediaType.APPLICATION_JSON)
+                .build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(version, response.version());
+        assertEquals("Key", JsonConverter.fromJson(Dummy.class, response.body()).getKey());
+    }
+
+    @Test
+    public void testReopen() throws Exception {
+        _endpoint.close(null);
+        assertFalse(_endpoint.isOpen());
+
+        _endpoint.open(null);
+
+        var result = invoke("/v1/dummy/create_dummy",
+                Parameters.fromTuples("dummy", new Dummy(null, "Key", "Content", new ArrayList<>())));
+        assertEquals("Key", result.getKey());
+    }
+
+    @Test
+    public void testUnknownTransport() throws Exception {
+        var endpoint = new HttpEndpoint();
+        endpoint.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", port + 1,
+                "options.transport", "unknown"
+        ));
+
+        assertThrows(ConfigException.class, () -> endpoint.open(null));
+        assertFalse(endpoint.isOpen());
+    }
+}
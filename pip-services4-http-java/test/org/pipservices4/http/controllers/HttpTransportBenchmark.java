@@ -0,0 +1,107 @@
+package org.pipservices4.http.controllers;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.References;
+import org.pipservices4.http.sample.Dummy;
+import org.pipservices4.http.sample.DummyService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of HTTP server transports with concurrent clients.
+ * Throughput mode reports requests per second, and sample time mode reports latency percentiles (p99).
+ * <p>
+ * Run it with:
+ * <pre>
+ * {@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.pipservices4.http.controllers.HttpTransportBenchmark
+ * }
+ * </pre>
+ * The benchmark is executed for "jdk", "grizzly" and "netty" transports with 64 client threads.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpTransportBenchmark {
+    private static final int PORT = 3009;
+
+    @Param({"jdk", "grizzly", "netty"})
+    public String transport;
+
+    private HttpEndpoint _endpoint;
+    private DummyCommandableHttpController _controller;
+    private HttpClient _client;
+    private HttpRequest _request;
+
+    @Setup
+    public void setUp() throws ApplicationException {
+        var service = new DummyService();
+        var dummy = service.create(null, new Dummy(null, "Key 1", "Content 1", new ArrayList<>()));
+
+        _endpoint = new HttpEndpoint();
+        _controller = new DummyCommandableHttpController();
+
+        var references = References.fromTuples(
+                new Descriptor("pip-services-dummies", "service", "default", "default", "1.0"), service,
+                new Descriptor("pip-services-dummies", "controller", "rest", "default", "1.0"), _controller,
+                new Descriptor("pip-services4", "endpoint", "http", "default", "1.0"), _endpoint
+        );
+
+        _controller.configure(ConfigParams.fromTuples("base_route", "/v1/dummy"));
+        _endpoint.configure(ConfigParams.fromTuples(
+                "connection.protocol", "http",
+                "connection.host", "localhost",
+                "connection.port", PORT,
+                "options.transport", transport
+        ));
+        _controller.setReferences(references);
+
+        _endpoint.open(null);
+        _controller.open(null);
+
+        _client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        _request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/v1/dummy/get_dummy_by_id"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"dummy_id\":\"" + dummy.getId() + "\"}"))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws ApplicationException {
+        _controller.close(null);
+        _endpoint.close(null);
+    }
+
+    @Benchmark
+    public int getDummyById() throws IOException, InterruptedException {
+        var response = _client.send(_request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200)
+            throw new IOException("Unexpected status " + response.statusCode());
+        return response.body().length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(HttpTransportBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -1,6 +1,7 @@
 package org.pipservices4.messaging.build;
 
 
+import org.pipservices4.commons.errors.ConfigException;
 import org.pipservices4.components.refer.Descriptor;
 import org.pipservices4.components.refer.ReferenceException;
 import org.pipservices4.messaging.queues.IMessageQueue;
@@ -35,8 +36,15 @@ public class MemoryMessageQueueFactory extends MessageQueueFactory {
     public IMessageQueue createQueue(String name) throws ReferenceException {
         var queue = new MemoryMessageQueue(name);
 
-        if (this._config != null)
-            queue.configure(this._config);
+        if (this._config != null) {
+            try {
+                queue.configure(this._config);
+            } catch (ConfigException ex) {
+                var error = new ReferenceException(null, ex.getCode(), ex.getMessage());
+                error.withCause(ex);
+                throw error;
+            }
+        }
 
         if (this._references != null)
             queue.setReferences(this._references);
@@ -1,6 +1,7 @@
 package org.pipservices4.messaging.queues;
 
 import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.commons.errors.ConfigException;
 import org.pipservices4.commons.errors.InvalidStateException;
 import org.pipservices4.components.context.Context;
 import org.pipservices4.components.run.ICleanable;
@@ -39,7 +40,7 @@ public abstract class CachedMessageQueue extends MessageQueue implements ICleana
      * @param config configuration parameters to be set.
      */
     @Override
-    public void configure(ConfigParams config) {
+    public void configure(ConfigParams config) throws ConfigException {
         super.configure(config);
 
         this._autoSubscribe = config.getAsBooleanWithDefault("options.autosubscribe", this._autoSubscribe);
@@ -231,11 +232,7 @@ public abstract class CachedMessageQueue extends MessageQueue implements ICleana
             return;
         }
 
-        try {
-            this._receiver.receiveMessage(message, this);
-        } catch (Exception ex) {
-            this._logger.error(context, ex, "Failed to process the message");
-        }
+        this.dispatchMessage(context, receiver, message);
     }
 
     /**
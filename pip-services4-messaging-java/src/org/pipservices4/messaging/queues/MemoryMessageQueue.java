@@ -1,5 +1,6 @@
 package org.pipservices4.messaging.queues;
 
+import org.pipservices4.commons.errors.ConfigException;
 import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.components.context.Context;
 import org.pipservices4.config.auth.CredentialParams;
@@ -132,7 +133,7 @@ public class MemoryMessageQueue extends MessageQueue {
     }
 
     @Override
-    public void configure(ConfigParams config) {
+    public void configure(ConfigParams config) throws ConfigException {
         super.configure(config);
 
         this._listenInterval = config.getAsLongWithDefault("listen_interval", this._listenInterval);
@@ -412,14 +413,8 @@ public class MemoryMessageQueue extends MessageQueue {
         while (_cancel) {
             MessageEnvelope message = receive(context, _listenInterval);
 
-            if (_cancel && message != null) {
-                try {
-                    receiver.receiveMessage(message, this);
-                } catch (Exception ex) {
-                    _logger.error(context, ex, "Failed to process the message");
-                    // await AbandonAsync(message);
-                }
-            }
+            if (_cancel && message != null)
+                dispatchMessage(context, receiver, message);
         }
 
         _logger.trace(context, "Stopped listening messages at %s", this);
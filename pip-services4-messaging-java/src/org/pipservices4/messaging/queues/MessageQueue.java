@@ -4,8 +4,10 @@ import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.components.config.IConfigurable;
 import org.pipservices4.components.config.NameResolver;
 import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.commons.errors.ConfigException;
 import org.pipservices4.commons.errors.InvalidStateException;
 import org.pipservices4.components.context.ContextResolver;
+import org.pipservices4.components.exec.TaskExecutors;
 import org.pipservices4.components.refer.IReferenceable;
 import org.pipservices4.components.refer.IReferences;
 import org.pipservices4.components.refer.ReferenceException;
@@ -20,6 +22,9 @@ import org.pipservices4.observability.log.CompositeLogger;
 import org.pipservices4.components.context.IContext;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
 /**
  * Abstract message queue that is used as a basis for specific message queue implementations.
@@ -27,6 +32,13 @@ import java.util.List;
  * ### Configuration parameters ###
  * <ul>
  * <li>name:                        name of the message queue
+ * <li>options:
+ *   <ul>
+ *   <li>executor:                  message executor: "pool" to process messages one by one by the listening thread
+ *                                  or "virtual" to process every message by its own virtual thread (default: "pool")
+ *   <li>max_concurrent_messages:   maximum number of messages processed at the same time in "virtual" mode
+ *                                  or 0 for unlimited (default: 100)
+ *   </ul>
  * <li>connection(s):
  *   <ul>
  *   <li>discovery_key:             key to retrieve parameters from discovery service
@@ -65,6 +77,10 @@ public abstract class MessageQueue implements IMessageQueue, IReferenceable, ICo
     protected CompositeCounters _counters = new CompositeCounters();
     protected ConnectionResolver _connectionResolver = new ConnectionResolver();
     protected CredentialResolver _credentialResolver = new CredentialResolver();
+    protected String _executorMode = TaskExecutors.POOL;
+    protected int _maxConcurrentMessages = 100;
+    private ExecutorService _executor;
+    private Semaphore _messageSlots;
 
     /**
      * Creates a new instance of the message queue.
@@ -97,8 +113,9 @@ public abstract class MessageQueue implements IMessageQueue, IReferenceable, ICo
      *
      * @param name   (optional) a queue name
      * @param config configuration parameters
+     * @throws ConfigException when configuration is wrong.
      */
-    public MessageQueue(String name, ConfigParams config) {
+    public MessageQueue(String name, ConfigParams config) throws ConfigException {
         _name = name;
         if (config != null)
             configure(config);
@@ -108,14 +125,19 @@ public abstract class MessageQueue implements IMessageQueue, IReferenceable, ICo
      * Configures component by passing configuration parameters.
      *
      * @param config configuration parameters to be set.
+     * @throws ConfigException when the executor is not supported.
      */
-    public void configure(ConfigParams config) {
+    public void configure(ConfigParams config) throws ConfigException {
         _name = NameResolver.resolve(config, _name);
         _logger.configure(config);
         _connectionResolver.configure(config, true);
         _credentialResolver.configure(config, true);
 
         _name = config.getAsStringWithDefault("queue", _name);
+        _executorMode = config.getAsStringWithDefault("options.executor", _executorMode);
+        if (!TaskExecutors.isValidMode(_executorMode))
+            throw new ConfigException(null, "UNSUPPORTED_EXECUTOR", "Queue executor " + _executorMode + " is not supported");
+        _maxConcurrentMessages = config.getAsIntegerWithDefault("options.max_concurrent_messages", _maxConcurrentMessages);
     }
 
     /**
@@ -318,6 +340,64 @@ public abstract class MessageQueue implements IMessageQueue, IReferenceable, ICo
      */
     public abstract void listen(IContext context, IMessageReceiver receiver) throws ApplicationException;
 
+    /**
+     * Passes a received message to the receiver.
+     * In "virtual" executor mode the message is processed by a new virtual thread and the method returns at once,
+     * so receivers blocked on I/O don't hold up the following messages. When "max_concurrent_messages"
+     * are already being processed, the method waits for one of them to complete, so the listener stops
+     * receiving new messages. Otherwise the message is processed by the current thread.
+     *
+     * @param context     (optional) a context to trace execution through call chain.
+     * @param receiver      a receiver to receive the message.
+     * @param message       a message to be processed.
+     */
+    protected void dispatchMessage(IContext context, IMessageReceiver receiver, MessageEnvelope message) {
+        if (!TaskExecutors.VIRTUAL.equals(_executorMode)) {
+            receiveMessage(context, receiver, message);
+            return;
+        }
+
+        var executor = getExecutor(context);
+        var slots = _messageSlots;
+        if (slots != null)
+            slots.acquireUninterruptibly();
+        try {
+            executor.execute(() -> {
+                try {
+                    receiveMessage(context, receiver, message);
+                } finally {
+                    if (slots != null)
+                        slots.release();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            if (slots != null)
+                slots.release();
+            throw ex;
+        }
+    }
+
+    private void receiveMessage(IContext context, IMessageReceiver receiver, MessageEnvelope message) {
+        try {
+            receiver.receiveMessage(message, this);
+        } catch (Exception ex) {
+            _logger.error(context, ex, "Failed to process the message");
+        }
+    }
+
+    private ExecutorService getExecutor(IContext context) {
+        synchronized (_lock) {
+            // Idle threads are not kept, so the executor doesn't have to be shut down
+            if (_executor == null) {
+                if (!TaskExecutors.isVirtualSupported())
+                    _logger.warn(context, "Virtual threads are not supported by this JVM, queue %s uses platform threads", this);
+                _executor = TaskExecutors.newVirtualExecutor("pip-services-queue-" + getName());
+                _messageSlots = _maxConcurrentMessages > 0 ? new Semaphore(_maxConcurrentMessages) : null;
+            }
+            return _executor;
+        }
+    }
+
     /**
      * Listens for incoming messages without blocking the current thread.
      *
@@ -2,8 +2,15 @@ package org.pipservices4.messaging.queues;
 
 import org.junit.*;
 import org.pipservices4.commons.errors.*;
+import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.messaging.queues.MemoryMessageQueue;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
 public class MemoryMessageQueueTest {
     private final MemoryMessageQueue queue;
     private final MessageQueueFixture fixture;
@@ -69,4 +76,93 @@ public class MemoryMessageQueueTest {
         fixture.testListen();
     }
 
+    @Test
+    public void testVirtualListen() throws Exception {
+        var virtualQueue = new MemoryMessageQueue("virtual");
+        virtualQueue.configure(ConfigParams.fromTuples(
+                "options.executor", "virtual",
+                "options.listen_interval", 100
+        ));
+        virtualQueue.open(null);
+
+        // Every receiver blocks until all messages are received, so they must be processed at the same time
+        int messages = 10;
+        var started = new CountDownLatch(messages);
+        var completed = new AtomicInteger();
+        virtualQueue.beginListen(null, (message, queue) -> {
+            started.countDown();
+            try {
+                if (started.await(5, TimeUnit.SECONDS))
+                    completed.incrementAndGet();
+                queue.complete(message);
+            } catch (InterruptedException | ApplicationException ex) {
+                // Ignore...
+            }
+        });
+
+        try {
+            for (int index = 0; index < messages; index++)
+                virtualQueue.send(null, new MessageEnvelope(null, "Test", "Test message " + index));
+
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            assertEquals(messages, completed.get());
+        } finally {
+            virtualQueue.endListen(null);
+            virtualQueue.close(null);
+        }
+    }
+
+    @Test
+    public void testMaxConcurrentMessages() throws Exception {
+        var virtualQueue = new MemoryMessageQueue("limited");
+        virtualQueue.configure(ConfigParams.fromTuples(
+                "options.executor", "virtual",
+                "options.max_concurrent_messages", 2,
+                "options.listen_interval", 100
+        ));
+        virtualQueue.open(null);
+
+        // Receivers block until released, so only the limited number of messages is taken from the queue
+        int messages = 6;
+        var release = new CountDownLatch(1);
+        var active = new AtomicInteger();
+        var maxActive = new AtomicInteger();
+        var completed = new CountDownLatch(messages);
+        virtualQueue.beginListen(null, (message, queue) -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+                queue.complete(message);
+            } catch (InterruptedException | ApplicationException ex) {
+                // Ignore...
+            } finally {
+                active.decrementAndGet();
+                completed.countDown();
+            }
+        });
+
+        try {
+            for (int index = 0; index < messages; index++)
+                virtualQueue.send(null, new MessageEnvelope(null, "Test", "Test message " + index));
+
+            Thread.sleep(500);
+            assertEquals(2, active.get());
+            assertEquals(messages - 3, virtualQueue.readMessageCount());
+
+            release.countDown();
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+            assertEquals(2, maxActive.get());
+        } finally {
+            virtualQueue.endListen(null);
+            virtualQueue.close(null);
+        }
+    }
+
+    @Test
+    public void testUnknownExecutor() {
+        var error = assertThrows(ConfigException.class, () -> new MemoryMessageQueue("unknown").configure(
+                ConfigParams.fromTuples("options.executor", "unknown")));
+        assertEquals("UNSUPPORTED_EXECUTOR", error.getCode());
+    }
 }
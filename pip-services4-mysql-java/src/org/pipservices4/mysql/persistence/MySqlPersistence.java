@@ -844,7 +844,7 @@ public class MySqlPersistence<T> implements IReferenceable, IUnreferenceable, IC
             throw new RuntimeException(ex);
         }
 
-        this._logger.trace(context, "Created in %s with id = %s", this.quotedTableName(), convertFromPublic(item).getOrDefault("id", null));
+        this._logger.trace(context, "Created in %s with id = %s", this.quotedTableName(), row.getOrDefault("id", null));
 
         return item;
     }
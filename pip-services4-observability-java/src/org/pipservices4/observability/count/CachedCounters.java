@@ -3,18 +3,30 @@ package org.pipservices4.observability.count;
 import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.components.config.IReconfigurable;
 import org.pipservices4.commons.errors.InvocationException;
+import org.pipservices4.components.context.IContext;
+import org.pipservices4.components.run.IClosable;
+import org.pipservices4.observability.exec.FlushScheduler;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Abstract implementation of performance counters that measures and stores counters in memory.
  * Child classes implement saving of the counters into various destinations.
  * <p>
+ * Measurements are recorded without locks into striped primitive cells.
+ * {@link Counter} objects are materialized only when counters are read
+ * by {@link #get(String, int)}, {@link #getAll()} or {@link #dump()}.
+ * <p>
+ * Counters are saved in background by the shared {@link FlushScheduler},
+ * so threads that record measurements never wait for the save.
+ * The last measurements are saved when the component is closed.
+ * <p>
  * ### Configuration parameters ###
  * <ul>
  * <li>options:
@@ -24,14 +36,16 @@ import java.util.Map;
  * </ul>
  * </ul>
  */
-public abstract class CachedCounters implements ICounters, IReconfigurable, ICounterTimingCallback {
-    private final Map<String, Counter> _cache = new HashMap<>();
-    private boolean _updated = false;
-    private long _lastDumpTime = System.currentTimeMillis();
-    protected long _lastResetTime = System.currentTimeMillis();
-    private long _interval = 300000;
+public abstract class CachedCounters implements ICounters, IReconfigurable, IClosable, ICounterTimingCallback {
+    private final Map<String, CounterCell> _cache = new ConcurrentHashMap<>();
+    private volatile boolean _updated = false;
+    private volatile long _lastDumpTime = System.currentTimeMillis();
+    protected volatile long _lastResetTime = System.currentTimeMillis();
+    private volatile long _interval = 300000;
     private final Object _lock = new Object();
-    protected long _resetTimeout = 0;
+    private final AtomicBoolean _dumping = new AtomicBoolean(false);
+    private volatile boolean _scheduled = false;
+    protected volatile long _resetTimeout = 0;
 
     /**
      * Creates a new CachedCounters object.
@@ -81,9 +95,7 @@ public abstract class CachedCounters implements ICounters, IReconfigurable, ICou
      * @param name a counter name to clear.
      */
     public void clear(String name) {
-        synchronized (_lock) {
-            _cache.remove(name);
-        }
+        _cache.remove(name);
     }
 
     /**
@@ -115,79 +127,106 @@ public abstract class CachedCounters implements ICounters, IReconfigurable, ICou
     }
 
     /**
-     * Makes counter measurements as updated and dumps them when timeout expires.
+     * Makes counter measurements as updated. The counters are dumped
+     * in background by {@link FlushScheduler} when timeout expires.
      *
      * @see #dump()
      */
     protected void update() {
-        _updated = true;
+        // Avoid writing the shared flag when it is already set
+        if (!_updated)
+            _updated = true;
+
+        if (!_scheduled) {
+            _scheduled = true;
+            FlushScheduler.getDefault().register(this, CachedCounters::dumpIfNeeded);
+        }
+    }
+
+    private void dumpIfNeeded() {
         if (System.currentTimeMillis() > _lastDumpTime + _interval) {
+            // Only one thread shall dump counters at a time
+            if (!_dumping.compareAndSet(false, true))
+                return;
+
             try {
                 dump();
             } catch (InvocationException ex) {
                 // Todo: decide what to do
+            } finally {
+                _dumping.set(false);
             }
         }
     }
 
+    /**
+     * Closes component and dumps the last counters measurements.
+     *
+     * @param context (optional) execution context to trace execution through call chain.
+     * @throws InvocationException when error occured.
+     */
+    public void close(IContext context) throws InvocationException {
+        FlushScheduler.getDefault().unregister(this);
+        _scheduled = false;
+        dump();
+    }
+
     private void resetIfNeeded() {
         if (_resetTimeout == 0)
             return;
 
         if (System.currentTimeMillis() - _lastResetTime > _resetTimeout) {
-            _cache.clear();
-            _updated = false;
-            _lastResetTime = System.currentTimeMillis();
+            synchronized (_lock) {
+                if (System.currentTimeMillis() - _lastResetTime > _resetTimeout) {
+                    _cache.clear();
+                    _updated = false;
+                    _lastResetTime = System.currentTimeMillis();
+                }
+            }
         }
     }
 
     /**
      * Gets all captured counters.
      *
-     * @return a list with counters.
+     * @return a list with snapshots of the counters.
      */
     public List<Counter> getAll() {
-        synchronized (_lock) {
-            resetIfNeeded();
-            return new ArrayList<>(_cache.values());
-        }
+        resetIfNeeded();
+
+        List<Counter> result = new ArrayList<>(_cache.size());
+        for (CounterCell cell : _cache.values())
+            result.add(cell.toCounter());
+        return result;
     }
 
     /**
      * Gets a counter specified by its name. It counter does not exist or its type
      * doesn't match the specified type it creates a new one.
+     * <p>
+     * The returned object is a snapshot of the counter measurements.
+     * Changes made to it are not reflected in the counters.
      *
      * @param name a counter name to retrieve.
      * @param type a counter type.
-     * @return an existing or newly created counter of the specified type.
+     * @return a snapshot of an existing or newly created counter of the specified type.
      */
     public Counter get(String name, int type) {
+        return getCell(name, type).toCounter();
+    }
+
+    private CounterCell getCell(String name, int type) {
         if (name == null || name.isEmpty())
             throw new NullPointerException("Counter name was not set");
 
-        synchronized (_lock) {
-            resetIfNeeded();
-            Counter counter = _cache.get(name);
-            if (counter == null || counter.getType() != type) {
-                counter = new Counter(name, type);
-                _cache.put(name, counter);
-            }
+        resetIfNeeded();
 
-            return counter;
+        CounterCell cell = _cache.get(name);
+        if (cell == null || cell.getType() != type) {
+            cell = _cache.compute(name, (k, c) -> c == null || c.getType() != type ? new CounterCell(k, type) : c);
         }
-    }
 
-    private void calculateStats(Counter counter, float value) {
-        if (counter == null)
-            throw new NullPointerException("Counter cannot be null");
-
-        counter.setLast(value);
-        counter.setCount(counter.getCount() != null ? counter.getCount() + 1 : 1);
-        counter.setMax(counter.getMax() != null ? Math.max(counter.getMax(), value) : value);
-        counter.setMin(counter.getMin() != null ? Math.min(counter.getMin(), value) : value);
-        counter.setAverage(counter.getAverage() != null && counter.getCount() > 1
-                ? ((counter.getAverage() * (counter.getCount() - 1)) + value) / counter.getCount()
-                : value);
+        return cell;
     }
 
     /**
@@ -210,8 +249,7 @@ public abstract class CachedCounters implements ICounters, IReconfigurable, ICou
      * @see CounterTiming#endTiming()
      */
     public void endTiming(String name, float elapsed) {
-        Counter counter = get(name, CounterType.Interval);
-        calculateStats(counter, elapsed);
+        getCell(name, CounterType.Interval).record(elapsed);
         update();
     }
 
@@ -223,8 +261,7 @@ public abstract class CachedCounters implements ICounters, IReconfigurable, ICou
      * @param value a value to update statistics
      */
     public void stats(String name, float value) {
-        Counter counter = get(name, CounterType.Statistics);
-        calculateStats(counter, value);
+        getCell(name, CounterType.Statistics).record(value);
         update();
     }
 
@@ -237,8 +274,7 @@ public abstract class CachedCounters implements ICounters, IReconfigurable, ICou
      * @param value a last value to record.
      */
     public void last(String name, float value) {
-        Counter counter = get(name, CounterType.LastValue);
-        counter.setLast(value);
+        getCell(name, CounterType.LastValue).setLast(value);
         update();
     }
 
@@ -258,8 +294,7 @@ public abstract class CachedCounters implements ICounters, IReconfigurable, ICou
      * @param value a timestamp to record.
      */
     public void timestamp(String name, ZonedDateTime value) {
-        Counter counter = get(name, CounterType.Timestamp);
-        counter.setTime(value != null ? value : ZonedDateTime.now(ZoneId.of("Z")));
+        getCell(name, CounterType.Timestamp).setTime(value != null ? value : ZonedDateTime.now(ZoneId.of("Z")));
         update();
     }
 
@@ -279,8 +314,7 @@ public abstract class CachedCounters implements ICounters, IReconfigurable, ICou
      * @param value a value to add to the counter.
      */
     public void increment(String name, int value) {
-        Counter counter = get(name, CounterType.Increment);
-        counter.setCount(counter.getCount() != null ? counter.getCount() + value : value);
+        getCell(name, CounterType.Increment).add(value);
         update();
     }
 }
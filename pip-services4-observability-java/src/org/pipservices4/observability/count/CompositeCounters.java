@@ -67,6 +67,16 @@ public class CompositeCounters implements ICounters, ICounterTimingCallback, IRe
 		}
 	}
 
+	/**
+	 * Checks if there are any counters to pass the measurements to.
+	 * Callers may skip composing counter names when there are none.
+	 *
+	 * @return true if no counters are referenced and false otherwise.
+	 */
+	public boolean isEmpty() {
+		return _counters.isEmpty();
+	}
+
 	/**
 	 * Begins measurement of execution time interval. It returns CounterTiming object which
 	 * has to be called at {@link CounterTiming#endTiming()} to end the measurement and
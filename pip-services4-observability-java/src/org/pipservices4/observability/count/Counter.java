@@ -1,8 +1,10 @@
 package org.pipservices4.observability.count;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.ZonedDateTime;
+import java.util.Map;
 
 /**
  * Data object to store measurement for a performance counter.
@@ -25,6 +27,10 @@ public class Counter {
 	private Float _average;
 	/** The recorded timestamp */
 	private ZonedDateTime _time;
+	/** The values at standard quantiles, e.g. "0.99" */
+	private Map<String, Float> _quantiles;
+	/** The histogram of recorded values */
+	private CounterHistogram _histogram;
 
 	/**
 	 * Creates a instance of the data obejct
@@ -114,4 +120,41 @@ public class Counter {
 	public void setTime(ZonedDateTime time) {
 		_time = time;
 	}
+
+	@JsonProperty("quantiles")
+	public Map<String, Float> getQuantiles() {
+		return _quantiles;
+	}
+
+	public void setQuantiles(Map<String, Float> quantiles) {
+		_quantiles = quantiles;
+	}
+
+	@JsonIgnore
+	public CounterHistogram getHistogram() {
+		return _histogram;
+	}
+
+	public void setHistogram(CounterHistogram histogram) {
+		_histogram = histogram;
+	}
+
+	/**
+	 * Calculates a value at the given quantile from the counter histogram.
+	 *
+	 * @param quantile a quantile between 0 and 1, e.g. 0.99 for 99th percentile.
+	 * @return the estimated value or null if the counter has no histogram.
+	 */
+	@JsonIgnore
+	public Float getQuantile(double quantile) {
+		if (_histogram == null)
+			return null;
+
+		Float value = _histogram.getQuantile(quantile);
+		if (value != null && _max != null)
+			value = Math.min(value, _max);
+		if (value != null && _min != null)
+			value = Math.max(value, _min);
+		return value;
+	}
 }
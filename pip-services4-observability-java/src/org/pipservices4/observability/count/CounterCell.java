@@ -0,0 +1,143 @@
+package org.pipservices4.observability.count;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free storage for measurements of a single performance counter.
+ * Updates go into striped primitive cells and are materialized
+ * into {@link Counter} objects only when a snapshot is requested.
+ * <p>
+ * This class is used internally by {@link CachedCounters}.
+ *
+ * @see CachedCounters
+ * @see Counter
+ */
+class CounterCell {
+    private final String _name;
+    private final int _type;
+    private final LongAdder _count = new LongAdder();
+    private final DoubleAdder _sum = new DoubleAdder();
+    private final DoubleAccumulator _min = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+    private final DoubleAccumulator _max = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+    private volatile boolean _hasCount = false;
+    private volatile boolean _hasLast = false;
+    private volatile float _last;
+    private volatile ZonedDateTime _time;
+    private final AtomicLongArray _histogram;
+
+    /**
+     * Creates a new counter cell.
+     *
+     * @param name a counter name.
+     * @param type a counter type.
+     */
+    public CounterCell(String name, int type) {
+        _name = name;
+        _type = type;
+        _histogram = type == CounterType.Interval ? new AtomicLongArray(CounterHistogram.BUCKET_COUNT) : null;
+    }
+
+    public String getName() {
+        return _name;
+    }
+
+    public int getType() {
+        return _type;
+    }
+
+    /**
+     * Records a value and updates last/count/min/max/average statistics.
+     * For Interval counters the value is also recorded into the histogram.
+     *
+     * @param value a value to record.
+     */
+    public void record(float value) {
+        setLast(value);
+        _count.increment();
+        _sum.add(value);
+        _min.accumulate(value);
+        _max.accumulate(value);
+
+        if (_histogram != null)
+            _histogram.incrementAndGet(CounterHistogram.getBucketIndex(value));
+    }
+
+    /**
+     * Adds a value to the total count.
+     *
+     * @param value a value to add.
+     */
+    public void add(int value) {
+        _count.add(value);
+        if (!_hasCount)
+            _hasCount = true;
+    }
+
+    /**
+     * Records the last value.
+     *
+     * @param value a value to record.
+     */
+    public void setLast(float value) {
+        _last = value;
+        if (!_hasLast)
+            _hasLast = true;
+    }
+
+    /**
+     * Records the timestamp.
+     *
+     * @param value a timestamp to record.
+     */
+    public void setTime(ZonedDateTime value) {
+        _time = value;
+    }
+
+    /**
+     * Materializes the current measurements into a counter data object.
+     * Only values that were recorded for the counter type are set.
+     *
+     * @return a snapshot of the counter.
+     */
+    public Counter toCounter() {
+        Counter counter = new Counter(_name, _type);
+
+        switch (_type) {
+            case CounterType.Interval, CounterType.Statistics -> {
+                long count = _count.sum();
+                if (count > 0) {
+                    counter.setCount((int) count);
+                    counter.setMin((float) _min.get());
+                    counter.setMax((float) _max.get());
+                    counter.setAverage((float) (_sum.sum() / count));
+                }
+                if (_hasLast)
+                    counter.setLast(_last);
+                if (_histogram != null && count > 0) {
+                    long[] counts = new long[CounterHistogram.BUCKET_COUNT];
+                    for (int index = 0; index < counts.length; index++)
+                        counts[index] = _histogram.get(index);
+
+                    CounterHistogram histogram = new CounterHistogram(counts);
+                    counter.setHistogram(histogram);
+                    counter.setQuantiles(histogram.getQuantiles(counter.getMin(), counter.getMax()));
+                }
+            }
+            case CounterType.LastValue -> {
+                if (_hasLast)
+                    counter.setLast(_last);
+            }
+            case CounterType.Timestamp -> counter.setTime(_time);
+            case CounterType.Increment -> {
+                if (_hasCount)
+                    counter.setCount((int) _count.sum());
+            }
+        }
+
+        return counter;
+    }
+}
@@ -0,0 +1,158 @@
+package org.pipservices4.observability.count;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of a log-linear histogram of values recorded by an Interval counter.
+ * <p>
+ * Values (in milliseconds) are placed into buckets that split every power of two
+ * into 8 linear sub-buckets, similar to HdrHistogram. This keeps relative error
+ * of calculated quantiles within 12.5% in the range from about 1 microsecond
+ * to about 4.5 hours. Smaller values fall into the first bucket
+ * and larger values fall into the last one.
+ * <p>
+ * Bucket index is calculated from the binary representation of the value,
+ * so recording does not allocate memory and does not require logarithms.
+ * Histograms with the same layout can be merged by adding bucket counts.
+ *
+ * @see Counter
+ * @see CachedCounters
+ */
+public class CounterHistogram {
+    /** Quantiles that are calculated for counters by default */
+    public static final double[] DEFAULT_QUANTILES = new double[]{0.5, 0.9, 0.95, 0.99};
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int MANTISSA_SHIFT = 23 - SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = -10;
+    private static final int MAX_EXPONENT = 24;
+    private static final int INDEX_OFFSET = Float.floatToRawIntBits((float) Math.pow(2, MIN_EXPONENT)) >> MANTISSA_SHIFT;
+
+    /** The number of buckets in the histogram */
+    public static final int BUCKET_COUNT = (MAX_EXPONENT - MIN_EXPONENT) << SUB_BUCKET_BITS;
+
+    private final long[] _counts;
+    private final long _totalCount;
+
+    /**
+     * Creates a new histogram snapshot.
+     *
+     * @param counts counts of values in every bucket. The array must have {@link #BUCKET_COUNT} elements.
+     */
+    public CounterHistogram(long[] counts) {
+        if (counts == null || counts.length != BUCKET_COUNT)
+            throw new IllegalArgumentException("Histogram must have " + BUCKET_COUNT + " buckets");
+
+        _counts = counts;
+
+        long total = 0;
+        for (long count : counts)
+            total += count;
+        _totalCount = total;
+    }
+
+    /**
+     * Calculates index of the bucket where the value shall be recorded.
+     *
+     * @param value a value to record.
+     * @return the bucket index.
+     */
+    public static int getBucketIndex(float value) {
+        if (!(value > 0))
+            return 0;
+
+        int index = (Float.floatToRawIntBits(value) >> MANTISSA_SHIFT) - INDEX_OFFSET;
+        if (index < 0)
+            return 0;
+        return Math.min(index, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Gets the exclusive upper bound of values recorded in the bucket.
+     *
+     * @param index a bucket index.
+     * @return the upper bound of the bucket or positive infinity for the last bucket.
+     */
+    public static float getBucketUpperBound(int index) {
+        if (index >= BUCKET_COUNT - 1)
+            return Float.POSITIVE_INFINITY;
+
+        return Float.intBitsToFloat((index + 1 + INDEX_OFFSET) << MANTISSA_SHIFT);
+    }
+
+    /**
+     * Gets the total number of recorded values.
+     *
+     * @return the total count.
+     */
+    public long getTotalCount() {
+        return _totalCount;
+    }
+
+    /**
+     * Gets the number of values recorded in the bucket.
+     *
+     * @param index a bucket index.
+     * @return the number of values in the bucket.
+     */
+    public long getBucketCount(int index) {
+        return _counts[index];
+    }
+
+    /**
+     * Calculates a value at the given quantile. The value is an upper bound
+     * of the bucket where the quantile falls into.
+     *
+     * @param quantile a quantile between 0 and 1, e.g. 0.99 for 99th percentile.
+     * @return the estimated value or null if the histogram is empty.
+     */
+    public Float getQuantile(double quantile) {
+        if (_totalCount == 0)
+            return null;
+
+        long rank = (long) Math.ceil(Math.max(0, Math.min(1, quantile)) * _totalCount);
+        rank = Math.max(rank, 1);
+
+        long count = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            count += _counts[index];
+            if (count >= rank)
+                return getBucketUpperBound(index);
+        }
+
+        return getBucketUpperBound(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Calculates values at {@link #DEFAULT_QUANTILES}.
+     *
+     * @param min the minimum recorded value to limit the estimates from below.
+     * @param max the maximum recorded value to limit the estimates from above.
+     * @return a map with quantiles as keys, e.g. "0.99", and estimated values.
+     */
+    public Map<String, Float> getQuantiles(float min, float max) {
+        Map<String, Float> result = new LinkedHashMap<>();
+        for (double quantile : DEFAULT_QUANTILES) {
+            Float value = getQuantile(quantile);
+            if (value != null)
+                result.put(String.valueOf(quantile), Math.max(min, Math.min(max, value)));
+        }
+        return result;
+    }
+
+    /**
+     * Merges this histogram with another one.
+     *
+     * @param other a histogram to merge with.
+     * @return a new histogram with summed bucket counts.
+     */
+    public CounterHistogram merge(CounterHistogram other) {
+        long[] counts = _counts.clone();
+        if (other != null) {
+            for (int index = 0; index < BUCKET_COUNT; index++)
+                counts[index] += other._counts[index];
+        }
+        return new CounterHistogram(counts);
+    }
+}
@@ -36,16 +36,19 @@ public class CounterTiming {
 	public CounterTiming(String counter, ICounterTimingCallback callback) {
 		_counter = counter;
 		_callback = callback;
-		_start = System.currentTimeMillis();
+		_start = System.nanoTime();
 	}
 
 	/**
 	 * Ends timing of an execution block, calculates elapsed time and updates the
 	 * associated counter.
+	 * <p>
+	 * The time is measured by {@link System#nanoTime()} and reported in milliseconds
+	 * with sub-millisecond precision.
 	 */
 	public void endTiming() {
 		if (_callback != null) {
-			float elapsed = System.currentTimeMillis() - _start;
+			float elapsed = (System.nanoTime() - _start) / 1000000f;
 			_callback.endTiming(_counter, elapsed);
 		}
 	}
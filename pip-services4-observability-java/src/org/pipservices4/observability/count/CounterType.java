@@ -4,7 +4,7 @@ package org.pipservices4.observability.count;
  * Types of counters that measure different types of metrics
  */
 public class CounterType {
-	/** Counters that measure execution time intervals */
+	/** Counters that measure execution time intervals and their distribution (quantiles) */
 	public final static int Interval = 0;
 	/** Counters that keeps the latest measured value */
 	public final static int LastValue = 1;
@@ -84,6 +84,10 @@ public class LogCounters extends CachedCounters implements IReferenceable {
             result += ", \"avg\": " + StringConverter.toString(counter.getAverage());
         if (counter.getTime() != null)
             result += ", \"time\": " + StringConverter.toString(counter.getTime());
+        if (counter.getQuantiles() != null) {
+            for (var quantile : counter.getQuantiles().entrySet())
+                result += ", \"p" + quantile.getKey() + "\": " + StringConverter.toString(quantile.getValue());
+        }
         result += " }";
         return result;
     }
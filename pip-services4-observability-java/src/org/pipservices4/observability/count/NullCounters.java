@@ -11,6 +11,7 @@ import java.time.ZonedDateTime;
  * @see ICounters
  */
 public class NullCounters implements ICounters {
+    private static final CounterTiming _timing = new CounterTiming();
 
     /**
      * Creates a new instance of the counter.
@@ -27,7 +28,7 @@ public class NullCounters implements ICounters {
      * @return a CounterTiming callback object to end timing.
      */
     public CounterTiming beginTiming(String name) {
-        return new CounterTiming();
+        return _timing;
     }
 
     /**
@@ -0,0 +1,182 @@
+package org.pipservices4.observability.exec;
+
+import org.pipservices4.components.context.IContext;
+import org.pipservices4.components.exec.FixedRateTimer;
+import org.pipservices4.components.exec.INotifiable;
+import org.pipservices4.components.exec.Parameters;
+import org.pipservices4.components.run.IClosable;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Background scheduler that periodically flushes cached observability components
+ * such as counters, loggers and tracers.
+ * <p>
+ * All registered components are served by a single daemon thread of {@link FixedRateTimer},
+ * so threads that write logs, traces or counters never pay for saving them.
+ * Each component decides by itself if it is time to flush its cache.
+ * <p>
+ * Registered components are held by weak references and are automatically
+ * removed from the scheduler when they are garbage collected.
+ * <p>
+ * ### Example ###
+ * <pre>
+ * {@code
+ * class MyCache {
+ *   public void update() {
+ *     ...
+ *     FlushScheduler.getDefault().register(this, MyCache::flushIfNeeded);
+ *   }
+ *
+ *   private void flushIfNeeded() {
+ *     ...
+ *   }
+ * }
+ * }
+ * </pre>
+ */
+public class FlushScheduler implements INotifiable, IClosable {
+    private static final long DEFAULT_INTERVAL = 1000;
+    private static final FlushScheduler _default = new FlushScheduler(DEFAULT_INTERVAL);
+
+    private final FixedRateTimer _timer;
+    private final List<Registration<?>> _registrations = new CopyOnWriteArrayList<>();
+    private final Object _lock = new Object();
+
+    private static class Registration<T> {
+        private final WeakReference<T> _owner;
+        private final Consumer<T> _task;
+
+        public Registration(T owner, Consumer<T> task) {
+            _owner = new WeakReference<>(owner);
+            _task = task;
+        }
+
+        public Object getOwner() {
+            return _owner.get();
+        }
+
+        public boolean run() {
+            T owner = _owner.get();
+            if (owner == null)
+                return false;
+
+            _task.accept(owner);
+            return true;
+        }
+    }
+
+    /**
+     * Creates a new instance of the scheduler.
+     *
+     * @param interval an interval in milliseconds to check registered components.
+     */
+    public FlushScheduler(long interval) {
+        _timer = new FixedRateTimer(this, interval, interval);
+    }
+
+    /**
+     * Gets the default scheduler shared by all observability components.
+     *
+     * @return the default scheduler instance.
+     */
+    public static FlushScheduler getDefault() {
+        return _default;
+    }
+
+    /**
+     * Gets the interval to check registered components.
+     *
+     * @return the interval in milliseconds.
+     */
+    public long getInterval() {
+        return _timer.getInterval();
+    }
+
+    /**
+     * Registers a component to be periodically flushed.
+     * The timer is started on the first registration.
+     * Repeated registrations of the same component are ignored.
+     * <p>
+     * The task shall not capture the owner, otherwise the owner will never be
+     * garbage collected. Use unbound method references like {@code MyClass::flush}.
+     *
+     * @param owner a component to be flushed.
+     * @param task  a task that flushes the component.
+     * @param <T>   the class type of the component.
+     */
+    public <T> void register(T owner, Consumer<T> task) {
+        if (owner == null || task == null)
+            return;
+
+        synchronized (_lock) {
+            if (isRegistered(owner))
+                return;
+
+            _registrations.add(new Registration<>(owner, task));
+
+            if (!_timer.isStarted())
+                _timer.start();
+        }
+    }
+
+    /**
+     * Removes a component from the scheduler.
+     *
+     * @param owner a component to be removed.
+     */
+    public void unregister(Object owner) {
+        _registrations.removeIf(r -> {
+            Object o = r.getOwner();
+            return o == null || o == owner;
+        });
+    }
+
+    /**
+     * Checks if a component is registered in the scheduler.
+     *
+     * @param owner a component to check.
+     * @return true if the component is registered and false otherwise.
+     */
+    public boolean isRegistered(Object owner) {
+        for (Registration<?> registration : _registrations) {
+            if (registration.getOwner() == owner)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Flushes all registered components. It is called periodically by the timer.
+     *
+     * @param context (optional) execution context to trace execution through call chain.
+     * @param args    notification arguments.
+     */
+    @Override
+    public void notify(IContext context, Parameters args) {
+        for (Registration<?> registration : _registrations) {
+            try {
+                if (!registration.run())
+                    _registrations.remove(registration);
+            } catch (Exception ex) {
+                // Errors of one component shall not stop flushing of others
+            }
+        }
+    }
+
+    /**
+     * Stops the timer. Registered components are flushed one last time.
+     *
+     * @param context (optional) execution context to trace execution through call chain.
+     */
+    @Override
+    public void close(IContext context) {
+        synchronized (_lock) {
+            _timer.stop();
+        }
+        notify(context, new Parameters());
+    }
+}
@@ -0,0 +1,209 @@
+package org.pipservices4.observability.log;
+
+import org.pipservices4.components.context.IContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded ring buffer that passes log events from caller threads
+ * to a single consumer thread which formats and writes them.
+ * <p>
+ * Event slots are pre-allocated, so enqueueing an event does not allocate memory.
+ * Message arguments are formatted on the consumer thread, so callers shall not
+ * change objects passed as arguments after they are logged.
+ * <p>
+ * When the buffer is full the event is either dropped or the caller waits
+ * until there is free space, depending on the overflow policy.
+ * <p>
+ * This class is used internally by {@link Logger} in async mode.
+ *
+ * @see Logger
+ */
+class AsyncLogWriter {
+    /** Overflow policy to drop new events when the buffer is full */
+    public static final String DROP = "drop";
+    /** Overflow policy to block callers until there is free space in the buffer */
+    public static final String BLOCK = "block";
+
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static class Event {
+        volatile long sequence;
+        LogLevel level;
+        IContext context;
+        Exception error;
+        String message;
+        Object[] args;
+    }
+
+    /**
+     * Callback to format and write an event on the consumer thread.
+     */
+    interface IEventWriter {
+        void write(LogLevel level, IContext context, Exception error, String message, Object[] args);
+    }
+
+    private final Event[] _events;
+    private final int _mask;
+    private final boolean _block;
+    private final IEventWriter _writer;
+    private final AtomicLong _tail = new AtomicLong();
+    private final AtomicLong _dropped = new AtomicLong();
+    private volatile long _head = 0;
+    private volatile boolean _running = true;
+    private final Thread _thread;
+
+    /**
+     * Creates a new writer and starts its consumer thread.
+     *
+     * @param name     a name of the consumer thread.
+     * @param capacity a buffer capacity. It is rounded up to the nearest power of 2.
+     * @param overflow an overflow policy: "drop" or "block".
+     * @param writer   a callback to format and write events.
+     */
+    public AsyncLogWriter(String name, int capacity, String overflow, IEventWriter writer) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        _events = new Event[size];
+        for (int index = 0; index < size; index++) {
+            _events[index] = new Event();
+            _events[index].sequence = index;
+        }
+        _mask = size - 1;
+        _block = BLOCK.equalsIgnoreCase(overflow);
+        _writer = writer;
+
+        _thread = new Thread(this::run, name);
+        _thread.setDaemon(true);
+        _thread.start();
+    }
+
+    /**
+     * Gets the buffer capacity.
+     *
+     * @return the number of event slots.
+     */
+    public int getCapacity() {
+        return _events.length;
+    }
+
+    /**
+     * Checks if the writer accepts new events.
+     *
+     * @return true if the writer is running and false if it is closed.
+     */
+    public boolean isRunning() {
+        return _running;
+    }
+
+    /**
+     * Gets the number of events dropped due to buffer overflow.
+     *
+     * @return the number of dropped events.
+     */
+    public long getDroppedCount() {
+        return _dropped.get();
+    }
+
+    /**
+     * Places an event into the buffer.
+     *
+     * @param level   a log level.
+     * @param context (optional) a context to trace execution through call chain.
+     * @param error   an error object associated with this message.
+     * @param message a human-readable message to log.
+     * @param args    arguments to parameterize the message.
+     * @return true if the event was enqueued and false if it was dropped
+     * or the writer is closed.
+     */
+    public boolean enqueue(LogLevel level, IContext context, Exception error, String message, Object[] args) {
+        long sequence;
+        while (true) {
+            if (!_running)
+                return false;
+
+            sequence = _tail.get();
+            if (sequence - _head >= _events.length) {
+                if (!_block || Thread.currentThread() == _thread) {
+                    _dropped.incrementAndGet();
+                    return false;
+                }
+                LockSupport.parkNanos(IDLE_WAIT_NANOS / 10);
+                continue;
+            }
+            if (_tail.compareAndSet(sequence, sequence + 1))
+                break;
+        }
+
+        Event event = _events[(int) (sequence & _mask)];
+        event.level = level;
+        event.context = context;
+        event.error = error;
+        event.message = message;
+        event.args = args;
+        // Publish the event to the consumer
+        event.sequence = sequence + 1;
+        return true;
+    }
+
+    private boolean drainOnce() {
+        long head = _head;
+        Event event = _events[(int) (head & _mask)];
+        if (event.sequence != head + 1)
+            return false;
+
+        LogLevel level = event.level;
+        IContext context = event.context;
+        Exception error = event.error;
+        String message = event.message;
+        Object[] args = event.args;
+
+        event.context = null;
+        event.error = null;
+        event.message = null;
+        event.args = null;
+        event.sequence = head + _events.length;
+        _head = head + 1;
+
+        try {
+            _writer.write(level, context, error, message, args);
+        } catch (Exception ex) {
+            // Logging errors shall not stop the consumer
+        }
+        return true;
+    }
+
+    private void run() {
+        while (_running) {
+            if (!drainOnce())
+                LockSupport.parkNanos(IDLE_WAIT_NANOS);
+        }
+        flush();
+    }
+
+    /**
+     * Writes all events that are currently in the buffer on the calling thread.
+     * It shall be called only after the consumer thread has stopped.
+     */
+    private void flush() {
+        while (drainOnce()) {
+            // Keep draining
+        }
+    }
+
+    /**
+     * Stops the consumer thread after it writes all buffered events.
+     *
+     * @param timeout a maximum time in milliseconds to wait for the consumer.
+     */
+    public void close(long timeout) {
+        _running = false;
+        LockSupport.unpark(_thread);
+        try {
+            _thread.join(timeout);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -7,6 +7,8 @@ import org.pipservices4.commons.errors.ErrorDescriptionFactory;
 import org.pipservices4.commons.errors.InvocationException;
 import org.pipservices4.components.context.ContextResolver;
 import org.pipservices4.components.context.IContext;
+import org.pipservices4.components.run.IClosable;
+import org.pipservices4.observability.exec.FlushScheduler;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +18,11 @@ import java.util.Map;
  * Abstract logger that caches captured log messages in memory and periodically dumps them.
  * Child classes implement saving cached messages to their specified destinations.
  * <p>
+ * Cached messages are saved in background by the shared {@link FlushScheduler}.
+ * The cache is swapped under a short lock and saved outside of it,
+ * so threads that write log messages never wait for the save.
+ * The remaining messages are saved when the component is closed.
+ * <p>
  * ### Configuration parameters ###
  * <ul>
  * <li>level:             maximum log level to capture
@@ -24,6 +31,9 @@ import java.util.Map;
  *   <ul>
  *   <li>interval:        interval in milliseconds to save log messages (default: 10 seconds)
  *   <li>max_cache_size:  maximum number of messages stored in this cache (default: 100)
+ *   <li>async:           true to capture messages in background (default: false)
+ *   <li>buffer_size:     maximum number of messages waiting to be captured in async mode (default: 4096)
+ *   <li>overflow:        action when the buffer is full: "block" to wait or "drop" to discard messages (default: block)
  *   </ul>
  * </ul>
  * <p>
@@ -36,14 +46,18 @@ import java.util.Map;
  * @see Logger
  * @see LogMessage
  */
-public abstract class CachedLogger extends Logger implements IReconfigurable {
+public abstract class CachedLogger extends Logger implements IReconfigurable, IClosable {
+    private static final String COMPUTER_NAME = getComputerName();
 
     protected List<LogMessage> _cache = new ArrayList<>();
-    protected boolean _updated = false;
-    protected long _lastDumpTime = System.currentTimeMillis();
-    protected long _interval = 10000;
+    protected volatile boolean _updated = false;
+    protected volatile long _lastDumpTime = System.currentTimeMillis();
+    protected volatile long _interval = 10000;
     protected int _maxCacheSize = 100;
     protected final Object _lock = new Object();
+    private final Object _dumpLock = new Object();
+    private volatile boolean _dumping = false;
+    private volatile boolean _scheduled = false;
 
     /**
      * Writes a log message to the logger destination.
@@ -56,7 +70,7 @@ public abstract class CachedLogger extends Logger implements IReconfigurable {
     @Override
     protected void write(LogLevel level, IContext context, Exception ex, String message) {
         ErrorDescription error = ex != null ? ErrorDescriptionFactory.create(ex) : null;
-        String source = getComputerName(); // Todo: add jar/exe name
+        String source = COMPUTER_NAME; // Todo: add jar/exe name
         LogMessage logMessage = new LogMessage(level, source, ContextResolver.getTraceId(context), error, message);
 
         synchronized (_lock) {
@@ -66,7 +80,7 @@ public abstract class CachedLogger extends Logger implements IReconfigurable {
         update();
     }
 
-    private String getComputerName() {
+    private static String getComputerName() {
         Map<String, String> env = System.getenv();
         if (env.containsKey("COMPUTERNAME"))
             return env.get("COMPUTERNAME");
@@ -109,41 +123,83 @@ public abstract class CachedLogger extends Logger implements IReconfigurable {
      * @see #write(LogLevel, IContext, Exception, String)
      */
     public void dump() {
-        if (_updated) {
-            synchronized (_lock) {
-                if (!_updated)
-                    return;
-
-                List<LogMessage> messages = _cache;
-                _cache = new ArrayList<>();
+        if (!_updated)
+            return;
+
+        // Only one dump runs at a time, and writers take _lock just to swap the cache
+        synchronized (_dumpLock) {
+            _dumping = true;
+            try {
+                List<LogMessage> messages;
+                synchronized (_lock) {
+                    if (!_updated)
+                        return;
+
+                    messages = _cache;
+                    _cache = new ArrayList<>();
+                    _updated = false;
+                }
 
                 try {
                     save(messages);
                 } catch (InvocationException e) {
-                    // Add messages back to the cache
-                    messages.addAll(_cache);
-                    _cache = messages;
-
-                    // Truncate cache
-                    int deleteCount = this._cache.size() - this._maxCacheSize;
-                    if (deleteCount > 0)
-                        this._cache = _cache.subList(deleteCount - 1, _cache.size());
+                    synchronized (_lock) {
+                        // Add messages back to the cache
+                        messages.addAll(_cache);
+
+                        // Truncate cache
+                        int deleteCount = messages.size() - this._maxCacheSize;
+                        _cache = deleteCount > 0
+                                ? new ArrayList<>(messages.subList(deleteCount, messages.size()))
+                                : messages;
+
+                        // Retry when the next interval expires
+                        _updated = true;
+                    }
                 }
 
-                _updated = false;
                 _lastDumpTime = System.currentTimeMillis();
+            } finally {
+                _dumping = false;
             }
         }
     }
 
     /**
-     * Makes message cache as updated and dumps it when timeout expires.
+     * Makes message cache as updated. The cache is dumped
+     * in background by {@link FlushScheduler} when timeout expires.
      *
      * @see #dump()
      */
     protected void update() {
-        _updated = true;
-        if (System.currentTimeMillis() > _lastDumpTime + _interval)
+        if (!_updated)
+            _updated = true;
+
+        if (!_scheduled) {
+            _scheduled = true;
+            FlushScheduler.getDefault().register(this, CachedLogger::dumpIfNeeded);
+        }
+    }
+
+    private void dumpIfNeeded() {
+        // Skip the tick while the previous dump is still saving
+        if (!_dumping && System.currentTimeMillis() > _lastDumpTime + _interval)
             dump();
     }
+
+    /**
+     * Closes component and dumps the remaining cached messages.
+     *
+     * @param context (optional) execution context to trace execution through call chain.
+     * @throws InvocationException when error occured.
+     */
+    @Override
+    public void close(IContext context) throws InvocationException {
+        closeAsync();
+        FlushScheduler.getDefault().unregister(this);
+        _scheduled = false;
+
+        // Waits for a dump in progress and then saves the rest
+        dump();
+    }
 }
@@ -12,6 +12,7 @@ import java.util.List;
  * Aggregates all loggers from component references under a single component.
  * <p>
  * It allows to log messages and conveniently send them to multiple destinations.
+ * Messages are formatted only when at least one of the loggers captures their level.
  * <p>
  * ### References ###
  * <ul>
@@ -79,6 +80,22 @@ public class CompositeLogger extends Logger {
         }
     }
 
+    /**
+     * Checks if messages with the given level are captured by at least one child logger.
+     * Messages that no child captures are discarded before they are formatted.
+     *
+     * @param level a log level to check.
+     * @return true if messages are captured and false otherwise.
+     */
+    @Override
+    public boolean isLevelEnabled(LogLevel level) {
+        for (ILogger logger : _loggers) {
+            if (logger.isLevelEnabled(level))
+                return true;
+        }
+        return false;
+    }
+
     /**
      * Writes a log message to the logger destination(s).
      *
@@ -2,9 +2,7 @@ package org.pipservices4.observability.log;
 
 import org.pipservices4.components.context.ContextResolver;
 import org.pipservices4.components.context.IContext;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Instant;
 
 /**
  * Logger that writes log messages to console.
@@ -16,6 +14,12 @@ import java.time.format.DateTimeFormatter;
  * <ul>
  * <li>level:             maximum log level to capture
  * <li>source:            source (context) name
+ * <li>options:
+ *   <ul>
+ *   <li>async:           true to write messages in background (default: false)
+ *   <li>buffer_size:     maximum number of messages waiting to be written in async mode (default: 4096)
+ *   <li>overflow:        action when the buffer is full: "block" to wait or "drop" to discard messages (default: block)
+ *   </ul>
  * </ul>
  * <p>
  * ### References ###
@@ -64,7 +68,7 @@ public class ConsoleLogger extends Logger {
 		build.append(':');
 		build.append(LogLevelConverter.toString(level));
 		build.append(':');
-		build.append(ZonedDateTime.now(ZoneId.of("Z")).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+		build.append(Instant.now());
 		build.append("] ");
 
 		build.append(message);
@@ -2,8 +2,14 @@ package org.pipservices4.observability.log;
 
 import org.pipservices4.components.context.IContext;
 
+import java.util.function.Supplier;
+
 /**
  * Interface for logger components that capture execution log messages.
+ * <p>
+ * Messages above the logger level are discarded before they are formatted.
+ * When message arguments are expensive to compute, guard the call with
+ * {@link #isTraceEnabled()} or use the overloads that take a message {@link Supplier}.
  */
 public interface ILogger {
 	/**
@@ -20,6 +26,35 @@ public interface ILogger {
 	 */
 	void setLevel(LogLevel value);
 
+	/**
+	 * Checks if messages with the given level are captured by this logger.
+	 *
+	 * @param level a log level to check.
+	 * @return true if messages are captured and false otherwise.
+	 */
+	default boolean isLevelEnabled(LogLevel level) {
+		LogLevel maxLevel = getLevel();
+		return level != null && maxLevel != null && level.getValue() <= maxLevel.getValue();
+	}
+
+	/**
+	 * Checks if debug messages are captured by this logger.
+	 *
+	 * @return true if debug messages are captured and false otherwise.
+	 */
+	default boolean isDebugEnabled() {
+		return isLevelEnabled(LogLevel.Debug);
+	}
+
+	/**
+	 * Checks if trace messages are captured by this logger.
+	 *
+	 * @return true if trace messages are captured and false otherwise.
+	 */
+	default boolean isTraceEnabled() {
+		return isLevelEnabled(LogLevel.Trace);
+	}
+
 	/**
 	 * Logs a message at specified log level.
 	 * 
@@ -120,4 +155,28 @@ public interface ILogger {
 	 * @param args          arguments to parameterize the message.
 	 */
 	void trace(IContext context, String message, Object... args);
+
+	/**
+	 * Logs a high-level debug information for troubleshooting.
+	 * The message is composed only when debug messages are captured.
+	 *
+	 * @param context     (optional) a context to trace execution through call chain.
+	 * @param message       a supplier of a human-readable message to log.
+	 */
+	default void debug(IContext context, Supplier<String> message) {
+		if (isDebugEnabled())
+			log(LogLevel.Debug, context, null, message.get());
+	}
+
+	/**
+	 * Logs a low-level debug information for troubleshooting.
+	 * The message is composed only when trace messages are captured.
+	 *
+	 * @param context     (optional) a context to trace execution through call chain.
+	 * @param message       a supplier of a human-readable message to log.
+	 */
+	default void trace(IContext context, Supplier<String> message) {
+		if (isTraceEnabled())
+			log(LogLevel.Trace, context, null, message.get());
+	}
 }
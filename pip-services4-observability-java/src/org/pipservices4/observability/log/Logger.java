@@ -1,11 +1,13 @@
 package org.pipservices4.observability.log;
 
+import org.pipservices4.commons.errors.ApplicationException;
 import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.components.config.IReconfigurable;
 import org.pipservices4.components.refer.Descriptor;
 import org.pipservices4.components.refer.IReferenceable;
 import org.pipservices4.components.refer.IReferences;
 import org.pipservices4.components.context.*;
+import org.pipservices4.components.run.IClosable;
 
 import java.util.Arrays;
 
@@ -13,12 +15,23 @@ import java.util.Arrays;
  * Abstract logger that captures and formats log messages.
  * Child classes take the captured messages and write them to their specific destinations.
  * <p>
+ * Messages above the configured level are discarded before they are formatted.
+ * In async mode captured messages are placed into a bounded ring buffer
+ * and formatted and written by a background thread, so callers do not wait
+ * for destinations. Call {@link #close(IContext)} to write the remaining messages.
+ * <p>
  * ### Configuration parameters ###
  * <p>
  * Parameters to pass to the configure() method for component configuration:
  * <ul>
  * <li>level:             maximum log level to capture
  * <li>source:            source (context) name
+ * <li>options:
+ *   <ul>
+ *   <li>async:           true to write messages in background (default: false)
+ *   <li>buffer_size:     maximum number of messages waiting to be written in async mode (default: 4096)
+ *   <li>overflow:        action when the buffer is full: "block" to wait or "drop" to discard messages (default: block)
+ *   </ul>
  * </ul>
  * <p>
  * ### References ###
@@ -28,9 +41,17 @@ import java.util.Arrays;
  *
  * @see ILogger
  */
-public abstract class Logger implements ILogger, IReconfigurable, IReferenceable {
-    private LogLevel _level = LogLevel.Info;
+public abstract class Logger implements ILogger, IReconfigurable, IReferenceable, IClosable {
+    private static final long CLOSE_TIMEOUT = 10000;
+
+    private volatile LogLevel _level = LogLevel.Info;
     protected String _source = null;
+    private boolean _async = false;
+    private int _bufferSize = 4096;
+    private String _overflow = AsyncLogWriter.BLOCK;
+    private volatile AsyncLogWriter _asyncWriter;
+    private volatile long _droppedCount = 0;
+    private final Object _asyncLock = new Object();
 
     /**
      * Creates a new instance of the logger.
@@ -50,6 +71,10 @@ public abstract class Logger implements ILogger, IReconfigurable, IReferenceable
         );
 
         this._source = config.getAsStringWithDefault("source", this._source);
+
+        this._async = config.getAsBooleanWithDefault("options.async", this._async);
+        this._bufferSize = config.getAsIntegerWithDefault("options.buffer_size", this._bufferSize);
+        this._overflow = config.getAsStringWithDefault("options.overflow", this._overflow);
     }
 
     /**
@@ -146,6 +171,91 @@ public abstract class Logger implements ILogger, IReconfigurable, IReferenceable
         _level = value;
     }
 
+    /**
+     * Checks if async mode is enabled.
+     *
+     * @return true if messages are written in background and false otherwise.
+     */
+    public boolean isAsync() {
+        return _async;
+    }
+
+    /**
+     * Enables or disables async mode.
+     * When async mode is disabled the messages that are already buffered are written.
+     *
+     * @param value true to write messages in background.
+     */
+    public void setAsync(boolean value) {
+        _async = value;
+        if (!value)
+            closeAsync();
+    }
+
+    /**
+     * Gets the number of messages dropped in async mode because the buffer was full.
+     *
+     * @return the number of dropped messages.
+     */
+    public long getDroppedCount() {
+        AsyncLogWriter writer = _asyncWriter;
+        return _droppedCount + (writer != null ? writer.getDroppedCount() : 0);
+    }
+
+    /**
+     * Checks if messages with the given level are captured by this logger.
+     *
+     * @param level a log level to check.
+     * @return true if messages are captured and false otherwise.
+     */
+    @Override
+    public boolean isLevelEnabled(LogLevel level) {
+        return level != null && level.getValue() <= _level.getValue();
+    }
+
+    private AsyncLogWriter getAsyncWriter() {
+        AsyncLogWriter writer = _asyncWriter;
+        if (writer == null) {
+            synchronized (_asyncLock) {
+                writer = _asyncWriter;
+                if (writer == null && _async) {
+                    writer = new AsyncLogWriter("pip-services-logger-" + getClass().getSimpleName(),
+                            _bufferSize, _overflow, this::formatAndWriteNow);
+                    _asyncWriter = writer;
+                }
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Writes messages that remain in the async buffer and stops the background thread.
+     * The thread is started again when the next message is logged in async mode.
+     */
+    protected void closeAsync() {
+        AsyncLogWriter writer;
+        synchronized (_asyncLock) {
+            writer = _asyncWriter;
+            _asyncWriter = null;
+        }
+        if (writer != null) {
+            writer.close(CLOSE_TIMEOUT);
+            _droppedCount += writer.getDroppedCount();
+        }
+    }
+
+    /**
+     * Closes component and writes messages that remain in the async buffer.
+     * The logger continues to work after it is closed.
+     *
+     * @param context (optional) execution context to trace execution through call chain.
+     * @throws ApplicationException when error occured.
+     */
+    @Override
+    public void close(IContext context) throws ApplicationException {
+        closeAsync();
+    }
+
     /**
      * Writes a log message to the logger destination.
      *
@@ -167,6 +277,20 @@ public abstract class Logger implements ILogger, IReconfigurable, IReferenceable
      */
     protected void formatAndWrite(LogLevel level, IContext context, Exception error, String message,
                                   Object[] args) {
+        if (!isLevelEnabled(level))
+            return;
+
+        if (_async) {
+            AsyncLogWriter writer = getAsyncWriter();
+            if (writer != null && (writer.enqueue(level, context, error, message, args) || writer.isRunning()))
+                return;
+        }
+
+        formatAndWriteNow(level, context, error, message, args);
+    }
+
+    private void formatAndWriteNow(LogLevel level, IContext context, Exception error, String message,
+                                   Object[] args) {
         message = message != null ? message : "";
         if (args != null && args.length > 0)
             message = String.format(message, args);
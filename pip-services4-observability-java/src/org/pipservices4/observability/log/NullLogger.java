@@ -35,6 +35,17 @@ public class NullLogger implements ILogger {
 	public void setLevel(LogLevel value) {
 	}
 
+	/**
+	 * Checks if messages with the given level are captured by this logger.
+	 *
+	 * @param level a log level to check.
+	 * @return always false.
+	 */
+	@Override
+	public boolean isLevelEnabled(LogLevel level) {
+		return false;
+	}
+
 	/**
 	 * Logs a message at specified log level.
 	 * 
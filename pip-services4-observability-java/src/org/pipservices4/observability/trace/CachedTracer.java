@@ -10,6 +10,8 @@ import org.pipservices4.components.refer.IReferenceable;
 import org.pipservices4.components.refer.IReferences;
 import org.pipservices4.components.refer.ReferenceException;
 import org.pipservices4.components.context.*;
+import org.pipservices4.components.run.IClosable;
+import org.pipservices4.observability.exec.FlushScheduler;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -20,6 +22,11 @@ import java.util.List;
  * Abstract tracer that caches recorded traces in memory and periodically dumps them.
  * Child classes implement saving cached traces to their specified destinations.
  * <p>
+ * Cached traces are saved in background by the shared {@link FlushScheduler}.
+ * The cache is swapped under a short lock and saved outside of it,
+ * so threads that record traces never wait for the save.
+ * The remaining traces are saved when the component is closed.
+ * <p>
  * ### Configuration parameters ###
  *
  * <ul>
@@ -40,13 +47,17 @@ import java.util.List;
  * @see ITracer
  * @see OperationTrace
  */
-public abstract class CachedTracer implements ITracer, IReconfigurable, IReferenceable {
+public abstract class CachedTracer implements ITracer, IReconfigurable, IReferenceable, IClosable {
     protected String _source = null;
     protected List<OperationTrace> _cache = new ArrayList<>();
-    protected boolean _updated = false;
-    protected long _lastDumpTime = System.currentTimeMillis();
+    protected volatile boolean _updated = false;
+    protected volatile long _lastDumpTime = System.currentTimeMillis();
     protected int _maxCacheSize = 100;
-    protected long _interval = 10000;
+    protected volatile long _interval = 10000;
+    protected final Object _lock = new Object();
+    private final Object _dumpLock = new Object();
+    private volatile boolean _dumping = false;
+    private volatile boolean _scheduled = false;
 
     /**
      * Configures component by passing configuration parameters.
@@ -108,7 +119,9 @@ public abstract class CachedTracer implements ITracer, IReconfigurable, IReferen
                 errorDesc
         );
 
-        _cache.add(trace);
+        synchronized (_lock) {
+            _cache.add(trace);
+        }
 
         update();
     }
@@ -164,8 +177,10 @@ public abstract class CachedTracer implements ITracer, IReconfigurable, IReferen
      * Clears (removes) all cached log messages.
      */
     public void clear() {
-        _cache = new ArrayList<>();
-        _updated = false;
+        synchronized (_lock) {
+            _cache = new ArrayList<>();
+            _updated = false;
+        }
     }
 
     /**
@@ -174,41 +189,81 @@ public abstract class CachedTracer implements ITracer, IReconfigurable, IReferen
      * @see #write
      */
     public void dump() {
-        if (_updated) {
-
-            var traces = _cache;
-            _cache = new ArrayList<>();
+        if (!_updated)
+            return;
 
+        // Only one dump runs at a time, and writers take _lock just to swap the cache
+        synchronized (_dumpLock) {
+            _dumping = true;
             try {
-                save(traces);
-            } catch (Exception e) {
-                // Add traces back to the cache
-                traces.addAll(this._cache);
-                this._cache = traces;
-
-                // Truncate cache
-                int deleteCount = this._cache.size() - this._maxCacheSize;
-                if (deleteCount > 0)
-                    this._cache = this._cache.subList(deleteCount, _cache.size());
+                List<OperationTrace> traces;
+                synchronized (_lock) {
+                    if (!_updated)
+                        return;
+
+                    traces = _cache;
+                    _cache = new ArrayList<>();
+                    _updated = false;
+                }
+
+                try {
+                    save(traces);
+                } catch (Exception e) {
+                    synchronized (_lock) {
+                        // Add traces back to the cache
+                        traces.addAll(_cache);
+
+                        // Truncate cache
+                        int deleteCount = traces.size() - this._maxCacheSize;
+                        _cache = deleteCount > 0
+                                ? new ArrayList<>(traces.subList(deleteCount, traces.size()))
+                                : traces;
+
+                        // Retry when the next interval expires
+                        _updated = true;
+                    }
+                }
+
+                _lastDumpTime = System.currentTimeMillis();
+            } finally {
+                _dumping = false;
             }
         }
     }
 
     /**
-     * Makes trace cache as updated
-     * and dumps it when timeout expires.
+     * Makes trace cache as updated. The cache is dumped
+     * in background by {@link FlushScheduler} when timeout expires.
      *
      * @see #dump
      */
     protected void update() {
-        _updated = true;
-        if (System.currentTimeMillis() > _lastDumpTime + _interval) {
-            try {
-                dump();
-            } catch (Exception ignore) {
-                // Todo: decide what to do
-            }
+        if (!_updated)
+            _updated = true;
+
+        if (!_scheduled) {
+            _scheduled = true;
+            FlushScheduler.getDefault().register(this, CachedTracer::dumpIfNeeded);
         }
     }
 
+    private void dumpIfNeeded() {
+        // Skip the tick while the previous dump is still saving
+        if (!_dumping && System.currentTimeMillis() > _lastDumpTime + _interval)
+            dump();
+    }
+
+    /**
+     * Closes component and dumps the remaining cached traces.
+     *
+     * @param context (optional) execution context to trace execution through call chain.
+     */
+    @Override
+    public void close(IContext context) {
+        FlushScheduler.getDefault().unregister(this);
+        _scheduled = false;
+
+        // Waits for a dump in progress and then saves the rest
+        dump();
+    }
 }
@@ -78,6 +78,15 @@ public class CompositeTracer implements ITracer, IReferenceable {
         }
     }
 
+    /**
+     * Checks if there are any tracers to pass the traces to.
+     *
+     * @return true if no tracers are referenced and false otherwise.
+     */
+    public boolean isEmpty() {
+        return this._tracers.isEmpty();
+    }
+
     /**
      * Records an operation trace with its name and duration
      *
@@ -11,6 +11,8 @@ import org.pipservices4.components.context.IContext;
  * @see ITracer
  */
 public class NullTracer implements ITracer {
+    private static final TraceTiming _timing = new TraceTiming(null, null, null);
+
     /**
      * Records an operation trace with its name and duration
      *
@@ -48,6 +50,6 @@ public class NullTracer implements ITracer {
      */
     @Override
     public TraceTiming beginTrace(IContext context, String component, String operation) {
-        return new TraceTiming(context, component, operation, this);
+        return _timing;
     }
 }
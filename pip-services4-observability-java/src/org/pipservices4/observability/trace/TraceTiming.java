@@ -30,7 +30,7 @@ public class TraceTiming {
         this._component = component;
         this._operation = operation;
         this._tracer = null;
-        this._start = System.currentTimeMillis();
+        this._start = System.nanoTime();
     }
 
     /**
@@ -46,7 +46,7 @@ public class TraceTiming {
         this._component = component;
         this._operation = operation;
         this._tracer = tracer;
-        this._start = System.currentTimeMillis();
+        this._start = System.nanoTime();
     }
 
     /**
@@ -55,7 +55,7 @@ public class TraceTiming {
      */
     public void endTrace() {
         if (this._tracer != null) {
-            long elapsed = System.currentTimeMillis() - this._start;
+            long elapsed = (System.nanoTime() - this._start) / 1000000;
             this._tracer.trace(this._context, this._component, this._operation, elapsed);
         }
     }
@@ -68,7 +68,7 @@ public class TraceTiming {
      */
     public void endFailure(Exception error) {
         if (this._tracer != null) {
-            long elapsed = System.currentTimeMillis() - this._start;
+            long elapsed = (System.nanoTime() - this._start) / 1000000;
             this._tracer.failure(this._context, this._component, this._operation, error, elapsed);
         }
     }
@@ -0,0 +1,75 @@
+package org.pipservices4.observability.count;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-call cost of {@link CachedCounters} operations.
+ * <p>
+ * Run it with:
+ * <pre>
+ * {@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.pipservices4.observability.count.CachedCountersBenchmark
+ * }
+ * </pre>
+ * The benchmark is executed at 1, 8 and 64 threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CachedCountersBenchmark {
+
+    private static class NoopCounters extends CachedCounters {
+        @Override
+        protected void save(List<Counter> counters) {
+        }
+    }
+
+    private CachedCounters _counters;
+
+    @Setup
+    public void setUp() {
+        _counters = new NoopCounters();
+        _counters.setInterval(Long.MAX_VALUE / 2);
+    }
+
+    @Benchmark
+    public void increment() {
+        _counters.incrementOne("benchmark.calls");
+    }
+
+    @Benchmark
+    public void stats() {
+        _counters.stats("benchmark.stats", 123.45f);
+    }
+
+    @Benchmark
+    public void endTiming() {
+        _counters.endTiming("benchmark.exec_time", 12.5f);
+    }
+
+    @Benchmark
+    public void last() {
+        _counters.last("benchmark.last", 1.0f);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 8, 64}) {
+            Options options = new OptionsBuilder()
+                    .include(CachedCountersBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
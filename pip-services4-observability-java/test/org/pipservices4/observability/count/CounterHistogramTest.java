@@ -0,0 +1,46 @@
+package org.pipservices4.observability.count;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CounterHistogramTest {
+
+    @Test
+    public void testBucketIndex() {
+        assertEquals(0, CounterHistogram.getBucketIndex(0));
+        assertEquals(0, CounterHistogram.getBucketIndex(-1));
+        assertEquals(0, CounterHistogram.getBucketIndex(Float.NaN));
+        assertEquals(CounterHistogram.BUCKET_COUNT - 1, CounterHistogram.getBucketIndex(Float.MAX_VALUE));
+
+        for (float value = 0.01f; value < 1000000; value *= 1.37f) {
+            int index = CounterHistogram.getBucketIndex(value);
+            assertTrue(value < CounterHistogram.getBucketUpperBound(index));
+            assertTrue(index == 0 || value >= CounterHistogram.getBucketUpperBound(index - 1));
+            // Relative bucket width shall not exceed 12.5%
+            assertTrue(CounterHistogram.getBucketUpperBound(index) <= value * 1.126f);
+        }
+    }
+
+    @Test
+    public void testQuantiles() {
+        long[] counts = new long[CounterHistogram.BUCKET_COUNT];
+        for (int value = 1; value <= 1000; value++)
+            counts[CounterHistogram.getBucketIndex(value)]++;
+
+        CounterHistogram histogram = new CounterHistogram(counts);
+        assertEquals(1000, histogram.getTotalCount());
+        assertEquals(500, histogram.getQuantile(0.5), 500 * 0.125);
+        assertEquals(990, histogram.getQuantile(0.99), 990 * 0.125);
+
+        var quantiles = histogram.getQuantiles(1, 1000);
+        assertEquals(4, quantiles.size());
+        assertTrue(quantiles.get("0.99") <= 1000);
+
+        CounterHistogram merged = histogram.merge(histogram);
+        assertEquals(2000, merged.getTotalCount());
+        assertEquals(histogram.getQuantile(0.95), merged.getQuantile(0.95));
+
+        assertNull(new CounterHistogram(new long[CounterHistogram.BUCKET_COUNT]).getQuantile(0.5));
+    }
+}
@@ -58,6 +58,35 @@ public class CountersFixture {
         assertNotNull(counter);
         assertTrue(counter.getLast() > 50);
         assertTrue(counter.getLast() < 5000);
+        assertNotNull(counter.getQuantiles());
+        assertTrue(counter.getQuantile(0.99) >= counter.getMin());
+        assertTrue(counter.getQuantile(0.99) <= counter.getMax());
+
+        _counters.dump();
+    }
+
+    public void testConcurrentCounters() throws InvocationException, InterruptedException {
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    _counters.incrementOne("Test.Concurrent.Increment");
+                    _counters.stats("Test.Concurrent.Statistics", j);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        Counter counter = _counters.get("Test.Concurrent.Increment", CounterType.Increment);
+        assertEquals(8000, (int) counter.getCount());
+
+        counter = _counters.get("Test.Concurrent.Statistics", CounterType.Statistics);
+        assertEquals(8000, (int) counter.getCount());
+        assertEquals(0, counter.getMin(), 0.001);
+        assertEquals(999, counter.getMax(), 0.001);
+        assertEquals(499.5, counter.getAverage(), 0.001);
 
         _counters.dump();
     }
@@ -29,4 +29,9 @@ public class LogCountersTest {
     public void TestMeasureElapsedTime() throws InvocationException {
         fixture.testMeasureElapsedTime();
     }
+
+    @Test
+    public void testConcurrentCounters() throws InvocationException, InterruptedException {
+        fixture.testConcurrentCounters();
+    }
 }
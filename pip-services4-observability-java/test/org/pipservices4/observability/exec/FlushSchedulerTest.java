@@ -0,0 +1,51 @@
+package org.pipservices4.observability.exec;
+
+import org.junit.Test;
+import org.pipservices4.components.context.Context;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class FlushSchedulerTest {
+    private static class FlushableMock {
+        final AtomicInteger flushes = new AtomicInteger();
+
+        void flush() {
+            flushes.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void testFlushRegistered() throws InterruptedException {
+        FlushScheduler scheduler = new FlushScheduler(50);
+        FlushableMock mock = new FlushableMock();
+
+        scheduler.register(mock, FlushableMock::flush);
+        scheduler.register(mock, FlushableMock::flush);
+        assertTrue(scheduler.isRegistered(mock));
+
+        Thread.sleep(300);
+        assertTrue(mock.flushes.get() > 2);
+
+        scheduler.unregister(mock);
+        assertFalse(scheduler.isRegistered(mock));
+
+        int flushes = mock.flushes.get();
+        Thread.sleep(150);
+        assertEquals(flushes, mock.flushes.get());
+
+        scheduler.close(Context.fromTraceId("123"));
+    }
+
+    @Test
+    public void testFlushOnClose() {
+        FlushScheduler scheduler = new FlushScheduler(60000);
+        FlushableMock mock = new FlushableMock();
+
+        scheduler.register(mock, FlushableMock::flush);
+        scheduler.close(Context.fromTraceId("123"));
+
+        assertEquals(1, mock.flushes.get());
+    }
+}
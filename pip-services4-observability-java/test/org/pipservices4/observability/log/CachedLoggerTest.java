@@ -0,0 +1,85 @@
+package org.pipservices4.observability.log;
+
+import org.junit.Test;
+import org.pipservices4.commons.errors.InvocationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CachedLoggerTest {
+    private static class SlowLogger extends CachedLogger {
+        final CountDownLatch saving = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<LogMessage> saved = new ArrayList<>();
+        volatile boolean fail = false;
+
+        SlowLogger() {
+            setLevel(LogLevel.Trace);
+        }
+
+        @Override
+        protected void save(List<LogMessage> messages) throws InvocationException {
+            saving.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                // Ignore...
+            }
+            if (fail)
+                throw new InvocationException(null, "SAVE_FAILED", "Failed to save");
+            synchronized (saved) {
+                saved.addAll(messages);
+            }
+        }
+    }
+
+    @Test
+    public void testWriteDoesNotWaitForSave() throws Exception {
+        var logger = new SlowLogger();
+        logger.info(null, "Message 1");
+
+        var dump = CompletableFuture.runAsync(logger::dump);
+        assertTrue(logger.saving.await(5, TimeUnit.SECONDS));
+
+        // Writers only swap the cache under the lock
+        var start = System.currentTimeMillis();
+        logger.info(null, "Message 2");
+        assertTrue(System.currentTimeMillis() - start < 1000);
+
+        // Close waits for the dump in progress and saves the rest
+        var close = CompletableFuture.runAsync(() -> {
+            try {
+                logger.close(null);
+            } catch (InvocationException ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(close.isDone());
+
+        logger.release.countDown();
+        dump.get(5, TimeUnit.SECONDS);
+        close.get(5, TimeUnit.SECONDS);
+        assertEquals(2, logger.saved.size());
+    }
+
+    @Test
+    public void testFailedSaveKeepsMessages() throws Exception {
+        var logger = new SlowLogger();
+        logger.release.countDown();
+        logger.fail = true;
+
+        logger.info(null, "Message 1");
+        logger.dump();
+        assertTrue(logger.saved.isEmpty());
+
+        logger.fail = false;
+        logger.dump();
+        assertEquals(1, logger.saved.size());
+    }
+}
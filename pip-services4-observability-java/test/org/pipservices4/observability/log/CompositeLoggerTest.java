@@ -1,10 +1,16 @@
 package org.pipservices4.observability.log;
 
 import org.junit.Test;
+import org.pipservices4.components.context.IContext;
 import org.pipservices4.components.refer.Descriptor;
 import org.pipservices4.components.refer.ReferenceException;
 import org.pipservices4.components.refer.References;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
 public class CompositeLoggerTest {
 
     private CompositeLogger _log;
@@ -58,4 +64,37 @@ public class CompositeLoggerTest {
         _fixture.testErrorLogging();
     }
 
+    @Test
+    public void testEffectiveLevel() throws ReferenceException {
+        List<String> messages = new ArrayList<>();
+        Logger child = new Logger() {
+            @Override
+            protected void write(LogLevel level, IContext context, Exception error, String message) {
+                messages.add(message);
+            }
+        };
+        child.setLevel(LogLevel.Info);
+
+        CompositeLogger logger = new CompositeLogger();
+        logger.setReferences(References.fromTuples(
+                new Descriptor("pip-services", "logger", "test", "default", "1.0"), child,
+                new Descriptor("pip-services", "logger", "null", "default", "1.0"), new NullLogger()
+        ));
+
+        assertTrue(logger.isLevelEnabled(LogLevel.Info));
+        assertFalse(logger.isDebugEnabled());
+        assertFalse(logger.isTraceEnabled());
+
+        logger.trace(null, () -> {
+            throw new AssertionError("Message shall not be composed");
+        });
+        logger.trace(null, "Trace %s", "message");
+        logger.info(null, "Info %s", "message");
+        assertEquals(List.of("Info message"), messages);
+
+        child.setLevel(LogLevel.Trace);
+        assertTrue(logger.isTraceEnabled());
+        logger.trace(null, "Trace %s", "message");
+        assertEquals(List.of("Info message", "Trace message"), messages);
+    }
 }
@@ -0,0 +1,74 @@
+package org.pipservices4.observability.log;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pipservices4.components.context.Context;
+import org.pipservices4.components.context.IContext;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.ReferenceException;
+import org.pipservices4.components.refer.References;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of trace calls through {@link CompositeLogger}
+ * when all child loggers are at INFO level.
+ * <p>
+ * Run it with:
+ * <pre>
+ * {@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.pipservices4.observability.log.DisabledLoggingBenchmark
+ * }
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DisabledLoggingBenchmark {
+
+    private CompositeLogger _logger;
+    private final IContext _context = Context.fromTraceId("123");
+    private int _count = 42;
+
+    @Setup
+    public void setUp() throws ReferenceException {
+        ConsoleLogger console = new ConsoleLogger();
+        console.setLevel(LogLevel.Info);
+
+        _logger = new CompositeLogger();
+        _logger.setReferences(References.fromTuples(
+                new Descriptor("pip-services", "logger", "console", "default", "1.0"), console,
+                new Descriptor("pip-services", "logger", "null", "default", "1.0"), new NullLogger()
+        ));
+    }
+
+    @Benchmark
+    public void traceWithArgs() {
+        _logger.trace(_context, "Retrieved %d of %s", _count, "items");
+    }
+
+    @Benchmark
+    public void traceGuarded() {
+        if (_logger.isTraceEnabled())
+            _logger.trace(_context, "Retrieved %d of %s", _count, "items");
+    }
+
+    @Benchmark
+    public void traceSupplier() {
+        _logger.trace(_context, () -> "Retrieved " + _count + " of items");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DisabledLoggingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,100 @@
+package org.pipservices4.observability.log;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.context.Context;
+import org.pipservices4.components.context.IContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares synchronous and async {@link Logger} modes by caller throughput
+ * and caller latency percentiles.
+ * <p>
+ * Run it with:
+ * <pre>
+ * {@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.pipservices4.observability.log.LoggerBenchmark
+ * }
+ * </pre>
+ * The benchmark is executed at 1 and 8 threads.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggerBenchmark {
+
+    /**
+     * Logger that simulates a destination which formats a line of output.
+     */
+    private static class SinkLogger extends Logger {
+        private volatile int _length;
+
+        @Override
+        protected void write(LogLevel level, IContext context, Exception error, String message) {
+            String line = "[" + (context != null ? context.get("trace_id") : "---") + ":" + level + "] " + message;
+            _length += line.length();
+        }
+    }
+
+    @Param({"false", "true"})
+    public boolean async;
+
+    private SinkLogger _logger;
+    private final IContext _context = Context.fromTraceId("123");
+
+    @Setup
+    public void setUp() {
+        _logger = new SinkLogger();
+        _logger.configure(ConfigParams.fromTuples(
+                "level", "info",
+                "options.async", async,
+                "options.overflow", "drop"
+        ));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        _logger.close(null);
+        System.out.println("Dropped messages: " + _logger.getDroppedCount());
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void infoThroughput() {
+        _logger.info(_context, "Processed request %s in %d ms", "get_data", 15);
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.SampleTime})
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void infoLatency() {
+        _logger.info(_context, "Processed request %s in %d ms", "get_data", 15);
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.AverageTime})
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void filteredDebug(Blackhole blackhole) {
+        _logger.debug(_context, "Processed request %s in %d ms", "get_data", 15);
+        blackhole.consume(_logger);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 8}) {
+            Options options = new OptionsBuilder()
+                    .include(LoggerBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
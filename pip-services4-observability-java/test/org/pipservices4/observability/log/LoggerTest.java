@@ -0,0 +1,109 @@
+package org.pipservices4.observability.log;
+
+import org.junit.Test;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.context.Context;
+import org.pipservices4.components.context.IContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class LoggerTest {
+
+    private static class TestLogger extends Logger {
+        public final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        public volatile CountDownLatch gate = null;
+
+        @Override
+        protected void write(LogLevel level, IContext context, Exception error, String message) {
+            try {
+                if (gate != null)
+                    gate.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(message);
+        }
+    }
+
+    private static class FailingArgument {
+        @Override
+        public String toString() {
+            throw new AssertionError("Argument shall not be formatted");
+        }
+    }
+
+    @Test
+    public void testLevelIsCheckedBeforeFormatting() {
+        TestLogger logger = new TestLogger();
+        logger.setLevel(LogLevel.Info);
+
+        logger.debug(Context.fromTraceId("123"), "Debug %s", new FailingArgument());
+        logger.trace(Context.fromTraceId("123"), "Trace %s", new FailingArgument());
+        logger.info(Context.fromTraceId("123"), "Info %s", "message");
+
+        assertEquals(List.of("Info message"), logger.messages);
+    }
+
+    @Test
+    public void testAsyncWrite() throws Exception {
+        TestLogger logger = new TestLogger();
+        logger.configure(ConfigParams.fromTuples(
+                "level", "trace",
+                "options.async", true,
+                "options.buffer_size", 16
+        ));
+        assertTrue(logger.isAsync());
+
+        int threads = 4;
+        int messages = 500;
+        List<Thread> workers = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            Thread worker = new Thread(() -> {
+                for (int index = 0; index < messages; index++)
+                    logger.trace(null, "Message %d", index);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+
+        logger.close(null);
+
+        assertEquals(threads * messages, logger.messages.size());
+        assertEquals(0, logger.getDroppedCount());
+        assertTrue(logger.messages.contains("Message 499"));
+
+        // Messages are written directly after the logger is closed and reopened
+        logger.setAsync(false);
+        logger.info(null, "Sync message");
+        assertEquals("Sync message", logger.messages.get(logger.messages.size() - 1));
+    }
+
+    @Test
+    public void testAsyncDropOnOverflow() throws Exception {
+        TestLogger logger = new TestLogger();
+        logger.configure(ConfigParams.fromTuples(
+                "options.async", true,
+                "options.buffer_size", 4,
+                "options.overflow", "drop"
+        ));
+
+        // Block the consumer so the buffer overflows
+        logger.gate = new CountDownLatch(1);
+        for (int index = 0; index < 100; index++)
+            logger.info(null, "Message %d", index);
+
+        assertTrue(logger.getDroppedCount() > 0);
+
+        logger.gate.countDown();
+        logger.close(null);
+
+        assertEquals(100, logger.messages.size() + logger.getDroppedCount());
+    }
+}
@@ -399,11 +399,12 @@ public abstract class MemoryPersistence<T> implements IConfigurable, IReferencea
      */
     public T create(IContext context, T item) throws IOException, ApplicationException {
         synchronized (_lock) {
-            // clone object
-            var strObj = JsonConverter.toJson(item);
             _items.add(item);
 
-            this._logger.trace(context, "Created item %s", JsonConverter.toMap(strObj).getOrDefault("id", null));
+            if (this._logger.isTraceEnabled()) {
+                var strObj = JsonConverter.toJson(item);
+                this._logger.trace(context, "Created item %s", JsonConverter.toMap(strObj).getOrDefault("id", null));
+            }
 
             save(context);
 
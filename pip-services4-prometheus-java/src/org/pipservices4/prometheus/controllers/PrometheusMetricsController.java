@@ -1,20 +1,36 @@
 package org.pipservices4.prometheus.controllers;
 
 import jakarta.ws.rs.container.ContainerRequestContext;
-import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.pipservices4.commons.errors.ConfigException;
 import org.pipservices4.components.refer.Descriptor;
 import org.pipservices4.components.refer.IReferences;
 import org.pipservices4.components.refer.ReferenceException;
 import org.pipservices4.observability.count.CachedCounters;
+import org.pipservices4.observability.count.Counter;
 import org.pipservices4.components.context.ContextInfo;
 import org.pipservices4.http.controllers.RestController;
 import org.pipservices4.prometheus.count.PrometheusCounterConverter;
 import org.pipservices4.prometheus.count.PrometheusCounters;
 
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Controller that exposes the "/metrics" and "/metricsandreset" routes for Prometheus to scrape performance metrics.
+ * <p>
+ * Metrics are written directly into the response stream, so concurrent scrapes
+ * don't share a buffer and don't wait for each other. Clients that accept OpenMetrics format
+ * receive the response in that format, and clients that accept gzip encoding
+ * receive a compressed response.
+ */
 public class PrometheusMetricsController extends RestController {
     private CachedCounters _cachedCounters;
     private String _source;
@@ -68,12 +84,7 @@ public class PrometheusMetricsController extends RestController {
      */
     public Response metrics(ContainerRequestContext req) {
         var counters = this._cachedCounters != null ? this._cachedCounters.getAll() : null;
-        var body = PrometheusCounterConverter.toString(counters, this._source, this._instance);
-        return Response
-                .status(Response.Status.OK)
-                .type(MediaType.TEXT_PLAIN)
-                .entity(body)
-                .build();
+        return composeResponse(req, counters);
     }
 
     /**
@@ -85,15 +96,36 @@ public class PrometheusMetricsController extends RestController {
      */
     private Response metricsAndReset(ContainerRequestContext req) {
         var counters = this._cachedCounters != null ? this._cachedCounters.getAll() : null;
-        var body = PrometheusCounterConverter.toString(counters, this._source, this._instance);
 
         if (this._cachedCounters != null)
             this._cachedCounters.clearAll();
 
-        return Response
+        return composeResponse(req, counters);
+    }
+
+    private Response composeResponse(ContainerRequestContext req, List<Counter> counters) {
+        var accept = req != null ? req.getHeaderString(HttpHeaders.ACCEPT) : null;
+        var acceptEncoding = req != null ? req.getHeaderString(HttpHeaders.ACCEPT_ENCODING) : null;
+        var openMetrics = accept != null && accept.contains("application/openmetrics-text");
+        var gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        var source = this._source;
+        var instance = this._instance;
+        StreamingOutput body = (output) -> {
+            OutputStream stream = gzip ? new GZIPOutputStream(output) : output;
+            try (Writer writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8)) {
+                PrometheusCounterConverter.write(counters, source, instance, writer, openMetrics);
+            }
+        };
+
+        var response = Response
                 .status(Response.Status.OK)
-                .type(MediaType.TEXT_PLAIN)
-                .entity(body)
-                .build();
+                .type(openMetrics ? PrometheusCounterConverter.OPEN_METRICS_CONTENT_TYPE : PrometheusCounterConverter.TEXT_CONTENT_TYPE)
+                .entity(body);
+
+        if (gzip)
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        return response.build();
     }
 }
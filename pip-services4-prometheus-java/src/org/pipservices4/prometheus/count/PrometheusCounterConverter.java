@@ -1,16 +1,51 @@
 package org.pipservices4.prometheus.count;
 
-import org.pipservices4.commons.convert.StringConverter;
 import org.pipservices4.observability.count.Counter;
 import org.pipservices4.observability.count.CounterType;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.*;
 
 /**
  * Helper class that converts performance counter values into
  * a response from Prometheus metrics service.
+ * <p>
+ * Metric names and labels parsed from counter names are cached,
+ * so repeated scrapes of the same counters do not parse their names again.
+ * When the cache is full the least recently used names are evicted.
+ * The response can be written directly into a {@link Writer}
+ * in Prometheus text format or in OpenMetrics format.
  */
 public class PrometheusCounterConverter {
+    /** Content type of the Prometheus text format */
+    public static final String TEXT_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    /** Content type of the OpenMetrics text format */
+    public static final String OPEN_METRICS_CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static final int MAX_PARSED_NAMES = 200000;
+    private static final int CHUNK_SIZE = 8192;
+    private static final Map<String, ParsedName> _parsedNames = Collections.synchronizedMap(
+            new LinkedHashMap<>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ParsedName> eldest) {
+                    return size() > MAX_PARSED_NAMES;
+                }
+            });
+
+    /**
+     * Metric name and labels parsed from a counter name.
+     */
+    private static class ParsedName {
+        final String name;
+        final String labels;
+
+        ParsedName(String name, String labels) {
+            this.name = name;
+            this.labels = labels;
+        }
+    }
+
     /**
      * Converts the given counters to a string that is returned by Prometheus metrics service.
      *
@@ -21,48 +56,165 @@ public class PrometheusCounterConverter {
     public static String toString(List<Counter> counters, String source, String instance) {
         if (counters == null || counters.isEmpty()) return "";
 
-        StringBuilder builder = new StringBuilder();
+        StringBuilder builder = new StringBuilder(counters.size() * 128);
+        var commonLabels = generateCommonLabels(source, instance);
+
+        for (var counter : counters)
+            appendCounter(builder, counter, commonLabels);
+
+        return builder.toString();
+    }
+
+    /**
+     * Writes the given counters in the format returned by Prometheus metrics service.
+     *
+     * @param counters    a list of counters to convert.
+     * @param source      a source (context) name.
+     * @param instance    a unique instance name (usually a host name).
+     * @param writer      a writer to write the response.
+     * @param openMetrics true to write in OpenMetrics format and false to write in Prometheus text format.
+     * @throws IOException when writing fails.
+     */
+    public static void write(List<Counter> counters, String source, String instance,
+                             Writer writer, boolean openMetrics) throws IOException {
+        StringBuilder builder = new StringBuilder(CHUNK_SIZE + 1024);
+
+        if (counters != null && !counters.isEmpty()) {
+            var commonLabels = generateCommonLabels(source, instance);
 
-        for (var counter : counters) {
-            var counterName = parseCounterName(counter);
-            var labels = generateCounterLabel(counter, source, instance);
+            for (var counter : counters) {
+                appendCounter(builder, counter, commonLabels);
 
-            switch (counter.getType()) {
-                case CounterType.Increment -> {
-                    builder.append("# TYPE ").append(counterName).append(" gauge\n");
-                    builder.append(counterName).append(labels).append(" ").append(StringConverter.toString(counter.getCount())).append("\n");
+                if (builder.length() >= CHUNK_SIZE) {
+                    writer.append(builder);
+                    builder.setLength(0);
                 }
-                case CounterType.Interval, CounterType.Statistics -> {
-                    builder.append("# TYPE ").append(counterName).append("_max gauge\n");
-                    builder.append(counterName).append("_max").append(labels).append(" ").append(StringConverter.toString(counter.getMax())).append("\n");
-                    builder.append("# TYPE ").append(counterName).append("_min gauge\n");
-                    builder.append(counterName).append("_min").append(labels).append(" ").append(StringConverter.toString(counter.getMin())).append("\n");
-                    builder.append("# TYPE ").append(counterName).append("_average gauge\n");
-                    builder.append(counterName).append("_average").append(labels).append(" ").append(StringConverter.toString(counter.getAverage())).append("\n");
+            }
+        }
+
+        if (openMetrics)
+            builder.append("# EOF\n");
+
+        writer.append(builder);
+        writer.flush();
+    }
+
+    private static void appendCounter(StringBuilder builder, Counter counter, String commonLabels) {
+        var parsedName = getParsedName(counter);
+        var counterName = parsedName.name;
+
+        switch (counter.getType()) {
+            case CounterType.Increment -> {
+                builder.append("# TYPE ").append(counterName).append(" gauge\n");
+                appendValue(builder.append(counterName), commonLabels, parsedName.labels, counter.getCount());
+            }
+            case CounterType.Interval, CounterType.Statistics -> {
+                builder.append("# TYPE ").append(counterName).append("_max gauge\n");
+                appendValue(builder.append(counterName).append("_max"), commonLabels, parsedName.labels, counter.getMax());
+                builder.append("# TYPE ").append(counterName).append("_min gauge\n");
+                appendValue(builder.append(counterName).append("_min"), commonLabels, parsedName.labels, counter.getMin());
+                builder.append("# TYPE ").append(counterName).append("_average gauge\n");
+                appendValue(builder.append(counterName).append("_average"), commonLabels, parsedName.labels, counter.getAverage());
+
+                if (counter.getType() == CounterType.Interval && counter.getQuantiles() != null && !counter.getQuantiles().isEmpty())
+                    appendSummary(builder, counter, counterName, commonLabels, parsedName.labels);
+                else {
                     builder.append("# TYPE ").append(counterName).append("_count gauge\n");
-                    builder.append(counterName).append("_count").append(labels).append(" ").append(StringConverter.toString(counter.getCount())).append("\n");
+                    appendValue(builder.append(counterName).append("_count"), commonLabels, parsedName.labels, counter.getCount());
                 }
-                case CounterType.LastValue -> {
-                    builder.append("# TYPE ").append(counterName).append(" gauge\n");
-                    builder.append(counterName).append(labels).append(" ").append(StringConverter.toString(counter.getLast())).append("\n");
-                }
-                //case CounterType.Timestamp: // Prometheus doesn't support non-numeric metrics
-                //builder += "# TYPE " + counterName + " untyped\n";
-                //builder += counterName + labels + " " + StringConverter.toString(counter.time) + "\n";
-                //break;
             }
+            case CounterType.LastValue -> {
+                builder.append("# TYPE ").append(counterName).append(" gauge\n");
+                appendValue(builder.append(counterName), commonLabels, parsedName.labels, counter.getLast());
+            }
+            //case CounterType.Timestamp: // Prometheus doesn't support non-numeric metrics
+            //builder += "# TYPE " + counterName + " untyped\n";
+            //builder += counterName + labels + " " + StringConverter.toString(counter.time) + "\n";
+            //break;
         }
+    }
+
+    /**
+     * Writes quantiles of an Interval counter as a Prometheus summary.
+     * The summary replaces the "_count" gauge, since it has the same name and value.
+     */
+    private static void appendSummary(StringBuilder builder, Counter counter, String counterName,
+                                      String commonLabels, String nameLabels) {
+        var count = counter.getCount() != null ? counter.getCount() : 0;
+        var sum = counter.getAverage() != null ? (double) counter.getAverage() * count : 0;
 
+        builder.append("# TYPE ").append(counterName).append(" summary\n");
+        for (var quantile : counter.getQuantiles().entrySet()) {
+            builder.append(counterName).append('{');
+            if (appendLabelList(builder, commonLabels, nameLabels))
+                builder.append(',');
+            builder.append("quantile=\"").append(quantile.getKey()).append("\"} ");
+            appendNumber(builder, quantile.getValue());
+            builder.append('\n');
+        }
+        appendValue(builder.append(counterName).append("_sum"), commonLabels, nameLabels, sum);
+        appendValue(builder.append(counterName).append("_count"), commonLabels, nameLabels, count);
+    }
+
+    private static void appendValue(StringBuilder builder, String commonLabels, String nameLabels, Number value) {
+        if (!commonLabels.isEmpty() || !nameLabels.isEmpty()) {
+            builder.append('{');
+            appendLabelList(builder, commonLabels, nameLabels);
+            builder.append('}');
+        }
+        builder.append(' ');
+        appendNumber(builder, value);
+        builder.append('\n');
+    }
+
+    private static boolean appendLabelList(StringBuilder builder, String commonLabels, String nameLabels) {
+        builder.append(commonLabels);
+        if (!commonLabels.isEmpty() && !nameLabels.isEmpty())
+            builder.append(',');
+        builder.append(nameLabels);
+        return !commonLabels.isEmpty() || !nameLabels.isEmpty();
+    }
+
+    private static void appendNumber(StringBuilder builder, Number value) {
+        // Same output as StringConverter.toString() without intermediate strings
+        if (value instanceof Integer intValue)
+            builder.append(intValue.intValue());
+        else if (value instanceof Float floatValue)
+            builder.append(floatValue.floatValue());
+        else if (value instanceof Double doubleValue)
+            builder.append(doubleValue.doubleValue());
+        else if (value != null)
+            builder.append(value);
+    }
+
+    private static String generateCommonLabels(String source, String instance) {
+        StringBuilder builder = new StringBuilder();
+        if (source != null && !source.equals(""))
+            builder.append("source=\"").append(source).append('"');
+        if (instance != null && !instance.equals("")) {
+            if (!builder.isEmpty()) builder.append(',');
+            builder.append("instance=\"").append(instance).append('"');
+        }
         return builder.toString();
     }
 
-    private static String generateCounterLabel(Counter counter, String source, String instance) {
-        var labels = new LinkedHashMap<String, String>();
+    private static ParsedName getParsedName(Counter counter) {
+        var name = counter.getName();
+        if (name == null || name.isEmpty())
+            return new ParsedName("", "");
 
-        if (source != null && !source.equals("")) labels.put("source", source);
-        if (instance != null && !instance.equals("")) labels.put("instance", instance);
+        var parsedName = _parsedNames.get(name);
+        if (parsedName == null) {
+            parsedName = new ParsedName(parseCounterName(counter), generateCounterLabels(name));
+            _parsedNames.put(name, parsedName);
+        }
+        return parsedName;
+    }
 
-        var nameParts = counter.getName().split("\\.");
+    private static String generateCounterLabels(String counterName) {
+        var labels = new LinkedHashMap<String, String>();
+
+        var nameParts = counterName.split("\\.");
 
         // If there are other predictable names from which we can parse labels, we can add them below
         if ((nameParts.length >= 3 && Objects.equals(nameParts[2], "exec_count"))
@@ -89,14 +241,11 @@ public class PrometheusCounterConverter {
             labels.put("queue", nameParts[1]);
         }
 
-        if (labels.isEmpty()) return "";
-
-        StringBuilder builder = new StringBuilder("{");
+        StringBuilder builder = new StringBuilder();
         for (var key : labels.keySet()) {
-            if (builder.length() > 1) builder.append(",");
+            if (!builder.isEmpty()) builder.append(",");
             builder.append(key).append("=\"").append(labels.get(key)).append('"');
         }
-        builder.append("}");
 
         return builder.toString();
     }
@@ -143,21 +292,4 @@ public class PrometheusCounterConverter {
         return counter.getName().toLowerCase()
                 .replace(".", "_").replace("/", "_");
     }
-
-    private static Map<String, String> parseCounterLabels(Counter counter, String source, String instance) {
-        var labels = new LinkedHashMap<String, String>();
-
-        if (source != null && !source.equals("")) labels.put("source", source);
-        if (instance != null && !instance.equals("")) labels.put("instance", instance);
-
-        var nameParts = counter.getName().split("\\.");
-
-        // If there are other predictable names from which we can parse labels, we can add them below
-        if (nameParts.length >= 3 && Objects.equals(nameParts[2], "exec_time")) {
-            labels.put("service", nameParts[0]);
-            labels.put("command", nameParts[1]);
-        }
-
-        return labels;
-    }
 }
@@ -7,6 +7,7 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.jackson.JacksonFeature;
+import org.pipservices4.commons.errors.InvocationException;
 import org.pipservices4.components.config.ConfigParams;
 import org.pipservices4.components.config.IConfigurable;
 import org.pipservices4.components.context.Context;
@@ -181,6 +182,12 @@ public class PrometheusCounters extends CachedCounters implements IReferenceable
      */
     @Override
     public void close(IContext context) {
+        try {
+            super.close(context);
+        } catch (InvocationException ex) {
+            this._logger.warn(context, "Failed to dump counters on close: " + ex);
+        }
+
         if (_client != null)
             _client.close();
 
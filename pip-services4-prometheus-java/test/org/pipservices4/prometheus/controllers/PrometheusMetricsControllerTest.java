@@ -17,6 +17,10 @@ import org.pipservices4.observability.count.CounterType;
 import org.pipservices4.components.context.ContextInfo;
 import org.pipservices4.prometheus.count.PrometheusCounters;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
 import static org.junit.Assert.*;
 
 public class PrometheusMetricsControllerTest {
@@ -108,6 +112,26 @@ public class PrometheusMetricsControllerTest {
         assertNull(counter4.getTime());
     }
 
+    @Test
+    public void testOpenMetricsGzip() throws Exception {
+        counters.incrementOne("test.counter1");
+
+        try (Response response = rest.target("http://localhost:3000/metrics")
+                .request("application/openmetrics-text")
+                .header("Accept-Encoding", "gzip")
+                .get()) {
+            assertEquals(200, response.getStatus());
+            assertEquals("gzip", response.getHeaderString("Content-Encoding"));
+            assertTrue(response.getMediaType().toString().startsWith("application/openmetrics-text"));
+
+            try (var stream = new GZIPInputStream(response.readEntity(InputStream.class))) {
+                var body = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(body.contains("test_counter1"));
+                assertTrue(body.endsWith("# EOF\n"));
+            }
+        }
+    }
+
     private Response invoke(String route, Object entity) {
         try (Response response = rest.target("http://localhost:3000" + route)
                 .request(MediaType.TEXT_PLAIN)
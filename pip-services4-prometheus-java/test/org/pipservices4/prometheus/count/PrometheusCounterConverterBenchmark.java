@@ -0,0 +1,119 @@
+package org.pipservices4.prometheus.count;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pipservices4.observability.count.Counter;
+import org.pipservices4.observability.count.CounterType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to render a Prometheus scrape response.
+ * <p>
+ * Run it with:
+ * <pre>
+ * {@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.pipservices4.prometheus.count.PrometheusCounterConverterBenchmark
+ * }
+ * </pre>
+ * The benchmark is executed at 1k, 10k and 100k series.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrometheusCounterConverterBenchmark {
+
+    private static class NullWriter extends Writer {
+        private long _length;
+
+        @Override
+        public Writer append(CharSequence value) {
+            _length += value.length();
+            return this;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            _length += length;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Param({"1000", "10000", "100000"})
+    public int series;
+
+    private List<Counter> _counters;
+    private final NullWriter _writer = new NullWriter();
+
+    @Setup
+    public void setUp() {
+        // A mix of service, client and custom counters
+        _counters = new ArrayList<>(series);
+        for (int index = 0; index < series; index++) {
+            Counter counter;
+            switch (index % 4) {
+                case 0 -> {
+                    counter = new Counter("service" + index + ".command.exec_count", CounterType.Increment);
+                    counter.setCount(index);
+                }
+                case 1 -> {
+                    counter = new Counter("service" + index + ".command.exec_time", CounterType.Interval);
+                    counter.setCount(index);
+                    counter.setMin(1.5f);
+                    counter.setMax(150.5f);
+                    counter.setAverage(25.5f);
+                    counter.setQuantiles(Map.of("0.5", 20f, "0.99", 120f));
+                }
+                case 2 -> {
+                    counter = new Counter("target.service" + index + ".command.call_time", CounterType.Statistics);
+                    counter.setCount(index);
+                    counter.setMin(1.5f);
+                    counter.setMax(150.5f);
+                    counter.setAverage(25.5f);
+                }
+                default -> {
+                    counter = new Counter("custom.value" + index, CounterType.LastValue);
+                    counter.setLast((float) index);
+                }
+            }
+            _counters.add(counter);
+        }
+    }
+
+    @Benchmark
+    public String scrapeToString() {
+        return PrometheusCounterConverter.toString(_counters, "app", "instance");
+    }
+
+    @Benchmark
+    public long scrapeToWriter() throws IOException {
+        PrometheusCounterConverter.write(_counters, "app", "instance", _writer, false);
+        return _writer._length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PrometheusCounterConverterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -6,6 +6,7 @@ import org.pipservices4.data.random.RandomDateTime;
 import org.pipservices4.observability.count.Counter;
 import org.pipservices4.observability.count.CounterType;
 
+import java.io.StringWriter;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Date;
@@ -147,4 +148,45 @@ public class PrometheusCounterConverterTest {
             assertEquals(expected, body);
         }
     }
+
+    @Test
+    public void testIntervalCounterWithQuantiles() {
+        var counter = new Counter("MyService1.MyCommand1.exec_time", CounterType.Interval);
+        counter.setCount(4);
+        counter.setMax(20F);
+        counter.setMin(5F);
+        counter.setAverage(10F);
+        counter.setQuantiles(Map.of("0.99", 20F));
+
+        var body = PrometheusCounterConverter.toString(List.of(counter), "MyApp", "MyInstance");
+
+        var labels = "{source=\"MyApp\",instance=\"MyInstance\",service=\"MyService1\",command=\"MyCommand1\"}";
+        var expected = "# TYPE exec_time_max gauge\nexec_time_max" + labels + " 20.0\n"
+                + "# TYPE exec_time_min gauge\nexec_time_min" + labels + " 5.0\n"
+                + "# TYPE exec_time_average gauge\nexec_time_average" + labels + " 10.0\n"
+                + "# TYPE exec_time summary\n"
+                + "exec_time{source=\"MyApp\",instance=\"MyInstance\",service=\"MyService1\",command=\"MyCommand1\",quantile=\"0.99\"} 20.0\n"
+                + "exec_time_sum" + labels + " 40.0\n"
+                + "exec_time_count" + labels + " 4\n";
+
+        assertEquals(expected, body);
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        var counters = new ArrayList<Counter>();
+        for (int index = 0; index < 1000; index++) {
+            var counter = new Counter("MyService" + index + ".MyCommand.exec_count", CounterType.Increment);
+            counter.setCount(index);
+            counters.add(counter);
+        }
+
+        var text = new StringWriter();
+        PrometheusCounterConverter.write(counters, "MyApp", "MyInstance", text, false);
+        assertEquals(PrometheusCounterConverter.toString(counters, "MyApp", "MyInstance"), text.toString());
+
+        var openMetrics = new StringWriter();
+        PrometheusCounterConverter.write(counters, "MyApp", "MyInstance", openMetrics, true);
+        assertEquals(text + "# EOF\n", openMetrics.toString());
+    }
 }
@@ -138,12 +138,11 @@ public abstract class DirectClient<T> implements IConfigurable, IOpenable, IRefe
      */
     protected InstrumentTiming instrument(IContext context, String name) {
         this._logger.trace(context, "Calling %s method", name);
-        this._counters.incrementOne(name + ".call_count");
+        if (!this._counters.isEmpty())
+            this._counters.incrementOne(name + ".call_count");
 
-        var counterTiming = this._counters.beginTiming(name + ".call_time");
-        var traceTiming = this._tracer.beginTrace(context, name, null);
         return new InstrumentTiming(context, name, "call",
-                this._logger, this._counters, counterTiming, traceTiming);
+                this._logger, this._counters, this._tracer);
     }
 
     /**
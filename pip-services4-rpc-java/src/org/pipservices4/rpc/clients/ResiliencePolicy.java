@@ -0,0 +1,552 @@
+package org.pipservices4.rpc.clients;
+
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.commons.errors.ConnectionException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.config.IConfigurable;
+import org.pipservices4.observability.count.CompositeCounters;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Protects calls of remote services from slow and failing dependencies.
+ * <p>
+ * The policy keeps a separate state for every call target (usually host and port):
+ * <ul>
+ * <li>circuit breaker rejects calls after a number of consecutive failures and lets
+ * a single trial call through after the reset timeout
+ * <li>bulkhead limits the number of concurrent calls, so threads don't pile up waiting for a slow service.
+ * Asynchronous calls wait for a free slot without blocking any thread
+ * <li>adaptive timeout is calculated from observed latencies as srtt + 4 * rttvar (like TCP retransmission timeout)
+ * and doubles after every failed call that ran out of it, until a call succeeds again
+ * <li>hedging sends a second attempt of an idempotent call when the first one is slower than the hedge delay,
+ * and takes the result that comes first
+ * </ul>
+ * Every attempt of a call should be executed through the policy separately, so retry delays
+ * don't hold a call slot and are not taken as call latency.
+ * Errors with status 500 and above and errors that are not {@link ApplicationException} are counted as failures.
+ * Rejected calls fail with {@link ConnectionException} with code "CIRCUIT_OPEN" or "BULKHEAD_FULL".
+ * All protections are disabled by default.
+ * <p>
+ * ### Configuration parameters ###
+ * <ul>
+ * <li>options:
+ *   <ul>
+ *   <li>circuit_breaker:           enables circuit breaker (default: false)
+ *   <li>circuit_failure_threshold: number of consecutive failures that opens the circuit (default: 5)
+ *   <li>circuit_reset_timeout:     time in milliseconds before an open circuit lets a trial call through (default: 30 sec)
+ *   <li>max_concurrent_calls:      maximum number of concurrent calls to one target or 0 for unlimited (default: 0)
+ *   <li>max_queue_time:            maximum time in milliseconds to wait for a free call slot (default: 0)
+ *   <li>adaptive_timeout:          enables timeouts calculated from observed latencies (default: false)
+ *   <li>min_timeout:               minimum adaptive timeout in milliseconds (default: 1 sec)
+ *   <li>hedge_delay:               delay in milliseconds before a hedged attempt of idempotent call or 0 to disable (default: 0)
+ *   </ul>
+ * </ul>
+ * <p>
+ * ### Counters ###
+ * <ul>
+ * <li>&lt;target&gt;.circuit_state:     current circuit state: 0 - closed, 1 - open, 2 - half open
+ * <li>&lt;target&gt;.circuit_rejected:  number of calls rejected by open circuit
+ * <li>&lt;target&gt;.bulkhead_rejected: number of calls rejected by bulkhead
+ * <li>&lt;target&gt;.hedged_calls:      number of sent hedged attempts
+ * </ul>
+ * <p>
+ * ### Example ###
+ * <pre>
+ * {@code
+ * ResiliencePolicy resilience = new ResiliencePolicy(counters);
+ * resilience.configure(ConfigParams.fromTuples(
+ *     "options.circuit_breaker", true,
+ *     "options.max_concurrent_calls", 50
+ * ));
+ *
+ * MyData data = resilience.execute("localhost:8080", () -> callRemoteService());
+ * }
+ * </pre>
+ */
+public class ResiliencePolicy implements IConfigurable {
+    // Minimum number of latency samples before the adaptive timeout is used
+    private static final int MIN_LATENCY_SAMPLES = 5;
+    // Maximum multiplier of the adaptive timeout after consecutive timeouts
+    private static final int MAX_TIMEOUT_BACKOFF = 64;
+
+    /**
+     * States of the circuit breaker.
+     */
+    public enum CircuitState {
+        /**
+         * Calls are passed through.
+         */
+        CLOSED,
+        /**
+         * Calls are rejected.
+         */
+        OPEN,
+        /**
+         * A single trial call is passed through to check if the target has recovered.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * A protected call.
+     *
+     * @param <T> the call result type.
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        /**
+         * Executes the call.
+         *
+         * @return the call result.
+         * @throws ApplicationException when error occured.
+         */
+        T call() throws ApplicationException;
+    }
+
+    private final CompositeCounters _counters;
+    private final Map<String, Target> _targets = new ConcurrentHashMap<>();
+    private Predicate<Throwable> _failureFilter = ResiliencePolicy::isServerFailure;
+
+    private boolean _circuitBreaker = false;
+    private int _failureThreshold = 5;
+    private long _resetTimeout = 30000;
+    private int _maxConcurrentCalls = 0;
+    private long _maxQueueTime = 0;
+    private boolean _adaptiveTimeout = false;
+    private long _minTimeout = 1000;
+    private long _hedgeDelay = 0;
+
+    /**
+     * Creates a new instance of the policy.
+     */
+    public ResiliencePolicy() {
+        this(new CompositeCounters());
+    }
+
+    /**
+     * Creates a new instance of the policy.
+     *
+     * @param counters the counters to report circuit state, rejected and hedged calls.
+     */
+    public ResiliencePolicy(CompositeCounters counters) {
+        _counters = counters;
+    }
+
+    /**
+     * Configures component by passing configuration parameters.
+     *
+     * @param config configuration parameters to be set.
+     */
+    @Override
+    public void configure(ConfigParams config) {
+        _circuitBreaker = config.getAsBooleanWithDefault("options.circuit_breaker", _circuitBreaker);
+        _failureThreshold = config.getAsIntegerWithDefault("options.circuit_failure_threshold", _failureThreshold);
+        _resetTimeout = config.getAsLongWithDefault("options.circuit_reset_timeout", _resetTimeout);
+        _maxConcurrentCalls = config.getAsIntegerWithDefault("options.max_concurrent_calls", _maxConcurrentCalls);
+        _maxQueueTime = config.getAsLongWithDefault("options.max_queue_time", _maxQueueTime);
+        _adaptiveTimeout = config.getAsBooleanWithDefault("options.adaptive_timeout", _adaptiveTimeout);
+        _minTimeout = config.getAsLongWithDefault("options.min_timeout", _minTimeout);
+        _hedgeDelay = config.getAsLongWithDefault("options.hedge_delay", _hedgeDelay);
+
+        // Bulkhead sizes may have changed
+        _targets.clear();
+    }
+
+    /**
+     * Sets a filter that decides which call errors are counted as failures by the circuit breaker.
+     * By default, errors with status 500 and above and all non-application errors are failures.
+     *
+     * @param filter the filter that returns <code>true</code> for failures.
+     */
+    public void setFailureFilter(Predicate<Throwable> filter) {
+        _failureFilter = filter != null ? filter : ResiliencePolicy::isServerFailure;
+    }
+
+    /**
+     * Checks if any of the protections is enabled.
+     *
+     * @return <code>true</code> if calls are protected and <code>false</code> if they are passed as is.
+     */
+    public boolean isEnabled() {
+        return _circuitBreaker || _maxConcurrentCalls > 0 || _adaptiveTimeout || _hedgeDelay > 0;
+    }
+
+    /**
+     * Checks if idempotent calls are hedged.
+     *
+     * @return <code>true</code> if hedging is enabled.
+     */
+    public boolean isHedging() {
+        return _hedgeDelay > 0;
+    }
+
+    /**
+     * Gets the current circuit state of a target.
+     *
+     * @param target the call target.
+     * @return the circuit state.
+     */
+    public CircuitState getCircuitState(String target) {
+        var state = _targets.get(target);
+        return state != null ? state.getState() : CircuitState.CLOSED;
+    }
+
+    /**
+     * Gets timeout for the next call to a target. When adaptive timeout is enabled
+     * it is calculated from observed latencies and limited by the minimum timeout and default timeout.
+     *
+     * @param target         the call target.
+     * @param defaultTimeout the configured timeout in milliseconds.
+     * @return the call timeout in milliseconds.
+     */
+    public long getTimeout(String target, long defaultTimeout) {
+        if (!_adaptiveTimeout)
+            return defaultTimeout;
+
+        var state = _targets.get(target);
+        long timeout = state != null ? state.getLatencyTimeout(_minTimeout) : -1;
+        if (timeout < 0)
+            return defaultTimeout;
+        return Math.min(defaultTimeout, timeout);
+    }
+
+    /**
+     * Executes a call to a target under protection of circuit breaker and bulkhead.
+     * When bulkhead is full the calling thread waits up to "max_queue_time" for a free slot.
+     *
+     * @param target the call target.
+     * @param call   the call to execute.
+     * @return the call result.
+     * @throws ApplicationException when the call is rejected or fails.
+     */
+    public <T> T execute(String target, Call<T> call) throws ApplicationException {
+        if (!isEnabled())
+            return call.call();
+
+        var state = _targets.computeIfAbsent(target, Target::new);
+        if (state.maxCalls > 0 && !state.acquireSlot(_maxQueueTime))
+            throw rejectByBulkhead(state);
+        enter(state);
+
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return call.call();
+        } catch (Throwable ex) {
+            error = ex;
+            throw ex;
+        } finally {
+            leave(state, start, error);
+        }
+    }
+
+    /**
+     * Executes an asynchronous call to a target under protection of circuit breaker and bulkhead.
+     * When bulkhead is full the call waits up to "max_queue_time" for a free slot without blocking the calling thread.
+     *
+     * @param target the call target.
+     * @param call   the supplier that starts the call.
+     * @return a future that completes with the call result or error.
+     */
+    public <T> CompletableFuture<T> executeAsync(String target, Supplier<CompletableFuture<T>> call) {
+        if (!isEnabled())
+            return call.get();
+
+        var state = _targets.computeIfAbsent(target, Target::new);
+        var slot = state.maxCalls > 0
+                ? state.acquireSlotAsync(_maxQueueTime)
+                : CompletableFuture.completedFuture(true);
+
+        return slot.thenCompose((acquired) -> {
+            try {
+                if (!acquired)
+                    throw rejectByBulkhead(state);
+                enter(state);
+            } catch (ConnectionException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+
+            long start = System.nanoTime();
+            CompletableFuture<T> result;
+            try {
+                result = call.get();
+            } catch (Throwable ex) {
+                leave(state, start, ex);
+                return CompletableFuture.failedFuture(ex);
+            }
+            return result.whenComplete((value, err) -> leave(state, start, err));
+        });
+    }
+
+    /**
+     * Hedges an idempotent asynchronous call. If the call doesn't complete within the hedge delay,
+     * the second attempt is started and the first successful result is returned.
+     * The call fails only when all started attempts fail.
+     * <p>
+     * Hedging doesn't protect the attempts itself, so the supplier should execute them
+     * through {@link #executeAsync}, for instance inside a retry loop.
+     * When hedging is disabled the call is started once and returned as is.
+     *
+     * @param target  the call target.
+     * @param call    the supplier that starts an attempt of the call.
+     * @param discard (optional) a consumer that releases the result of the slower attempt.
+     * @return a future that completes with the first successful result or the last error.
+     */
+    public <T> CompletableFuture<T> hedgeAsync(String target, Supplier<CompletableFuture<T>> call,
+                                               Consumer<T> discard) {
+        if (_hedgeDelay <= 0)
+            return call.get();
+
+        var result = new CompletableFuture<T>();
+        var pending = new AtomicInteger(1);
+        Consumer<Supplier<CompletableFuture<T>>> start = (attempt) -> {
+            CompletableFuture<T> future;
+            try {
+                future = attempt.get();
+            } catch (Throwable ex) {
+                future = CompletableFuture.failedFuture(ex);
+            }
+            future.whenComplete((value, err) -> {
+                if (err == null) {
+                    if (!result.complete(value) && discard != null && value != null)
+                        discard.accept(value);
+                } else if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(err);
+                }
+            });
+        };
+
+        start.accept(call);
+
+        CompletableFuture.runAsync(() -> {
+            // Skip when the first attempt has already completed
+            if (result.isDone() || pending.getAndUpdate((count) -> count == 0 ? 0 : count + 1) == 0)
+                return;
+            if (!_counters.isEmpty())
+                _counters.incrementOne(target + ".hedged_calls");
+            start.accept(call);
+        }, CompletableFuture.delayedExecutor(_hedgeDelay, TimeUnit.MILLISECONDS));
+
+        return result;
+    }
+
+    private ConnectionException rejectByBulkhead(Target state) {
+        if (!_counters.isEmpty())
+            _counters.incrementOne(state.name + ".bulkhead_rejected");
+        return new ConnectionException(null, "BULKHEAD_FULL",
+                "Too many concurrent calls to " + state.name);
+    }
+
+    private void enter(Target state) throws ConnectionException {
+        if (_circuitBreaker && !state.tryPass()) {
+            if (state.maxCalls > 0)
+                state.releaseSlot();
+            if (!_counters.isEmpty())
+                _counters.incrementOne(state.name + ".circuit_rejected");
+            throw new ConnectionException(null, "CIRCUIT_OPEN",
+                    "Circuit breaker to " + state.name + " is open");
+        }
+    }
+
+    private void leave(Target state, long start, Throwable error) {
+        if (state.maxCalls > 0)
+            state.releaseSlot();
+
+        boolean failed = error != null && _failureFilter.test(unwrap(error));
+        if (_adaptiveTimeout) {
+            double latency = (System.nanoTime() - start) / 1000000.0;
+            if (!failed)
+                state.recordLatency(latency);
+            else
+                state.recordFailure(latency, _minTimeout);
+        }
+
+        if (_circuitBreaker) {
+            var newState = state.recordOutcome(failed);
+            if (newState != null && !_counters.isEmpty())
+                _counters.last(state.name + ".circuit_state", newState.ordinal());
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null)
+            error = error.getCause();
+        return error;
+    }
+
+    private static boolean isServerFailure(Throwable error) {
+        return !(error instanceof ApplicationException appError) || appError.getStatus() >= 500;
+    }
+
+    /**
+     * State of a single call target.
+     */
+    private class Target {
+        final String name;
+        final int maxCalls;
+
+        private int _activeCalls;
+        // Asynchronous calls waiting for a free slot
+        private final Queue<CompletableFuture<Boolean>> _waiters = new ArrayDeque<>();
+
+        private CircuitState _state = CircuitState.CLOSED;
+        private int _failures;
+        private long _openedAt;
+        private boolean _trialStarted;
+
+        private double _srtt;
+        private double _rttvar;
+        private int _samples;
+        private int _backoff = 1;
+
+        Target(String name) {
+            this.name = name;
+            maxCalls = _maxConcurrentCalls;
+        }
+
+        /**
+         * Takes a call slot, waiting for it up to the given timeout.
+         */
+        synchronized boolean acquireSlot(long timeout) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            while (_activeCalls >= maxCalls) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                    return false;
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            _activeCalls++;
+            return true;
+        }
+
+        /**
+         * Takes a call slot without blocking. When all slots are taken the returned future
+         * completes with <code>true</code> as soon as a slot is handed over by a finished call,
+         * or with <code>false</code> after the timeout.
+         */
+        CompletableFuture<Boolean> acquireSlotAsync(long timeout) {
+            var waiter = new CompletableFuture<Boolean>();
+            synchronized (this) {
+                if (_activeCalls < maxCalls) {
+                    _activeCalls++;
+                    return CompletableFuture.completedFuture(true);
+                }
+                if (timeout <= 0)
+                    return CompletableFuture.completedFuture(false);
+                _waiters.add(waiter);
+            }
+
+            waiter.completeOnTimeout(false, timeout, TimeUnit.MILLISECONDS);
+            waiter.thenAccept((acquired) -> {
+                if (!acquired) {
+                    synchronized (this) {
+                        _waiters.remove(waiter);
+                    }
+                }
+            });
+            return waiter;
+        }
+
+        /**
+         * Releases a call slot. The slot is handed over to the first waiting asynchronous call, if any.
+         */
+        void releaseSlot() {
+            while (true) {
+                CompletableFuture<Boolean> waiter;
+                synchronized (this) {
+                    waiter = _waiters.poll();
+                    if (waiter == null) {
+                        _activeCalls--;
+                        notify();
+                        return;
+                    }
+                }
+                // The waiter is completed outside the lock, because it starts the call.
+                // If it has just timed out, the slot goes to the next one.
+                if (waiter.complete(true))
+                    return;
+            }
+        }
+
+        synchronized CircuitState getState() {
+            return _state;
+        }
+
+        synchronized boolean tryPass() {
+            if (_state == CircuitState.CLOSED)
+                return true;
+
+            if (_state == CircuitState.OPEN) {
+                if (System.currentTimeMillis() - _openedAt < _resetTimeout)
+                    return false;
+                _state = CircuitState.HALF_OPEN;
+                _trialStarted = false;
+            }
+
+            // Let only one trial call through
+            if (_trialStarted)
+                return false;
+            _trialStarted = true;
+            return true;
+        }
+
+        /**
+         * Records the call outcome.
+         *
+         * @return the new circuit state or null if it didn't change.
+         */
+        synchronized CircuitState recordOutcome(boolean failed) {
+            var oldState = _state;
+            if (!failed) {
+                _failures = 0;
+                _state = CircuitState.CLOSED;
+            } else if (_state == CircuitState.HALF_OPEN || ++_failures >= _failureThreshold) {
+                _state = CircuitState.OPEN;
+                _openedAt = System.currentTimeMillis();
+            }
+            return _state != oldState ? _state : null;
+        }
+
+        synchronized void recordLatency(double latency) {
+            _backoff = 1;
+            if (_samples++ == 0) {
+                _srtt = latency;
+                _rttvar = latency / 2;
+            } else {
+                _rttvar = 0.75 * _rttvar + 0.25 * Math.abs(_srtt - latency);
+                _srtt = 0.875 * _srtt + 0.125 * latency;
+            }
+        }
+
+        /**
+         * Backs off the adaptive timeout when a failed call ran out of it. Latency of such a call
+         * is not a valid sample, because the call was cut off before it could complete.
+         */
+        synchronized void recordFailure(double latency, long minTimeout) {
+            if (_samples < MIN_LATENCY_SAMPLES)
+                return;
+            if (latency >= getLatencyTimeout(minTimeout) && _backoff < MAX_TIMEOUT_BACKOFF)
+                _backoff *= 2;
+        }
+
+        synchronized long getLatencyTimeout(long minTimeout) {
+            if (_samples < MIN_LATENCY_SAMPLES)
+                return -1;
+            return Math.max(minTimeout, (long) Math.ceil(_srtt + 4 * _rttvar)) * _backoff;
+        }
+    }
+}
@@ -1,18 +1,37 @@
 package org.pipservices4.rpc.trace;
 
 import org.pipservices4.components.context.IContext;
+import org.pipservices4.observability.count.CompositeCounters;
 import org.pipservices4.observability.count.CounterTiming;
+import org.pipservices4.observability.count.ICounterTimingCallback;
 import org.pipservices4.observability.count.ICounters;
+import org.pipservices4.observability.count.NullCounters;
 import org.pipservices4.observability.log.ILogger;
+import org.pipservices4.observability.trace.CompositeTracer;
+import org.pipservices4.observability.trace.ITracer;
+import org.pipservices4.observability.trace.NullTracer;
 import org.pipservices4.observability.trace.TraceTiming;
 
+/**
+ * Timing object that measures execution of an instrumented operation
+ * and records it into counters, tracer and logger.
+ * <p>
+ * When it is created with counters and tracer it measures time by a single
+ * {@link System#nanoTime()} start token, without allocating {@link CounterTiming}
+ * and {@link TraceTiming} objects. Counters and tracers that have nowhere
+ * to send measurements (null or empty composites) are skipped entirely.
+ * Custom counters that don't implement {@link ICounterTimingCallback}
+ * are measured through {@link ICounters#beginTiming}.
+ */
 public class InstrumentTiming {
 
     private final IContext _context;
     private final String _name;
     private final String _verb;
+    private final long _start;
     private ILogger _logger;
     private ICounters _counters;
+    private ITracer _tracer;
     private CounterTiming _counterTiming;
     private TraceTiming _traceTiming;
 
@@ -26,16 +45,90 @@ public class InstrumentTiming {
         this._counters = counters;
         this._counterTiming = counterTiming;
         this._traceTiming = traceTiming;
+        this._start = System.nanoTime();
+    }
+
+    /**
+     * Creates a new instance of the timing object and starts time measurement.
+     *
+     * @param context  (optional) a context to trace execution through call chain.
+     * @param name     a name of the instrumented operation.
+     * @param verb     a verb to compose counter names, e.g. "call" or "exec".
+     * @param logger   a logger to log errors.
+     * @param counters counters to record "name.verb_time" and "name.verb_errors" counters.
+     * @param tracer   a tracer to record the operation trace.
+     */
+    public InstrumentTiming(IContext context, String name, String verb,
+                            ILogger logger, ICounters counters, ITracer tracer) {
+        this._context = context;
+        this._name = name;
+        this._verb = verb != null ? verb : "call";
+        this._logger = logger;
+        this._counters = isEnabled(counters) ? counters : null;
+        this._tracer = isEnabled(tracer) ? tracer : null;
+
+        // Counters that can't take elapsed time directly are measured by their own timing
+        if (this._counters != null && !(this._counters instanceof ICounterTimingCallback))
+            this._counterTiming = this._counters.beginTiming(this._name + "." + this._verb + "_time");
+
+        this._start = System.nanoTime();
+    }
+
+    /**
+     * Checks if the counters have destinations to record measurements.
+     *
+     * @param counters counters to check.
+     * @return true if measurements shall be recorded and false otherwise.
+     */
+    public static boolean isEnabled(ICounters counters) {
+        if (counters == null || counters instanceof NullCounters)
+            return false;
+        return !(counters instanceof CompositeCounters composite) || !composite.isEmpty();
+    }
+
+    /**
+     * Checks if the tracer has destinations to record traces.
+     *
+     * @param tracer a tracer to check.
+     * @return true if traces shall be recorded and false otherwise.
+     */
+    public static boolean isEnabled(ITracer tracer) {
+        if (tracer == null || tracer instanceof NullTracer)
+            return false;
+        return !(tracer instanceof CompositeTracer composite) || !composite.isEmpty();
     }
 
     private void clear() {
         // Clear references to avoid double processing
         this._counters = null;
+        this._tracer = null;
         this._logger = null;
         this._counterTiming = null;
         this._traceTiming = null;
     }
 
+    private void endCounterTiming(long elapsed) {
+        if (this._counterTiming != null) {
+            this._counterTiming.endTiming();
+        } else if (this._counters instanceof ICounterTimingCallback callback) {
+            callback.endTiming(this._name + "." + this._verb + "_time", elapsed / 1000000f);
+        }
+    }
+
+    private void endTrace(long elapsed, Exception err) {
+        if (this._traceTiming != null) {
+            if (err != null)
+                this._traceTiming.endFailure(err);
+            else
+                this._traceTiming.endTrace();
+        } else if (this._tracer != null) {
+            if (err != null)
+                this._tracer.failure(this._context, this._name, null, err, elapsed / 1000000);
+            else
+                this._tracer.trace(this._context, this._name, null, elapsed / 1000000);
+        }
+    }
+
     public void endTiming(Exception err) {
         if (err == null) {
             this.endSuccess();
@@ -49,20 +142,18 @@ public class InstrumentTiming {
     }
 
     public void endSuccess() {
-        if (this._counterTiming != null) {
-            this._counterTiming.endTiming();
-        }
-        if (this._traceTiming != null) {
-            this._traceTiming.endTrace();
-        }
+        long elapsed = System.nanoTime() - this._start;
+
+        this.endCounterTiming(elapsed);
+        this.endTrace(elapsed, null);
 
         this.clear();
     }
 
     public void endFailure(Exception err) {
-        if (this._counterTiming != null) {
-            this._counterTiming.endTiming();
-        }
+        long elapsed = System.nanoTime() - this._start;
+
+        this.endCounterTiming(elapsed);
 
         if (err != null) {
             if (this._logger != null) {
@@ -71,15 +162,10 @@ public class InstrumentTiming {
             if (this._counters != null) {
                 this._counters.incrementOne(this._name + "." + this._verb + "_errors");
             }
-            if (this._traceTiming != null) {
-                this._traceTiming.endFailure(err);
-            }
-        } else {
-            if (this._traceTiming != null) {
-                this._traceTiming.endTrace();
-            }
         }
 
+        this.endTrace(elapsed, err);
+
         this.clear();
     }
 }
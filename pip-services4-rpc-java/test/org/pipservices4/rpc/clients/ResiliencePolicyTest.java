@@ -0,0 +1,293 @@
+package org.pipservices4.rpc.clients;
+
+import org.junit.*;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.commons.errors.BadRequestException;
+import org.pipservices4.commons.errors.ConnectionException;
+import org.pipservices4.commons.errors.InvocationException;
+import org.pipservices4.components.config.ConfigParams;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.ReferenceException;
+import org.pipservices4.components.refer.References;
+import org.pipservices4.observability.count.CompositeCounters;
+import org.pipservices4.observability.count.CounterType;
+import org.pipservices4.observability.count.LogCounters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ResiliencePolicyTest {
+    private static final String TARGET = "localhost:3000";
+
+    private LogCounters _counters;
+    private ResiliencePolicy _policy;
+
+    @Before
+    public void setUp() throws ReferenceException {
+        _counters = new LogCounters();
+        var counters = new CompositeCounters();
+        counters.setReferences(References.fromTuples(
+                new Descriptor("pip-services", "counters", "log", "default", "1.0"), _counters
+        ));
+        _policy = new ResiliencePolicy(counters);
+    }
+
+    private Object fail() throws ApplicationException {
+        throw new InvocationException(null, "CALL_FAILED", "Call failed");
+    }
+
+    @Test
+    public void testDisabledPolicy() throws ApplicationException {
+        assertFalse(_policy.isEnabled());
+        assertEquals("OK", _policy.execute(TARGET, () -> "OK"));
+        assertEquals(5000, _policy.getTimeout(TARGET, 5000));
+
+        for (int index = 0; index < 10; index++)
+            assertThrows(InvocationException.class, () -> _policy.execute(TARGET, this::fail));
+        assertEquals(ResiliencePolicy.CircuitState.CLOSED, _policy.getCircuitState(TARGET));
+    }
+
+    @Test
+    public void testCircuitBreaker() throws Exception {
+        _policy.configure(ConfigParams.fromTuples(
+                "options.circuit_breaker", true,
+                "options.circuit_failure_threshold", 3,
+                "options.circuit_reset_timeout", 100
+        ));
+
+        // Client errors don't open the circuit
+        for (int index = 0; index < 5; index++) {
+            assertThrows(BadRequestException.class, () -> _policy.execute(TARGET, () -> {
+                throw new BadRequestException(null, "BAD_REQUEST", "Bad request");
+            }));
+        }
+        assertEquals(ResiliencePolicy.CircuitState.CLOSED, _policy.getCircuitState(TARGET));
+
+        for (int index = 0; index < 3; index++)
+            assertThrows(InvocationException.class, () -> _policy.execute(TARGET, this::fail));
+        assertEquals(ResiliencePolicy.CircuitState.OPEN, _policy.getCircuitState(TARGET));
+        assertEquals(1, _counters.get(TARGET + ".circuit_state", CounterType.LastValue).getLast(), 0);
+
+        var calls = new AtomicInteger();
+        var error = assertThrows(ConnectionException.class,
+                () -> _policy.execute(TARGET, calls::incrementAndGet));
+        assertEquals("CIRCUIT_OPEN", error.getCode());
+        assertEquals(0, calls.get());
+        assertEquals(1, (int) _counters.get(TARGET + ".circuit_rejected", CounterType.Increment).getCount());
+
+        // Other targets are not affected
+        assertEquals("OK", _policy.execute("localhost:3001", () -> "OK"));
+
+        // Failed trial call opens the circuit again
+        Thread.sleep(150);
+        assertThrows(InvocationException.class, () -> _policy.execute(TARGET, this::fail));
+        assertEquals(ResiliencePolicy.CircuitState.OPEN, _policy.getCircuitState(TARGET));
+
+        // Successful trial call closes it
+        Thread.sleep(150);
+        assertEquals(1, (int) _policy.execute(TARGET, calls::incrementAndGet));
+        assertEquals(ResiliencePolicy.CircuitState.CLOSED, _policy.getCircuitState(TARGET));
+        assertEquals(0, _counters.get(TARGET + ".circuit_state", CounterType.LastValue).getLast(), 0);
+    }
+
+    @Test
+    public void testBulkhead() throws Exception {
+        _policy.configure(ConfigParams.fromTuples(
+                "options.max_concurrent_calls", 2
+        ));
+
+        var release = new CompletableFuture<String>();
+        var first = _policy.executeAsync(TARGET, () -> release);
+        var second = _policy.executeAsync(TARGET, () -> release);
+
+        var rejected = _policy.executeAsync(TARGET, () -> CompletableFuture.completedFuture("OK"));
+        var error = assertThrows(ExecutionException.class, rejected::get);
+        assertTrue(error.getCause() instanceof ConnectionException);
+        assertEquals("BULKHEAD_FULL", ((ConnectionException) error.getCause()).getCode());
+        assertEquals(1, (int) _counters.get(TARGET + ".bulkhead_rejected", CounterType.Increment).getCount());
+
+        // Slots are released when calls complete
+        release.complete("OK");
+        assertEquals("OK", first.get());
+        assertEquals("OK", second.get());
+        assertEquals("OK", _policy.execute(TARGET, () -> "OK"));
+    }
+
+    @Test
+    public void testBulkheadQueue() throws Exception {
+        _policy.configure(ConfigParams.fromTuples(
+                "options.max_concurrent_calls", 1,
+                "options.max_queue_time", 1000
+        ));
+
+        var release = new CompletableFuture<String>();
+        _policy.executeAsync(TARGET, () -> release);
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(() -> release.complete("OK"));
+
+        // Waits for the first call to complete
+        assertEquals("OK", _policy.execute(TARGET, () -> "OK"));
+    }
+
+    @Test
+    public void testBulkheadQueueAsync() throws Exception {
+        _policy.configure(ConfigParams.fromTuples(
+                "options.max_concurrent_calls", 1,
+                "options.max_queue_time", 200
+        ));
+
+        var release = new CompletableFuture<String>();
+        var first = _policy.executeAsync(TARGET, () -> release);
+
+        // Queued calls don't block the calling thread
+        var started = new AtomicInteger();
+        long start = System.currentTimeMillis();
+        var second = _policy.executeAsync(TARGET, () -> {
+            started.incrementAndGet();
+            return CompletableFuture.completedFuture("OK");
+        });
+        var third = _policy.executeAsync(TARGET, () -> {
+            started.incrementAndGet();
+            return CompletableFuture.completedFuture("OK");
+        });
+        assertTrue(System.currentTimeMillis() - start < 100);
+        assertFalse(second.isDone());
+        assertEquals(0, started.get());
+
+        // The released slot is handed over to the first queued call
+        release.complete("OK");
+        assertEquals("OK", first.get());
+        assertEquals("OK", second.get(5, TimeUnit.SECONDS));
+        assertEquals("OK", third.get(5, TimeUnit.SECONDS));
+        assertEquals(2, started.get());
+
+        // Calls are rejected when no slot is freed in time
+        var hanging = new CompletableFuture<String>();
+        _policy.executeAsync(TARGET, () -> hanging);
+        var rejected = _policy.executeAsync(TARGET, () -> CompletableFuture.completedFuture("OK"));
+        var error = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof ConnectionException);
+        assertEquals("BULKHEAD_FULL", ((ConnectionException) error.getCause()).getCode());
+
+        hanging.complete("OK");
+        assertEquals("OK", _policy.execute(TARGET, () -> "OK"));
+    }
+
+    @Test
+    public void testAdaptiveTimeout() throws ApplicationException {
+        _policy.configure(ConfigParams.fromTuples(
+                "options.adaptive_timeout", true,
+                "options.min_timeout", 10
+        ));
+
+        // Default timeout is used until enough latencies are observed
+        assertEquals(5000, _policy.getTimeout(TARGET, 5000));
+
+        for (int index = 0; index < 10; index++)
+            _policy.execute(TARGET, () -> "OK");
+        assertEquals(10, _policy.getTimeout(TARGET, 5000));
+
+        for (int index = 0; index < 10; index++) {
+            _policy.execute(TARGET, () -> {
+                try {
+                    Thread.sleep(30);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return "OK";
+            });
+        }
+        var timeout = _policy.getTimeout(TARGET, 5000);
+        assertTrue(timeout > 20 && timeout < 5000);
+        assertEquals(60, _policy.getTimeout(TARGET, 60));
+    }
+
+    @Test
+    public void testAdaptiveTimeoutBackoff() throws ApplicationException {
+        _policy.configure(ConfigParams.fromTuples(
+                "options.adaptive_timeout", true,
+                "options.min_timeout", 10
+        ));
+
+        for (int index = 0; index < 10; index++)
+            _policy.execute(TARGET, () -> "OK");
+        assertEquals(10, _policy.getTimeout(TARGET, 5000));
+
+        // Latency steps up above the estimate, so calls are cut off by the timeout
+        // until it backs off far enough for a call to complete
+        long latency = 50;
+        var timeouts = new ArrayList<Long>();
+        boolean completed = false;
+        while (!completed && timeouts.size() < 10) {
+            long timeout = _policy.getTimeout(TARGET, 5000);
+            timeouts.add(timeout);
+            try {
+                _policy.execute(TARGET, () -> {
+                    try {
+                        Thread.sleep(Math.min(latency, timeout));
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (latency > timeout)
+                        throw new ConnectionException(null, "TIMEOUT", "Call timed out");
+                    return "OK";
+                });
+                completed = true;
+            } catch (ConnectionException ex) {
+                assertEquals("TIMEOUT", ex.getCode());
+            }
+        }
+
+        assertTrue(completed);
+        assertEquals(List.of(10L, 20L, 40L, 80L), timeouts);
+
+        // A completed call resets the backoff and its latency raises the estimate
+        var timeout = _policy.getTimeout(TARGET, 5000);
+        assertTrue(timeout >= latency && timeout < 80);
+
+        // Failures that don't run out of the timeout don't back off
+        assertThrows(InvocationException.class, () -> _policy.execute(TARGET, this::fail));
+        assertEquals(timeout, _policy.getTimeout(TARGET, 5000));
+    }
+
+    @Test
+    public void testHedging() throws Exception {
+        _policy.configure(ConfigParams.fromTuples(
+                "options.hedge_delay", 50
+        ));
+
+        var attempts = new AtomicInteger();
+        var slow = new CompletableFuture<String>();
+        var discarded = new ArrayList<String>();
+
+        // The first attempt hangs and the hedged one completes at once
+        var result = _policy.hedgeAsync(TARGET, () -> attempts.incrementAndGet() == 1
+                ? slow : CompletableFuture.completedFuture("fast"), discarded::add);
+        assertEquals("fast", result.get(5, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+        assertEquals(1, (int) _counters.get(TARGET + ".hedged_calls", CounterType.Increment).getCount());
+
+        slow.complete("slow");
+        assertEquals("slow", discarded.get(0));
+
+        // Fast calls are not hedged
+        attempts.set(0);
+        var fast = _policy.hedgeAsync(TARGET, () -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.completedFuture("OK");
+        }, null);
+        assertEquals("OK", fast.get());
+        Thread.sleep(100);
+        assertEquals(1, attempts.get());
+
+        // The call fails only when all attempts fail
+        var failed = _policy.hedgeAsync(TARGET, () -> CompletableFuture.supplyAsync(() -> {
+            throw new IllegalStateException("Failed");
+        }, CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS)), null);
+        var error = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof IllegalStateException);
+    }
+}
@@ -0,0 +1,97 @@
+package org.pipservices4.rpc.trace;
+
+import org.junit.Test;
+import org.pipservices4.commons.errors.ApplicationException;
+import org.pipservices4.components.refer.Descriptor;
+import org.pipservices4.components.refer.References;
+import org.pipservices4.observability.count.CompositeCounters;
+import org.pipservices4.observability.count.CounterTiming;
+import org.pipservices4.observability.count.CounterType;
+import org.pipservices4.observability.count.ICounters;
+import org.pipservices4.observability.count.LogCounters;
+import org.pipservices4.observability.count.NullCounters;
+import org.pipservices4.observability.log.NullLogger;
+import org.pipservices4.observability.trace.CompositeTracer;
+import org.pipservices4.observability.trace.NullTracer;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class InstrumentTimingTest {
+
+    @Test
+    public void testRecordTiming() throws ApplicationException {
+        var counters = new LogCounters();
+        var references = References.fromTuples(
+                new Descriptor("pip-services", "counters", "log", "default", "1.0"), counters
+        );
+        var compositeCounters = new CompositeCounters();
+        compositeCounters.setReferences(references);
+
+        var timing = new InstrumentTiming(null, "mycomponent.mymethod", "exec",
+                new NullLogger(), compositeCounters, new CompositeTracer());
+        timing.endFailure(new Exception("Test error"));
+
+        var counter = counters.get("mycomponent.mymethod.exec_time", CounterType.Interval);
+        assertEquals(1, (int) counter.getCount());
+        assertTrue(counter.getLast() >= 0);
+
+        counter = counters.get("mycomponent.mymethod.exec_errors", CounterType.Increment);
+        assertEquals(1, (int) counter.getCount());
+    }
+
+    @Test
+    public void testDisabledSinks() {
+        assertFalse(InstrumentTiming.isEnabled(new CompositeCounters()));
+        assertFalse(InstrumentTiming.isEnabled(new NullCounters()));
+        assertFalse(InstrumentTiming.isEnabled(new CompositeTracer()));
+        assertFalse(InstrumentTiming.isEnabled(new NullTracer()));
+        assertTrue(InstrumentTiming.isEnabled(new LogCounters()));
+    }
+
+    @Test
+    public void testCustomCounters() {
+        var timings = new ArrayList<String>();
+        var counters = new ICounters() {
+            @Override
+            public CounterTiming beginTiming(String name) {
+                timings.add(name);
+                return new CounterTiming();
+            }
+
+            @Override
+            public void stats(String name, float value) {
+            }
+
+            @Override
+            public void last(String name, float value) {
+            }
+
+            @Override
+            public void timestampNow(String name) {
+            }
+
+            @Override
+            public void timestamp(String name, ZonedDateTime value) {
+            }
+
+            @Override
+            public void incrementOne(String name) {
+            }
+
+            @Override
+            public void increment(String name, int value) {
+            }
+        };
+
+        // Counters without timing callback measure time by their own timing
+        var timing = new InstrumentTiming(null, "mycomponent.mymethod", "exec",
+                new NullLogger(), counters, new NullTracer());
+        timing.endSuccess();
+
+        assertEquals(List.of("mycomponent.mymethod.exec_time"), timings);
+    }
+}